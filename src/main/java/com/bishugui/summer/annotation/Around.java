@@ -0,0 +1,22 @@
+package com.bishugui.summer.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @author bi shugui
+ * @description 环绕拦截 注解，作用于类或方法：标注在类上时拦截除Object的方法外所有可代理的方法，标注在方法上时只拦截该方法;
+ * Bean最终发布为代理，只有被拦截的方法经过拦截器链，其他方法直接调用原Bean。
+ * 有非private无参构造方法的非final类生成子类代理，创建代理时原类的无参构造方法会在代理实例上再执行一次，不应有副作用;
+ * final类及只有带参构造方法的类(如构造方法注入的Bean)生成接口代理，只能拦截接口中声明的方法，Bean需要按接口声明(如@Bean方法返回接口)
+ * @date 2024/01/03 10:05
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Around {
+
+    /**
+     * 拦截器(MethodInterceptor)的Bean名称，类上的拦截器在前，按顺序组成拦截器链
+     */
+    String[] value();
+}
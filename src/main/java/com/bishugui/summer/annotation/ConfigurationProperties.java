@@ -0,0 +1,27 @@
+package com.bishugui.summer.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @author bi shugui
+ * @description 配置属性 注解，标注的record/POJO作为Bean时，由前缀下的属性一次性绑定创建，不使用构造方法注入;
+ * 前缀不作为Bean名称，Bean名称按类名生成，如DataSourceProperties => dataSourceProperties
+ * @date 2023/12/28 21:30
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Component
+public @interface ConfigurationProperties {
+    /**
+     * 属性前缀，prefix的别名
+     * @return String
+     */
+    String value() default "";
+
+    /**
+     * 属性前缀，如summer.datasource
+     * @return String
+     */
+    String prefix() default "";
+}
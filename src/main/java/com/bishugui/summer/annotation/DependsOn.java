@@ -0,0 +1,19 @@
+package com.bishugui.summer.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @author bi shugui
+ * @description 依赖 注解，作用于类或@Bean方法，指定的Bean会先于当前Bean创建(即使没有通过参数注入)
+ * @date 2023/12/24 10:15
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DependsOn {
+
+    /**
+     * 依赖的Bean名称
+     */
+    String[] value();
+}
@@ -0,0 +1,19 @@
+package com.bishugui.summer.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @author bi shugui
+ * @description 延迟初始化 注解，作用于类或@Bean方法，singleton在第一次获取时才创建
+ * @date 2023/12/23 14:10
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Lazy {
+
+    /**
+     * 是否延迟初始化
+     */
+    boolean value() default true;
+}
@@ -0,0 +1,20 @@
+package com.bishugui.summer.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @author bi shugui
+ * @description 作用域 注解，作用于类或@Bean方法，默认singleton
+ * 内置：singleton、prototype、thread、request，其他作用域通过AnnotationConfigApplicationContext.registerScope注册
+ * @date 2023/12/17 15:02
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Scope {
+    /**
+     * 作用域名称
+     * @return String
+     */
+    String value();
+}
@@ -0,0 +1,53 @@
+package com.bishugui.summer.aop;
+
+import com.bishugui.summer.exception.BeanCreationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * @author bi shugui
+ * @description 被拦截的方法：预先组装好的拦截器链，以及调用原方法的MethodHandle，由生成的代理方法直接调用
+ * @date 2024/01/03 10:15
+ */
+public final class AdvisedMethod {
+    final Method method;
+    final MethodInterceptor[] interceptors;
+
+    /**
+     * 调用原方法，类型为(Object target, Object[] args)Object
+     */
+    private final MethodHandle invoker;
+
+    AdvisedMethod(Method method, MethodInterceptor[] interceptors) {
+        this.method = method;
+        this.interceptors = interceptors;
+        try {
+            MethodHandle handle = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()).unreflect(method);
+            this.invoker = handle.asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new BeanCreationException(String.format("无法访问被拦截的方法; Cannot access advised method %s", method), e);
+        }
+    }
+
+    /**
+     * 由代理方法调用：按拦截器链执行本次调用
+     * @param target 原Bean
+     * @param arguments 方法参数，基本类型已装箱
+     * @return 方法返回值
+     */
+    public Object invoke(Object target, Object[] arguments) throws Throwable {
+        return new MethodInvocation(this, target, arguments).proceed();
+    }
+
+    Object invokeTarget(Object target, Object[] arguments) throws Throwable {
+        return this.invoker.invokeExact(target, arguments);
+    }
+
+    public Method getMethod() {
+        return this.method;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bishugui.summer.aop;
+
+import com.bishugui.summer.context.AnnotationConfigApplicationContext;
+import com.bishugui.summer.context.BeanPostProcessor;
+import com.bishugui.summer.exception.BeanCreationException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author bi shugui
+ * @description 为标注了@Around的Bean创建代理，由容器自动注册在所有BeanPostProcessor之后;
+ * 没有@Around的类型在过滤时被排除，不产生任何开销。字段/setter循环依赖中提前暴露的引用同样是代理，初始化后不再重复代理
+ * @date 2024/01/03 14:05
+ */
+public class AroundProxyBeanPostProcessor implements BeanPostProcessor {
+
+    private final AnnotationConfigApplicationContext context;
+
+    /**
+     * 每个原类的拦截器链只组装一次，Map<原类, 拦截器链>
+     */
+    private final Map<Class<?>, AdvisedMethod[]> advisedMethodsCache = new ConcurrentHashMap<>();
+
+    /**
+     * 已提前创建代理的原Bean，Map<BeanName, 原Bean>
+     */
+    private final Map<String, Object> earlyProxyReferences = new ConcurrentHashMap<>();
+
+    public AroundProxyBeanPostProcessor(AnnotationConfigApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * 声明类型是接口时(如@Bean方法返回接口)，按实际类型决定是否代理;
+     * final类及没有非private无参构造方法的类只能生成接口代理，声明类型必须是接口
+     */
+    @Override
+    public boolean supports(Class<?> beanClass) {
+        if (beanClass.isInterface()) {
+            return true;
+        }
+        // 先只检查注解，没有@Around的类不查找可以重写的方法
+        if (!ProxyFactory.hasAround(beanClass)) {
+            return false;
+        }
+        ProxyFactory.ProxyClass proxyClass = ProxyFactory.getProxyClass(beanClass);
+        if (proxyClass != null && !beanClass.isAssignableFrom(proxyClass.getProxyType())) {
+            throw new BeanCreationException(String.format("final类及没有无参构造方法的类只能按接口声明才能被代理; " +
+                    "Cannot advise class %s: it is final or has no non-private no-arg constructor, declare the bean by one of its interfaces", beanClass.getName()));
+        }
+        return proxyClass != null;
+    }
+
+    @Override
+    public Object getEarlyBeanReference(Object bean, String beanName) {
+        this.earlyProxyReferences.put(beanName, bean);
+        return wrapIfAdvised(bean);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (this.earlyProxyReferences.remove(beanName) == bean) {
+            // 已提前创建代理，容器发布提前暴露的代理
+            return bean;
+        }
+        return wrapIfAdvised(bean);
+    }
+
+    Object wrapIfAdvised(Object bean) {
+        ProxyFactory.ProxyClass proxyClass = ProxyFactory.getProxyClass(bean.getClass());
+        if (proxyClass == null) {
+            return bean;
+        }
+        AdvisedMethod[] advisedMethods = this.advisedMethodsCache.get(bean.getClass());
+        if (advisedMethods == null) {
+            // 获取拦截器时可能创建其他Bean，不在computeIfAbsent中组装
+            advisedMethods = proxyClass.createAdvisedMethods(name -> this.context.getBean(name, MethodInterceptor.class));
+            this.advisedMethodsCache.putIfAbsent(bean.getClass(), advisedMethods);
+        }
+        return proxyClass.newInstance(bean, advisedMethods);
+    }
+}
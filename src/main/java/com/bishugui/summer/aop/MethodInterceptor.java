@@ -0,0 +1,18 @@
+package com.bishugui.summer.aop;
+
+/**
+ * @author bi shugui
+ * @description 方法拦截器，通过@Around按Bean名称引用
+ * @date 2024/01/03 10:10
+ */
+@FunctionalInterface
+public interface MethodInterceptor {
+
+    /**
+     * 拦截方法调用，调用invocation.proceed()继续执行拦截器链及原方法
+     * @param invocation 方法调用
+     * @return 方法返回值，void方法返回null
+     * @throws Throwable 原方法或拦截器抛出的异常，原样抛给调用方
+     */
+    Object invoke(MethodInvocation invocation) throws Throwable;
+}
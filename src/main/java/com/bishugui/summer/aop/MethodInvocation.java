@@ -0,0 +1,51 @@
+package com.bishugui.summer.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * @author bi shugui
+ * @description 被拦截的一次方法调用，按顺序执行拦截器链，最后调用原Bean的方法
+ * @date 2024/01/03 10:12
+ */
+public final class MethodInvocation {
+    private final AdvisedMethod advisedMethod;
+    private final Object target;
+    private final Object[] arguments;
+    private int interceptorIndex;
+
+    MethodInvocation(AdvisedMethod advisedMethod, Object target, Object[] arguments) {
+        this.advisedMethod = advisedMethod;
+        this.target = target;
+        this.arguments = arguments;
+    }
+
+    /**
+     * 执行下一个拦截器，拦截器都已执行时调用原方法
+     * @return 方法返回值，void方法返回null
+     */
+    public Object proceed() throws Throwable {
+        MethodInterceptor[] interceptors = this.advisedMethod.interceptors;
+        if (this.interceptorIndex < interceptors.length) {
+            return interceptors[this.interceptorIndex++].invoke(this);
+        }
+        return this.advisedMethod.invokeTarget(this.target, this.arguments);
+    }
+
+    public Method getMethod() {
+        return this.advisedMethod.method;
+    }
+
+    /**
+     * 方法参数，拦截器可以在调用proceed()前修改
+     */
+    public Object[] getArguments() {
+        return this.arguments;
+    }
+
+    /**
+     * 原Bean
+     */
+    public Object getTarget() {
+        return this.target;
+    }
+}
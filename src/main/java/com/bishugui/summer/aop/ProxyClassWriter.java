@@ -0,0 +1,202 @@
+package com.bishugui.summer.aop;
+
+import com.bishugui.summer.utils.ClassFileWriter;
+import com.bishugui.summer.utils.ClassFileWriter.Code;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import static com.bishugui.summer.utils.ClassFileWriter.*;
+
+/**
+ * @author bi shugui
+ * @description 生成代理类的字节码：代理类继承原Bean的类(或实现其接口)，持有原Bean(target)与被拦截方法的数组(advised);
+ * 未被拦截的方法直接调用target的同名方法，被拦截的方法把参数装箱后调用advised[i].invoke(target, args)。
+ * 生成的方法中没有分支，不需要StackMapTable; 构造方法(target, advised)调用父类的无参构造方法后保存两个字段
+ * @date 2024/01/03 10:30
+ */
+final class ProxyClassWriter {
+    static final String TARGET_FIELD = "target";
+    static final String ADVISED_FIELD = "advised";
+
+    private static final String ADVISED_METHOD = AdvisedMethod.class.getName().replace('.', '/');
+    private static final String ADVISED_INVOKE_DESCRIPTOR = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private final ClassFileWriter writer = new ClassFileWriter();
+
+    private final String className;
+    private final Class<?> targetType;
+    private final boolean subclass;
+
+    /**
+     * @param className 代理类的全限定名
+     * @param targetType 继承的类; 实现接口时为Object
+     */
+    private ProxyClassWriter(String className, Class<?> targetType) {
+        this.className = internalName(className);
+        this.targetType = targetType;
+        this.subclass = targetType != Object.class;
+    }
+
+    /**
+     * 生成代理类
+     * @param className 代理类的全限定名，与被代理的类在同一个包中
+     * @param superClass 继承的类，实现接口时为Object
+     * @param interfaces 实现的接口
+     * @param delegatedMethods 直接调用target的方法
+     * @param advisedMethods 经过拦截器链的方法，顺序与advised数组一致
+     * @return class文件
+     */
+    static byte[] generate(String className, Class<?> superClass, List<Class<?>> interfaces, List<Method> delegatedMethods, List<Method> advisedMethods) {
+        return new ProxyClassWriter(className, superClass).write(superClass, interfaces, delegatedMethods, advisedMethods);
+    }
+
+    private byte[] write(Class<?> superClass, List<Class<?>> interfaces, List<Method> delegatedMethods, List<Method> advisedMethods) {
+        this.writer.field(ACC_PRIVATE | ACC_SYNTHETIC, TARGET_FIELD, this.targetType.descriptorString());
+        this.writer.field(ACC_PRIVATE | ACC_SYNTHETIC, ADVISED_FIELD, AdvisedMethod[].class.descriptorString());
+        writeConstructor(superClass);
+        for (Method method : delegatedMethods) {
+            writeDelegatedMethod(method);
+        }
+        for (int i = 0; i < advisedMethods.size(); i++) {
+            writeAdvisedMethod(advisedMethods.get(i), i);
+        }
+        return this.writer.toByteArray(ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, this.className, internalName(superClass),
+                interfaces.stream().map(ClassFileWriter::internalName).toList());
+    }
+
+    /**
+     * 构造方法：super(); this.target = target; this.advised = advised;
+     * 子类代理调用原类的无参构造方法，由ProxyFactory确认其对代理类可见
+     */
+    private void writeConstructor(Class<?> superClass) {
+        Code code = new Code();
+        code.op(0x2a); // aload_0
+        code.op(0xb7).u2(this.writer.methodConstant(internalName(superClass), "<init>", "()V")); // invokespecial
+        code.op(0x2a); // aload_0
+        code.op(0x2b); // aload_1
+        code.op(0xb5).u2(fieldConstant(TARGET_FIELD, this.targetType.descriptorString())); // putfield target
+        code.op(0x2a); // aload_0
+        code.op(0x2c); // aload_2
+        code.op(0xb5).u2(fieldConstant(ADVISED_FIELD, AdvisedMethod[].class.descriptorString())); // putfield advised
+        code.op(0xb1); // return
+        this.writer.method(ACC_PUBLIC, "<init>", MethodType.methodType(void.class, this.targetType, AdvisedMethod[].class).toMethodDescriptorString(),
+                code, 2, 3);
+    }
+
+    /**
+     * 直接调用：return ((Owner) this.target).method(args...)
+     */
+    private void writeDelegatedMethod(Method method) {
+        Code code = new Code();
+        code.op(0x2a); // aload_0
+        code.op(0xb4).u2(fieldConstant(TARGET_FIELD, this.targetType.descriptorString())); // getfield target
+        // 继承时通过原类调用; 实现接口时通过声明方法的接口调用
+        Class<?> owner = this.subclass ? this.targetType : method.getDeclaringClass();
+        if (owner != this.targetType) {
+            code.op(0xc0).u2(this.writer.classConstant(internalName(owner))); // checkcast
+        }
+        int slot = 1;
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            code.op(loadOpcode(parameterType)).u1(slot);
+            slot += slotSize(parameterType);
+        }
+        String descriptor = methodDescriptor(method);
+        if (owner.isInterface()) {
+            code.op(0xb9).u2(this.writer.interfaceMethodConstant(internalName(owner), method.getName(), descriptor)).u1(slot).u1(0); // invokeinterface
+        } else {
+            code.op(0xb6).u2(this.writer.methodConstant(internalName(owner), method.getName(), descriptor)); // invokevirtual
+        }
+        code.op(returnOpcode(method.getReturnType()));
+        writeMethod(method, code, Math.max(slot, slotSize(method.getReturnType())), slot);
+    }
+
+    /**
+     * 经过拦截器链：return (R) this.advised[index].invoke(this.target, new Object[]{args...})
+     */
+    private void writeAdvisedMethod(Method method, int index) {
+        Code code = new Code();
+        code.op(0x2a); // aload_0
+        code.op(0xb4).u2(fieldConstant(ADVISED_FIELD, AdvisedMethod[].class.descriptorString())); // getfield advised
+        code.pushInt(index);
+        code.op(0x32); // aaload
+        code.op(0x2a); // aload_0
+        code.op(0xb4).u2(fieldConstant(TARGET_FIELD, this.targetType.descriptorString())); // getfield target
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        code.pushInt(parameterTypes.length);
+        code.op(0xbd).u2(this.writer.classConstant("java/lang/Object")); // anewarray
+        int slot = 1;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            code.op(0x59); // dup
+            code.pushInt(i);
+            code.op(loadOpcode(parameterType)).u1(slot);
+            if (parameterType.isPrimitive()) {
+                Class<?> wrapper = MethodType.methodType(parameterType).wrap().returnType();
+                code.op(0xb8).u2(this.writer.methodConstant(internalName(wrapper), "valueOf",
+                        "(" + parameterType.descriptorString() + ")" + wrapper.descriptorString())); // invokestatic valueOf
+            }
+            code.op(0x53); // aastore
+            slot += slotSize(parameterType);
+        }
+        code.op(0xb6).u2(this.writer.methodConstant(ADVISED_METHOD, "invoke", ADVISED_INVOKE_DESCRIPTOR)); // invokevirtual AdvisedMethod.invoke
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) {
+            code.op(0x57); // pop
+        } else if (returnType.isPrimitive()) {
+            Class<?> wrapper = MethodType.methodType(returnType).wrap().returnType();
+            code.op(0xc0).u2(this.writer.classConstant(internalName(wrapper))); // checkcast
+            code.op(0xb6).u2(this.writer.methodConstant(internalName(wrapper), returnType.getName() + "Value", "()" + returnType.descriptorString()));
+        } else if (returnType != Object.class) {
+            code.op(0xc0).u2(this.writer.classConstant(internalName(returnType))); // checkcast
+        }
+        code.op(returnOpcode(returnType));
+        // advised元素、target、数组、dup的数组、下标、参数值(long/double占2)
+        writeMethod(method, code, 7, slot);
+    }
+
+    private void writeMethod(Method method, Code code, int maxStack, int maxLocals) {
+        int modifiers = method.getModifiers();
+        int access = Modifier.isPublic(modifiers) ? ACC_PUBLIC : Modifier.isProtected(modifiers) ? ACC_PROTECTED : 0;
+        this.writer.method(access | ACC_FINAL, method.getName(), methodDescriptor(method), code, maxStack, maxLocals);
+    }
+
+    private static int loadOpcode(Class<?> type) {
+        if (type == long.class) {
+            return 0x16; // lload
+        }
+        if (type == float.class) {
+            return 0x17; // fload
+        }
+        if (type == double.class) {
+            return 0x18; // dload
+        }
+        return type.isPrimitive() ? 0x15 : 0x19; // iload : aload
+    }
+
+    private static int returnOpcode(Class<?> type) {
+        if (type == void.class) {
+            return 0xb1;
+        }
+        if (type == long.class) {
+            return 0xad;
+        }
+        if (type == float.class) {
+            return 0xae;
+        }
+        if (type == double.class) {
+            return 0xaf;
+        }
+        return type.isPrimitive() ? 0xac : 0xb0; // ireturn : areturn
+    }
+
+    static String methodDescriptor(Method method) {
+        return MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString();
+    }
+
+    private int fieldConstant(String name, String descriptor) {
+        return this.writer.fieldConstant(this.className, name, descriptor);
+    }
+}
@@ -0,0 +1,334 @@
+package com.bishugui.summer.aop;
+
+import com.bishugui.summer.annotation.Around;
+import com.bishugui.summer.exception.BeanCreationException;
+import jakarta.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @author bi shugui
+ * @description 代理类工厂：为标注了@Around的类生成代理类，每个Class只生成一次;
+ * 有非private无参构造方法的非final类生成子类代理，final类及没有无参构造方法的类(如构造方法注入的Bean)生成实现其所有接口的代理。
+ * 代理类定义在原类所在的包中，
+ * 只重写可以重写的方法: 被拦截的方法调用预先组装的拦截器链，其他方法直接调用原Bean，不经过InvocationHandler
+ * @date 2024/01/03 11:20
+ */
+public final class ProxyFactory {
+
+    static final String PROXY_CLASS_SUFFIX = "$$SummerProxy$";
+
+    private static final AtomicInteger PROXY_CLASS_COUNTER = new AtomicInteger();
+
+    /**
+     * 代理类，没有被拦截的方法时为null
+     */
+    private static final ClassValue<Optional<ProxyClass>> PROXY_CLASSES = new ClassValue<>() {
+        @Override
+        protected Optional<ProxyClass> computeValue(Class<?> type) {
+            return Optional.ofNullable(createProxyClass(type));
+        }
+    };
+
+    /**
+     * 代理类读取target字段的MethodHandle，Map<代理类, (Object)Object>
+     */
+    private static final ClassValue<MethodHandle> TARGET_GETTERS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> proxyType) {
+            try {
+                Class<?> targetType = proxyType.getDeclaredField(ProxyClassWriter.TARGET_FIELD).getType();
+                return MethodHandles.privateLookupIn(proxyType, MethodHandles.lookup())
+                        .findGetter(proxyType, ProxyClassWriter.TARGET_FIELD, targetType)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot access target of proxy class " + proxyType.getName(), e);
+            }
+        }
+    };
+
+    private ProxyFactory() {
+    }
+
+    /**
+     * 获取代理类，首次调用时生成
+     * @param targetClass 原Bean的Class
+     * @return 代理类，类及方法上都没有@Around时为null
+     */
+    @Nullable
+    public static ProxyClass getProxyClass(Class<?> targetClass) {
+        return PROXY_CLASSES.get(targetClass).orElse(null);
+    }
+
+    /**
+     * 是否为生成的代理类
+     */
+    public static boolean isProxyClass(Class<?> clazz) {
+        return clazz.isSynthetic() && clazz.getName().contains(PROXY_CLASS_SUFFIX);
+    }
+
+    /**
+     * 获取代理的原Bean，用于在原Bean上调用生命周期方法
+     * @param bean 代理或普通Bean
+     * @return 代理的原Bean; 不是生成的代理时返回bean本身
+     */
+    public static Object getTarget(Object bean) {
+        if (!isProxyClass(bean.getClass())) {
+            return bean;
+        }
+        try {
+            return (Object) TARGET_GETTERS.get(bean.getClass()).invokeExact(bean);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot access target of proxy " + bean.getClass().getName(), e);
+        }
+    }
+
+    @Nullable
+    static ProxyClass createProxyClass(Class<?> targetClass) {
+        if (targetClass.isInterface() || targetClass.isArray() || targetClass.isPrimitive() || targetClass.isHidden() || isProxyClass(targetClass)
+                || !hasAround(targetClass)) {
+            return null;
+        }
+        boolean subclass = !Modifier.isFinal(targetClass.getModifiers()) && hasSuperConstructor(targetClass);
+        Around classAround = targetClass.getAnnotation(Around.class);
+        List<Method> delegatedMethods = new ArrayList<>();
+        List<Method> proxiedMethods = new ArrayList<>();
+        List<Method> targetMethods = new ArrayList<>();
+        List<String[]> interceptorNames = new ArrayList<>();
+        for (Method method : findProxyMethods(targetClass, subclass)) {
+            Method targetMethod = subclass ? method : findTargetMethod(targetClass, method);
+            String[] names = getInterceptorNames(classAround, targetMethod);
+            if (names.length == 0) {
+                delegatedMethods.add(method);
+            } else {
+                proxiedMethods.add(method);
+                targetMethods.add(targetMethod);
+                interceptorNames.add(names);
+            }
+        }
+        if (proxiedMethods.isEmpty()) {
+            checkNotAdvised(targetClass, subclass);
+            return null;
+        }
+        List<Class<?>> interfaces = subclass ? List.of() : List.copyOf(collectInterfaces(targetClass));
+        String proxyClassName = targetClass.getName() + PROXY_CLASS_SUFFIX + PROXY_CLASS_COUNTER.incrementAndGet();
+        byte[] bytes = ProxyClassWriter.generate(proxyClassName, subclass ? targetClass : Object.class, interfaces, delegatedMethods, proxiedMethods);
+        try {
+            Class<?> proxyType = MethodHandles.privateLookupIn(targetClass, MethodHandles.lookup()).defineClass(bytes);
+            return new ProxyClass(proxyType, subclass ? targetClass : Object.class, targetMethods.toArray(Method[]::new), interceptorNames.toArray(String[][]::new));
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new BeanCreationException(String.format("无法生成代理类; Cannot create proxy class for %s", targetClass.getName()), e);
+        }
+    }
+
+    /**
+     * 子类代理的构造方法调用原类的无参构造方法，原类必须有非private的无参构造方法，否则只能生成接口代理
+     */
+    static boolean hasSuperConstructor(Class<?> targetClass) {
+        try {
+            return !Modifier.isPrivate(targetClass.getDeclaredConstructor().getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 查找代理类需要重写的方法：子类代理为所有可以重写的方法(public方法，以及同一个包中的protected、包级方法)，
+     * 接口代理为所有接口方法及Object的equals、hashCode、toString
+     */
+    static Collection<Method> findProxyMethods(Class<?> targetClass, boolean subclass) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        if (subclass) {
+            for (Method method : targetClass.getMethods()) {
+                addProxyMethod(methods, targetClass, method);
+            }
+            for (Class<?> type = targetClass; type != null && type != Object.class; type = type.getSuperclass()) {
+                if (type.getClassLoader() != targetClass.getClassLoader() || !type.getPackageName().equals(targetClass.getPackageName())) {
+                    continue;
+                }
+                for (Method method : type.getDeclaredMethods()) {
+                    if (!Modifier.isPublic(method.getModifiers()) && !Modifier.isPrivate(method.getModifiers())) {
+                        addProxyMethod(methods, targetClass, method);
+                    }
+                }
+            }
+        } else {
+            for (Class<?> type : collectInterfaces(targetClass)) {
+                for (Method method : type.getMethods()) {
+                    addProxyMethod(methods, targetClass, method);
+                }
+            }
+            for (String name : List.of("equals", "hashCode", "toString")) {
+                for (Method method : Object.class.getMethods()) {
+                    if (method.getName().equals(name)) {
+                        addProxyMethod(methods, targetClass, method);
+                    }
+                }
+            }
+        }
+        return methods.values();
+    }
+
+    private static void addProxyMethod(Map<String, Method> methods, Class<?> targetClass, Method method) {
+        int modifiers = method.getModifiers();
+        if (Modifier.isStatic(modifiers) || method.isBridge() || method.isSynthetic()) {
+            return;
+        }
+        String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+        if (methods.containsKey(signature)) {
+            return;
+        }
+        if (Modifier.isFinal(modifiers)) {
+            if (method.isAnnotationPresent(Around.class)) {
+                throw new BeanCreationException(String.format("不能拦截final方法; Cannot advise final method %s of %s", method, targetClass.getName()));
+            }
+            return;
+        }
+        methods.put(signature, method);
+    }
+
+    static Set<Class<?>> collectInterfaces(Class<?> targetClass) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> type = targetClass; type != null; type = type.getSuperclass()) {
+            interfaces.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return interfaces;
+    }
+
+    /**
+     * 接口代理时，获取原类中实现接口方法的方法，用于读取@Around与调用原方法
+     */
+    static Method findTargetMethod(Class<?> targetClass, Method method) {
+        try {
+            return targetClass.getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            return method;
+        }
+    }
+
+    /**
+     * 类上@Around的拦截器(不拦截Object声明的方法)在前，方法上的在后，去除重复
+     */
+    static String[] getInterceptorNames(@Nullable Around classAround, Method method) {
+        Set<String> names = new LinkedHashSet<>();
+        if (classAround != null && method.getDeclaringClass() != Object.class) {
+            names.addAll(Arrays.asList(classAround.value()));
+        }
+        Around methodAround = method.getAnnotation(Around.class);
+        if (methodAround != null) {
+            names.addAll(Arrays.asList(methodAround.value()));
+        }
+        return names.toArray(String[]::new);
+    }
+
+    /**
+     * 标注了@Around但没有可以拦截的方法时报错，避免静默地不生效
+     */
+    static void checkNotAdvised(Class<?> targetClass, boolean subclass) {
+        if (!subclass && !Modifier.isFinal(targetClass.getModifiers())) {
+            throw new BeanCreationException(String.format("没有非private无参构造方法的类只能按接口代理，被拦截的方法需要声明在接口中; " +
+                    "Cannot advise class %s: without a non-private no-arg constructor only interface methods can be advised", targetClass.getName()));
+        }
+        if (targetClass.isAnnotationPresent(Around.class)) {
+            throw new BeanCreationException(String.format("@Around标注的类没有可以拦截的方法; No method can be advised in class %s", targetClass.getName()));
+        }
+        for (Method method : targetClass.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Around.class)) {
+                throw new BeanCreationException(String.format("不能拦截的方法; Cannot advise method %s: only non-final, non-static methods visible to the proxy can be advised", method));
+            }
+        }
+    }
+
+    /**
+     * 类或其方法(包括继承的方法、接口方法)上是否标注了@Around; 只检查注解，不查找可以重写的方法，
+     * 用于在生成代理类之前快速排除绝大多数不需要代理的类
+     */
+    public static boolean hasAround(Class<?> targetClass) {
+        if (targetClass.isAnnotationPresent(Around.class)) {
+            return true;
+        }
+        for (Class<?> type = targetClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            if (hasAroundMethod(type.getDeclaredMethods())) {
+                return true;
+            }
+        }
+        for (Class<?> type : collectInterfaces(targetClass)) {
+            if (hasAroundMethod(type.getMethods())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAroundMethod(Method[] methods) {
+        for (Method method : methods) {
+            if (method.isAnnotationPresent(Around.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成的代理类
+     */
+    public static final class ProxyClass {
+        private final Class<?> proxyType;
+        private final Method[] targetMethods;
+        private final String[][] interceptorNames;
+
+        /**
+         * 代理类的构造方法(target, advised)，子类代理会调用原类的无参构造方法
+         */
+        private final MethodHandle constructor;
+
+        ProxyClass(Class<?> proxyType, Class<?> targetType, Method[] targetMethods, String[][] interceptorNames)
+                throws IllegalAccessException, NoSuchMethodException {
+            this.proxyType = proxyType;
+            this.targetMethods = targetMethods;
+            this.interceptorNames = interceptorNames;
+            this.constructor = MethodHandles.privateLookupIn(proxyType, MethodHandles.lookup())
+                    .findConstructor(proxyType, MethodType.methodType(void.class, targetType, AdvisedMethod[].class))
+                    .asType(MethodType.methodType(Object.class, Object.class, AdvisedMethod[].class));
+        }
+
+        public Class<?> getProxyType() {
+            return this.proxyType;
+        }
+
+        /**
+         * 按@Around中的名称获取拦截器，组装每个被拦截方法的拦截器链
+         * @param interceptorResolver 按Bean名称获取拦截器
+         * @return 与代理类中被拦截方法顺序一致的数组
+         */
+        public AdvisedMethod[] createAdvisedMethods(Function<String, MethodInterceptor> interceptorResolver) {
+            AdvisedMethod[] advisedMethods = new AdvisedMethod[this.targetMethods.length];
+            for (int i = 0; i < advisedMethods.length; i++) {
+                MethodInterceptor[] interceptors = Arrays.stream(this.interceptorNames[i]).map(interceptorResolver).toArray(MethodInterceptor[]::new);
+                advisedMethods[i] = new AdvisedMethod(this.targetMethods[i], interceptors);
+            }
+            return advisedMethods;
+        }
+
+        /**
+         * 创建代理实例
+         * @param target 原Bean
+         * @param advisedMethods createAdvisedMethods()组装的拦截器链
+         * @return 代理实例
+         */
+        public Object newInstance(Object target, AdvisedMethod[] advisedMethods) {
+            try {
+                return (Object) this.constructor.invokeExact(target, advisedMethods);
+            } catch (Throwable e) {
+                throw new BeanCreationException(String.format("创建代理实例时发生异常; Exception when create proxy for %s", target.getClass().getName()), e);
+            }
+        }
+    }
+}
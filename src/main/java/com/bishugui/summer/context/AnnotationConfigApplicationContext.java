@@ -1,7 +1,12 @@
 package com.bishugui.summer.context;
 
 import com.bishugui.summer.annotation.*;
+import com.bishugui.summer.aop.AroundProxyBeanPostProcessor;
+import com.bishugui.summer.aop.ProxyFactory;
 import com.bishugui.summer.exception.*;
+import com.bishugui.summer.io.ClassMetadataReader;
+import com.bishugui.summer.io.PropertyChangeEvent;
+import com.bishugui.summer.io.PropertyChangeListener;
 import com.bishugui.summer.io.PropertyResolver;
 import com.bishugui.summer.io.ResourceResolver;
 import com.bishugui.summer.utils.ClassUtils;
@@ -13,7 +18,14 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -21,122 +33,1443 @@ import java.util.stream.Collectors;
  * @description 注解配置 应用上下文
  * @date 2023/10/1 17:01
  */
-public class AnnotationConfigApplicationContext {
+public class AnnotationConfigApplicationContext implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(AnnotationConfigApplicationContext.class);
 
+    /**
+     * 是否并行扫描包、加载Class
+     */
+    public static final String PARALLEL_SCAN_PROPERTY = "summer.context.parallel-scan";
+
+    /**
+     * 并行扫描的线程数，默认CPU核数
+     */
+    public static final String PARALLEL_SCAN_THREADS_PROPERTY = "summer.context.parallel-scan.threads";
+
+    /**
+     * 是否通过读取字节码过滤候选类，默认开启
+     */
+    public static final String BYTECODE_SCAN_PROPERTY = "summer.context.bytecode-scan";
+
+    /**
+     * 是否使用编译期生成的组件索引，默认开启
+     */
+    public static final String COMPONENT_INDEX_PROPERTY = "summer.context.index.enabled";
+
+    /**
+     * 扫描结果缓存文件，类路径未变化时跳过扫描，默认不缓存
+     */
+    public static final String SCAN_CACHE_PROPERTY = "summer.context.scan-cache.file";
+
+    /**
+     * 是否全局延迟初始化，开启后所有singleton都在第一次获取时才创建，默认关闭
+     */
+    public static final String LAZY_INIT_PROPERTY = "summer.context.lazy-init";
+
+    /**
+     * 是否按依赖图在虚拟线程上并行创建singleton，默认关闭
+     */
+    public static final String PARALLEL_INIT_PROPERTY = "summer.context.parallel-init";
+
+    /**
+     * 关闭容器时等待destroy方法执行完成的最长时间，如PT30S，超时后不再等待尚未完成的destroy方法
+     */
+    public static final String SHUTDOWN_TIMEOUT_PROPERTY = "summer.context.shutdown-timeout";
+
+    static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    static final BeanPostProcessor[] NO_POST_PROCESSORS = new BeanPostProcessor[0];
+
+    static final Map<String, Class<?>> PRIMITIVE_TYPES = Map.of(
+            "boolean", boolean.class, "byte", byte.class, "char", char.class, "short", short.class,
+            "int", int.class, "long", long.class, "float", float.class, "double", double.class);
+
     /**
      * 属性解析器
      */
     protected PropertyResolver propertyResolver;
 
     /**
-     * 所有BeanDefinition,Map<BeanName, BeanDefinition>
+     * 所有BeanDefinition,Map<BeanName, BeanDefinition>，创建后不可变，读取时无需加锁
+     */
+    protected Map<String, BeanDefinition> beans;
+
+    /**
+     * 类型索引,Map<类型(含父类、接口), 已排序的BeanDefinition列表>，创建后不可变
+     */
+    protected Map<Class<?>, List<BeanDefinition>> beanTypeIndex;
+
+    /**
+     * 按类型查找的唯一(或@Primary)BeanDefinition缓存
+     */
+    protected Map<Class<?>, BeanDefinition> uniqueBeanDefinitionCache;
+
+    /**
+     * 启动阶段的创建批次，并行创建时多个线程共享，启动完成后为null
+     */
+    private volatile SingletonBatch startupBatch = new SingletonBatch(null);
+
+    /**
+     * 启动完成后(延迟初始化)当前线程的创建批次，不在创建过程中时为null;
+     * 未完成的实例只对创建它的线程可见，不同线程可以同时创建互不相关的Bean
+     */
+    private final ThreadLocal<SingletonBatch> creationBatch = new ThreadLocal<>();
+
+    /**
+     * 启动完成后正在被批次创建的singleton及创建它的线程，用于检测批次之间的互相等待
+     */
+    private final Map<BeanDefinition, Thread> batchOwners = new ConcurrentHashMap<>();
+
+    /**
+     * 持有批次中的锁、正在等待其他批次中的Bean的线程，Map<线程, 等待的Bean>，读写时对本Map加锁
+     */
+    private final Map<Thread, BeanDefinition> batchWaits = new HashMap<>();
+
+    /**
+     * 启动完成后的创建批次持有读锁，互不阻塞；关闭容器时获取写锁，等待正在进行的批次完成
+     */
+    private final ReentrantReadWriteLock singletonCreationLock = new ReentrantReadWriteLock();
+
+    /**
+     * 是否已启动完成
+     */
+    private volatile boolean started;
+
+    /**
+     * 是否全局延迟初始化
+     */
+    private boolean lazyInit;
+
+    /**
+     * 是否并行创建、初始化singleton
+     */
+    private boolean parallelInit;
+
+    /**
+     * 已注册的BeanPostProcessor，按@Order排序，注册前为null
+     */
+    private volatile BeanPostProcessor[] beanPostProcessors;
+
+    /**
+     * 是否已关闭
+     */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * 刷新refresh作用域的属性变更监听器，关闭时移除
+     */
+    private PropertyChangeListener refreshListener;
+
+    /**
+     * 当前线程正在调用构造方法/工厂方法创建的Bean,按创建顺序保存,用于检测循环依赖并报告完整的依赖路径
+     */
+    private final ThreadLocal<List<BeanDefinition>> beansInCreation = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * 已注册的作用域(singleton、prototype之外),Map<作用域名称, Scope>
+     */
+    protected final Map<String, Scope> scopes = new ConcurrentHashMap<>(Map.of(
+            ThreadScope.SCOPE_THREAD, new ThreadScope(),
+            RequestScope.SCOPE_REQUEST, new RequestScope(),
+            RefreshScope.SCOPE_REFRESH, new RefreshScope(this::destroyScopedBean)));
+
+    /**
+     * Class元数据读取器，用于扫描阶段的字节码过滤
+     */
+    private ClassMetadataReader classMetadataReader;
+
+    /**
+     * 编译期生成的组件索引/null
+     */
+    private ComponentIndex componentIndex;
+
+    /**
+     * 扫描结果缓存，需要在创建BeanDefinition后写入时不为null
+     */
+    private ScanCache scanCache;
+
+    /**
+     * 命中的扫描结果缓存，由它创建BeanDefinition失败时删除
+     */
+    private ScanCache loadedScanCache;
+
+    /**
+     * 扫描并创建所有Bean
+     * 实现IoC容器-创建BeanDefinition
+     * 实现IoC容器-创建Bean示例
+     * @param configClass 被扫描的启动类
+     * @param propertyResolver 属性解析器
+     */
+    public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+        ClassUtils.retainAnnotationCache();
+        try {
+            // 扫描获取所有Bean的Class类型，并创建BeanDefinition
+            this.beans = Map.copyOf(scanBeanDefinitions(configClass));
+            storeScanCache();
+            // 建立类型索引
+            createBeanTypeIndex();
+
+            this.lazyInit = propertyResolver.getProperty(LAZY_INIT_PROPERTY, boolean.class, false);
+            this.parallelInit = propertyResolver.getProperty(PARALLEL_INIT_PROPERTY, boolean.class, false);
+            // 先创建并调用BeanFactoryPostProcessor，再创建BeanPostProcessor
+            registerPostProcessors();
+            // 并行创建时会被多个线程添加
+            this.startupBatch.deferredInjections = new ConcurrentLinkedQueue<>();
+
+            // 创建@Configuration类型的Bean实例
+            // 由于@Configuration标识的Bean实际上是工厂，它们必须先实例化，才能实例化其他普通Bean，所以我们先把@Configuration标识的Bean创建出来，再创建普通Bean
+            // 延迟初始化的@Configuration在第一次创建它的@Bean时才创建
+            this.beans.values().stream()
+                    .filter(item -> isConfigurationDefinition(item) && !isLazyInit(item)).map(item->{
+                        // 可能已作为其他@Configuration构造方法的依赖被创建
+                        getSingletonInstance(item);
+                        return item.getName();
+                    }).toList();
+
+            // 创建其他普通的Bean实例
+            createNormalBeans();
+            // 通过字段和set方法注入依赖，并调用init方法
+            injectSingletons();
+            this.started = true;
+            this.startupBatch = null;
+            // 属性变化时刷新refresh作用域的Bean
+            this.refreshListener = this::refreshBeans;
+            propertyResolver.addChangeListener(this.refreshListener);
+
+            if (log.isDebugEnabled()) {
+                this.beans.values().stream().sorted().forEach(def -> {
+                    log.debug("bean初始化; bean initialized: {}", def);
+                });
+            }
+        } finally {
+            // 启动结束，没有其他容器正在启动时释放注解解析结果缓存
+            ClassUtils.releaseAnnotationCache();
+        }
+    }
+    /**
+     * 扫描并创建所有Bean
+     * 实现IoC容器-创建BeanDefinition
+     * @param configClass 被扫描的启动类
+     * @param propertyResolver 属性解析器
+     */
+    public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver,boolean beanDefinition) {
+        this.propertyResolver = propertyResolver;
+        ClassUtils.retainAnnotationCache();
+        try {
+            // 扫描获取所有Bean的Class类型，并创建BeanDefinition
+            this.beans = Map.copyOf(scanBeanDefinitions(configClass));
+            storeScanCache();
+            // 建立类型索引
+            createBeanTypeIndex();
+        } finally {
+            // 没有其他容器正在启动时释放注解解析结果缓存
+            ClassUtils.releaseAnnotationCache();
+        }
+    }
+
+    void createNormalBeans(){
+        // 获取还没有实例的singleton BeanDefinition列表，其他作用域及延迟初始化的Bean在获取时创建
+        List<BeanDefinition> beanDefinitionList = this.beans.values().stream()
+                .filter(beanDefinition -> beanDefinition.isSingleton() && !isLazyInit(beanDefinition) && beanDefinition.getInstance() == null).sorted().toList();
+        // 配置项：summer.context.parallel-init，默认关闭
+        if (this.parallelInit) {
+            createBeansParallel(beanDefinitionList);
+            return;
+        }
+        // 如果Bean未被创建(可能在其他Bean的构造方法注入前被创建)，创建该Bean
+        beanDefinitionList.forEach(this::getSingletonInstance);
+    }
+
+    /**
+     * 按依赖图并行创建singleton：每个Bean在其依赖的singleton(构造方法/工厂方法参数、@Bean所在的@Configuration、@DependsOn)
+     * 创建完成后，在虚拟线程上创建; 互不依赖的Bean并行创建，依赖都已就绪的Bean按@Order顺序提交
+     * @param beanDefinitionList 需要创建的BeanDefinition，已按@Order排序
+     */
+    void createBeansParallel(List<BeanDefinition> beanDefinitionList) {
+        long start = System.nanoTime();
+        Map<BeanDefinition, CompletableFuture<Void>> futures = new HashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // 依赖图在当前线程中建立，同时检测循环依赖
+            for (BeanDefinition beanDefinition : beanDefinitionList) {
+                scheduleBeanCreation(beanDefinition, futures, new LinkedHashSet<>(), executor);
+            }
+            for (BeanDefinition beanDefinition : beanDefinitionList) {
+                join(futures.get(beanDefinition));
+            }
+        }
+        log.atInfo().log("Parallel created {} beans in {} ms", futures.size(), elapsedMillis(start));
+    }
+
+    /**
+     * 为singleton安排创建任务，先递归安排其依赖的singleton，依赖都完成后再创建自身
+     * @param beanDefinition BeanDefinition
+     * @param futures 已安排的创建任务
+     * @param path 当前依赖路径，用于检测循环依赖
+     * @param executor 执行创建任务的线程池
+     * @return 创建任务
+     */
+    CompletableFuture<Void> scheduleBeanCreation(BeanDefinition beanDefinition, Map<BeanDefinition, CompletableFuture<Void>> futures,
+                                                 Set<BeanDefinition> path, Executor executor) {
+        CompletableFuture<Void> future = futures.get(beanDefinition);
+        if (future != null) {
+            return future;
+        }
+        if (beanDefinition.getInstance() != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!path.add(beanDefinition)) {
+            throw circularDependency(beanDefinition, path.stream().map(BeanDefinition::getName).toList());
+        }
+        List<BeanDefinition> dependencies = getSingletonDependencies(beanDefinition);
+        CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[dependencies.size()];
+        for (int i = 0; i < dependencyFutures.length; i++) {
+            dependencyFutures[i] = scheduleBeanCreation(dependencies.get(i), futures, path, executor);
+        }
+        path.remove(beanDefinition);
+        future = CompletableFuture.allOf(dependencyFutures).thenRunAsync(() -> getSingletonInstance(beanDefinition), executor);
+        futures.put(beanDefinition, future);
+        return future;
+    }
+
+    /**
+     * 等待任务完成，任务中的异常原样抛出
+     */
+    static void join(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BeanCreationException(e.getCause());
+        }
+    }
+
+    /**
+     * 获取创建Bean前必须先创建的singleton：@Autowired参数依赖、@Bean所在的@Configuration、@DependsOn;
+     * 依赖prototype等其他作用域的Bean时，继续收集它们依赖的singleton
+     * @param beanDefinition BeanDefinition
+     * @return 依赖的singleton列表
+     */
+    List<BeanDefinition> getSingletonDependencies(BeanDefinition beanDefinition) {
+        Set<BeanDefinition> singletons = new LinkedHashSet<>();
+        collectSingletonDependencies(beanDefinition, singletons, new HashSet<>());
+        return List.copyOf(singletons);
+    }
+
+    void collectSingletonDependencies(BeanDefinition beanDefinition, Set<BeanDefinition> singletons, Set<BeanDefinition> visited) {
+        List<BeanDefinition> dependencies = new ArrayList<>();
+        for (BeanDefinition dependency : getBeanDependencies(beanDefinition, getBeanParameters(beanDefinition))) {
+            if (dependency != null) {
+                dependencies.add(dependency);
+            }
+        }
+        if (beanDefinition.getFactoryName() != null) {
+            dependencies.add(findBeanDefinition(beanDefinition.getFactoryName()));
+        }
+        for (String dependsOn : beanDefinition.getDependsOn()) {
+            dependencies.add(getDependsOnDefinition(beanDefinition, dependsOn));
+        }
+        for (BeanDefinition dependency : dependencies) {
+            if (dependency.isSingleton()) {
+                singletons.add(dependency);
+            } else if (visited.add(dependency)) {
+                collectSingletonDependencies(dependency, singletons, visited);
+            }
+        }
+    }
+
+    /**
+     * 获取@DependsOn指定的BeanDefinition
+     */
+    BeanDefinition getDependsOnDefinition(BeanDefinition beanDefinition, String dependsOn) {
+        BeanDefinition def = findBeanDefinition(dependsOn);
+        if (def == null) {
+            throw new BeanCreationException(String.format("@DependsOn依赖的Bean不存在; Missing depends-on bean '%s' when create bean '%s': %s.",
+                    dependsOn, beanDefinition.getName(), beanDefinition.getBeanClass().getName()));
+        }
+        return def;
+    }
+
+    /**
+     * 是否延迟初始化：全局开启或标识了@Lazy
+     */
+    boolean isLazyInit(BeanDefinition beanDefinition) {
+        return this.lazyInit || beanDefinition.isLazy();
+    }
+
+    /**
+     * 获取singleton实例，已完成的实例(一级缓存)直接返回，不加锁；
+     * 启动时只对该Bean加锁创建，不同的Bean可以在多个线程中同时创建，字段/setter注入在所有singleton实例化之后进行;
+     * 启动完成后(延迟初始化)在当前线程的批次中创建：同一批次创建的Bean(含依赖)实例化之后统一注入，
+     * 批次持有这些Bean的锁直到发布，未完成的实例只通过早期引用暴露给当前线程，其他线程等待批次完成后获取完整的实例
+     * @param beanDefinition BeanDefinition
+     * @return Bean实例
+     */
+    Object getSingletonInstance(BeanDefinition beanDefinition) {
+        Object instance = beanDefinition.getInstance();
+        if (instance != null) {
+            return instance;
+        }
+        if (!this.started || this.creationBatch.get() != null) {
+            // 启动阶段，或当前线程正在创建的批次中
+            return createSingleton(beanDefinition);
+        }
+        BeanDefinition conflict;
+        while ((conflict = createInBatch(beanDefinition)) != null) {
+            // 与其他线程的批次互相等待，已放弃本批次，等待对方发布后重试
+            ReentrantLock lock = conflict.getCreationLock();
+            lock.lock();
+            lock.unlock();
+        }
+        return beanDefinition.getRequiredInstance();
+    }
+
+    /**
+     * 在当前线程的新批次中创建singleton及其依赖，批次结束(发布或失败)时释放所有Bean的锁
+     * @return 与其他线程的批次互相等待时放弃本批次(已创建的实例被丢弃)，返回需要等待的Bean；创建完成时返回null
+     */
+    @Nullable
+    BeanDefinition createInBatch(BeanDefinition beanDefinition) {
+        SingletonBatch batch = new SingletonBatch(new ArrayDeque<>());
+        this.singletonCreationLock.readLock().lock();
+        this.creationBatch.set(batch);
+        try {
+            if (this.closed.get()) {
+                throw new BeanCreationException(String.format("容器已关闭; Cannot create bean '%s' after context closed.", beanDefinition.getName()));
+            }
+            createSingleton(beanDefinition);
+            injectSingletons();
+            return null;
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof BatchConflictException conflict) {
+                    return conflict.beanDefinition;
+                }
+            }
+            throw e;
+        } finally {
+            this.creationBatch.remove();
+            for (BeanDefinition locked : batch.lockedBeans) {
+                this.batchOwners.remove(locked);
+                locked.getCreationLock().unlock();
+            }
+            this.singletonCreationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 对该Bean加锁创建singleton，已实例化但尚未注入的返回早期引用
+     */
+    Object createSingleton(BeanDefinition beanDefinition) {
+        Object instance = getSingleton(beanDefinition);
+        if (instance != null) {
+            return instance;
+        }
+        // 先确认没有循环依赖：嵌套加锁总是从依赖方到被依赖方，依赖图无环时多个线程之间不会死锁
+        checkCircularDependency(beanDefinition, new LinkedHashSet<>());
+        SingletonBatch batch = this.creationBatch.get();
+        if (batch != null) {
+            // 启动完成后，锁一直持有到批次结束
+            lockInBatch(batch, beanDefinition);
+            instance = getSingleton(beanDefinition);
+            return instance != null ? instance : createBeanAsEarlySingleton(beanDefinition);
+        }
+        ReentrantLock lock = beanDefinition.getCreationLock();
+        lock.lock();
+        try {
+            instance = getSingleton(beanDefinition);
+            if (instance == null) {
+                // 当前Bean尚未初始化(依赖注入或延迟初始化)，创建该Bean
+                instance = createBeanAsEarlySingleton(beanDefinition);
+            }
+            return instance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 批次获取Bean的锁，其他批次正在创建该Bean时等待其发布;
+     * 字段/setter循环依赖可能使两个批次互相等待对方持有的Bean，此时放弃当前批次
+     */
+    void lockInBatch(SingletonBatch batch, BeanDefinition beanDefinition) {
+        ReentrantLock lock = beanDefinition.getCreationLock();
+        if (lock.isHeldByCurrentThread()) {
+            return;
+        }
+        if (!lock.tryLock()) {
+            Thread current = Thread.currentThread();
+            if (!batch.lockedBeans.isEmpty()) {
+                // 没有持有锁的批次不会被其他批次等待，可以直接等待
+                synchronized (this.batchWaits) {
+                    if (isWaitingFor(beanDefinition, current)) {
+                        throw new BatchConflictException(beanDefinition);
+                    }
+                    this.batchWaits.put(current, beanDefinition);
+                }
+            }
+            try {
+                lock.lock();
+            } finally {
+                synchronized (this.batchWaits) {
+                    this.batchWaits.remove(current);
+                }
+            }
+        }
+        this.batchOwners.put(beanDefinition, Thread.currentThread());
+        batch.lockedBeans.add(beanDefinition);
+    }
+
+    /**
+     * 沿"Bean -> 创建它的线程 -> 该线程等待的Bean"查找，回到当前线程时说明互相等待，调用时对batchWaits加锁
+     */
+    boolean isWaitingFor(BeanDefinition beanDefinition, Thread current) {
+        Set<Thread> visited = new HashSet<>();
+        Thread owner = this.batchOwners.get(beanDefinition);
+        while (owner != null && visited.add(owner)) {
+            if (owner == current) {
+                return true;
+            }
+            BeanDefinition waiting = this.batchWaits.get(owner);
+            owner = waiting == null ? null : this.batchOwners.get(waiting);
+        }
+        return false;
+    }
+
+    /**
+     * 当前线程使用的创建批次：启动阶段为共享的批次，启动完成后为当前线程的批次/null
+     */
+    @Nullable
+    SingletonBatch currentBatch() {
+        SingletonBatch batch = this.startupBatch;
+        return batch != null ? batch : this.creationBatch.get();
+    }
+
+    /**
+     * 依次从一、二、三级缓存获取singleton，第一次获取早期引用时由三级缓存的工厂生成并移入二级缓存
+     * @param beanDefinition BeanDefinition
+     * @return 完整的实例/早期引用，尚未实例化时为null
+     */
+    @Nullable
+    Object getSingleton(BeanDefinition beanDefinition) {
+        Object instance = beanDefinition.getInstance();
+        SingletonBatch batch = currentBatch();
+        if (instance != null || batch == null) {
+            return instance;
+        }
+        synchronized (batch.earlySingletonObjects) {
+            instance = beanDefinition.getInstance();
+            if (instance == null) {
+                instance = batch.earlySingletonObjects.get(beanDefinition.getName());
+            }
+            if (instance == null) {
+                ObjectFactory<?> singletonFactory = batch.singletonFactories.remove(beanDefinition.getName());
+                if (singletonFactory != null) {
+                    instance = singletonFactory.getObject();
+                    batch.earlySingletonObjects.put(beanDefinition.getName(), instance);
+                }
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * singleton是否已实例化(完整的实例或早期引用)
+     */
+    boolean isSingletonInstantiated(BeanDefinition beanDefinition) {
+        SingletonBatch batch = currentBatch();
+        if (beanDefinition.getInstance() != null || batch == null) {
+            return beanDefinition.getInstance() != null;
+        }
+        synchronized (batch.earlySingletonObjects) {
+            return beanDefinition.getInstance() != null || batch.earlySingletonObjects.containsKey(beanDefinition.getName())
+                    || batch.singletonFactories.containsKey(beanDefinition.getName());
+        }
+    }
+
+    /**
+     * 实例化之后、注入之前注册早期引用工厂(三级缓存)，字段/setter注入的依赖可以反过来引用该Bean;
+     * 早期引用经过BeanPostProcessor.getEarlyBeanReference()处理
+     */
+    void addSingletonFactory(BeanDefinition beanDefinition, Object instance) {
+        SingletonBatch batch = Objects.requireNonNull(currentBatch());
+        synchronized (batch.earlySingletonObjects) {
+            batch.singletonFactories.put(beanDefinition.getName(), () -> getEarlyBeanReference(beanDefinition, instance));
+        }
+    }
+
+    Object getEarlyBeanReference(BeanDefinition beanDefinition, Object instance) {
+        Object reference = instance;
+        for (BeanPostProcessor processor : getBeanPostProcessors(beanDefinition)) {
+            reference = checkProcessed(processor.getEarlyBeanReference(reference, beanDefinition.getName()), processor, beanDefinition);
+        }
+        return reference;
+    }
+
+    /**
+     * 确定最终发布的实例：早期引用已被其他Bean引用时，必须发布同一个实例
+     * @param instance 原始实例
+     * @param exposedObject 经过BeanPostProcessor处理后的实例
+     */
+    Object getExposedObject(BeanDefinition beanDefinition, Object instance, Object exposedObject) {
+        SingletonBatch batch = Objects.requireNonNull(currentBatch());
+        Object earlySingleton;
+        synchronized (batch.earlySingletonObjects) {
+            earlySingleton = batch.earlySingletonObjects.get(beanDefinition.getName());
+        }
+        if (earlySingleton == null || earlySingleton == exposedObject) {
+            return exposedObject;
+        }
+        if (exposedObject == instance) {
+            // 初始化时没有替换实例，发布(可能已被getEarlyBeanReference替换的)早期引用
+            return earlySingleton;
+        }
+        throw new BeanCreationException(String.format("Bean的早期引用已注入到其他Bean，但最终被BeanPostProcessor替换为其他实例; " +
+                "Bean '%s' has been injected into other beans as an early reference, but was eventually replaced by a BeanPostProcessor: %s",
+                beanDefinition.getName(), beanDefinition.getBeanClass().getName()));
+    }
+
+    /**
+     * 注入、初始化完成后发布到一级缓存并移除早期引用
+     * @param exposedObject 最终发布的实例
+     * @param instance 原始实例，destroy方法在原始实例上调用
+     */
+    void addSingleton(BeanDefinition beanDefinition, Object exposedObject, Object instance) {
+        SingletonBatch batch = Objects.requireNonNull(currentBatch());
+        synchronized (batch.earlySingletonObjects) {
+            batch.earlySingletonObjects.remove(beanDefinition.getName());
+            batch.singletonFactories.remove(beanDefinition.getName());
+            beanDefinition.setInstance(exposedObject, instance);
+        }
+    }
+
+    /**
+     * 创建失败时移除早期引用，允许再次创建
+     */
+    void removeEarlySingleton(BeanDefinition beanDefinition) {
+        SingletonBatch batch = Objects.requireNonNull(currentBatch());
+        synchronized (batch.earlySingletonObjects) {
+            batch.earlySingletonObjects.remove(beanDefinition.getName());
+            batch.singletonFactories.remove(beanDefinition.getName());
+        }
+    }
+
+    /**
+     * 沿依赖的singleton检测循环依赖，已确认无环的Bean不再重复检测
+     * @param beanDefinition BeanDefinition
+     * @param path 当前依赖路径
+     */
+    void checkCircularDependency(BeanDefinition beanDefinition, Set<BeanDefinition> path) {
+        if (beanDefinition.isDependencyChecked() || isSingletonInstantiated(beanDefinition)) {
+            return;
+        }
+        if (!path.add(beanDefinition)) {
+            throw circularDependency(beanDefinition, path.stream().map(BeanDefinition::getName).toList());
+        }
+        for (BeanDefinition dependency : getSingletonDependencies(beanDefinition)) {
+            checkCircularDependency(dependency, path);
+        }
+        path.remove(beanDefinition);
+        beanDefinition.setDependencyChecked(true);
+    }
+
+    /**
+     * 构造方法/工厂方法之间的循环依赖无法通过早期引用解决，报告从该Bean开始的完整依赖路径，如a -> b -> c -> a
+     * @param beanDefinition 再次被创建的Bean
+     * @param path 依赖路径
+     */
+    UnsatisfiedDependencyException circularDependency(BeanDefinition beanDefinition, List<String> path) {
+        String cycle = String.join(" -> ", path.subList(Math.max(path.indexOf(beanDefinition.getName()), 0), path.size()));
+        return new UnsatisfiedDependencyException(String.format("触发了循环依赖; Circular dependency detected when create %s bean '%s': %s -> %s",
+                beanDefinition.getScope(), beanDefinition.getName(), cycle, beanDefinition.getName()));
+    }
+
+    /**
+     * 创建一个Bean，实例化后先注册早期引用工厂(三级缓存)，注入完成后才发布到一级缓存;
+     * 启动时不进行字段和方法级别的注入，由injectSingletons()在所有singleton实例化之后统一注入，
+     * 字段/setter注入的依赖因此可以通过早期引用反过来引用该Bean，只由构造方法组成的循环依赖仍然报错;
+     * 启动完成后(延迟初始化)同一批次创建的Bean同样在批次结束时统一注入。如果创建的Bean不是Configuration，则在构造方法中注入的依赖Bean会自动创建。
+     * @param beanDefinition BeanDefinition
+     * @return 完整的实例，延迟注入时为早期引用
+     */
+    public Object createBeanAsEarlySingleton(BeanDefinition beanDefinition){
+        log.atDebug().log("Try create bean '{}' as early singleton: {}", beanDefinition.getName(), beanDefinition.getBeanClass().getName());
+        Object instance = createBeanInstanceInCreation(beanDefinition);
+        addSingletonFactory(beanDefinition, instance);
+        Queue<EarlySingleton> deferredInjections = Objects.requireNonNull(currentBatch()).deferredInjections;
+        if (deferredInjections != null && !isConfigurationDefinition(beanDefinition)) {
+            // 同一批次的singleton实例化后再统一注入; @Configuration在调用@Bean方法前注入
+            deferredInjections.add(new EarlySingleton(beanDefinition, instance));
+            return getSingleton(beanDefinition);
+        }
+        Object exposedObject;
+        try {
+            injectProperties(beanDefinition, instance);
+            exposedObject = getExposedObject(beanDefinition, instance, initializeBean(beanDefinition, instance));
+        } catch (RuntimeException e) {
+            removeEarlySingleton(beanDefinition);
+            throw e;
+        }
+        addSingleton(beanDefinition, exposedObject, instance);
+        return exposedObject;
+    }
+
+    /**
+     * 对已实例化的singleton按实例化顺序进行字段和方法级别的注入，注入时才创建的Bean(延迟初始化)加入队列后同样被注入;
+     * 全部注入完成后按依赖顺序初始化(BeanPostProcessor与init方法)，再发布到一级缓存，注入或初始化失败时同一批次的Bean都不会被发布
+     */
+    void injectSingletons() {
+        SingletonBatch batch = Objects.requireNonNull(currentBatch());
+        Queue<EarlySingleton> injections = batch.deferredInjections;
+        List<EarlySingleton> injected = new ArrayList<>(injections.size());
+        EarlySingleton earlySingleton;
+        try {
+            while ((earlySingleton = injections.peek()) != null) {
+                injectProperties(earlySingleton.beanDefinition(), earlySingleton.instance());
+                injected.add(injections.poll());
+            }
+            Map<BeanDefinition, Object> exposedObjects = initializeSingletons(injected);
+            for (EarlySingleton singleton : injected) {
+                addSingleton(singleton.beanDefinition(), exposedObjects.getOrDefault(singleton.beanDefinition(), singleton.instance()), singleton.instance());
+            }
+        } catch (RuntimeException e) {
+            injected.forEach(singleton -> removeEarlySingleton(singleton.beanDefinition()));
+            throw e;
+        }
+        batch.deferredInjections = null;
+    }
+
+    /**
+     * 按依赖顺序初始化，依赖的Bean先初始化; 启动时开启了并行创建则在虚拟线程上并行初始化互不依赖的Bean
+     * @param singletons 已注入的singleton
+     * @return 需要初始化的Bean最终发布的实例，没有init方法与适用的BeanPostProcessor的Bean不在其中
+     */
+    Map<BeanDefinition, Object> initializeSingletons(List<EarlySingleton> singletons) {
+        Map<BeanDefinition, Object> instances = new HashMap<>();
+        for (EarlySingleton singleton : singletons) {
+            BeanDefinition def = singleton.beanDefinition();
+            if (def.getInitMethod() != null || def.getInitMethodName() != null || getBeanPostProcessors(def).length > 0) {
+                instances.put(def, singleton.instance());
+            }
+        }
+        if (instances.isEmpty()) {
+            return Map.of();
+        }
+        Map<BeanDefinition, Object> exposedObjects = new ConcurrentHashMap<>();
+        // 依赖图包含同一批次的所有Bean，没有init方法的Bean同样传递依赖顺序
+        Map<BeanDefinition, List<BeanDefinition>> graph = createLifecycleGraph(singletons.stream().map(EarlySingleton::beanDefinition).toList());
+        List<BeanDefinition> ordered = sortByDependencies(graph);
+        Consumer<BeanDefinition> initializer = def -> {
+            Object instance = instances.get(def);
+            if (instance != null) {
+                exposedObjects.put(def, getExposedObject(def, instance, initializeBean(def, instance)));
+            }
+        };
+        if (this.started || !this.parallelInit || instances.size() == 1) {
+            ordered.forEach(initializer);
+            return exposedObjects;
+        }
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (CompletableFuture<Void> future : runInDependencyOrder(ordered, graph, false, initializer, executor).values()) {
+                join(future);
+            }
+        }
+        log.atInfo().log("Parallel initialized {} beans in {} ms", instances.size(), elapsedMillis(start));
+        return exposedObjects;
+    }
+
+    /**
+     * 创建prototype或自定义作用域的Bean，每次调用都创建新的实例
+     * @param beanDefinition BeanDefinition
+     * @return Bean实例
+     */
+    Object createScopedBean(BeanDefinition beanDefinition) {
+        if (beanDefinition.isCreationChecked()) {
+            // 第一次创建已经遍历了同样的依赖，之后的创建不会出现循环依赖，prototype的热点路径不再读写ThreadLocal
+            return doCreateScopedBean(beanDefinition);
+        }
+        // 非singleton没有早期引用，注入过程中再次创建同名Bean同样是循环依赖
+        List<BeanDefinition> inCreation = beforeCreation(beanDefinition);
+        try {
+            Object bean = doCreateScopedBean(beanDefinition);
+            beanDefinition.setCreationChecked(true);
+            return bean;
+        } finally {
+            afterCreation(inCreation, beanDefinition);
+        }
+    }
+
+    Object doCreateScopedBean(BeanDefinition beanDefinition) {
+        Object instance = createBeanInstance(beanDefinition);
+        injectProperties(beanDefinition, instance);
+        return initializeBean(beanDefinition, instance);
+    }
+
+    /**
+     * 在当前线程的创建路径中调用构造方法/工厂方法
+     */
+    Object createBeanInstanceInCreation(BeanDefinition beanDefinition) {
+        List<BeanDefinition> inCreation = beforeCreation(beanDefinition);
+        try {
+            return createBeanInstance(beanDefinition);
+        } finally {
+            afterCreation(inCreation, beanDefinition);
+        }
+    }
+
+    /**
+     * 记录当前线程正在创建的Bean，同一个Bean再次被创建时认为触发了循环依赖;
+     * 创建路径通常很短，按引用线性查找，不像HashSet那样每次创建都分配节点(prototype的热点路径)
+     * @return 当前线程的创建路径，传给afterCreation()，不再重复读取ThreadLocal
+     */
+    List<BeanDefinition> beforeCreation(BeanDefinition beanDefinition) {
+        List<BeanDefinition> inCreation = this.beansInCreation.get();
+        for (int i = 0; i < inCreation.size(); i++) {
+            if (inCreation.get(i) == beanDefinition) {
+                throw circularDependency(beanDefinition, inCreation.stream().map(BeanDefinition::getName).toList());
+            }
+        }
+        inCreation.add(beanDefinition);
+        return inCreation;
+    }
+
+    void afterCreation(List<BeanDefinition> inCreation, BeanDefinition beanDefinition) {
+        // 按后进先出的顺序结束创建
+        int last = inCreation.size() - 1;
+        if (last >= 0 && inCreation.get(last) == beanDefinition) {
+            inCreation.remove(last);
+        } else {
+            inCreation.remove(beanDefinition);
+        }
+    }
+
+    /**
+     * 按缓存的参数解析计划解析参数，并调用构造方法/工厂方法创建实例
+     * @param beanDefinition BeanDefinition
+     * @return Bean实例
+     */
+    Object createBeanInstance(BeanDefinition beanDefinition) {
+        // @DependsOn指定的Bean先创建
+        for (String dependsOn : beanDefinition.getDependsOn()) {
+            getBeanInstance(getDependsOnDefinition(beanDefinition, dependsOn));
+        }
+        if (beanDefinition.getConfigurationPrefix() != null) {
+            return bindConfigurationProperties(beanDefinition);
+        }
+        // 创建参数：使用缓存的参数解析计划与已解析的依赖
+        BeanParameter[] parameters = getBeanParameters(beanDefinition);
+        BeanDefinition[] dependencies = getBeanDependencies(beanDefinition, parameters);
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            args[i] = resolveArgument(parameters[i], dependencies[i]);
+        }
+
+        // 创建Bean实例：有工厂方法时用@Bean方法创建，否则用构造方法创建
+        Object configInstance = beanDefinition.getFactoryName() != null ? getBean(beanDefinition.getFactoryName()) : null;
+        try {
+            return beanDefinition.instantiate(configInstance, args);
+        } catch (BeanCreationException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new BeanCreationException(String.format("%s创建Bean时发生异常; Exception when create bean '%s': %s",
+                    beanDefinition.getFactoryName() != null ? "用@Bean方法" : "用构造方法", beanDefinition.getName(), beanDefinition.getBeanClass().getName()), e);
+        }
+    }
+
+    /**
+     * 按解析计划获取参数或注入的值
+     * @param parameter 解析计划
+     * @param dependency @Autowired依赖的BeanDefinition/null
+     * @return 值，非必须的依赖未找到时为null
+     */
+    @Nullable
+    Object resolveArgument(BeanParameter parameter, @Nullable BeanDefinition dependency) {
+        if (parameter.isValue()) {
+            // 参数是@Value
+            return this.propertyResolver.getRequiredValue(parameter.valueExpression(), parameter.type());
+        }
+        if (parameter.provider()) {
+            // 参数是ObjectProvider，依赖bean在使用时才查找创建
+            return new BeanObjectProvider<>(this, parameter);
+        }
+        // 参数是@Autowired，依赖bean不是必须且未找到时为null
+        if (dependency == null) {
+            return null;
+        }
+        // 已创建的singleton直接使用，不进入递归的getBeanInstance()
+        Object instance = dependency.getInstance();
+        return instance != null ? instance : getDependencyInstance(dependency);
+    }
+
+    /**
+     * 字段/setter注入：按缓存的注入点写入@Value与@Autowired的值，非必须且未找到的依赖保留字段原值
+     * @param beanDefinition BeanDefinition
+     * @param instance 已实例化的Bean
+     */
+    void injectProperties(BeanDefinition beanDefinition, Object instance) {
+        InjectionPoint[] injectionPoints = getInjectionPoints(beanDefinition);
+        if (injectionPoints.length == 0) {
+            return;
+        }
+        BeanDefinition[] dependencies = getInjectionDependencies(beanDefinition, injectionPoints);
+        for (int i = 0; i < injectionPoints.length; i++) {
+            InjectionPoint injectionPoint = injectionPoints[i];
+            Object value = resolveArgument(injectionPoint.parameter(), dependencies[i]);
+            if (value == null) {
+                continue;
+            }
+            try {
+                injectionPoint.inject(instance, value);
+            } catch (Throwable e) {
+                throw new BeanCreationException(String.format("注入时发生异常; Exception when inject %s of bean '%s': %s",
+                        injectionPoint.getDescription(), beanDefinition.getName(), beanDefinition.getBeanClass().getName()), e);
+            }
+        }
+    }
+
+    /**
+     * 获取字段/setter注入点，首次调用时从Class解析(同一个Class只解析一次)并缓存到BeanDefinition
+     */
+    InjectionPoint[] getInjectionPoints(BeanDefinition beanDefinition) {
+        InjectionPoint[] injectionPoints = beanDefinition.getInjectionPoints();
+        if (injectionPoints != null) {
+            return injectionPoints;
+        }
+        // @ConfigurationProperties由属性绑定创建，不再注入
+        injectionPoints = beanDefinition.getConfigurationPrefix() != null
+                ? InjectionMetadata.EMPTY : InjectionMetadata.forClass(beanDefinition.getBeanClass());
+        beanDefinition.setInjectionPoints(injectionPoints);
+        return injectionPoints;
+    }
+
+    /**
+     * 获取注入点依赖的BeanDefinition，首次调用时解析并缓存
+     */
+    BeanDefinition[] getInjectionDependencies(BeanDefinition beanDefinition, InjectionPoint[] injectionPoints) {
+        BeanDefinition[] dependencies = beanDefinition.getInjectionDependencies();
+        if (dependencies != null) {
+            return dependencies;
+        }
+        dependencies = new BeanDefinition[injectionPoints.length];
+        for (int i = 0; i < injectionPoints.length; i++) {
+            dependencies[i] = resolveDependency(beanDefinition, injectionPoints[i].parameter());
+        }
+        beanDefinition.setInjectionDependencies(dependencies);
+        return dependencies;
+    }
+
+    /**
+     * 初始化已注入的Bean：依次调用适用的BeanPostProcessor.postProcessBeforeInitialization()、init方法、postProcessAfterInitialization()
+     * @param beanDefinition BeanDefinition
+     * @param instance 已注入的Bean实例
+     * @return 处理后的实例
+     */
+    Object initializeBean(BeanDefinition beanDefinition, Object instance) {
+        BeanPostProcessor[] processors = getBeanPostProcessors(beanDefinition);
+        Object bean = instance;
+        for (BeanPostProcessor processor : processors) {
+            bean = checkProcessed(processor.postProcessBeforeInitialization(bean, beanDefinition.getName()), processor, beanDefinition);
+        }
+        invokeInitMethod(beanDefinition, bean);
+        for (BeanPostProcessor processor : processors) {
+            bean = checkProcessed(processor.postProcessAfterInitialization(bean, beanDefinition.getName()), processor, beanDefinition);
+        }
+        return bean;
+    }
+
+    Object checkProcessed(@Nullable Object bean, BeanPostProcessor processor, BeanDefinition beanDefinition) {
+        if (bean == null) {
+            throw new BeanCreationException(String.format("BeanPostProcessor返回了null; BeanPostProcessor %s returned null for bean '%s': %s",
+                    processor.getClass().getName(), beanDefinition.getName(), beanDefinition.getBeanClass().getName()));
+        }
+        return bean;
+    }
+
+    /**
+     * 获取适用于该Bean的BeanPostProcessor，首次调用时按supports()从已注册的处理器中过滤并缓存到BeanDefinition，
+     * 之后直接使用; BeanPostProcessor注册前(处理器自身及其依赖)不处理，也不缓存
+     */
+    BeanPostProcessor[] getBeanPostProcessors(BeanDefinition beanDefinition) {
+        BeanPostProcessor[] processors = beanDefinition.getPostProcessors();
+        if (processors != null) {
+            return processors;
+        }
+        BeanPostProcessor[] registered = this.beanPostProcessors;
+        if (registered == null) {
+            return NO_POST_PROCESSORS;
+        }
+        processors = Arrays.stream(registered).filter(processor -> processor.supports(beanDefinition.getBeanClass())).toArray(BeanPostProcessor[]::new);
+        if (processors.length == 0) {
+            processors = NO_POST_PROCESSORS;
+        }
+        beanDefinition.setPostProcessors(processors);
+        return processors;
+    }
+
+    /**
+     * 在其他Bean之前创建并调用BeanFactoryPostProcessor，之后创建BeanPostProcessor，最后注册内置的@Around代理处理器;
+     * 它们及其依赖在各自的批次中完成注入与初始化，不被BeanPostProcessor处理，也不受延迟初始化影响
+     */
+    void registerPostProcessors() {
+        List<BeanDefinition> factoryProcessorDefinitions = findBeanDefinitionList(BeanFactoryPostProcessor.class);
+        if (!factoryProcessorDefinitions.isEmpty()) {
+            List<BeanFactoryPostProcessor> factoryProcessors = createPostProcessors(factoryProcessorDefinitions);
+            for (BeanFactoryPostProcessor factoryProcessor : factoryProcessors) {
+                factoryProcessor.postProcessBeanFactory(this);
+            }
+        }
+        List<BeanDefinition> processorDefinitions = findBeanDefinitionList(BeanPostProcessor.class);
+        List<BeanPostProcessor> processors = new ArrayList<>(processorDefinitions.isEmpty() ? List.of() : createPostProcessors(processorDefinitions));
+        // @Around代理在最后创建，包裹其他处理器处理后的实例
+        processors.add(new AroundProxyBeanPostProcessor(this));
+        this.beanPostProcessors = processors.toArray(BeanPostProcessor[]::new);
+        log.atDebug().log("Registered bean post processors: {}", processors);
+    }
+
+    /**
+     * 在一个批次中创建后置处理器，已按@Order排序
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> createPostProcessors(List<BeanDefinition> beanDefinitions) {
+        this.startupBatch.deferredInjections = new ConcurrentLinkedQueue<>();
+        List<Object> instances = new ArrayList<>(beanDefinitions.size());
+        for (BeanDefinition beanDefinition : beanDefinitions) {
+            instances.add(getBeanInstance(beanDefinition));
+        }
+        injectSingletons();
+        List<T> processors = new ArrayList<>(instances.size());
+        for (int i = 0; i < instances.size(); i++) {
+            BeanDefinition beanDefinition = beanDefinitions.get(i);
+            processors.add((T) (beanDefinition.isSingleton() ? beanDefinition.getRequiredInstance() : instances.get(i)));
+        }
+        return processors;
+    }
+
+    /**
+     * 调用init方法：@PostConstruct标注的方法或@Bean指定的initMethod
+     * @param beanDefinition BeanDefinition
+     * @param instance 已注入的Bean实例
+     */
+    void invokeInitMethod(BeanDefinition beanDefinition, Object instance) {
+        Method method = findLifecycleMethod(beanDefinition, instance, beanDefinition.getInitMethod(), beanDefinition.getInitMethodName());
+        if (method == null) {
+            return;
+        }
+        try {
+            method.invoke(instance);
+        } catch (ReflectiveOperationException e) {
+            throw new BeanCreationException(String.format("调用init方法时发生异常; Exception when invoke init method '%s' of bean '%s': %s",
+                    method.getName(), beanDefinition.getName(), beanDefinition.getBeanClass().getName()),
+                    e instanceof InvocationTargetException ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * 调用destroy方法：@PreDestroy标注的方法或@Bean指定的destroyMethod，异常只记录日志，不影响其他Bean的销毁;
+     * 在原始实例上调用，private/final的destroy方法不会落在代理上
+     * @param beanDefinition 已创建的singleton
+     */
+    void invokeDestroyMethod(BeanDefinition beanDefinition) {
+        Object instance = beanDefinition.getTargetInstance();
+        if (instance != null) {
+            invokeDestroyMethod(beanDefinition, instance);
+        }
+    }
+
+    /**
+     * 作用域移除或容器关闭时，调用作用域中Bean实例的destroy方法，@Around代理在其原Bean上调用
+     * @param beanName Bean名称
+     * @param instance 作用域中的Bean实例
+     */
+    void destroyScopedBean(String beanName, Object instance) {
+        BeanDefinition beanDefinition = findBeanDefinition(beanName);
+        if (beanDefinition != null) {
+            invokeDestroyMethod(beanDefinition, ProxyFactory.getTarget(instance));
+        }
+    }
+
+    /**
+     * 调用Bean实例的destroy方法，异常只记录日志
+     */
+    void invokeDestroyMethod(BeanDefinition beanDefinition, Object instance) {
+        try {
+            Method method = findLifecycleMethod(beanDefinition, instance, beanDefinition.getDestroyMethod(), beanDefinition.getDestroyMethodName());
+            if (method != null) {
+                method.invoke(instance);
+                log.atDebug().log("Destroyed bean '{}' by method: {}", beanDefinition.getName(), method.getName());
+            }
+        } catch (InvocationTargetException e) {
+            log.warn("调用destroy方法时发生异常; Exception when invoke destroy method of bean '{}'", beanDefinition.getName(), e.getCause());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("调用destroy方法时发生异常; Exception when invoke destroy method of bean '{}'", beanDefinition.getName(), e);
+        }
+    }
+
+    /**
+     * 获取init/destroy方法：@PostConstruct/@PreDestroy标注的方法已在BeanDefinition中，
+     * @Bean指定的方法名在实际的实例类型上查找(含父类及非public的无参方法)
+     * @return 没有时返回null
+     */
+    @Nullable
+    Method findLifecycleMethod(BeanDefinition beanDefinition, Object instance, @Nullable Method method, @Nullable String methodName) {
+        if (method != null || methodName == null) {
+            return method;
+        }
+        try {
+            return instance.getClass().getMethod(methodName);
+        } catch (NoSuchMethodException e) {
+            for (Class<?> type = instance.getClass(); type != null; type = type.getSuperclass()) {
+                for (Method declaredMethod : type.getDeclaredMethods()) {
+                    if (declaredMethod.getName().equals(methodName) && declaredMethod.getParameterCount() == 0 && declaredMethod.trySetAccessible()) {
+                        return declaredMethod;
+                    }
+                }
+            }
+        }
+        throw new BeanCreationException(String.format("找不到无参数的方法'%s'; No-arg method '%s' not found for bean '%s': %s",
+                methodName, methodName, beanDefinition.getName(), instance.getClass().getName()));
+    }
+
+    /**
+     * 关闭容器：先销毁作用域(如refresh)中仍存活的Bean，再按依赖的逆序调用所有已创建singleton的destroy方法，依赖它的Bean都销毁后才销毁该Bean，
+     * 依赖图中互不依赖的分支在虚拟线程上并行销毁; 等待时间超过summer.context.shutdown-timeout时不再等待，重复调用无效
+     */
+    @Override
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (this.refreshListener != null) {
+            this.propertyResolver.removeChangeListener(this.refreshListener);
+        }
+        Duration timeout = this.propertyResolver.getDuration(SHUTDOWN_TIMEOUT_PROPERTY, DEFAULT_SHUTDOWN_TIMEOUT);
+        // 等待正在进行的创建批次完成，之后不再创建新的singleton
+        this.singletonCreationLock.writeLock().lock();
+        this.singletonCreationLock.writeLock().unlock();
+        // 先销毁作用域中的Bean，它们可能依赖singleton
+        for (Scope scope : this.scopes.values()) {
+            scope.destroy();
+        }
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        boolean completed = false;
+        try {
+            List<BeanDefinition> singletons = this.beans.values().stream()
+                    .filter(def -> def.isSingleton() && def.getInstance() != null).sorted().toList();
+            Map<BeanDefinition, List<BeanDefinition>> graph = createLifecycleGraph(singletons);
+            Map<BeanDefinition, CompletableFuture<Void>> futures = runInDependencyOrder(sortByDependencies(graph), graph, true, this::invokeDestroyMethod, executor);
+            try {
+                CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+                completed = true;
+                log.atInfo().log("Closed context, destroyed {} beans in {} ms", futures.size(), elapsedMillis(start));
+            } catch (TimeoutException e) {
+                log.warn("关闭容器超时; Timeout after {} when close context, beans not destroyed: {}", timeout,
+                        futures.entrySet().stream().filter(entry -> !entry.getValue().isDone()).map(entry -> entry.getKey().getName()).toList());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.warn("关闭容器时发生异常; Exception when close context", e.getCause());
+            }
+        } finally {
+            if (completed) {
+                executor.shutdown();
+            } else {
+                // 超时或中断时中断仍在执行的destroy方法
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 建立初始化/销毁使用的依赖图：Bean -> 它依赖的singleton(构造方法/工厂方法参数、@Configuration、@DependsOn、字段/setter注入)，
+     * 只保留集合内的Bean，依赖prototype等其他作用域的Bean时，继续查找它们依赖的singleton
+     * @param beanDefinitions 已创建的Bean
+     * @return Map<Bean, 依赖的Bean>，按beanDefinitions的顺序
+     */
+    Map<BeanDefinition, List<BeanDefinition>> createLifecycleGraph(List<BeanDefinition> beanDefinitions) {
+        Set<BeanDefinition> members = new HashSet<>(beanDefinitions);
+        Map<BeanDefinition, List<BeanDefinition>> graph = new LinkedHashMap<>();
+        for (BeanDefinition beanDefinition : beanDefinitions) {
+            Set<BeanDefinition> singletons = new LinkedHashSet<>();
+            collectLifecycleDependencies(beanDefinition, singletons, new HashSet<>());
+            singletons.remove(beanDefinition);
+            singletons.retainAll(members);
+            graph.put(beanDefinition, List.copyOf(singletons));
+        }
+        return graph;
+    }
+
+    /**
+     * 收集已解析的依赖，不触发依赖解析
+     */
+    void collectLifecycleDependencies(BeanDefinition beanDefinition, Set<BeanDefinition> singletons, Set<BeanDefinition> visited) {
+        List<BeanDefinition> dependencies = new ArrayList<>();
+        for (BeanDefinition[] resolved : new BeanDefinition[][]{beanDefinition.getDependencies(), beanDefinition.getInjectionDependencies()}) {
+            if (resolved != null) {
+                for (BeanDefinition dependency : resolved) {
+                    if (dependency != null) {
+                        dependencies.add(dependency);
+                    }
+                }
+            }
+        }
+        if (beanDefinition.getFactoryName() != null) {
+            dependencies.add(findBeanDefinition(beanDefinition.getFactoryName()));
+        }
+        for (String dependsOn : beanDefinition.getDependsOn()) {
+            BeanDefinition dependency = findBeanDefinition(dependsOn);
+            if (dependency != null) {
+                dependencies.add(dependency);
+            }
+        }
+        for (BeanDefinition dependency : dependencies) {
+            if (dependency.isSingleton()) {
+                singletons.add(dependency);
+            } else if (visited.add(dependency)) {
+                collectLifecycleDependencies(dependency, singletons, visited);
+            }
+        }
+    }
+
+    /**
+     * 按依赖图深度优先排序，依赖在前; 字段/setter组成的循环依赖中，先访问到的Bean在后
+     * @param graph 依赖图
+     * @return 排序后的Bean
+     */
+    List<BeanDefinition> sortByDependencies(Map<BeanDefinition, List<BeanDefinition>> graph) {
+        List<BeanDefinition> ordered = new ArrayList<>(graph.size());
+        Set<BeanDefinition> visited = new HashSet<>();
+        for (BeanDefinition beanDefinition : graph.keySet()) {
+            visitDependencies(beanDefinition, graph, visited, ordered);
+        }
+        return ordered;
+    }
+
+    void visitDependencies(BeanDefinition beanDefinition, Map<BeanDefinition, List<BeanDefinition>> graph,
+                           Set<BeanDefinition> visited, List<BeanDefinition> ordered) {
+        if (!visited.add(beanDefinition)) {
+            return;
+        }
+        for (BeanDefinition dependency : graph.get(beanDefinition)) {
+            visitDependencies(dependency, graph, visited, ordered);
+        }
+        ordered.add(beanDefinition);
+    }
+
+    /**
+     * 按依赖图在线程池中执行：正序时依赖的Bean执行完成后才执行该Bean，逆序时依赖该Bean的Bean都执行完成后才执行该Bean，
+     * 互不依赖的Bean并行执行; 只等待排在前面(逆序时排在后面)的Bean，循环依赖中的反向依赖被忽略，因此不会互相等待
+     * @param ordered 按依赖排序的Bean，依赖在前
+     * @param graph 依赖图
+     * @param reverse 是否逆序执行
+     * @param action 对每个Bean执行的操作
+     * @param executor 线程池
+     * @return 每个Bean的任务
+     */
+    Map<BeanDefinition, CompletableFuture<Void>> runInDependencyOrder(List<BeanDefinition> ordered, Map<BeanDefinition, List<BeanDefinition>> graph,
+                                                                      boolean reverse, Consumer<BeanDefinition> action, Executor executor) {
+        Map<BeanDefinition, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            positions.put(ordered.get(i), i);
+        }
+        // 每个Bean需要等待的Bean
+        Map<BeanDefinition, List<BeanDefinition>> prerequisites = new HashMap<>();
+        for (BeanDefinition beanDefinition : ordered) {
+            for (BeanDefinition dependency : graph.get(beanDefinition)) {
+                if (positions.get(dependency) < positions.get(beanDefinition)) {
+                    if (reverse) {
+                        prerequisites.computeIfAbsent(dependency, key -> new ArrayList<>()).add(beanDefinition);
+                    } else {
+                        prerequisites.computeIfAbsent(beanDefinition, key -> new ArrayList<>()).add(dependency);
+                    }
+                }
+            }
+        }
+        Map<BeanDefinition, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            BeanDefinition beanDefinition = ordered.get(reverse ? ordered.size() - 1 - i : i);
+            CompletableFuture<?>[] waits = prerequisites.getOrDefault(beanDefinition, List.of()).stream()
+                    .map(futures::get).toArray(CompletableFuture[]::new);
+            futures.put(beanDefinition, CompletableFuture.allOf(waits).thenRunAsync(() -> action.accept(beanDefinition), executor));
+        }
+        return futures;
+    }
+
+    /**
+     * 把@ConfigurationProperties前缀下的属性一次性绑定为Bean实例
+     */
+    Object bindConfigurationProperties(BeanDefinition beanDefinition) {
+        try {
+            return this.propertyResolver.bind(beanDefinition.getConfigurationPrefix(), beanDefinition.getBeanClass());
+        } catch (IllegalArgumentException e) {
+            throw new BeanCreationException(String.format("绑定配置属性时发生异常; Exception when bind properties with prefix '%s' to bean '%s': %s",
+                    beanDefinition.getConfigurationPrefix(), beanDefinition.getName(), beanDefinition.getBeanClass().getName()), e);
+        }
+    }
+
+    /**
+     * 获取依赖Bean的实例：singleton尚未创建时递归创建，其他作用域从作用域中获取
+     */
+    Object getDependencyInstance(BeanDefinition dependBeanDefinition) {
+        return getBeanInstance(dependBeanDefinition);
+    }
+
+    /**
+     * 获取Bean实例，singleton尚未创建(延迟初始化)时创建，其他作用域按需创建
      */
-    protected Map<String, BeanDefinition> beans;
+    Object getBeanInstance(BeanDefinition beanDefinition) {
+        if (beanDefinition.isSingleton()) {
+            return getSingletonInstance(beanDefinition);
+        }
+        return getScopedInstance(beanDefinition);
+    }
 
+    Object getScopedInstance(BeanDefinition beanDefinition) {
+        if (beanDefinition.isPrototype()) {
+            return createScopedBean(beanDefinition);
+        }
+        Scope scope = this.scopes.get(beanDefinition.getScope());
+        if (scope == null) {
+            throw new BeanCreationException(String.format("作用域未注册; No scope registered for scope name '%s' of bean '%s'.",
+                    beanDefinition.getScope(), beanDefinition.getName()));
+        }
+        return scope.get(beanDefinition.getName(), () -> createScopedBean(beanDefinition));
+    }
 
     /**
-     * 创建Bean的名字,用于检测循环依赖
+     * 属性变化时，从refresh作用域中移除并销毁@Value引用了变化属性的Bean，下一次获取时重新创建
+     * @param event 属性变更事件
      */
-    private Set<String> createBeanNameSet;
+    void refreshBeans(PropertyChangeEvent event) {
+        Scope refreshScope = this.scopes.get(RefreshScope.SCOPE_REFRESH);
+        for (BeanDefinition beanDefinition : this.beans.values()) {
+            if (!RefreshScope.SCOPE_REFRESH.equals(beanDefinition.getScope())) {
+                continue;
+            }
+            String prefix = beanDefinition.getConfigurationPrefix();
+            if (prefix != null) {
+                // @ConfigurationProperties前缀下的属性变化
+                if (event.changedKeys().stream().anyMatch(key -> key.startsWith(prefix + ".") || key.startsWith(prefix + "["))
+                        && refreshScope.remove(beanDefinition.getName()) != null) {
+                    log.info("属性变化，刷新Bean; Refresh bean '{}' for changed properties with prefix: {}", beanDefinition.getName(), prefix);
+                }
+                continue;
+            }
+            // 未创建过的Bean没有参数解析计划及注入点，无需刷新
+            String changedExpression = findChangedValue(beanDefinition.getParameters(), event);
+            if (changedExpression == null && beanDefinition.getInjectionPoints() != null) {
+                changedExpression = findChangedValue(Arrays.stream(beanDefinition.getInjectionPoints())
+                        .map(InjectionPoint::parameter).toArray(BeanParameter[]::new), event);
+            }
+            if (changedExpression != null && refreshScope.remove(beanDefinition.getName()) != null) {
+                log.info("属性变化，刷新Bean; Refresh bean '{}' for changed property: {}", beanDefinition.getName(), changedExpression);
+            }
+        }
+    }
 
     /**
-     * 扫描并创建所有Bean
-     * 实现IoC容器-创建BeanDefinition
-     * 实现IoC容器-创建Bean示例
-     * @param configClass 被扫描的启动类
-     * @param propertyResolver 属性解析器
+     * 查找引用了变化属性的@Value表达式
      */
-    public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver) {
-        this.propertyResolver = propertyResolver;
-        // 扫描获取所有Bean的Class类型
-        Set<String> scanForClassNameSet = scanForClassNames(configClass);
-
-        // 扫描结果是指定包的所有Class名称，以及通过@Import导入的Class名称
-        this.beans = createBeanDefinitionMap(scanForClassNameSet);
-
-        // 创建BeanName检测循环依赖
-        this.createBeanNameSet = new HashSet<>(beans.size());
-
-        // 创建@Configuration类型的Bean实例
-        // 由于@Configuration标识的Bean实际上是工厂，它们必须先实例化，才能实例化其他普通Bean，所以我们先把@Configuration标识的Bean创建出来，再创建普通Bean
-        this.beans.values().stream()
-                .filter(this::isConfigurationDefinition).map(item->{
-                    createBeanAsEarlySingleton(item);
-                    return item.getName();
-                }).toList();
-
-        // 创建其他普通的Bean实例
-        createNormalBeans();
-
-        if (log.isDebugEnabled()) {
-            this.beans.values().stream().sorted().forEach(def -> {
-                log.debug("bean初始化; bean initialized: {}", def);
-            });
+    @Nullable
+    String findChangedValue(@Nullable BeanParameter[] parameters, PropertyChangeEvent event) {
+        if (parameters != null) {
+            for (BeanParameter parameter : parameters) {
+                if (parameter.isValue() && event.isChanged(parameter.valueExpression())) {
+                    return parameter.valueExpression();
+                }
+            }
         }
+        return null;
     }
+
     /**
-     * 扫描并创建所有Bean
-     * 实现IoC容器-创建BeanDefinition
-     * @param configClass 被扫描的启动类
-     * @param propertyResolver 属性解析器
+     * 注册自定义作用域
+     * @param scopeName 作用域名称，对应@Scope的value
+     * @param scope Scope
      */
-    public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver,boolean beanDefinition) {
-        this.propertyResolver = propertyResolver;
-        // 扫描获取所有Bean的Class类型
-        Set<String> scanForClassNameSet = scanForClassNames(configClass);
+    public void registerScope(String scopeName, Scope scope) {
+        if (BeanDefinition.SCOPE_SINGLETON.equals(scopeName) || BeanDefinition.SCOPE_PROTOTYPE.equals(scopeName)) {
+            throw new IllegalArgumentException("Cannot replace built-in scope: " + scopeName);
+        }
+        this.scopes.put(scopeName, Objects.requireNonNull(scope, "Scope is null."));
+    }
 
-        // 扫描结果是指定包的所有Class名称，以及通过@Import导入的Class名称
-        this.beans = createBeanDefinitionMap(scanForClassNameSet);
+    /**
+     * 获取@Autowired参数依赖的BeanDefinition，首次调用时解析并缓存，之后不再查找
+     * @param beanDefinition BeanDefinition
+     * @param parameters 参数解析计划
+     * @return 与参数对应的BeanDefinition数组，@Value参数及未找到的非必须依赖为null
+     */
+    BeanDefinition[] getBeanDependencies(BeanDefinition beanDefinition, BeanParameter[] parameters) {
+        BeanDefinition[] dependencies = beanDefinition.getDependencies();
+        if (dependencies != null) {
+            return dependencies;
+        }
+        dependencies = new BeanDefinition[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            dependencies[i] = resolveDependency(beanDefinition, parameters[i]);
+        }
+        beanDefinition.setDependencies(dependencies);
+        return dependencies;
     }
 
-    void createNormalBeans(){
-        // 获取还没有实例的BeanDefinition列表
-        List<BeanDefinition> beanDefinitionList = this.beans.values().stream()
-                .filter(beanDefinition -> beanDefinition.getInstance() == null).sorted().toList();
-        beanDefinitionList.forEach(item->{
-            // 如果Bean未被创建(可能在其他Bean的构造方法注入前被创建)
-            if(item.getInstance() == null){
-                createBeanAsEarlySingleton(item);
-            }
-        });
+    /**
+     * 查找@Autowired依赖的BeanDefinition
+     * @return @Value、ObjectProvider及未找到的非必须依赖返回null
+     */
+    @Nullable
+    BeanDefinition resolveDependency(BeanDefinition beanDefinition, BeanParameter parameter) {
+        if (parameter.isValue() || parameter.provider()) {
+            return null;
+        }
+        // 依赖的BeanDefinition
+        BeanDefinition dependBeanDefinition = parameter.autowiredName().isBlank()
+                ? findBeanDefinition(parameter.type()) : findBeanDefinition(parameter.autowiredName(), parameter.type());
+        // 如果是必须的，但依赖的BeanDefinition是空
+        if (parameter.required() && dependBeanDefinition == null) {
+            throw new BeanCreationException(String.format("@Autowired是必须的但没找到依赖的Bean; Missing autowired bean with type '%s' when create bean '%s': %s.",
+                    parameter.type().getName(), beanDefinition.getName(), beanDefinition.getBeanClass().getName()));
+        }
+        return dependBeanDefinition;
     }
 
     /**
-     * 创建一个Bean，但不进行字段和方法级别的注入。如果创建的Bean不是Configuration，则在构造方法中注入的依赖Bean会自动创建。
+     * 获取创建参数的解析计划，首次调用时从构造方法/工厂方法的参数注解解析并校验，之后直接使用缓存
      * @param beanDefinition BeanDefinition
-     * @return
+     * @return BeanParameter[]
      */
-    public Object createBeanAsEarlySingleton(BeanDefinition beanDefinition){
-        log.atDebug().log("Try create bean '{}' as early singleton: {}", beanDefinition.getName(), beanDefinition.getBeanClass().getName());
-        // 如果名字已经存在，则认为触发了循环依赖
-        if(!this.createBeanNameSet.add(beanDefinition.getName())){
-            throw new UnsatisfiedDependencyException(String.format("触发了循环依赖; Circular dependency detected when create bean '%s'", beanDefinition.getName()));
-        }
+    BeanParameter[] getBeanParameters(BeanDefinition beanDefinition) {
+        BeanParameter[] beanParameters = beanDefinition.getParameters();
+        // 命中缓存的分支保持短小，可以被JIT内联到prototype的创建路径中
+        return beanParameters != null ? beanParameters : resolveBeanParameters(beanDefinition);
+    }
 
-        //创建方式：构造方法或工厂方法
-        Executable createFun = null;
-        if(beanDefinition.getFactoryName() != null){
-            // 使用工厂方法创建
-            createFun = beanDefinition.getFactoryMethod();
-        }else{
-            // 工厂方法名字为空，则用构造方法创建
-            createFun = beanDefinition.getConstructor();
+    /**
+     * 从构造方法/工厂方法的参数注解解析并校验参数解析计划，缓存到BeanDefinition
+     */
+    BeanParameter[] resolveBeanParameters(BeanDefinition beanDefinition) {
+        BeanParameter[] beanParameters;
+        if (beanDefinition.getConfigurationPrefix() != null) {
+            // @ConfigurationProperties由属性绑定创建，没有构造参数
+            beanDefinition.setParameters(new BeanParameter[0]);
+            return beanDefinition.getParameters();
         }
-
-        // 创建参数
+        //创建方式：构造方法或工厂方法
+        Executable createFun = beanDefinition.getCreateExecutable();
         final Parameter[] parameters = createFun.getParameters();
         final Annotation[][] parameterAnnotations = createFun.getParameterAnnotations();
-        Object[] args =  new Object[parameters.length];
+        // @Configuration是工厂方法，不允许使用@Autowired创建
+        final boolean isConfiguration = isConfigurationDefinition(beanDefinition);
+        beanParameters = new BeanParameter[parameters.length];
         for (int i = 0; i < parameters.length; i++) {
             // 从参数获取@Value和@Autowired
-            final Parameter parameter = parameters[i];
             final Annotation[] parameterAnnotation = parameterAnnotations[i];
             final Value value = ClassUtils.getAnnotation(parameterAnnotation, Value.class);
             final Autowired autowired = ClassUtils.getAnnotation(parameterAnnotation, Autowired.class);
 
-            // @Configuration是工厂方法，不允许使用@Autowired创建
-            boolean isConfiguration = isConfigurationDefinition(beanDefinition);
             if(isConfiguration && autowired != null){
                 throw new BeanCreationException(
                         String.format("@Configuration是工厂方法，不允许使用@Autowired创建; Cannot specify @Autowired when create @Configuration bean '%s': %s.", beanDefinition.getName(), beanDefinition.getBeanClass().getName()));
@@ -153,69 +1486,45 @@ public class AnnotationConfigApplicationContext {
             }
 
             // 参数类型
-            final Class<?> type = parameter.getType();
-            if(type == null){
-                throw new BeanCreationException("参数类型为空，但不是; Parameter type is null");
-            }
-            if(value != null){
-                // 参数是@Value
-                args[i] = this.propertyResolver.getRequiredProperty(value.value(),type);
-            }else{
-                // 参数是@Autowired
-                String name = autowired.name();
-                boolean required = autowired.value();
-                // 依赖的BeanDefinition
-                BeanDefinition dependBeanDefinition = name.isBlank() ? findBeanDefinition(type) : findBeanDefinition(name, type);
-                // 如果是必须的，但依赖的BeanDefinition是空
-                if(required && dependBeanDefinition == null){
-                    throw new BeanCreationException(String.format("@Autowired是必须的但没找到依赖的Bean; Missing autowired bean with type '%s' when create bean '%s': %s.",
-                            type.getName(), beanDefinition.getName(), beanDefinition.getBeanClass().getName()));
-                }
-                if(dependBeanDefinition != null){
-                    // 获取到了依赖bean的实例化对象
-                    Object autowiredBeanInstance = dependBeanDefinition.getInstance();
-                    if(autowiredBeanInstance == null && !isConfiguration){
-                        // 当前依赖Bean尚未初始化，递归调用初始化该依赖Bean
-                        autowiredBeanInstance = createBeanAsEarlySingleton(dependBeanDefinition);
-                    }
-                    args[i] = autowiredBeanInstance;
-                }else{
-                    // @Autowired依赖bean不是必须，且未获取到bean
-                    args[i] = null;
-                }
+            final Class<?> type = parameters[i].getType();
+            if (autowired != null && type == ObjectProvider.class) {
+                // ObjectProvider<T>，按泛型参数T查找依赖
+                beanParameters[i] = BeanParameter.ofProvider(getProviderType(beanDefinition, parameters[i]), autowired.name());
+                continue;
             }
+            beanParameters[i] = value != null
+                    ? BeanParameter.ofValue(type, value.value())
+                    : BeanParameter.ofAutowired(type, autowired.name(), autowired.value());
         }
+        beanDefinition.setParameters(beanParameters);
+        return beanParameters;
+    }
 
-        // 创建Bean示例
-        Object instance = null;
-        if(beanDefinition.getFactoryName() != null){
-            // 有工厂方法时，用@Bean方法创建
-            Object configInstance = getBean(beanDefinition.getFactoryName());
-            try {
-                instance = beanDefinition.getFactoryMethod().invoke(configInstance,args);
-            }catch (Exception e){
-                throw new BeanCreationException(String.format("用@Bean方法创建Bean是发生异常; Exception when create bean '%s': %s",
-                        beanDefinition.getName(), beanDefinition.getBeanClass().getName()), e);
+    /**
+     * 获取ObjectProvider参数的泛型参数类型
+     */
+    Class<?> getProviderType(BeanDefinition beanDefinition, Parameter parameter) {
+        if (parameter.getParameterizedType() instanceof ParameterizedType parameterizedType) {
+            Type typeArgument = parameterizedType.getActualTypeArguments()[0];
+            if (typeArgument instanceof Class<?> clazz) {
+                return clazz;
             }
-        }else{
-            // 无工厂方法时，用构造方法创建
-            try {
-                instance = beanDefinition.getConstructor().newInstance(args);
-            }catch (Exception e){
-                throw new BeanCreationException(String.format("用构造方法创建Bean是发生异常; Exception when create bean '%s': %s",
-                        beanDefinition.getName(), beanDefinition.getBeanClass().getName()), e);
+            if (typeArgument instanceof ParameterizedType rawType) {
+                return (Class<?>) rawType.getRawType();
             }
         }
-        beanDefinition.setInstance(instance);
-        return beanDefinition.getInstance();
+        throw new BeanCreationException(String.format("ObjectProvider必须指定Bean类型; ObjectProvider must declare bean type when create bean '%s': %s.",
+                beanDefinition.getName(), beanDefinition.getBeanClass().getName()));
     }
+
     /**
      * 判断是否是@Configuration标识的BeanDefinition
      * @param beanDefinition BeanDefinition
      * @return 是：true
      */
     public boolean isConfigurationDefinition(BeanDefinition beanDefinition) {
-        return ClassUtils.findAnnotation(beanDefinition.getBeanClass(),Configuration.class) != null;
+        // 创建BeanDefinition时已确定，启动完成后(延迟创建的singleton)不再解析注解，也不会重新填充已释放的注解缓存
+        return beanDefinition.isConfiguration();
     }
 
 
@@ -228,7 +1537,7 @@ public class AnnotationConfigApplicationContext {
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with name '%s'.", name));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     /**
@@ -253,7 +1562,7 @@ public class AnnotationConfigApplicationContext {
         }
         List<T> list = new ArrayList<>(defs.size());
         for (var def : defs) {
-            list.add((T) def.getRequiredInstance());
+            list.add((T) getBeanInstance(def));
         }
         return list;
     }
@@ -267,7 +1576,7 @@ public class AnnotationConfigApplicationContext {
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with type '%s'.", requiredType));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
 
@@ -280,7 +1589,7 @@ public class AnnotationConfigApplicationContext {
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     @Nullable
@@ -290,13 +1599,13 @@ public class AnnotationConfigApplicationContext {
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     @Nullable
     @SuppressWarnings("unchecked")
     protected <T> List<T> findBeans(Class<T> requiredType) {
-        return findBeanDefinitionList(requiredType).stream().map(def -> (T) def.getRequiredInstance()).collect(Collectors.toList());
+        return findBeanDefinitionList(requiredType).stream().map(def -> (T) getBeanInstance(def)).collect(Collectors.toList());
     }
 
 
@@ -335,10 +1644,8 @@ public class AnnotationConfigApplicationContext {
      * @return 返回0或多个
      */
     public List<BeanDefinition> findBeanDefinitionList(Class<?> type) {
-        return this.beans.values().stream()
-                // 判断是否是相同类类、父类、接口
-                .filter(beanDefinition -> type.isAssignableFrom(beanDefinition.getBeanClass()))
-                .sorted().toList();
+        // 类型索引中已包含相同类、父类、接口，且已排序
+        return this.beanTypeIndex.getOrDefault(type, List.of());
     }
 
     /**
@@ -349,6 +1656,22 @@ public class AnnotationConfigApplicationContext {
      */
     @Nullable
     public BeanDefinition findBeanDefinition(Class<?> type) {
+        BeanDefinition cached = this.uniqueBeanDefinitionCache.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        BeanDefinition def = resolveUniqueBeanDefinition(type);
+        if (def != null) {
+            this.uniqueBeanDefinitionCache.put(type, def);
+        }
+        return def;
+    }
+
+    /**
+     * 从类型索引中解析唯一的BeanDefinition
+     */
+    @Nullable
+    BeanDefinition resolveUniqueBeanDefinition(Class<?> type) {
         List<BeanDefinition> beanDefinitionList = findBeanDefinitionList(type);
         if (beanDefinitionList.isEmpty()) {
             // 没有找到
@@ -376,6 +1699,29 @@ public class AnnotationConfigApplicationContext {
         }
     }
 
+    /**
+     * 扫描并创建BeanDefinition，扫描结果是指定包的所有Class名称，以及通过@Import导入的Class名称;
+     * 扫描缓存的指纹只包含扫描的包之外的目录路径，其中的类变化后缓存的元数据可能已过期，
+     * 由缓存创建BeanDefinition失败时删除缓存并重新扫描
+     * @param configClass 被扫描的启动类
+     * @return Map<BeanName, BeanDefinition>
+     */
+    Map<String, BeanDefinition> scanBeanDefinitions(Class<?> configClass) {
+        Set<String> classNameSet = scanForClassNames(configClass);
+        ScanCache cache = this.loadedScanCache;
+        if (cache == null) {
+            return createBeanDefinitionMap(classNameSet);
+        }
+        this.loadedScanCache = null;
+        try {
+            return createBeanDefinitionMap(classNameSet);
+        } catch (BeansException e) {
+            log.atWarn().log("扫描缓存已过期，删除后重新扫描; Scan cache {} is out of date, rescanning: {}", cache.file, e.toString());
+            cache.discard();
+            return createBeanDefinitionMap(scanForClassNames(configClass));
+        }
+    }
+
     /**
      * 扫描指定包下的所有Class，然后返回Class名字
      *
@@ -389,20 +1735,20 @@ public class AnnotationConfigApplicationContext {
         String[] scanPackages = (componentScan == null || componentScan.value().length == 0) ?
                 new String[]{configClass.getPackage().getName()} : componentScan.value();
 
-        // 依次扫描所有包
-        Set<String> classNameSet = new HashSet<>();
-        for (String pkg : scanPackages) {
-            log.atDebug().log("Scanning package: {}", pkg);
-            ResourceResolver resourceResolver = new ResourceResolver(pkg);
-            List<String> classNameList = resourceResolver.scan(res -> {
-                // 遇到类则添加，并将其转为Class全名
-                String name = res.name();
-                if (name.endsWith(".class")) {
-                    return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
-                }
-                return null;
-            });
-            classNameSet.addAll(classNameList);
+        // 编译期生成的组件索引，配置项：summer.context.index.enabled，默认开启
+        this.componentIndex = this.propertyResolver.getProperty(COMPONENT_INDEX_PROPERTY, boolean.class, true)
+                ? ComponentIndex.load(getContextClassLoader()) : null;
+
+        long start = System.nanoTime();
+        Set<String> classNameSet;
+        ComponentIndex cachedIndex = loadScanCache(scanPackages);
+        if (cachedIndex != null) {
+            // 类路径未变化，缓存中的组件即为扫描结果，并按缓存的元数据创建BeanDefinition
+            this.componentIndex = cachedIndex;
+            classNameSet = new HashSet<>(cachedIndex.components.keySet());
+            log.atInfo().log("Loaded {} components from scan cache in {} ms", classNameSet.size(), elapsedMillis(start));
+        } else {
+            classNameSet = scanPackages(scanPackages, start);
         }
 
         // 继续查找@Import(Xyz.class)导入的Class配置
@@ -416,50 +1762,440 @@ public class AnnotationConfigApplicationContext {
         return classNameSet;
     }
 
-    Map<String, BeanDefinition> createBeanDefinitionMap(Set<String> classNameSet) {
-        Map<String, BeanDefinition> beanDefinitionMap = new HashMap<>(classNameSet.size());
-        for (String className : classNameSet) {
-            Class<?> clazz = null;
-            try {
-                // class名称转为class对象
-                clazz = Class.forName(className);
-            } catch (ClassNotFoundException e) {
-                throw new BeanCreationException(e);
+    /**
+     * 扫描所有包，summer.context.parallel-scan开启时并行扫描
+     * @return 扫描到的Class名称
+     */
+    Set<String> scanPackages(String[] scanPackages, long start) {
+        // 只扫描.class文件，其他文件在创建Resource之前被过滤; 所有包共享jar包条目索引，扫描结束后一起释放
+        ResourceResolver resolver = new ResourceResolver().suffix(".class").parallel(isParallelScan());
+        Set<String> classNameSet;
+        if (isParallelScan()) {
+            // 并行扫描所有包
+            classNameSet = ConcurrentHashMap.newKeySet();
+            runInScanPool(() -> Arrays.stream(scanPackages).parallel()
+                    .forEach(pkg -> classNameSet.addAll(scanPackage(resolver, pkg))));
+            log.atInfo().log("Parallel scanned {} packages, found {} classes in {} ms",
+                    scanPackages.length, classNameSet.size(), elapsedMillis(start));
+        } else {
+            // 依次扫描所有包
+            classNameSet = new HashSet<>();
+            for (String pkg : scanPackages) {
+                classNameSet.addAll(scanPackage(resolver, pkg));
             }
+        }
+        return classNameSet;
+    }
+
+    /**
+     * 读取扫描结果缓存，配置项：summer.context.scan-cache.file
+     * @return 缓存有效时返回缓存的组件索引，否则返回null，扫描后由storeScanCache()写入
+     */
+    @Nullable
+    ComponentIndex loadScanCache(String[] scanPackages) {
+        String file = this.propertyResolver.getProperty(SCAN_CACHE_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        ScanCache cache = ScanCache.of(Path.of(file), getContextClassLoader(), scanPackages);
+        ComponentIndex cachedIndex = cache.load();
+        this.scanCache = cachedIndex == null ? cache : null;
+        this.loadedScanCache = cachedIndex == null ? null : cache;
+        return cachedIndex;
+    }
+
+    /**
+     * 把扫描得到的BeanDefinition写入缓存
+     */
+    void storeScanCache() {
+        if (this.scanCache != null) {
+            this.scanCache.store(this.beans.values());
+            this.scanCache = null;
+        }
+    }
+
+    /**
+     * 扫描一个包下的所有Class名字
+     * @param resolver 本次扫描共用的解析器，按包复制
+     */
+    List<String> scanPackage(ResourceResolver resolver, String pkg) {
+        ResourceResolver resourceResolver = resolver.withBasePackage(pkg);
+        List<String> classNames = new ArrayList<>();
+        ComponentIndex index = this.componentIndex;
+        if (index != null) {
+            // 有索引文件的目录、jar包使用索引，不再扫描; 没有索引文件的位置照常扫描
+            classNames.addAll(index.getClassNames(pkg));
+            resourceResolver.rootFilter(root -> !index.isIndexedRoot(root));
+            log.atDebug().log("Using component index for package: {}, found {} indexed classes", pkg, classNames.size());
+        }
+        log.atDebug().log("Scanning package: {}", pkg);
+        classNames.addAll(resourceResolver.scan(res -> {
+            // 将其转为Class全名
+            String name = res.name();
+            return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
+        }));
+        return classNames;
+    }
 
-            // 如果是注解 枚举类 接口 record则创建
-            if (clazz.isAnnotation() || clazz.isEnum() || clazz.isInterface() || clazz.isRecord()){
+    /**
+     * 为扫描到的类创建BeanDefinition，子类(如基准测试)可以对同一组类名重复调用
+     * @param classNameSet 类的全限定名
+     * @return Map<BeanName, BeanDefinition>
+     */
+    protected Map<String, BeanDefinition> createBeanDefinitionMap(Set<String> classNameSet) {
+        // 字节码扫描，配置项：summer.context.bytecode-scan，默认开启
+        this.classMetadataReader = this.propertyResolver.getProperty(BYTECODE_SCAN_PROPERTY, boolean.class, true)
+                ? new ClassMetadataReader(getContextClassLoader()) : null;
+        if (isParallelScan()) {
+            return createBeanDefinitionMapParallel(classNameSet);
+        }
+        Map<String, BeanDefinition> beanDefinitionMap = new HashMap<>(classNameSet.size());
+        for (String className : classNameSet) {
+            ComponentIndex.ComponentEntry entry = getIndexedComponent(className);
+            if (entry != null) {
+                createIndexedBeanDefinitions(entry, beanDefinitionMap);
                 continue;
             }
-            // 是否标注@Component
-            Component component = ClassUtils.findAnnotation(clazz, Component.class);
-            if (component != null) {
-                // 获取Bean的名称
-                String beanName = ClassUtils.getBeanName(clazz);
-                BeanDefinition beanDefinition = new BeanDefinition(
-                        beanName,
-                        clazz,
-                        getSuitableConstructor(clazz),
-                        getOrder(clazz),
-                        clazz.isAnnotationPresent(Primary.class),
-                        null,
+            Class<?> clazz = loadComponentClass(className);
+            if (clazz != null) {
+                createBeanDefinitions(clazz, beanDefinitionMap);
+            }
+        }
+        return beanDefinitionMap;
+    }
+
+    /**
+     * 并行加载Class、检查注解并创建BeanDefinition;
+     * 合并时按Class名字排序依次添加，保证重复beanName的检测结果是确定的
+     */
+    Map<String, BeanDefinition> createBeanDefinitionMapParallel(Set<String> classNameSet) {
+        long start = System.nanoTime();
+        List<ComponentIndex.ComponentEntry> indexedComponentList = classNameSet.stream()
+                .map(this::getIndexedComponent).filter(Objects::nonNull).toList();
+        List<Class<?>> componentClassList = callInScanPool(() -> classNameSet.parallelStream()
+                .filter(className -> getIndexedComponent(className) == null)
+                .map(this::loadComponentClass).filter(Objects::nonNull).collect(Collectors.toList()));
+        log.atInfo().log("Parallel loaded {} classes, found {} components in {} ms",
+                classNameSet.size(), componentClassList.size(), elapsedMillis(start));
+
+        start = System.nanoTime();
+        // 每个Class单独创建其BeanDefinition(包括@Bean工厂方法)
+        Map<String, Map<String, BeanDefinition>> classDefinitionMap = new ConcurrentHashMap<>(componentClassList.size());
+        runInScanPool(() -> componentClassList.parallelStream().forEach(clazz -> {
+            Map<String, BeanDefinition> defs = new LinkedHashMap<>();
+            createBeanDefinitions(clazz, defs);
+            classDefinitionMap.put(clazz.getName(), defs);
+        }));
+        runInScanPool(() -> indexedComponentList.parallelStream().forEach(entry -> {
+            Map<String, BeanDefinition> defs = new LinkedHashMap<>();
+            createIndexedBeanDefinitions(entry, defs);
+            classDefinitionMap.put(entry.className(), defs);
+        }));
+
+        Map<String, BeanDefinition> beanDefinitionMap = new HashMap<>(classNameSet.size());
+        classDefinitionMap.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> entry.getValue().values().forEach(def -> addBeanDefinitions(beanDefinitionMap, def)));
+        log.atInfo().log("Parallel created {} bean definitions in {} ms", beanDefinitionMap.size(), elapsedMillis(start));
+        return beanDefinitionMap;
+    }
+
+    /**
+     * 加载Class，如果是标注了@Component的类则返回，否则返回null
+     */
+    @Nullable
+    Class<?> loadComponentClass(String className) {
+        // 先读取字节码判断是否为候选类，避免加载(初始化)大量不是Bean的Class
+        if (this.classMetadataReader != null && !isComponentCandidate(className)) {
+            return null;
+        }
+        Class<?> clazz = null;
+        try {
+            // class名称转为class对象
+            clazz = loadClass(className);
+        } catch (ClassNotFoundException e) {
+            throw new BeanCreationException(e);
+        }
+
+        // 如果是注解 枚举类 接口 record则跳过，@ConfigurationProperties标注的record由属性绑定创建
+        if (clazz.isAnnotation() || clazz.isEnum() || clazz.isInterface() || (clazz.isRecord() && !clazz.isAnnotationPresent(ConfigurationProperties.class))) {
+            return null;
+        }
+        // 是否标注@Component
+        Component component = ClassUtils.findAnnotation(clazz, Component.class);
+        return component == null ? null : clazz;
+    }
+
+    @Nullable
+    ComponentIndex.ComponentEntry getIndexedComponent(String className) {
+        return this.componentIndex == null ? null : this.componentIndex.getComponent(className);
+    }
+
+    /**
+     * 根据组件索引创建BeanDefinition，直接按索引中的签名获取构造方法与@Bean方法，无需反射扫描
+     */
+    void createIndexedBeanDefinitions(ComponentIndex.ComponentEntry entry, Map<String, BeanDefinition> beanDefinitionMap) {
+        Class<?> clazz;
+        try {
+            clazz = loadClass(entry.className());
+        } catch (ClassNotFoundException e) {
+            throw new BeanCreationException(e);
+        }
+        try {
+            BeanDefinition beanDefinition = new BeanDefinition(
+                    entry.beanName(),
+                    clazz,
+                    clazz.getDeclaredConstructor(loadParameterTypes(entry.constructorParameterTypes())),
+                    entry.order(),
+                    entry.primary(),
+                    null,
+                    null,
+                    entry.postConstructMethod() == null ? null : clazz.getDeclaredMethod(entry.postConstructMethod()),
+                    entry.preDestroyMethod() == null ? null : clazz.getDeclaredMethod(entry.preDestroyMethod())
+            );
+            beanDefinition.setScope(getScope(clazz));
+            beanDefinition.setLazy(isLazy(clazz));
+            beanDefinition.setDependsOn(getDependsOn(clazz));
+            beanDefinition.setConfigurationPrefix(getConfigurationPrefix(clazz));
+            beanDefinition.setConfiguration(ClassUtils.findAnnotation(clazz, Configuration.class) != null);
+            addBeanDefinitions(beanDefinitionMap, beanDefinition);
+            checkConfigurationScope(beanDefinition);
+            for (ComponentIndex.FactoryMethodEntry factoryMethodEntry : entry.factoryMethods()) {
+                Method method = clazz.getDeclaredMethod(factoryMethodEntry.methodName(), loadParameterTypes(factoryMethodEntry.parameterTypes()));
+                var def = new BeanDefinition(
+                        factoryMethodEntry.beanName(),
+                        method.getReturnType(),
+                        entry.beanName(),
+                        method,
+                        factoryMethodEntry.order(),
+                        factoryMethodEntry.primary(),
+                        factoryMethodEntry.initMethod(),
+                        factoryMethodEntry.destroyMethod(),
                         null,
-                        // 查找@PostConstruct注解的方法
-                        ClassUtils.findAnnotationMethod(clazz, PostConstruct.class),
-                        // 查找@PreDestroy注解的方法
-                        ClassUtils.findAnnotationMethod(clazz, PreDestroy.class)
+                        null
                 );
-                // 检查并添加
-                addBeanDefinitions(beanDefinitionMap, beanDefinition);
-                // 查找是否有@Configuration:
-                Configuration configuration = ClassUtils.findAnnotation(clazz, Configuration.class);
-                if (configuration != null) {
-                    // 查找@Bean方法:
-                    scanFactoryMethods(beanName, clazz, beanDefinitionMap);
+                def.setScope(getScope(method));
+                def.setLazy(isLazy(method));
+                def.setDependsOn(getDependsOn(method));
+                addBeanDefinitions(beanDefinitionMap, def);
+            }
+        } catch (NoSuchMethodException e) {
+            throw new BeanDefinitionException("组件索引已过期，请重新编译; Component index is out of date for class " + entry.className(), e);
+        }
+    }
+
+    Class<?>[] loadParameterTypes(List<String> typeNames) {
+        Class<?>[] types = new Class<?>[typeNames.size()];
+        for (int i = 0; i < types.length; i++) {
+            String typeName = typeNames.get(i);
+            types[i] = PRIMITIVE_TYPES.get(typeName);
+            if (types[i] == null) {
+                try {
+                    types[i] = loadClass(typeName);
+                } catch (ClassNotFoundException e) {
+                    throw new BeanDefinitionException("组件索引已过期，请重新编译; Component index references missing type " + typeName, e);
                 }
             }
         }
-        return beanDefinitionMap;
+        return types;
+    }
+
+    /**
+     * 通过字节码判断是否可能是@Component类：非注解、枚举、接口、record，且直接或通过元注解标注了@Component;
+     * 无法读取字节码时保守地认为是候选类，交由Class.forName判断
+     */
+    boolean isComponentCandidate(String className) {
+        ClassMetadataReader.ClassMetadata metadata;
+        try {
+            metadata = this.classMetadataReader.read(className);
+        } catch (RuntimeException e) {
+            log.atDebug().log("Cannot read class metadata of {}: {}", className, e.getMessage());
+            return true;
+        }
+        if (metadata == null) {
+            return true;
+        }
+        if (metadata.isAnnotation() || metadata.isEnum() || metadata.isInterface()) {
+            return false;
+        }
+        if (metadata.isRecord()) {
+            return metadata.annotationTypes().contains(ConfigurationProperties.class.getName());
+        }
+        return this.classMetadataReader.isAnnotated(metadata, Component.class);
+    }
+
+    /**
+     * 为标注了@Component的类创建BeanDefinition，若是@Configuration则继续扫描@Bean方法
+     */
+    void createBeanDefinitions(Class<?> clazz, Map<String, BeanDefinition> beanDefinitionMap) {
+        // 获取Bean的名称
+        String beanName = ClassUtils.getBeanName(clazz);
+        BeanDefinition beanDefinition = new BeanDefinition(
+                beanName,
+                clazz,
+                getSuitableConstructor(clazz),
+                getOrder(clazz),
+                clazz.isAnnotationPresent(Primary.class),
+                null,
+                null,
+                // 查找@PostConstruct注解的方法
+                ClassUtils.findAnnotationMethod(clazz, PostConstruct.class),
+                // 查找@PreDestroy注解的方法
+                ClassUtils.findAnnotationMethod(clazz, PreDestroy.class)
+        );
+        beanDefinition.setScope(getScope(clazz));
+        beanDefinition.setLazy(isLazy(clazz));
+        beanDefinition.setDependsOn(getDependsOn(clazz));
+        beanDefinition.setConfigurationPrefix(getConfigurationPrefix(clazz));
+        // 查找是否有@Configuration:
+        Configuration configuration = ClassUtils.findAnnotation(clazz, Configuration.class);
+        beanDefinition.setConfiguration(configuration != null);
+        // 检查并添加
+        addBeanDefinitions(beanDefinitionMap, beanDefinition);
+        if (configuration != null) {
+            checkConfigurationScope(beanDefinition);
+            // 查找@Bean方法:
+            scanFactoryMethods(beanName, clazz, beanDefinitionMap);
+        }
+    }
+
+    /**
+     * @Configuration是@Bean方法的工厂，必须是singleton
+     */
+    void checkConfigurationScope(BeanDefinition beanDefinition) {
+        if (beanDefinition.isConfiguration() && !beanDefinition.isSingleton()) {
+            throw new BeanDefinitionException("@Configuration必须是singleton; @Configuration class " + beanDefinition.getBeanClass().getName() + " must be singleton.");
+        }
+    }
+
+    /**
+     * 是否开启并行扫描，配置项：summer.context.parallel-scan
+     */
+    boolean isParallelScan() {
+        return this.propertyResolver.getProperty(PARALLEL_SCAN_PROPERTY, boolean.class, false);
+    }
+
+    ClassLoader getContextClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader == null ? getClass().getClassLoader() : classLoader;
+    }
+
+    /**
+     * 通过ContextClassLoader加载类，与ResourceResolver、ComponentIndex、ScanCache读取资源使用同一个ClassLoader
+     */
+    Class<?> loadClass(String className) throws ClassNotFoundException {
+        return Class.forName(className, false, getContextClassLoader());
+    }
+
+    void runInScanPool(Runnable task) {
+        callInScanPool(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 在独立的ForkJoinPool中执行并行任务，线程数配置项：summer.context.parallel-scan.threads
+     */
+    <T> T callInScanPool(Callable<T> task) {
+        int threads = this.propertyResolver.getProperty(PARALLEL_SCAN_THREADS_PROPERTY, int.class, Runtime.getRuntime().availableProcessors());
+        // 工作线程沿用当前线程的ContextClassLoader，ResourceResolver读取资源与loadClass()加载类都通过它
+        ClassLoader classLoader = getContextClassLoader();
+        ForkJoinPool pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+        try {
+            return pool.submit(task).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 建立类型索引：每个BeanDefinition按其类型、所有父类及接口登记一次，每个类型下的列表预先排序
+     */
+    void createBeanTypeIndex() {
+        Map<Class<?>, List<BeanDefinition>> index = new HashMap<>();
+        for (BeanDefinition def : this.beans.values()) {
+            for (Class<?> type : collectAssignableTypes(def.getBeanClass())) {
+                index.computeIfAbsent(type, key -> new ArrayList<>()).add(def);
+            }
+        }
+        for (Map.Entry<Class<?>, List<BeanDefinition>> entry : index.entrySet()) {
+            List<BeanDefinition> list = entry.getValue();
+            Collections.sort(list);
+            entry.setValue(List.copyOf(list));
+        }
+        this.beanTypeIndex = Map.copyOf(index);
+        this.uniqueBeanDefinitionCache = new ConcurrentHashMap<>(index.size());
+    }
+
+    /**
+     * 收集可赋值的类型：自身、所有父类、所有接口(含父接口)
+     */
+    static Set<Class<?>> collectAssignableTypes(Class<?> clazz) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(clazz);
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (!types.add(type)) {
+                continue;
+            }
+            if (type.getSuperclass() != null) {
+                queue.add(type.getSuperclass());
+            }
+            queue.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        // 接口类型同样可赋值给Object
+        types.add(Object.class);
+        return types;
+    }
+
+    /**
+     * 获取@ConfigurationProperties的前缀(prefix，未设置时为value)，未标注时为null
+     */
+    @Nullable
+    String getConfigurationPrefix(Class<?> clazz) {
+        ConfigurationProperties configurationProperties = clazz.getAnnotation(ConfigurationProperties.class);
+        if (configurationProperties == null) {
+            return null;
+        }
+        String prefix = configurationProperties.prefix().isBlank() ? configurationProperties.value() : configurationProperties.prefix();
+        if (prefix.isBlank()) {
+            throw new BeanDefinitionException(String.format("@ConfigurationProperties未指定前缀; No prefix specified by @ConfigurationProperties on %s", clazz.getName()));
+        }
+        return prefix;
+    }
+
+    /**
+     * 获取@Scope标注的作用域，未标注时为singleton
+     */
+    String getScope(AnnotatedElement element) {
+        com.bishugui.summer.annotation.Scope scope = element.getAnnotation(com.bishugui.summer.annotation.Scope.class);
+        return scope == null || scope.value().isBlank() ? BeanDefinition.SCOPE_SINGLETON : scope.value();
+    }
+
+    /**
+     * 是否标识了@Lazy
+     */
+    boolean isLazy(AnnotatedElement element) {
+        Lazy lazy = element.getAnnotation(Lazy.class);
+        return lazy != null && lazy.value();
+    }
+
+    /**
+     * 获取@DependsOn指定的Bean名称
+     */
+    String[] getDependsOn(AnnotatedElement element) {
+        DependsOn dependsOn = element.getAnnotation(DependsOn.class);
+        return dependsOn == null ? new String[0] : dependsOn.value();
     }
 
     int getOrder(Class<?> clazz) {
@@ -498,8 +2234,10 @@ public class AnnotationConfigApplicationContext {
      * 检查并添加BeanDefinition
      */
     void addBeanDefinitions(Map<String, BeanDefinition> defs, BeanDefinition def) {
-        if (defs.put(def.getName(), def) != null) {
-            throw new BeanDefinitionException("beanName重复; Duplicate bean name: " + def.getName());
+        BeanDefinition existing = defs.put(def.getName(), def);
+        if (existing != null) {
+            throw new BeanDefinitionException(String.format("beanName重复; Duplicate bean name: %s (%s, %s)",
+                    def.getName(), existing.getBeanClass().getName(), def.getBeanClass().getName()));
         }
     }
 
@@ -555,9 +2293,61 @@ public class AnnotationConfigApplicationContext {
                     null,
                     null
             );
+            def.setScope(getScope(method));
+            def.setLazy(isLazy(method));
+            def.setDependsOn(getDependsOn(method));
             addBeanDefinitions(defs, def);
             log.atDebug().log("define bean: {}", def);
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * 已实例化、等待注入的singleton
+     * @param beanDefinition BeanDefinition
+     * @param instance 原始实例，注入总是写入原始实例
+     */
+    private record EarlySingleton(BeanDefinition beanDefinition, Object instance) {
+    }
+
+    /**
+     * singleton的创建批次：实例化后等待注入的Bean及其早期引用，注入、初始化完成后统一发布到一级缓存(BeanDefinition.instance);
+     * 启动阶段所有线程共享一个批次，启动完成后每个线程各自创建批次，未完成的实例只对创建它的线程可见
+     */
+    private static final class SingletonBatch {
+        /**
+         * 已实例化、等待字段/setter注入的singleton，按实例化顺序保存；为null时实例化后立即注入
+         */
+        volatile Queue<EarlySingleton> deferredInjections;
+
+        /**
+         * 二级缓存：已被引用的未完成singleton的早期引用，Map<BeanName, 早期引用>，读写时对本Map加锁
+         */
+        final Map<String, Object> earlySingletonObjects = new HashMap<>();
+
+        /**
+         * 三级缓存：已实例化、尚未注入的singleton的早期引用工厂，第一次被引用时生成早期引用并移入二级缓存
+         */
+        final Map<String, ObjectFactory<?>> singletonFactories = new HashMap<>();
+
+        /**
+         * 启动完成后，本批次持有创建锁的Bean，批次结束时释放
+         */
+        final List<BeanDefinition> lockedBeans = new ArrayList<>();
+
+        SingletonBatch(@Nullable Queue<EarlySingleton> deferredInjections) {
+            this.deferredInjections = deferredInjections;
+        }
+    }
+
+    /**
+     * 两个批次互相等待对方持有的Bean，放弃当前批次，不记录调用栈
+     */
+    private static final class BatchConflictException extends RuntimeException {
+        final BeanDefinition beanDefinition;
+
+        BatchConflictException(BeanDefinition beanDefinition) {
+            super("Singleton batch conflict on bean '" + beanDefinition.getName() + "'", null, false, false);
+            this.beanDefinition = beanDefinition;
+        }
+    }
+}
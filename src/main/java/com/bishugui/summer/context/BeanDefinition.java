@@ -3,10 +3,16 @@ package com.bishugui.summer.context;
 import com.bishugui.summer.exception.BeanCreationException;
 import jakarta.annotation.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author bi shugui
@@ -14,6 +20,10 @@ import java.util.Objects;
  * @date 2023/10/1 16:40
  */
 public class BeanDefinition implements Comparable<BeanDefinition>{
+    public static final String SCOPE_SINGLETON = "singleton";
+
+    public static final String SCOPE_PROTOTYPE = "prototype";
+
     /**
      * 全局唯一的Bean name
      */
@@ -25,9 +35,14 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
     Class<?> beanClass;
 
     /**
-     * bean 的实例化对象
+     * bean 的实例化对象，延迟初始化的singleton可能在其他线程创建
+     */
+    volatile Object instance = null;
+
+    /**
+     * 原始实例：未被BeanPostProcessor替换(如@Around代理)的instance，destroy方法在原始实例上调用
      */
-    Object instance = null;
+    Object targetInstance = null;
 
     /**
      * 构造方法/null
@@ -54,6 +69,31 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
      */
     boolean primary;
 
+    /**
+     * 作用域，默认singleton
+     */
+    String scope = SCOPE_SINGLETON;
+
+    /**
+     * 是否标识@Lazy，singleton在第一次获取时才创建
+     */
+    boolean lazy;
+
+    /**
+     * @DependsOn指定的需要先创建的Bean名称
+     */
+    String[] dependsOn = new String[0];
+
+    /**
+     * @ConfigurationProperties的前缀/null，不为null时由属性绑定创建
+     */
+    String configurationPrefix;
+
+    /**
+     * 是否标注了@Configuration，创建BeanDefinition时确定，之后不再解析注解
+     */
+    boolean configuration;
+
     /**
      * init方法名称
      */
@@ -74,6 +114,51 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
      */
     Method destroyMethod;
 
+    /**
+     * 创建参数的解析计划，首次创建Bean时生成
+     */
+    volatile BeanParameter[] parameters;
+
+    /**
+     * 直接调用构造方法/工厂方法的实例化器，首次创建Bean时生成
+     */
+    volatile Instantiator instantiator;
+
+    /**
+     * 与parameters对应的@Autowired依赖BeanDefinition(@Value参数或未找到的依赖为null)，首次创建Bean时解析
+     */
+    volatile BeanDefinition[] dependencies;
+
+    /**
+     * 字段/setter注入点，首次创建Bean时从Class解析
+     */
+    volatile InjectionPoint[] injectionPoints;
+
+    /**
+     * 与injectionPoints对应的@Autowired依赖BeanDefinition(@Value、ObjectProvider或未找到的依赖为null)，首次注入时解析
+     */
+    volatile BeanDefinition[] injectionDependencies;
+
+    /**
+     * 适用于该Bean的BeanPostProcessor，按@Order排序，首次初始化时从已注册的处理器中过滤
+     */
+    volatile BeanPostProcessor[] postProcessors;
+
+    /**
+     * 创建singleton实例时使用的锁，每个Bean单独加锁，不使用synchronized以免在虚拟线程中创建时固定载体线程
+     */
+    final ReentrantLock creationLock = new ReentrantLock();
+
+    /**
+     * 依赖的singleton(含间接依赖)中是否已确认不存在循环依赖
+     */
+    volatile boolean dependencyChecked;
+
+    /**
+     * 非singleton已成功创建过一次：依赖关系已缓存且不会改变，创建路径中不存在循环依赖，之后创建时不再记录创建路径
+     */
+    volatile boolean creationChecked;
+
     public BeanDefinition(String name, Class<?> beanClass, Constructor<?> constructor, int order, boolean primary, String initMethodName,
                           String destroyMethodName, Method initMethod, Method destroyMethod) {
         this.name = name;
@@ -148,6 +233,143 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
         return this.destroyMethodName;
     }
 
+    /**
+     * 创建方式：工厂方法或构造方法
+     */
+    public Executable getCreateExecutable() {
+        return this.factoryMethod != null ? this.factoryMethod : this.constructor;
+    }
+
+    @Nullable
+    public BeanParameter[] getParameters() {
+        return this.parameters;
+    }
+
+    public void setParameters(BeanParameter[] parameters) {
+        this.parameters = parameters;
+    }
+
+    @Nullable
+    public BeanDefinition[] getDependencies() {
+        return this.dependencies;
+    }
+
+    public void setDependencies(BeanDefinition[] dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    @Nullable
+    public InjectionPoint[] getInjectionPoints() {
+        return this.injectionPoints;
+    }
+
+    public void setInjectionPoints(InjectionPoint[] injectionPoints) {
+        this.injectionPoints = injectionPoints;
+    }
+
+    @Nullable
+    public BeanDefinition[] getInjectionDependencies() {
+        return this.injectionDependencies;
+    }
+
+    public void setInjectionDependencies(BeanDefinition[] injectionDependencies) {
+        this.injectionDependencies = injectionDependencies;
+    }
+
+    @Nullable
+    public BeanPostProcessor[] getPostProcessors() {
+        return this.postProcessors;
+    }
+
+    public void setPostProcessors(BeanPostProcessor[] postProcessors) {
+        this.postProcessors = postProcessors;
+    }
+
+    public ReentrantLock getCreationLock() {
+        return this.creationLock;
+    }
+
+    public boolean isDependencyChecked() {
+        return this.dependencyChecked;
+    }
+
+    public void setDependencyChecked(boolean dependencyChecked) {
+        this.dependencyChecked = dependencyChecked;
+    }
+
+    public boolean isCreationChecked() {
+        return this.creationChecked;
+    }
+
+    public void setCreationChecked(boolean creationChecked) {
+        this.creationChecked = creationChecked;
+    }
+
+    /**
+     * 调用构造方法或工厂方法创建实例，不经过Constructor.newInstance/Method.invoke的反射调用
+     * @param factoryInstance 工厂Bean实例，使用构造方法时忽略
+     * @param args 参数
+     * @return 实例
+     * @throws Throwable 构造方法/工厂方法抛出的异常
+     */
+    public Object instantiate(@Nullable Object factoryInstance, Object[] args) throws Throwable {
+        Instantiator instantiator = this.instantiator;
+        if (instantiator == null) {
+            instantiator = this.instantiator = createInstantiator();
+        }
+        return instantiator.instantiate(factoryInstance, args);
+    }
+
+    /**
+     * 生成直接调用构造方法/工厂方法的隐藏类，调用点可以被JIT内联;
+     * 无法在声明类中定义隐藏类时(如声明类由其他模块/类加载器加载)，使用MethodHandle
+     */
+    Instantiator createInstantiator() {
+        Executable executable = getCreateExecutable();
+        Class<?> declaringClass = executable.getDeclaringClass();
+        if (!declaringClass.isInterface()) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+                if (lookup.hasFullPrivilegeAccess()) {
+                    MethodHandles.Lookup hiddenLookup = lookup.defineHiddenClass(InstantiatorClassWriter.generate(executable), true,
+                            MethodHandles.Lookup.ClassOption.NESTMATE);
+                    return (Instantiator) hiddenLookup.lookupClass().getConstructor().newInstance();
+                }
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // 参数类型不可访问等情况，使用MethodHandle
+            }
+        }
+        MethodHandle handle = createInstantiatorHandle();
+        return (factoryInstance, args) -> (Object) handle.invokeExact(factoryInstance, args);
+    }
+
+    /**
+     * 生成统一类型为(Object, Object[])Object的MethodHandle:
+     * 构造方法忽略第一个参数；工厂方法以第一个参数为接收者(静态方法忽略)；参数数组展开并自动拆箱
+     */
+    MethodHandle createInstantiatorHandle() {
+        // 构造方法与工厂方法已setAccessible(true)，unreflect时不再进行访问检查
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            MethodHandle handle;
+            if (this.factoryMethod != null) {
+                handle = lookup.unreflect(this.factoryMethod);
+                if (Modifier.isStatic(this.factoryMethod.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                handle = handle.asType(handle.type().changeParameterType(0, Object.class));
+                handle = handle.asSpreader(1, Object[].class, this.factoryMethod.getParameterCount());
+            } else {
+                handle = lookup.unreflectConstructor(this.constructor);
+                handle = handle.asSpreader(Object[].class, this.constructor.getParameterCount());
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new BeanCreationException(String.format("无法访问构造方法/工厂方法; Cannot access %s of bean '%s'.", getCreateExecutable(), this.name), e);
+        }
+    }
+
     public String getName() {
         return this.name;
     }
@@ -169,12 +391,32 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
         return this.instance;
     }
 
+    /**
+     * 原始实例，未被BeanPostProcessor替换时与getInstance()相同
+     */
+    @Nullable
+    public Object getTargetInstance() {
+        Object instance = this.instance;
+        return instance == null ? null : this.targetInstance;
+    }
+
     public void setInstance(Object instance) {
+        setInstance(instance, instance);
+    }
+
+    /**
+     * @param instance 发布的实例
+     * @param targetInstance 原始实例
+     */
+    public void setInstance(Object instance, Object targetInstance) {
         Objects.requireNonNull(instance, "Bean instance is null.");
+        Objects.requireNonNull(targetInstance, "Bean target instance is null.");
         if (!this.beanClass.isAssignableFrom(instance.getClass())) {
             throw new BeanCreationException(String.format("Instance '%s' of Bean '%s' is not the expected type: %s", instance, instance.getClass().getName(),
                     this.beanClass.getName()));
         }
+        // 先写入原始实例，读取volatile的instance后可见
+        this.targetInstance = targetInstance;
         this.instance = instance;
     }
 
@@ -182,11 +424,60 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
         return this.primary;
     }
 
+    public String getScope() {
+        return this.scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    public String[] getDependsOn() {
+        return this.dependsOn;
+    }
+
+    public void setDependsOn(String[] dependsOn) {
+        this.dependsOn = dependsOn;
+    }
+
+    @Nullable
+    public String getConfigurationPrefix() {
+        return this.configurationPrefix;
+    }
+
+    public void setConfigurationPrefix(@Nullable String configurationPrefix) {
+        this.configurationPrefix = configurationPrefix;
+    }
+
+    public boolean isConfiguration() {
+        return this.configuration;
+    }
+
+    public void setConfiguration(boolean configuration) {
+        this.configuration = configuration;
+    }
+
+    public boolean isSingleton() {
+        return SCOPE_SINGLETON.equals(this.scope);
+    }
+
+    public boolean isPrototype() {
+        return SCOPE_PROTOTYPE.equals(this.scope);
+    }
+
     @Override
     public String toString() {
         return "BeanDefinition [name=" + name + ", beanClass=" + beanClass.getName() + ", factory=" + getCreateDetail() + ", init-method="
                 + (initMethod == null ? "null" : initMethod.getName()) + ", destroy-method=" + (destroyMethod == null ? "null" : destroyMethod.getName())
-                + ", primary=" + primary + ", instance=" + instance + "]";
+                + ", primary=" + primary + ", scope=" + scope + ", lazy=" + lazy + ", instance=" + instance + "]";
     }
 
     String getCreateDetail() {
@@ -206,4 +497,16 @@ public class BeanDefinition implements Comparable<BeanDefinition>{
         return this.name.compareTo(def.name);
     }
 
+    /**
+     * 实例化器，由生成的类直接调用构造方法/工厂方法；生成的类定义在Bean所在的包中，因此接口必须是public
+     */
+    public interface Instantiator {
+        /**
+         * @param factoryInstance 工厂Bean实例，使用构造方法或静态工厂方法时忽略
+         * @param args 已解析的参数
+         * @return 实例
+         * @throws Throwable 构造方法/工厂方法抛出的异常，不包装
+         */
+        Object instantiate(@Nullable Object factoryInstance, Object[] args) throws Throwable;
+    }
 }
@@ -0,0 +1,17 @@
+package com.bishugui.summer.context;
+
+/**
+ * @author bi shugui
+ * @description 容器后置处理器 SPI，在所有BeanDefinition创建之后、任何其他Bean创建之前调用，可以修改BeanDefinition(作用域、延迟初始化、@DependsOn等);
+ * 实现类作为Bean注册，按@Order排序
+ * @date 2024/01/02 10:20
+ */
+@FunctionalInterface
+public interface BeanFactoryPostProcessor {
+
+    /**
+     * 处理容器中的BeanDefinition
+     * @param context 应用上下文，此时只有BeanFactoryPostProcessor及其依赖已创建
+     */
+    void postProcessBeanFactory(AnnotationConfigApplicationContext context);
+}
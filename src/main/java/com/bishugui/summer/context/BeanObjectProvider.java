@@ -0,0 +1,48 @@
+package com.bishugui.summer.context;
+
+import com.bishugui.summer.exception.NoSuchBeanDefinitionException;
+import jakarta.annotation.Nullable;
+
+/**
+ * @author bi shugui
+ * @description 按BeanParameter延迟查找依赖Bean的ObjectProvider，查找到的BeanDefinition会被缓存
+ * @date 2023/12/23 14:20
+ */
+class BeanObjectProvider<T> implements ObjectProvider<T> {
+    private final AnnotationConfigApplicationContext context;
+
+    private final BeanParameter parameter;
+
+    private volatile BeanDefinition beanDefinition;
+
+    BeanObjectProvider(AnnotationConfigApplicationContext context, BeanParameter parameter) {
+        this.context = context;
+        this.parameter = parameter;
+    }
+
+    @Override
+    public T getObject() {
+        T bean = getIfAvailable();
+        if (bean == null) {
+            throw new NoSuchBeanDefinitionException(String.format("No bean defined with type '%s'.", this.parameter.type().getName()));
+        }
+        return bean;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getIfAvailable() {
+        BeanDefinition def = this.beanDefinition;
+        if (def == null) {
+            def = this.parameter.autowiredName().isBlank()
+                    ? this.context.findBeanDefinition(this.parameter.type())
+                    : this.context.findBeanDefinition(this.parameter.autowiredName(), this.parameter.type());
+            if (def == null) {
+                return null;
+            }
+            this.beanDefinition = def;
+        }
+        return (T) this.context.getBeanInstance(def);
+    }
+}
@@ -0,0 +1,41 @@
+package com.bishugui.summer.context;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * @author bi shugui
+ * @description 构造方法/工厂方法参数的解析计划，由@Value或@Autowired解析得到，每个BeanDefinition只解析一次
+ * @param type 参数类型
+ * @param valueExpression @Value的表达式，为null时表示@Autowired
+ * @param autowiredName @Autowired指定的Bean名称，未指定时为空字符串
+ * @param required @Autowired是否必须
+ * @param provider 是否注入ObjectProvider，此时type为ObjectProvider的泛型参数
+ * @date 2023/12/16 14:22
+ */
+public record BeanParameter(Class<?> type, @Nullable String valueExpression, String autowiredName, boolean required, boolean provider) {
+
+    /**
+     * 创建@Value参数
+     */
+    public static BeanParameter ofValue(Class<?> type, String valueExpression) {
+        return new BeanParameter(type, valueExpression, "", true, false);
+    }
+
+    /**
+     * 创建@Autowired参数
+     */
+    public static BeanParameter ofAutowired(Class<?> type, String autowiredName, boolean required) {
+        return new BeanParameter(type, null, autowiredName, required, false);
+    }
+
+    /**
+     * 创建ObjectProvider参数，依赖的Bean在使用时才查找
+     */
+    public static BeanParameter ofProvider(Class<?> type, String autowiredName) {
+        return new BeanParameter(type, null, autowiredName, false, true);
+    }
+
+    public boolean isValue() {
+        return this.valueExpression != null;
+    }
+}
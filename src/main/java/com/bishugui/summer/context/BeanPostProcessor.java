@@ -0,0 +1,50 @@
+package com.bishugui.summer.context;
+
+/**
+ * @author bi shugui
+ * @description Bean后置处理器 SPI，在init方法前后处理(校验、统计、替换为代理等)Bean实例;
+ * 实现类作为Bean注册，在其他Bean之前创建，按@Order排序。每个Bean适用的处理器只按supports()过滤一次，没有适用处理器的Bean不产生额外开销
+ * @date 2024/01/02 10:15
+ */
+public interface BeanPostProcessor {
+
+    /**
+     * 类型过滤，每个BeanDefinition只调用一次
+     * @param beanClass Bean的声明类型
+     * @return 是否处理该类型的Bean，默认处理所有Bean
+     */
+    default boolean supports(Class<?> beanClass) {
+        return true;
+    }
+
+    /**
+     * 注入完成后、init方法调用前处理
+     * @param bean Bean实例
+     * @param beanName Bean名称
+     * @return 后续使用的实例，可以是原实例或替换后的实例
+     */
+    default Object postProcessBeforeInitialization(Object bean, String beanName) {
+        return bean;
+    }
+
+    /**
+     * init方法调用后处理
+     * @param bean Bean实例
+     * @param beanName Bean名称
+     * @return 最终发布的实例，可以是原实例或替换后的实例(如代理)
+     */
+    default Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean;
+    }
+
+    /**
+     * singleton在注入前被其他Bean引用(字段/setter循环依赖)时，获取提前暴露的引用;
+     * 需要替换实例的处理器应在此处返回同样的替换实例，否则注入到其他Bean中的是原实例
+     * @param bean 尚未注入的Bean实例
+     * @param beanName Bean名称
+     * @return 早期引用
+     */
+    default Object getEarlyBeanReference(Object bean, String beanName) {
+        return bean;
+    }
+}
@@ -0,0 +1,144 @@
+package com.bishugui.summer.context;
+
+import com.bishugui.summer.exception.BeanDefinitionException;
+import jakarta.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @author bi shugui
+ * @description 编译期生成的组件索引(META-INF/summer.components)，由summer-processor注解处理器生成;
+ * 有索引文件的类路径根(目录、jar包)不再扫描，也不再通过反射查找构造方法与@Bean方法; 没有索引文件的根照常扫描，
+ * 因此只有部分jar包带索引时，其他位置的组件不会丢失
+ *
+ * 文件格式(每行一条，字段以TAB分隔，空字段表示没有，'#'开头为注释):
+ * <code>
+ * C  className  beanName  order  primary  constructorParameterTypes  postConstructMethod  preDestroyMethod
+ * B  beanName  methodName  parameterTypes  order  primary  initMethod  destroyMethod
+ * </code>
+ * B行为紧邻的上一个C行(@Configuration)的@Bean方法; 参数类型以逗号分隔，使用Class.getName()格式
+ * @date 2023/12/12 20:41
+ */
+public class ComponentIndex {
+    public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/summer.components";
+
+    static final String COMPONENT_LINE = "C";
+    static final String BEAN_LINE = "B";
+
+    /**
+     * Map<className, ComponentEntry>
+     */
+    final Map<String, ComponentEntry> components;
+
+    /**
+     * 有索引文件的类路径根，如file:/app/classes/、jar:file:/app/lib/a.jar!/
+     */
+    final Set<String> indexedRoots;
+
+    ComponentIndex(Map<String, ComponentEntry> components) {
+        this(components, Set.of());
+    }
+
+    ComponentIndex(Map<String, ComponentEntry> components, Set<String> indexedRoots) {
+        this.components = components;
+        this.indexedRoots = indexedRoots;
+    }
+
+    /**
+     * 加载类路径下所有的组件索引文件
+     * @param classLoader ClassLoader
+     * @return ComponentIndex，不存在索引文件时返回null
+     */
+    @Nullable
+    public static ComponentIndex load(ClassLoader classLoader) {
+        Map<String, ComponentEntry> components = new LinkedHashMap<>();
+        Set<String> indexedRoots = new HashSet<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(COMPONENTS_RESOURCE_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return null;
+            }
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                String location = url.toString();
+                indexedRoots.add(location.substring(0, location.length() - COMPONENTS_RESOURCE_LOCATION.length()));
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    parse(reader.lines().toList(), location, components);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ComponentIndex(components, indexedRoots);
+    }
+
+    static void parse(List<String> lines, String location, Map<String, ComponentEntry> components) {
+        ComponentEntry current = null;
+        for (String line : lines) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if (COMPONENT_LINE.equals(fields[0]) && fields.length == 8) {
+                current = new ComponentEntry(fields[1], fields[2], Integer.parseInt(fields[3]), Boolean.parseBoolean(fields[4]),
+                        splitTypes(fields[5]), emptyToNull(fields[6]), emptyToNull(fields[7]), new ArrayList<>());
+                components.put(current.className(), current);
+            } else if (BEAN_LINE.equals(fields[0]) && fields.length == 8 && current != null) {
+                current.factoryMethods().add(new FactoryMethodEntry(fields[1], fields[2], splitTypes(fields[3]), Integer.parseInt(fields[4]),
+                        Boolean.parseBoolean(fields[5]), emptyToNull(fields[6]), emptyToNull(fields[7])));
+            } else {
+                throw new BeanDefinitionException("组件索引格式错误; Invalid component index line in " + location + ": " + line);
+            }
+        }
+    }
+
+    static List<String> splitTypes(String types) {
+        return types.isEmpty() ? List.of() : List.of(types.split(","));
+    }
+
+    @Nullable
+    static String emptyToNull(String str) {
+        return str.isEmpty() ? null : str;
+    }
+
+    /**
+     * 类路径根是否有索引文件，有索引的根中所有组件都在索引中，不需要扫描
+     * @param root 类路径根，如file:/app/classes/
+     */
+    public boolean isIndexedRoot(String root) {
+        return this.indexedRoots.contains(root);
+    }
+
+    /**
+     * 指定包(含子包)下的所有组件Class名字
+     */
+    public List<String> getClassNames(String packageName) {
+        String prefix = packageName + ".";
+        return this.components.keySet().stream().filter(className -> className.startsWith(prefix)).toList();
+    }
+
+    @Nullable
+    public ComponentEntry getComponent(String className) {
+        return this.components.get(className);
+    }
+
+    /**
+     * 组件索引项：@Component类
+     */
+    public record ComponentEntry(String className, String beanName, int order, boolean primary, List<String> constructorParameterTypes,
+                                 @Nullable String postConstructMethod, @Nullable String preDestroyMethod, List<FactoryMethodEntry> factoryMethods) {
+    }
+
+    /**
+     * 组件索引项：@Configuration类中的@Bean方法
+     */
+    public record FactoryMethodEntry(String beanName, String methodName, List<String> parameterTypes, int order, boolean primary,
+                                     @Nullable String initMethod, @Nullable String destroyMethod) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.bishugui.summer.context;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Value;
+import com.bishugui.summer.exception.BeanDefinitionException;
+import jakarta.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * @author bi shugui
+ * @description 字段/setter注入元数据：按Class解析一次标注了@Autowired或@Value的字段与方法(含父类)，
+ * 父类的注入点在前，被子类覆盖的方法只按子类解析; 写入通过MethodHandle完成，不再使用Field.set与Method.invoke的反射调用与访问检查
+ * @date 2023/12/30 15:12
+ */
+final class InjectionMetadata {
+
+    static final InjectionPoint[] EMPTY = new InjectionPoint[0];
+
+    /**
+     * 同一个Class的注入点只解析一次，prototype等重复创建的Bean共用
+     */
+    private static final ClassValue<InjectionPoint[]> CACHE = new ClassValue<>() {
+        @Override
+        protected InjectionPoint[] computeValue(Class<?> type) {
+            return resolveInjectionPoints(type);
+        }
+    };
+
+    private InjectionMetadata() {
+    }
+
+    /**
+     * 获取Class的所有注入点
+     * @param clazz Bean的Class
+     * @return 注入点，没有时为空数组
+     */
+    static InjectionPoint[] forClass(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    static InjectionPoint[] resolveInjectionPoints(Class<?> clazz) {
+        // 从子类向父类查找，记录子类已声明的方法签名，用于跳过被覆盖的父类方法
+        Deque<List<InjectionPoint>> hierarchy = new ArrayDeque<>();
+        Set<String> overriddenMethods = new HashSet<>();
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            List<InjectionPoint> points = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                BeanParameter parameter = resolveParameter(field, field.getType(), field.getGenericType());
+                if (parameter != null) {
+                    points.add(new InjectionPoint(field, parameter, createFieldSetter(field)));
+                }
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+                String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+                boolean overridden = overriddenMethods.contains(signature);
+                if (!Modifier.isPrivate(method.getModifiers())) {
+                    overriddenMethods.add(signature);
+                }
+                if (overridden) {
+                    continue;
+                }
+                BeanParameter parameter = method.getParameterCount() == 1
+                        ? resolveParameter(method, method.getParameterTypes()[0], method.getGenericParameterTypes()[0])
+                        : resolveParameter(method, void.class, void.class);
+                if (parameter != null) {
+                    points.add(new InjectionPoint(method, parameter, createMethodSetter(method)));
+                }
+            }
+            hierarchy.push(points);
+        }
+        List<InjectionPoint> injectionPoints = new ArrayList<>();
+        hierarchy.forEach(injectionPoints::addAll);
+        return injectionPoints.isEmpty() ? EMPTY : injectionPoints.toArray(InjectionPoint[]::new);
+    }
+
+    /**
+     * 根据字段或方法上的@Value、@Autowired生成解析计划
+     * @return 没有标注时返回null
+     */
+    @Nullable
+    static BeanParameter resolveParameter(Member member, Class<?> type, Type genericType) {
+        AnnotatedElement element = (AnnotatedElement) member;
+        Value value = element.getAnnotation(Value.class);
+        Autowired autowired = element.getAnnotation(Autowired.class);
+        if (value == null && autowired == null) {
+            return null;
+        }
+        if (value != null && autowired != null) {
+            throw new BeanDefinitionException(String.format("只能是@Value、@Autowired其中之一; Cannot specify both @Autowired and @Value on %s", member));
+        }
+        if (Modifier.isStatic(member.getModifiers())) {
+            throw new BeanDefinitionException(String.format("不能注入静态字段或方法; Cannot inject static member %s", member));
+        }
+        if (member instanceof Field field && Modifier.isFinal(field.getModifiers())) {
+            throw new BeanDefinitionException(String.format("不能注入final字段; Cannot inject final field %s", member));
+        }
+        if (member instanceof Method method && method.getParameterCount() != 1) {
+            throw new BeanDefinitionException(String.format("注入方法必须有且只有一个参数; Injection method must have exactly one parameter: %s", member));
+        }
+        if (value != null) {
+            return BeanParameter.ofValue(type, value.value());
+        }
+        if (type == ObjectProvider.class) {
+            // ObjectProvider<T>，按泛型参数T查找依赖
+            return BeanParameter.ofProvider(getProviderType(member, genericType), autowired.name());
+        }
+        return BeanParameter.ofAutowired(type, autowired.name(), autowired.value());
+    }
+
+    static Class<?> getProviderType(Member member, Type genericType) {
+        if (genericType instanceof ParameterizedType parameterizedType) {
+            Type typeArgument = parameterizedType.getActualTypeArguments()[0];
+            if (typeArgument instanceof Class<?> clazz) {
+                return clazz;
+            }
+            if (typeArgument instanceof ParameterizedType rawType) {
+                return (Class<?>) rawType.getRawType();
+            }
+        }
+        throw new BeanDefinitionException(String.format("ObjectProvider必须指定Bean类型; ObjectProvider must declare bean type: %s", member));
+    }
+
+    static MethodHandle createFieldSetter(Field field) {
+        try {
+            MethodHandle handle = privateLookup(field.getDeclaringClass()).unreflectSetter(field);
+            return handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new BeanDefinitionException(String.format("无法访问注入字段; Cannot access injection field %s", field), e);
+        }
+    }
+
+    static MethodHandle createMethodSetter(Method method) {
+        try {
+            MethodHandle handle = privateLookup(method.getDeclaringClass()).unreflect(method);
+            // 忽略返回值，链式setter同样可以注入
+            return handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new BeanDefinitionException(String.format("无法访问注入方法; Cannot access injection method %s", method), e);
+        }
+    }
+
+    static MethodHandles.Lookup privateLookup(Class<?> clazz) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+    }
+}
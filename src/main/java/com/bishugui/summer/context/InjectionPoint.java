@@ -0,0 +1,32 @@
+package com.bishugui.summer.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Member;
+
+/**
+ * @author bi shugui
+ * @description 字段/setter方法的注入点，由字段或方法上的@Value、@Autowired解析得到，每个Class只解析一次
+ * @param member 被注入的字段或方法
+ * @param parameter 注入值的解析计划，与构造方法参数相同
+ * @param setter 写入注入值的MethodHandle，类型为(Object bean, Object value)void
+ * @date 2023/12/30 15:10
+ */
+public record InjectionPoint(Member member, BeanParameter parameter, MethodHandle setter) {
+
+    /**
+     * 写入注入值，基本类型自动拆箱
+     * @param bean Bean实例
+     * @param value 注入值
+     * @throws Throwable setter方法抛出的异常
+     */
+    public void inject(Object bean, Object value) throws Throwable {
+        this.setter.invokeExact(bean, value);
+    }
+
+    /**
+     * 字段或方法的描述，如HelloBean.name
+     */
+    public String getDescription() {
+        return this.member.getDeclaringClass().getSimpleName() + "." + this.member.getName();
+    }
+}
@@ -0,0 +1,114 @@
+package com.bishugui.summer.context;
+
+import com.bishugui.summer.utils.ClassFileWriter;
+import com.bishugui.summer.utils.ClassFileWriter.Code;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import static com.bishugui.summer.utils.ClassFileWriter.*;
+
+/**
+ * @author bi shugui
+ * @description 生成BeanDefinition.Instantiator的实现类字节码，直接调用构造方法/工厂方法:
+ * return new T((A) args[0], ((Integer) args[1]).intValue(), ...) 或 ((Owner) factory).method(...)。
+ * 生成的类定义为构造方法/工厂方法所在类的隐藏nestmate，可以调用private成员；方法中没有分支，不需要StackMapTable
+ * @date 2024/01/04 11:05
+ */
+final class InstantiatorClassWriter {
+    static final String CLASS_SUFFIX = "$$SummerInstantiator";
+
+    private static final String INSTANTIATOR = internalName(BeanDefinition.Instantiator.class);
+    private static final String INSTANTIATE_DESCRIPTOR = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private final ClassFileWriter writer = new ClassFileWriter();
+
+    private InstantiatorClassWriter() {
+    }
+
+    /**
+     * 生成实现类
+     * @param executable 构造方法/工厂方法，实现类与其声明类在同一个包中
+     * @return class文件
+     */
+    static byte[] generate(Executable executable) {
+        return new InstantiatorClassWriter().write(executable);
+    }
+
+    private byte[] write(Executable executable) {
+        this.writer.method(ACC_PUBLIC, "<init>", "()V", writeConstructor(), 1, 1);
+        Code code = new Code();
+        int maxStack = writeInstantiate(code, executable);
+        this.writer.method(ACC_PUBLIC, "instantiate", INSTANTIATE_DESCRIPTOR, code, maxStack, 3);
+        return this.writer.toByteArray(ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC,
+                internalName(executable.getDeclaringClass().getName() + CLASS_SUFFIX), "java/lang/Object", List.of(INSTANTIATOR));
+    }
+
+    /**
+     * super()
+     */
+    private Code writeConstructor() {
+        return new Code()
+                .op(0x2a) // aload_0
+                .op(0xb7).u2(this.writer.methodConstant("java/lang/Object", "<init>", "()V")) // invokespecial
+                .op(0xb1); // return
+    }
+
+    /**
+     * 构造方法: new T(args...); 静态工厂方法: Owner.method(args...); 实例工厂方法: ((Owner) factory).method(args...)
+     * @return max_stack
+     */
+    private int writeInstantiate(Code code, Executable executable) {
+        String owner = internalName(executable.getDeclaringClass());
+        int stack;
+        if (executable instanceof Constructor<?>) {
+            code.op(0xbb).u2(this.writer.classConstant(owner)); // new
+            code.op(0x59); // dup
+            stack = 2;
+        } else if (!Modifier.isStatic(executable.getModifiers())) {
+            code.op(0x2b); // aload_1
+            code.op(0xc0).u2(this.writer.classConstant(owner)); // checkcast
+            stack = 1;
+        } else {
+            stack = 0;
+        }
+        Class<?>[] parameterTypes = executable.getParameterTypes();
+        int maxStack = stack;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            code.op(0x2c); // aload_2
+            code.pushInt(i);
+            code.op(0x32); // aaload
+            maxStack = Math.max(maxStack, stack + 2);
+            if (parameterType.isPrimitive()) {
+                Class<?> wrapper = MethodType.methodType(parameterType).wrap().returnType();
+                code.op(0xc0).u2(this.writer.classConstant(internalName(wrapper))); // checkcast
+                code.op(0xb6).u2(this.writer.methodConstant(internalName(wrapper), parameterType.getName() + "Value", "()" + parameterType.descriptorString())); // invokevirtual
+            } else if (parameterType != Object.class) {
+                code.op(0xc0).u2(this.writer.classConstant(internalName(parameterType))); // checkcast
+            }
+            stack += slotSize(parameterType);
+            maxStack = Math.max(maxStack, stack);
+        }
+        if (executable instanceof Method method) {
+            String descriptor = MethodType.methodType(method.getReturnType(), parameterTypes).toMethodDescriptorString();
+            int methodRef = this.writer.methodConstant(owner, method.getName(), descriptor);
+            code.op(Modifier.isStatic(method.getModifiers()) ? 0xb8 : 0xb6).u2(methodRef); // invokestatic : invokevirtual
+            Class<?> returnType = method.getReturnType();
+            if (returnType.isPrimitive()) {
+                Class<?> wrapper = MethodType.methodType(returnType).wrap().returnType();
+                code.op(0xb8).u2(this.writer.methodConstant(internalName(wrapper), "valueOf", "(" + returnType.descriptorString() + ")" + wrapper.descriptorString())); // invokestatic valueOf
+            }
+            maxStack = Math.max(maxStack, slotSize(returnType));
+        } else {
+            String descriptor = MethodType.methodType(void.class, parameterTypes).toMethodDescriptorString();
+            code.op(0xb7).u2(this.writer.methodConstant(owner, "<init>", descriptor)); // invokespecial
+        }
+        code.op(0xb0); // areturn
+        return maxStack;
+    }
+}
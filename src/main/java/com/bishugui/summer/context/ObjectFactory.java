@@ -0,0 +1,15 @@
+package com.bishugui.summer.context;
+
+/**
+ * @author bi shugui
+ * @description 对象工厂，用于延迟获取/创建对象
+ * @date 2023/12/17 15:05
+ */
+@FunctionalInterface
+public interface ObjectFactory<T> {
+    /**
+     * 获取对象
+     * @return T
+     */
+    T getObject();
+}
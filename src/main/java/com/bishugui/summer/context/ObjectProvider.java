@@ -0,0 +1,26 @@
+package com.bishugui.summer.context;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * @author bi shugui
+ * @description 延迟获取依赖Bean，作为@Autowired参数类型时注入的是ObjectProvider本身，
+ * 依赖的Bean直到调用getObject()/getIfAvailable()时才查找并创建
+ * @date 2023/12/23 14:12
+ */
+public interface ObjectProvider<T> extends ObjectFactory<T> {
+
+    /**
+     * 获取Bean，不存在时抛出NoSuchBeanDefinitionException
+     * @return T
+     */
+    @Override
+    T getObject();
+
+    /**
+     * 获取Bean，不存在时返回null
+     * @return T/null
+     */
+    @Nullable
+    T getIfAvailable();
+}
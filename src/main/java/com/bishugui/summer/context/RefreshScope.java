@@ -0,0 +1,67 @@
+package com.bishugui.summer.context;
+
+import jakarta.annotation.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * @author bi shugui
+ * @description 刷新作用域，Bean在刷新之前是共享的单例；@Value引用的属性发生变化时，容器移除该Bean，
+ * 下一次获取时用新的属性值重新创建。注入方应通过ObjectProvider或getBean获取，以便拿到刷新后的实例。
+ * 被移除、并发创建时落选以及容器关闭时仍存活的Bean，都通过destroyCallback调用destroy方法
+ * @date 2023/12/25 11:02
+ */
+public class RefreshScope implements Scope {
+    public static final String SCOPE_REFRESH = "refresh";
+
+    private final Map<String, Object> beans = new ConcurrentHashMap<>();
+
+    /**
+     * 销毁Bean实例，参数为Bean名称及实例
+     */
+    private final BiConsumer<String, Object> destroyCallback;
+
+    public RefreshScope(BiConsumer<String, Object> destroyCallback) {
+        this.destroyCallback = Objects.requireNonNull(destroyCallback, "Destroy callback is null.");
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        Object bean = this.beans.get(name);
+        if (bean == null) {
+            // 创建可能递归获取其他refresh Bean，不能在computeIfAbsent中创建
+            bean = objectFactory.getObject();
+            Object existing = this.beans.putIfAbsent(name, bean);
+            if (existing != null) {
+                // 其他线程先放入了实例，销毁本线程创建的实例
+                this.destroyCallback.accept(name, bean);
+                bean = existing;
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * 移除并销毁Bean
+     * @return 被移除的Bean实例/null，返回时已调用destroy方法
+     */
+    @Nullable
+    @Override
+    public Object remove(String name) {
+        Object bean = this.beans.remove(name);
+        if (bean != null) {
+            this.destroyCallback.accept(name, bean);
+        }
+        return bean;
+    }
+
+    @Override
+    public void destroy() {
+        for (String name : this.beans.keySet()) {
+            remove(name);
+        }
+    }
+}
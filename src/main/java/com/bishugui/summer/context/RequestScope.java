@@ -0,0 +1,75 @@
+package com.bishugui.summer.context;
+
+import jakarta.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author bi shugui
+ * @description 请求作用域，一个请求内共享同一个Bean实例
+ * 请求由处理线程通过begin()开始，关闭返回的RequestContext结束:
+ *
+ * <code>
+ * try (var request = RequestScope.begin()) {
+ *     context.getBean(RequestHandler.class).handle();
+ * }
+ * </code>
+ * @date 2023/12/17 15:16
+ */
+public class RequestScope implements Scope {
+    public static final String SCOPE_REQUEST = "request";
+
+    private static final ThreadLocal<RequestContext> CURRENT_REQUEST = new ThreadLocal<>();
+
+    /**
+     * 在当前线程开始一个请求
+     * @return RequestContext，关闭时结束请求
+     */
+    public static RequestContext begin() {
+        if (CURRENT_REQUEST.get() != null) {
+            throw new IllegalStateException("Request already bound to current thread.");
+        }
+        RequestContext requestContext = new RequestContext(new HashMap<>());
+        CURRENT_REQUEST.set(requestContext);
+        return requestContext;
+    }
+
+    static RequestContext currentRequest() {
+        RequestContext requestContext = CURRENT_REQUEST.get();
+        if (requestContext == null) {
+            throw new IllegalStateException("No request bound to current thread, call RequestScope.begin() first.");
+        }
+        return requestContext;
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        Map<String, Object> beans = currentRequest().beans();
+        Object bean = beans.get(name);
+        if (bean == null) {
+            bean = objectFactory.getObject();
+            beans.put(name, bean);
+        }
+        return bean;
+    }
+
+    @Nullable
+    @Override
+    public Object remove(String name) {
+        return currentRequest().beans().remove(name);
+    }
+
+    /**
+     * 请求上下文，保存本次请求中创建的Bean
+     */
+    public record RequestContext(Map<String, Object> beans) implements AutoCloseable {
+        @Override
+        public void close() {
+            if (CURRENT_REQUEST.get() == this) {
+                CURRENT_REQUEST.remove();
+            }
+            this.beans.clear();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.bishugui.summer.context;
+
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * @author bi shugui
+ * @description 持久化的扫描结果缓存，保存上一次启动时扫描得到的组件及其BeanDefinition元数据(与ComponentIndex相同的信息)，
+ * 以类路径指纹为键：类路径未变化时直接由缓存生成ComponentIndex，跳过扫描目录/jar包、读取字节码及反射查找构造方法与@Bean方法。
+ *
+ * 指纹包含扫描的包名、每个包在类路径上的所有位置(目录下每个文件的路径、大小、修改时间; jar包的大小、修改时间)，
+ * 以及java.class.path中每个jar包的大小、修改时间; 任何一项变化都会重新扫描并覆盖缓存。
+ * java.class.path中的目录只包含路径，其中的类变化后由缓存创建BeanDefinition可能失败，此时删除缓存并重新扫描。
+ *
+ * 文件格式(大端序，读取时通过内存映射):
+ * <code>
+ * int magic  int version  byte[32] fingerprint(SHA-256)
+ * int stringCount  {int length  byte[length] utf8}...
+ * int componentCount  {component}...
+ * component: className beanName int order byte primary types postConstruct preDestroy int factoryCount {factory}...
+ * factory: beanName methodName types int order byte primary initMethod destroyMethod
+ * types: int count {string}...
+ * </code>
+ * 字符串均为字符串表中的下标，-1表示null，类型名在多个构造方法、@Bean方法中只保存一次
+ * @date 2023/12/30 10:20
+ */
+final class ScanCache {
+    private static final Logger log = LoggerFactory.getLogger(ScanCache.class);
+
+    static final int MAGIC = 0x534D5343;
+    static final int VERSION = 1;
+    static final int FINGERPRINT_LENGTH = 32;
+
+    final Path file;
+
+    final byte[] fingerprint;
+
+    private ScanCache(Path file, byte[] fingerprint) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * 计算当前类路径的指纹
+     * @param file 缓存文件
+     * @param classLoader 扫描使用的ClassLoader
+     * @param scanPackages 扫描的包
+     * @return ScanCache
+     */
+    static ScanCache of(Path file, ClassLoader classLoader, String[] scanPackages) {
+        try {
+            return new ScanCache(file, fingerprint(classLoader, scanPackages));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] fingerprint(ClassLoader classLoader, String[] scanPackages) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        DataOutputStream output = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+        String[] packages = scanPackages.clone();
+        Arrays.sort(packages);
+        for (String pkg : packages) {
+            output.writeUTF(pkg);
+            Enumeration<URL> urls = classLoader.getResources(pkg.replace(".", "/"));
+            while (urls.hasMoreElements()) {
+                URI uri;
+                try {
+                    uri = urls.nextElement().toURI();
+                } catch (URISyntaxException e) {
+                    throw new IOException(e);
+                }
+                output.writeUTF(uri.toString());
+                if ("file".equals(uri.getScheme())) {
+                    writeDirectory(Path.of(uri), output);
+                } else if ("jar".equals(uri.getScheme())) {
+                    String jarUri = uri.getRawSchemeSpecificPart();
+                    int separator = jarUri.indexOf("!/");
+                    if (separator > 0 && jarUri.startsWith("file:")) {
+                        writeFile(Path.of(URI.create(jarUri.substring(0, separator))), output);
+                    }
+                }
+            }
+        }
+        // 扫描的包之外的依赖也会影响BeanDefinition，如父类、构造方法参数类型
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                output.writeUTF(entry);
+                Path path = Path.of(entry);
+                if (Files.isRegularFile(path)) {
+                    writeFile(path, output);
+                }
+            }
+        }
+        output.flush();
+        return digest.digest();
+    }
+
+    static void writeDirectory(Path directory, DataOutputStream output) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.forEach(path -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        lines.add(directory.relativize(path) + "\t" + attributes.size() + "\t" + attributes.lastModifiedTime().toMillis());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // Files.walk的顺序与文件系统有关
+        Collections.sort(lines);
+        for (String line : lines) {
+            output.writeUTF(line);
+        }
+    }
+
+    static void writeFile(Path path, DataOutputStream output) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        output.writeLong(attributes.size());
+        output.writeLong(attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * 读取缓存文件
+     * @return 缓存的组件索引，文件不存在、已损坏或指纹不一致时返回null
+     */
+    @Nullable
+    ComponentIndex load() {
+        if (!Files.isRegularFile(this.file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.atWarn().log("扫描缓存格式不正确，重新扫描; Invalid scan cache file: {}", this.file);
+                return null;
+            }
+            byte[] cachedFingerprint = new byte[FINGERPRINT_LENGTH];
+            buffer.get(cachedFingerprint);
+            if (!Arrays.equals(cachedFingerprint, this.fingerprint)) {
+                log.atInfo().log("类路径已变化，重新扫描; Classpath changed, scan cache is stale: {}", this.file);
+                return null;
+            }
+            return new ComponentIndex(readComponents(buffer));
+        } catch (IOException | RuntimeException e) {
+            log.atWarn().log("读取扫描缓存失败，重新扫描; Failed to read scan cache {}: {}", this.file, e.toString());
+            return null;
+        }
+    }
+
+    static Map<String, ComponentIndex.ComponentEntry> readComponents(ByteBuffer buffer) {
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int componentCount = buffer.getInt();
+        Map<String, ComponentIndex.ComponentEntry> components = new LinkedHashMap<>(componentCount * 2);
+        for (int i = 0; i < componentCount; i++) {
+            String className = readString(buffer, strings);
+            String beanName = readString(buffer, strings);
+            int order = buffer.getInt();
+            boolean primary = buffer.get() != 0;
+            List<String> constructorParameterTypes = readTypes(buffer, strings);
+            String postConstructMethod = readString(buffer, strings);
+            String preDestroyMethod = readString(buffer, strings);
+            int factoryCount = buffer.getInt();
+            List<ComponentIndex.FactoryMethodEntry> factoryMethods = new ArrayList<>(factoryCount);
+            for (int j = 0; j < factoryCount; j++) {
+                factoryMethods.add(new ComponentIndex.FactoryMethodEntry(readString(buffer, strings), readString(buffer, strings),
+                        readTypes(buffer, strings), buffer.getInt(), buffer.get() != 0, readString(buffer, strings), readString(buffer, strings)));
+            }
+            components.put(className, new ComponentIndex.ComponentEntry(className, beanName, order, primary, constructorParameterTypes,
+                    postConstructMethod, preDestroyMethod, factoryMethods));
+        }
+        return components;
+    }
+
+    @Nullable
+    static String readString(ByteBuffer buffer, String[] strings) {
+        int index = buffer.getInt();
+        return index < 0 ? null : strings[index];
+    }
+
+    static List<String> readTypes(ByteBuffer buffer, String[] strings) {
+        String[] types = new String[buffer.getInt()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = strings[buffer.getInt()];
+        }
+        return List.of(types);
+    }
+
+    /**
+     * 删除缓存文件，缓存的元数据与类路径上的类不一致时使用，删除失败不影响启动
+     */
+    void discard() {
+        try {
+            Files.deleteIfExists(this.file);
+        } catch (IOException e) {
+            log.atWarn().log("删除扫描缓存失败; Failed to delete scan cache {}: {}", this.file, e.toString());
+        }
+    }
+
+    /**
+     * 根据扫描得到的BeanDefinition写入缓存，先写入临时文件再替换，写入失败不影响启动
+     * @param beanDefinitions 所有BeanDefinition
+     */
+    void store(Collection<BeanDefinition> beanDefinitions) {
+        // 按Class名字排序，保证相同的扫描结果生成相同的文件
+        List<BeanDefinition> components = beanDefinitions.stream()
+                .filter(def -> def.getFactoryName() == null)
+                .sorted(Comparator.comparing(def -> def.getBeanClass().getName()))
+                .toList();
+        Map<String, List<BeanDefinition>> factoryMethods = new HashMap<>();
+        beanDefinitions.stream()
+                .filter(def -> def.getFactoryName() != null)
+                .sorted(Comparator.comparing(BeanDefinition::getName))
+                .forEach(def -> factoryMethods.computeIfAbsent(def.getFactoryName(), k -> new ArrayList<>()).add(def));
+
+        StringTable strings = new StringTable();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            DataOutputStream output = new DataOutputStream(body);
+            output.writeInt(components.size());
+            for (BeanDefinition def : components) {
+                output.writeInt(strings.indexOf(def.getBeanClass().getName()));
+                output.writeInt(strings.indexOf(def.getName()));
+                output.writeInt(def.order);
+                output.writeBoolean(def.isPrimary());
+                writeTypes(def.getConstructor().getParameterTypes(), strings, output);
+                output.writeInt(strings.indexOf(methodName(def.getInitMethod())));
+                output.writeInt(strings.indexOf(methodName(def.getDestroyMethod())));
+                List<BeanDefinition> factoryDefs = factoryMethods.getOrDefault(def.getName(), List.of());
+                output.writeInt(factoryDefs.size());
+                for (BeanDefinition factoryDef : factoryDefs) {
+                    output.writeInt(strings.indexOf(factoryDef.getName()));
+                    output.writeInt(strings.indexOf(factoryDef.getFactoryMethod().getName()));
+                    writeTypes(factoryDef.getFactoryMethod().getParameterTypes(), strings, output);
+                    output.writeInt(factoryDef.order);
+                    output.writeBoolean(factoryDef.isPrimary());
+                    output.writeInt(strings.indexOf(factoryDef.getInitMethodName()));
+                    output.writeInt(strings.indexOf(factoryDef.getDestroyMethodName()));
+                }
+            }
+
+            Path parent = this.file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+            try (DataOutputStream fileOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                fileOutput.writeInt(MAGIC);
+                fileOutput.writeInt(VERSION);
+                fileOutput.write(this.fingerprint);
+                strings.writeTo(fileOutput);
+                body.writeTo(fileOutput);
+            }
+            Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.atDebug().log("Stored {} components in scan cache: {}", components.size(), this.file);
+        } catch (IOException e) {
+            log.atWarn().log("写入扫描缓存失败; Failed to write scan cache {}: {}", this.file, e.toString());
+        }
+    }
+
+    static void writeTypes(Class<?>[] types, StringTable strings, DataOutputStream output) throws IOException {
+        output.writeInt(types.length);
+        for (Class<?> type : types) {
+            output.writeInt(strings.indexOf(type.getName()));
+        }
+    }
+
+    @Nullable
+    static String methodName(@Nullable Method method) {
+        return method == null ? null : method.getName();
+    }
+
+    /**
+     * 字符串表，相同的字符串只保存一次
+     */
+    static class StringTable {
+        final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+        int indexOf(@Nullable String str) {
+            if (str == null) {
+                return -1;
+            }
+            return this.indexes.computeIfAbsent(str, k -> this.indexes.size());
+        }
+
+        void writeTo(DataOutputStream output) throws IOException {
+            output.writeInt(this.indexes.size());
+            for (String str : this.indexes.keySet()) {
+                byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+        }
+    }
+}
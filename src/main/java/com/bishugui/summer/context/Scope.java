@@ -0,0 +1,33 @@
+package com.bishugui.summer.context;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * @author bi shugui
+ * @description 作用域 SPI，管理非singleton、非prototype的Bean实例的存放位置与生命周期
+ * @date 2023/12/17 15:08
+ */
+public interface Scope {
+
+    /**
+     * 从作用域中获取Bean，不存在时通过objectFactory创建并放入作用域
+     * @param name Bean名称
+     * @param objectFactory 创建Bean的工厂
+     * @return Bean实例
+     */
+    Object get(String name, ObjectFactory<?> objectFactory);
+
+    /**
+     * 从作用域中移除Bean
+     * @param name Bean名称
+     * @return 被移除的Bean实例/null
+     */
+    @Nullable
+    Object remove(String name);
+
+    /**
+     * 容器关闭时调用，销毁作用域中仍存活的Bean；默认不做处理
+     */
+    default void destroy() {
+    }
+}
@@ -0,0 +1,41 @@
+package com.bishugui.summer.context;
+
+import jakarta.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author bi shugui
+ * @description 线程作用域，每个线程(包括虚拟线程)拥有各自的Bean实例
+ * @date 2023/12/17 15:12
+ */
+public class ThreadScope implements Scope {
+    public static final String SCOPE_THREAD = "thread";
+
+    private final ThreadLocal<Map<String, Object>> threadBeans = ThreadLocal.withInitial(HashMap::new);
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        Map<String, Object> beans = this.threadBeans.get();
+        Object bean = beans.get(name);
+        if (bean == null) {
+            bean = objectFactory.getObject();
+            beans.put(name, bean);
+        }
+        return bean;
+    }
+
+    @Nullable
+    @Override
+    public Object remove(String name) {
+        return this.threadBeans.get().remove(name);
+    }
+
+    /**
+     * 清除当前线程的所有Bean，线程池中的线程被复用前应调用
+     */
+    public void clear() {
+        this.threadBeans.remove();
+    }
+}
@@ -0,0 +1,292 @@
+package com.bishugui.summer.io;
+
+import jakarta.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author bi shugui
+ * @description Class元数据读取器，直接解析.class文件的常量池与注解属性，无需加载(初始化)Class
+ * 用于在扫描阶段过滤掉未标注@Component的类，避免对它们调用Class.forName
+ * @date 2023/12/10 15:20
+ */
+public class ClassMetadataReader {
+    static final int MAGIC = 0xCAFEBABE;
+
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_ENUM = 0x4000;
+
+    static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    final ClassLoader classLoader;
+
+    /**
+     * 元注解缓存，Map<目标注解, Map<注解类型, 是否(直接或间接)标注了目标注解>>
+     */
+    final Map<String, Map<String, Boolean>> metaAnnotationCache = new ConcurrentHashMap<>();
+
+    public ClassMetadataReader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 读取Class元数据
+     * @param className Class全名
+     * @return ClassMetadata，找不到.class文件时返回null
+     */
+    @Nullable
+    public ClassMetadata read(String className) {
+        String path = className.replace('.', '/') + ".class";
+        try (InputStream input = this.classLoader.getResourceAsStream(path)) {
+            if (input == null) {
+                return null;
+            }
+            return parse(input.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 类或其注解(递归查找元注解)是否标注了指定注解
+     * @param metadata ClassMetadata
+     * @param annotationClass 目标注解
+     * @return 是：true
+     */
+    public boolean isAnnotated(ClassMetadata metadata, Class<? extends Annotation> annotationClass) {
+        String target = annotationClass.getName();
+        Map<String, Boolean> cache = this.metaAnnotationCache.computeIfAbsent(target, key -> new ConcurrentHashMap<>());
+        for (String annotationType : metadata.annotationTypes()) {
+            if (isAnnotationType(annotationType, target, cache, new HashSet<>())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isAnnotationType(String annotationType, String target, Map<String, Boolean> cache, Set<String> visiting) {
+        if (annotationType.equals(target)) {
+            return true;
+        }
+        // java自带的注解不扫描，与ClassUtils.findAnnotation保持一致
+        if (annotationType.startsWith("java.lang.annotation.")) {
+            return false;
+        }
+        Boolean cached = cache.get(annotationType);
+        if (cached != null) {
+            return cached;
+        }
+        // visiting为当前递归路径，防止注解之间互相标注造成的无限递归
+        if (!visiting.add(annotationType)) {
+            return false;
+        }
+        boolean result = false;
+        ClassMetadata annotationMetadata = read(annotationType);
+        if (annotationMetadata != null) {
+            for (String metaAnnotationType : annotationMetadata.annotationTypes()) {
+                if (isAnnotationType(metaAnnotationType, target, cache, visiting)) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        // 递归被截断时子节点的false不一定可靠，只缓存true以及递归起点的结果
+        if (result || visiting.size() == 1) {
+            cache.put(annotationType, result);
+        }
+        visiting.remove(annotationType);
+        return result;
+    }
+
+    /**
+     * 解析.class文件字节
+     * @param bytes .class文件内容
+     * @return ClassMetadata
+     */
+    public static ClassMetadata parse(byte[] bytes) {
+        try {
+            return doParse(ByteBuffer.wrap(bytes), bytes);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid class file.", e);
+        }
+    }
+
+    static ClassMetadata doParse(ByteBuffer buffer, byte[] bytes) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Invalid class file: bad magic.");
+        }
+        // minor_version, major_version
+        buffer.getShort();
+        buffer.getShort();
+
+        // 常量池：只记录每一项的偏移量，Utf8按需解码
+        int constantPoolCount = buffer.getShort() & 0xFFFF;
+        int[] offsets = new int[constantPoolCount];
+        byte[] tags = new byte[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            byte tag = buffer.get();
+            tags[i] = tag;
+            offsets[i] = buffer.position();
+            switch (tag) {
+                // Utf8
+                case 1 -> buffer.position(buffer.position() + 2 + (buffer.getShort(buffer.position()) & 0xFFFF));
+                // Integer, Float, Fieldref, Methodref, InterfaceMethodref, NameAndType, Dynamic, InvokeDynamic
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> buffer.position(buffer.position() + 4);
+                // Long, Double占用两个常量池位置
+                case 5, 6 -> {
+                    buffer.position(buffer.position() + 8);
+                    i++;
+                }
+                // Class, String, MethodType, Module, Package
+                case 7, 8, 16, 19, 20 -> buffer.position(buffer.position() + 2);
+                // MethodHandle
+                case 15 -> buffer.position(buffer.position() + 3);
+                default -> throw new IllegalArgumentException("Invalid class file: unknown constant pool tag " + tag);
+            }
+        }
+        ConstantPool constantPool = new ConstantPool(bytes, buffer, offsets, tags);
+
+        int accessFlags = buffer.getShort() & 0xFFFF;
+        String className = constantPool.className(buffer.getShort() & 0xFFFF);
+        int superIndex = buffer.getShort() & 0xFFFF;
+        String superClassName = superIndex == 0 ? null : constantPool.className(superIndex);
+        // interfaces
+        int interfacesCount = buffer.getShort() & 0xFFFF;
+        buffer.position(buffer.position() + interfacesCount * 2);
+        // fields, methods
+        skipMembers(buffer);
+        skipMembers(buffer);
+
+        // class attributes
+        List<String> annotationTypes = new ArrayList<>();
+        int attributesCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < attributesCount; i++) {
+            String attributeName = constantPool.utf8(buffer.getShort() & 0xFFFF);
+            int length = buffer.getInt();
+            int end = buffer.position() + length;
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                int annotationsCount = buffer.getShort() & 0xFFFF;
+                for (int j = 0; j < annotationsCount; j++) {
+                    annotationTypes.add(readAnnotation(buffer, constantPool));
+                }
+            }
+            buffer.position(end);
+        }
+        return new ClassMetadata(className, superClassName, accessFlags, List.copyOf(annotationTypes));
+    }
+
+    static void skipMembers(ByteBuffer buffer) {
+        int count = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            // access_flags, name_index, descriptor_index
+            buffer.position(buffer.position() + 6);
+            skipAttributes(buffer);
+        }
+    }
+
+    static void skipAttributes(ByteBuffer buffer) {
+        int count = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            buffer.getShort();
+            int length = buffer.getInt();
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    /**
+     * 读取一个注解，返回注解类型的Class全名，并跳过其属性值
+     */
+    static String readAnnotation(ByteBuffer buffer, ConstantPool constantPool) {
+        String descriptor = constantPool.utf8(buffer.getShort() & 0xFFFF);
+        int pairsCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < pairsCount; i++) {
+            buffer.getShort();
+            skipElementValue(buffer, constantPool);
+        }
+        // Lcom/xxx/Hello; => com.xxx.Hello
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    static void skipElementValue(ByteBuffer buffer, ConstantPool constantPool) {
+        char tag = (char) buffer.get();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> buffer.getShort();
+            case 'e' -> buffer.getInt();
+            case '@' -> readAnnotation(buffer, constantPool);
+            case '[' -> {
+                int count = buffer.getShort() & 0xFFFF;
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(buffer, constantPool);
+                }
+            }
+            default -> throw new IllegalArgumentException("Invalid class file: unknown element value tag " + tag);
+        }
+    }
+
+    /**
+     * 常量池
+     */
+    record ConstantPool(byte[] bytes, ByteBuffer buffer, int[] offsets, byte[] tags) {
+
+        String utf8(int index) {
+            if (this.tags[index] != 1) {
+                throw new IllegalArgumentException("Invalid class file: constant " + index + " is not Utf8.");
+            }
+            int offset = this.offsets[index];
+            int length = this.buffer.getShort(offset) & 0xFFFF;
+            try {
+                // 常量池中是modified UTF-8，与DataInput.readUTF的格式一致(含2字节长度)
+                return new DataInputStream(new ByteArrayInputStream(this.bytes, offset, length + 2)).readUTF();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid class file: bad Utf8 constant " + index, e);
+            }
+        }
+
+        String className(int index) {
+            if (this.tags[index] != 7) {
+                throw new IllegalArgumentException("Invalid class file: constant " + index + " is not Class.");
+            }
+            return utf8(this.buffer.getShort(this.offsets[index]) & 0xFFFF).replace('/', '.');
+        }
+    }
+
+    /**
+     * Class元数据
+     * @param className Class全名
+     * @param superClassName 父类全名/null
+     * @param accessFlags 访问标志
+     * @param annotationTypes 直接标注在类上的(运行时可见)注解类型全名
+     */
+    public record ClassMetadata(String className, @Nullable String superClassName, int accessFlags, List<String> annotationTypes) {
+
+        public boolean isInterface() {
+            return (this.accessFlags & ACC_INTERFACE) != 0;
+        }
+
+        public boolean isAnnotation() {
+            return (this.accessFlags & ACC_ANNOTATION) != 0;
+        }
+
+        public boolean isEnum() {
+            return (this.accessFlags & ACC_ENUM) != 0;
+        }
+
+        public boolean isRecord() {
+            return "java.lang.Record".equals(this.superClassName);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.bishugui.summer.io;
+
+import jakarta.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author bi shugui
+ * @description 命令行参数属性源，解析--key=value形式的参数，只有--key时值为"true"
+ * @date 2023/12/27 20:18
+ */
+public class CommandLinePropertySource implements PropertySource {
+    public static final String NAME = "commandLineArgs";
+
+    private final Map<String, String> args = new HashMap<>();
+
+    public CommandLinePropertySource(String... args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.length() == 2) {
+                // 非选项参数
+                continue;
+            }
+            int pos = arg.indexOf('=');
+            if (pos < 0) {
+                this.args.put(arg.substring(2), "true");
+            } else {
+                this.args.put(arg.substring(2, pos), arg.substring(pos + 1));
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Nullable
+    @Override
+    public String getProperty(String key) {
+        return this.args.get(key);
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return this.args.keySet();
+    }
+}
@@ -0,0 +1,45 @@
+package com.bishugui.summer.io;
+
+/**
+ * @author bi shugui
+ * @description 数据大小，配置值可以带单位：B、KB、MB、GB、TB(1024进制，不区分大小写)，不带单位时为字节，如512KB、10MB
+ * @param bytes 字节数
+ * @date 2023/12/28 20:40
+ */
+public record DataSize(long bytes) {
+
+    public static DataSize ofBytes(long bytes) {
+        return new DataSize(bytes);
+    }
+
+    public static DataSize ofKilobytes(long kilobytes) {
+        return new DataSize(Math.multiplyExact(kilobytes, 1024L));
+    }
+
+    public static DataSize ofMegabytes(long megabytes) {
+        return new DataSize(Math.multiplyExact(megabytes, 1024L * 1024));
+    }
+
+    /**
+     * 解析带单位的数据大小
+     * @param text 如512KB、10MB、100
+     * @return DataSize
+     */
+    public static DataSize parse(String text) {
+        String value = text.trim().toUpperCase();
+        int pos = value.length();
+        while (pos > 0 && Character.isLetter(value.charAt(pos - 1))) {
+            pos--;
+        }
+        long amount = Long.parseLong(value.substring(0, pos).trim());
+        long unit = switch (value.substring(pos)) {
+            case "", "B" -> 1L;
+            case "KB", "K" -> 1024L;
+            case "MB", "M" -> 1024L * 1024;
+            case "GB", "G" -> 1024L * 1024 * 1024;
+            case "TB", "T" -> 1024L * 1024 * 1024 * 1024;
+            default -> throw new IllegalArgumentException("Unknown data size unit: " + text);
+        };
+        return new DataSize(Math.multiplyExact(amount, unit));
+    }
+}
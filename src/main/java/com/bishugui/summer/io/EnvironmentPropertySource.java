@@ -0,0 +1,45 @@
+package com.bishugui.summer.io;
+
+import jakarta.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * @author bi shugui
+ * @description 环境变量属性源，支持宽松绑定：先按原键名查找，再把"."、"-"替换为"_"，
+ * 分别按原大小写、全大写查找，如summer.datasource.pool-size可以由SUMMER_DATASOURCE_POOL_SIZE设置
+ * @date 2023/12/27 20:25
+ */
+public class EnvironmentPropertySource implements PropertySource {
+    public static final String NAME = "systemEnvironment";
+
+    private final Map<String, String> environment;
+
+    public EnvironmentPropertySource() {
+        this(System.getenv());
+    }
+
+    EnvironmentPropertySource(Map<String, String> environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Nullable
+    @Override
+    public String getProperty(String key) {
+        String value = this.environment.get(key);
+        if (value != null) {
+            return value;
+        }
+        String name = key.replace('.', '_').replace('-', '_');
+        if (name.equals(key)) {
+            return this.environment.get(key.toUpperCase());
+        }
+        value = this.environment.get(name);
+        return value != null ? value : this.environment.get(name.toUpperCase());
+    }
+}
@@ -0,0 +1,89 @@
+package com.bishugui.summer.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipFile;
+
+/**
+ * @author bi shugui
+ * @description jar包的条目索引，通过ZipFile只读取一次中央目录，条目名称排序后按包前缀二分查找，无需遍历
+ * 索引缓存在使用它的ResourceResolver中，文件大小或修改时间变化后重新读取；ResourceResolver不再被引用时一起释放
+ * @date 2023/12/29 20:15
+ */
+final class JarIndex {
+    final long size;
+
+    final long lastModified;
+
+    /**
+     * 排序后的文件条目名称(不含目录)，如jakarta/annotation/Nullable.class
+     */
+    final String[] entryNames;
+
+    private JarIndex(long size, long lastModified, String[] entryNames) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.entryNames = entryNames;
+    }
+
+    /**
+     * 获取jar包的索引，同一个缓存中的jar只打开一次
+     * @param jarPath jar文件
+     * @param cache 已读取的索引，Map<jar文件, 索引>，可能被多个线程同时读写
+     * @return JarIndex
+     */
+    static JarIndex of(Path jarPath, Map<Path, JarIndex> cache) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(jarPath, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        JarIndex index = cache.get(jarPath);
+        if (index == null || index.size != attributes.size() || index.lastModified != lastModified) {
+            index = new JarIndex(attributes.size(), lastModified, readEntryNames(jarPath));
+            cache.put(jarPath, index);
+        }
+        return index;
+    }
+
+    static String[] readEntryNames(Path jarPath) throws IOException {
+        try (ZipFile zipFile = new ZipFile(jarPath.toFile())) {
+            String[] entryNames = zipFile.stream().filter(entry -> !entry.isDirectory()).map(entry -> entry.getName()).toArray(String[]::new);
+            Arrays.sort(entryNames);
+            return entryNames;
+        }
+    }
+
+    /**
+     * 获取前缀下的所有条目
+     * @param prefix 前缀，如jakarta/annotation/
+     * @return 有序列表的视图
+     */
+    List<String> getEntryNames(String prefix) {
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < this.entryNames.length && this.entryNames[to].startsWith(prefix)) {
+            to++;
+        }
+        return Arrays.asList(this.entryNames).subList(from, to);
+    }
+
+    /**
+     * 第一个不小于key的位置
+     */
+    int lowerBound(String key) {
+        int low = 0;
+        int high = this.entryNames.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.entryNames[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
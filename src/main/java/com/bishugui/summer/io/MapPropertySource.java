@@ -0,0 +1,92 @@
+package com.bishugui.summer.io;
+
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * @author bi shugui
+ * @description 基于Map的属性源，用于Properties、yaml文件、默认值等
+ * yaml中的列表展开为带下标的键，如servers[0]、servers[1].host，与properties文件的写法一致
+ * @date 2023/12/27 20:14
+ */
+public class MapPropertySource implements PropertySource {
+    private final String name;
+
+    private final Map<String, String> source;
+
+    private MapPropertySource(String name, Map<String, String> source) {
+        this.name = name;
+        this.source = source;
+    }
+
+    /**
+     * 由Properties创建，与Properties.stringPropertyNames()一致，只使用字符串的键值
+     */
+    public static MapPropertySource of(String name, Properties properties) {
+        Map<String, String> map = new HashMap<>();
+        properties.stringPropertyNames().forEach(key -> map.put(key, properties.getProperty(key)));
+        return new MapPropertySource(name, map);
+    }
+
+    /**
+     * 由plain map(如YamlUtils.loadYamlAsPlainMap的结果)创建，直接使用该Map，不复制:
+     * 列表在创建时原地展开为带下标的键，String、List之外的值被移除
+     * @param name 名称
+     * @param plainMap 可修改的Map，值为String或List(yaml列表)，创建后归属于属性源，调用方不应再修改
+     * @return MapPropertySource
+     */
+    @SuppressWarnings("unchecked")
+    public static MapPropertySource ofPlainMap(String name, Map<String, Object> plainMap) {
+        List<String> nestedKeys = new ArrayList<>();
+        plainMap.forEach((key, value) -> {
+            if (!(value instanceof String)) {
+                nestedKeys.add(key);
+            }
+        });
+        for (String key : nestedKeys) {
+            put(plainMap, key, plainMap.remove(key));
+        }
+        // 展开后所有值都是String
+        return new MapPropertySource(name, (Map<String, String>) (Map<String, ?>) plainMap);
+    }
+
+    static void put(Map<String, ? super String> map, String key, Object value) {
+        if (value instanceof String str) {
+            map.put(key, str);
+        } else if (value instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) {
+                put(map, key + "[" + i + "]", list.get(i));
+            }
+        } else if (value instanceof Map<?, ?> subMap) {
+            // 列表中的对象
+            subMap.forEach((subKey, subValue) -> put(map, key + "." + subKey, subValue));
+        }
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Nullable
+    @Override
+    public String getProperty(String key) {
+        return this.source.get(key);
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return this.source.keySet();
+    }
+
+    @Override
+    public String toString() {
+        return "MapPropertySource{name='" + this.name + "', size=" + this.source.size() + "}";
+    }
+}
@@ -0,0 +1,339 @@
+package com.bishugui.summer.io;
+
+import jakarta.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * @author bi shugui
+ * @description 把前缀下的属性批量绑定到record或POJO
+ * 每个目标类型只分析一次(构造方法、属性名、泛型类型、setter)，生成的TypeBinder按类型缓存；
+ * 绑定时在有序键名索引上取前缀子树的视图，只查询子树中存在的键，不遍历全部属性。
+ * 属性名使用kebab-case(pool-size)，也可以与字段名一致(poolSize)；列表使用下标(servers[0])或逗号分隔
+ * @date 2023/12/28 21:05
+ */
+class PropertyBinder {
+    private final PropertyResolver propertyResolver;
+
+    private final ClassValue<TypeBinder> typeBinders = new ClassValue<>() {
+        @Override
+        protected TypeBinder computeValue(Class<?> type) {
+            return TypeBinder.create(type);
+        }
+    };
+
+    PropertyBinder(PropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+    }
+
+    /**
+     * 绑定对象，前缀下没有属性时各属性使用默认值
+     */
+    <T> T bind(String prefix, Class<T> targetClass) {
+        if (isScalar(targetClass) || Collection.class.isAssignableFrom(targetClass) || Map.class.isAssignableFrom(targetClass)) {
+            return (T) bindValue(prefix, targetClass, targetClass);
+        }
+        return (T) this.typeBinders.get(targetClass).bind(this, prefix);
+    }
+
+    /**
+     * 按类型绑定一个值
+     * @param name 完整键名
+     * @param type 类型
+     * @param genericType 泛型类型，用于获取集合元素类型
+     * @return 绑定的值，没有对应属性时返回null
+     */
+    @Nullable
+    Object bindValue(String name, Class<?> type, Type genericType) {
+        if (isScalar(type)) {
+            String value = this.propertyResolver.getProperty(name);
+            return value == null ? null : convert(name, type, value);
+        }
+        if (type == List.class || type == Collection.class || type == Set.class) {
+            return bindCollection(name, type, genericType);
+        }
+        if (type == Map.class) {
+            return bindMap(name, genericType);
+        }
+        // 嵌套对象
+        if (!hasProperties(name)) {
+            return null;
+        }
+        return this.typeBinders.get(type).bind(this, name);
+    }
+
+    @Nullable
+    Collection<Object> bindCollection(String name, Class<?> type, Type genericType) {
+        Type elementType = typeArgument(genericType, 0);
+        Class<?> elementClass = rawClass(elementType);
+        Collection<Object> collection = type == Set.class ? new LinkedHashSet<>() : new ArrayList<>();
+        // 带下标的键，'\\'是'['的下一个字符
+        NavigableSet<String> indexedNames = this.propertyResolver.getPropertyNames().subSet(name + "[", true, name + "\\", false);
+        if (!indexedNames.isEmpty()) {
+            SortedSet<Integer> indexes = new TreeSet<>();
+            for (String indexedName : indexedNames) {
+                int end = indexedName.indexOf(']', name.length());
+                if (end > 0) {
+                    indexes.add(Integer.parseInt(indexedName.substring(name.length() + 1, end)));
+                }
+            }
+            for (int index : indexes) {
+                Object element = bindValue(name + "[" + index + "]", elementClass, elementType);
+                if (element != null) {
+                    collection.add(element);
+                }
+            }
+            return collection;
+        }
+        // 逗号分隔的值
+        String value = this.propertyResolver.getProperty(name);
+        if (value == null) {
+            return null;
+        }
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                collection.add(convert(name, elementClass, item.trim()));
+            }
+        }
+        return collection;
+    }
+
+    @Nullable
+    Map<String, Object> bindMap(String name, Type genericType) {
+        Type valueType = typeArgument(genericType, 1);
+        Class<?> valueClass = rawClass(valueType);
+        int start = name.length() + 1;
+        Set<String> children = new LinkedHashSet<>();
+        for (String key : this.propertyResolver.getPropertyNames(name)) {
+            int end = start;
+            while (end < key.length() && key.charAt(end) != '.' && key.charAt(end) != '[') {
+                end++;
+            }
+            children.add(key.substring(start, end));
+        }
+        if (children.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (String child : children) {
+            Object value = bindValue(name + "." + child, valueClass, valueType);
+            if (value != null) {
+                map.put(child, value);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * 绑定对象的一个属性，优先使用kebab-case的键名
+     */
+    @Nullable
+    Object bindTarget(String prefix, BindTarget target) {
+        String name = prefix.isEmpty() ? target.name() : prefix + "." + target.name();
+        if (!target.name().equals(target.fieldName()) && !hasProperty(name)) {
+            String fieldName = prefix.isEmpty() ? target.fieldName() : prefix + "." + target.fieldName();
+            if (hasProperty(fieldName)) {
+                name = fieldName;
+            }
+        }
+        return bindValue(name, target.type(), target.genericType());
+    }
+
+    /**
+     * 键本身存在，或者存在子键/下标键
+     */
+    boolean hasProperty(String name) {
+        NavigableSet<String> names = this.propertyResolver.getPropertyNames();
+        return names.contains(name) || hasProperties(name) || !names.subSet(name + "[", true, name + "\\", false).isEmpty();
+    }
+
+    boolean hasProperties(String prefix) {
+        return !this.propertyResolver.getPropertyNames(prefix).isEmpty();
+    }
+
+    boolean isScalar(Class<?> type) {
+        return type.isEnum() || this.propertyResolver.canConvert(type);
+    }
+
+    Object convert(String name, Class<?> type, String value) {
+        try {
+            if (type.isEnum()) {
+                return toEnum(type, value.trim());
+            }
+            return this.propertyResolver.convert(type, value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(String.format("属性绑定失败; Cannot bind property '%s' with value '%s' to %s.", name, value, type.getName()), e);
+        }
+    }
+
+    static Object toEnum(Class<?> type, String value) {
+        for (Object constant : type.getEnumConstants()) {
+            String constantName = ((Enum<?>) constant).name();
+            if (constantName.equals(value) || constantName.equalsIgnoreCase(value.replace('-', '_'))) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value);
+    }
+
+    static Type typeArgument(Type genericType, int index) {
+        if (genericType instanceof ParameterizedType parameterizedType) {
+            return parameterizedType.getActualTypeArguments()[index];
+        }
+        return String.class;
+    }
+
+    static Class<?> rawClass(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        }
+        if (type instanceof ParameterizedType parameterizedType) {
+            return (Class<?>) parameterizedType.getRawType();
+        }
+        throw new IllegalArgumentException("Unsupported property type: " + type);
+    }
+
+    /**
+     * 字段名转为kebab-case，如poolSize -> pool-size
+     */
+    static String toKebabCase(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (Character.isUpperCase(ch)) {
+                if (i > 0 && !Character.isUpperCase(name.charAt(i - 1))) {
+                    sb.append('-');
+                }
+                sb.append(Character.toLowerCase(ch));
+            } else {
+                sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 绑定目标：record组件或POJO属性
+     * @param name kebab-case属性名
+     * @param fieldName 字段名
+     * @param type 类型
+     * @param genericType 泛型类型
+     * @param setter POJO的setter，类型为(Object, Object)void；record为null
+     */
+    record BindTarget(String name, String fieldName, Class<?> type, Type genericType, @Nullable MethodHandle setter) {
+    }
+
+    /**
+     * 某个类型的绑定计划，record通过规范构造方法一次性创建，POJO通过无参构造方法创建后调用setter/写字段
+     */
+    static final class TypeBinder {
+        final Class<?> type;
+
+        final boolean record;
+
+        /**
+         * record：(Object[])Object；POJO：()Object
+         */
+        final MethodHandle constructor;
+
+        final BindTarget[] targets;
+
+        TypeBinder(Class<?> type, boolean record, MethodHandle constructor, BindTarget[] targets) {
+            this.type = type;
+            this.record = record;
+            this.constructor = constructor;
+            this.targets = targets;
+        }
+
+        static TypeBinder create(Class<?> type) {
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                throw new IllegalArgumentException("Cannot bind properties to abstract type: " + type.getName());
+            }
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                if (type.isRecord()) {
+                    RecordComponent[] components = type.getRecordComponents();
+                    Class<?>[] parameterTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+                    Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+                    constructor.setAccessible(true);
+                    MethodHandle handle = lookup.unreflectConstructor(constructor)
+                            .asSpreader(Object[].class, components.length)
+                            .asType(MethodType.methodType(Object.class, Object[].class));
+                    BindTarget[] targets = Arrays.stream(components)
+                            .map(component -> new BindTarget(toKebabCase(component.getName()), component.getName(), component.getType(), component.getGenericType(), null))
+                            .toArray(BindTarget[]::new);
+                    return new TypeBinder(type, true, handle, targets);
+                }
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                MethodHandle handle = lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+                List<BindTarget> targets = new ArrayList<>();
+                for (Class<?> clazz = type; clazz != Object.class; clazz = clazz.getSuperclass()) {
+                    for (Field field : clazz.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                            continue;
+                        }
+                        MethodHandle setter = findSetter(lookup, clazz, field);
+                        if (setter != null) {
+                            targets.add(new BindTarget(toKebabCase(field.getName()), field.getName(), field.getType(), field.getGenericType(),
+                                    setter.asType(MethodType.methodType(void.class, Object.class, Object.class))));
+                        }
+                    }
+                }
+                return new TypeBinder(type, false, handle, targets.toArray(BindTarget[]::new));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Cannot bind properties to " + type.getName() + ", record or POJO with no-arg constructor required.", e);
+            }
+        }
+
+        /**
+         * 优先使用setXxx方法，没有setter时直接写非final字段
+         */
+        @Nullable
+        static MethodHandle findSetter(MethodHandles.Lookup lookup, Class<?> clazz, Field field) throws IllegalAccessException {
+            String setterName = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+            try {
+                Method method = clazz.getDeclaredMethod(setterName, field.getType());
+                method.setAccessible(true);
+                return lookup.unreflect(method);
+            } catch (NoSuchMethodException e) {
+                if (Modifier.isFinal(field.getModifiers())) {
+                    return null;
+                }
+                field.setAccessible(true);
+                return lookup.unreflectSetter(field);
+            }
+        }
+
+        Object bind(PropertyBinder binder, String prefix) {
+            try {
+                if (this.record) {
+                    Object[] args = new Object[this.targets.length];
+                    for (int i = 0; i < this.targets.length; i++) {
+                        Object value = binder.bindTarget(prefix, this.targets[i]);
+                        // 没有对应属性时，基本类型使用默认值
+                        args[i] = value != null || !this.targets[i].type().isPrimitive() ? value : Array.get(Array.newInstance(this.targets[i].type(), 1), 0);
+                    }
+                    return (Object) this.constructor.invokeExact(args);
+                }
+                Object instance = (Object) this.constructor.invokeExact();
+                for (BindTarget target : this.targets) {
+                    Object value = binder.bindTarget(prefix, target);
+                    // 没有对应属性时保留字段的默认值
+                    if (value != null) {
+                        target.setter().invokeExact(instance, value);
+                    }
+                }
+                return instance;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalArgumentException(String.format("属性绑定失败; Cannot bind properties with prefix '%s' to %s.", prefix, this.type.getName()), e);
+            }
+        }
+    }
+}
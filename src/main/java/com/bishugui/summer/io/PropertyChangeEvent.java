@@ -0,0 +1,20 @@
+package com.bishugui.summer.io;
+
+import java.util.Set;
+
+/**
+ * @author bi shugui
+ * @description 属性变更事件
+ * @param changedKeys 值发生变化的键名，包括新增、删除的键，以及引用了这些键、已解析过的表达式(如${app.url})
+ * @date 2023/12/25 10:12
+ */
+public record PropertyChangeEvent(Set<String> changedKeys) {
+
+    /**
+     * 键名或表达式的值是否发生了变化
+     * @param keyOrExpression 键名/表达式，如@Value的值
+     */
+    public boolean isChanged(String keyOrExpression) {
+        return this.changedKeys.contains(keyOrExpression);
+    }
+}
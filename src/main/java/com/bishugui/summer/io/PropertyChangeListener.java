@@ -0,0 +1,15 @@
+package com.bishugui.summer.io;
+
+/**
+ * @author bi shugui
+ * @description 属性变更监听器，属性被重新加载且有值变化时回调
+ * @date 2023/12/25 10:15
+ */
+@FunctionalInterface
+public interface PropertyChangeListener {
+    /**
+     * 属性发生变化
+     * @param event 变更事件
+     */
+    void onPropertyChange(PropertyChangeEvent event);
+}
@@ -1,9 +1,11 @@
 package com.bishugui.summer.io;
 
+import jakarta.annotation.Nullable;
+
 /**
  * @author bi shugui
- * @description 属性表达式
+ * @description 属性表达式 ${key:defaultValue}，默认值本身也是模板，可以继续嵌套表达式
  * @date 2023/9/27 21:16
  */
-public record PropertyExpr(String key,String defaultValue) {
+public record PropertyExpr(String key, @Nullable PropertyTemplate defaultValue) {
 }
@@ -0,0 +1,228 @@
+package com.bishugui.summer.io;
+
+import com.bishugui.summer.utils.YamlUtils;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * @author bi shugui
+ * @description 可重新加载的配置文件(.properties/.yml/.yaml)，通过WatchService监听文件变化。
+ * 每个文件作为单独的属性源添加到PropertyResolver，优先级低于命令行参数、JVM系统属性、环境变量，高于yaml文件及默认值;
+ * 文件重新加载时替换属性源的内容，由PropertyResolver比较发生变化的键并发布变更事件:
+ *
+ * <code>
+ * try (var watcher = new PropertyFileWatcher(propertyResolver, Path.of("config/application.yaml"))) {
+ *     watcher.start();
+ *     ...
+ * }
+ * </code>
+ * @date 2023/12/25 10:30
+ */
+public class PropertyFileWatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PropertyFileWatcher.class);
+
+    private final PropertyResolver propertyResolver;
+
+    /**
+     * 每个文件对应的属性源，Map<文件, 属性源>
+     */
+    private final Map<Path, FilePropertySource> sources = new ConcurrentHashMap<>();
+
+    /**
+     * 重新加载时加锁，监听器(刷新Bean)在锁内被调用；使用ReentrantLock，监听线程(虚拟线程)等待时不会占用载体线程
+     */
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private WatchService watchService;
+
+    private Thread watchThread;
+
+    /**
+     * 加载配置文件，作为属性源添加到PropertyResolver
+     * @param propertyResolver 属性解析器
+     * @param files 配置文件，排在前面的优先
+     */
+    public PropertyFileWatcher(PropertyResolver propertyResolver, Path... files) {
+        this.propertyResolver = propertyResolver;
+        // 后添加的属性源优先，逆序添加
+        for (int i = files.length - 1; i >= 0; i--) {
+            Path path = files[i].toAbsolutePath().normalize();
+            FilePropertySource source = new FilePropertySource(path.toString());
+            this.sources.put(path, source);
+            propertyResolver.addPropertySource(source);
+            reload(path);
+        }
+    }
+
+    /**
+     * 开始监听配置文件所在的目录
+     */
+    public synchronized void start() {
+        if (this.watchThread != null) {
+            throw new IllegalStateException("Watcher already started.");
+        }
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            Set<Path> directories = new HashSet<>();
+            for (Path path : this.sources.keySet()) {
+                if (directories.add(path.getParent())) {
+                    path.getParent().register(this.watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.watchThread = Thread.ofVirtual().name("summer-property-watcher").start(this::watch);
+    }
+
+    void watch() {
+        while (true) {
+            WatchKey watchKey;
+            try {
+                watchKey = this.watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = (Path) watchKey.watchable();
+            Set<Path> changedFiles = new LinkedHashSet<>();
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    // 事件丢失，重新加载该目录下的所有文件
+                    this.sources.keySet().stream().filter(path -> path.getParent().equals(directory)).forEach(changedFiles::add);
+                } else {
+                    Path path = directory.resolve((Path) event.context());
+                    if (this.sources.containsKey(path)) {
+                        changedFiles.add(path);
+                    }
+                }
+            }
+            // 同一次写入可能触发多个事件，内容没有变化时不会发布事件
+            changedFiles.forEach(this::reload);
+            if (!watchKey.reset()) {
+                log.warn("配置文件目录不可访问，停止监听; Stop watching inaccessible directory: {}", directory);
+            }
+        }
+    }
+
+    /**
+     * 重新加载配置文件，替换属性源的内容；新增、修改、删除的键被更高优先级的属性覆盖时不发布变更
+     * @param path 配置文件
+     * @return 变更事件
+     */
+    public PropertyChangeEvent reload(Path path) {
+        FilePropertySource source = this.sources.get(path);
+        if (source == null) {
+            throw new IllegalArgumentException("File not watched: " + path);
+        }
+        this.reloadLock.lock();
+        try {
+            return reload(path, source);
+        } finally {
+            this.reloadLock.unlock();
+        }
+    }
+
+    PropertyChangeEvent reload(Path path, FilePropertySource source) {
+        Map<String, String> previous = source.properties;
+        Map<String, String> current;
+        try {
+            current = Files.exists(path) ? load(path) : Map.of();
+        } catch (RuntimeException | IOException e) {
+            // 文件可能正在写入，保留上一次的内容，等待下一次修改事件
+            log.warn("加载配置文件失败; Failed to load property file: {}", path, e);
+            return new PropertyChangeEvent(Set.of());
+        }
+        Set<String> keys = new HashSet<>();
+        previous.forEach((key, value) -> {
+            if (!value.equals(current.get(key))) {
+                keys.add(key);
+            }
+        });
+        current.forEach((key, value) -> {
+            if (!value.equals(previous.get(key))) {
+                keys.add(key);
+            }
+        });
+        PropertyChangeEvent event = this.propertyResolver.applyChanges(keys, () -> source.properties = current);
+        if (!event.changedKeys().isEmpty()) {
+            log.info("配置文件已重新加载; Property file reloaded: {}, changed keys: {}", path, event.changedKeys());
+        }
+        return event;
+    }
+
+    static Map<String, String> load(Path path) throws IOException {
+        Map<String, String> map = new HashMap<>();
+        String fileName = path.getFileName().toString();
+        if (fileName.endsWith(".yml") || fileName.endsWith(".yaml")) {
+            // 与Properties.stringPropertyNames()一致，忽略列表等非字符串值
+            YamlUtils.loadYamlAsPlainMap(path).forEach((key, value) -> {
+                if (value instanceof String str) {
+                    map.put(key, str);
+                }
+            });
+        } else {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            properties.stringPropertyNames().forEach(name -> map.put(name, properties.getProperty(name)));
+        }
+        return map;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.watchThread == null) {
+            return;
+        }
+        try {
+            this.watchService.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            this.watchThread.interrupt();
+            this.watchThread = null;
+        }
+    }
+
+    /**
+     * 配置文件属性源，重新加载时整体替换内容
+     */
+    static final class FilePropertySource implements PropertySource {
+        private final String name;
+
+        volatile Map<String, String> properties = Map.of();
+
+        FilePropertySource(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Nullable
+        @Override
+        public String getProperty(String key) {
+            return this.properties.get(key);
+        }
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return this.properties.keySet();
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.bishugui.summer.io;
 
+import com.bishugui.summer.utils.YamlUtils;
 import jakarta.annotation.Nullable;
 
 import java.time.*;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Properties;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 /**
@@ -16,15 +16,70 @@ import java.util.function.Function;
  * @date 2023/9/27 21:01
  */
 public class PropertyResolver {
-    Map<String,String> propertyMap = new HashMap<>();
+    /**
+     * 运行时设置的属性，优先级最高
+     */
+    Map<String,String> runtimeProperties = new ConcurrentHashMap<>();
+
+    /**
+     * 按优先级排列的属性源(不含运行时属性)，查询时依次读取；不可修改，添加属性源时整体替换
+     */
+    volatile List<PropertySource> propertySources;
+
+    /**
+     * 运行时属性及所有不可变属性源中都不存在的键名，避免重复查询整个属性源链；可变属性源(如JVM系统属性)仍每次查询
+     */
+    Set<String> missingKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 按字典序排列的键名索引，用于按前缀遍历，第一次使用时建立
+     */
+    volatile NavigableSet<String> keyIndex;
+
+    final PropertyBinder propertyBinder = new PropertyBinder(this);
+
+    /**
+     * 编译后的模板缓存，Map<原始字符串, 模板>
+     */
+    Map<String, PropertyTemplate> templateCache = new ConcurrentHashMap<>();
+
+    /**
+     * 已解析的属性缓存，Map<键名/表达式, 解析后的值>；来自可变属性源的值(及引用它们的值)不缓存
+     */
+    Map<String, String> resolvedCache = new ConcurrentHashMap<>();
+
+    /**
+     * 属性版本号，updateProperties()修改属性后、清空缓存前递增；
+     * 读取方写入缓存后校验版本，读取期间发生了更新则撤销写入，避免清空缓存后又写入按旧属性解析的值
+     */
+    volatile long version;
+
+    /**
+     * 类型转换结果缓存，Map<目标类型, Map<键名/表达式, 转换结果>>
+     */
+    Map<Class<?>, Map<String, ConvertedValue>> typedCache = new ConcurrentHashMap<>();
 
     Map<Class<?>, Function<String,Object>> converterMap = new HashMap<>();
 
     /**
-     * 构造方法
+     * 属性变更监听器
+     */
+    List<PropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 构造方法，Properties优先于环境变量
      * @param properties Properties
      */
     public PropertyResolver(Properties properties){
+        this(List.of(MapPropertySource.of("properties", properties), new EnvironmentPropertySource()));
+    }
+
+    /**
+     * 构造方法
+     * @param propertySources 属性源，排在前面的优先
+     */
+    public PropertyResolver(List<PropertySource> propertySources){
+        this.propertySources = List.copyOf(propertySources);
         this.converterMap.put(String.class,s->s);
         this.converterMap.put(Boolean.class,Boolean::valueOf);
         this.converterMap.put(boolean.class,Boolean::valueOf);
@@ -45,72 +100,374 @@ public class PropertyResolver {
         converterMap.put(ZonedDateTime.class,ZonedDateTime::parse);
         converterMap.put(OffsetDateTime.class,OffsetDateTime::parse);
         converterMap.put(OffsetTime.class,OffsetTime::parse);
-        converterMap.put(Duration.class,Duration::parse);
+        converterMap.put(Duration.class,PropertyResolver::parseDuration);
+        converterMap.put(DataSize.class,DataSize::parse);
         converterMap.put(ZoneId.class,ZoneId::of);
+    }
 
-        // 存入环境变量
-        this.propertyMap.putAll(System.getenv());
-
-        // 存入Properties
-        properties.stringPropertyNames().forEach(name-> this.propertyMap.put(name,properties.getProperty(name)));
+    /**
+     * 创建标准的属性源链，优先级从高到低：命令行参数、JVM系统属性、环境变量、yaml文件(按参数顺序)、默认值
+     * yaml文件按summer.profiles.active加载对应profile的文档，该属性可以由命令行、系统属性、环境变量指定
+     * @param args 命令行参数，--key=value
+     * @param defaults 默认值/null
+     * @param yamlPaths 类路径下的yaml文件，如application.yaml
+     * @return PropertyResolver
+     */
+    public static PropertyResolver create(String[] args, @Nullable Properties defaults, String... yamlPaths) {
+        List<PropertySource> sources = new ArrayList<>();
+        sources.add(new CommandLinePropertySource(args));
+        sources.add(new SystemPropertySource());
+        sources.add(new EnvironmentPropertySource());
+        String[] activeProfiles = sources.stream().map(source -> source.getProperty(YamlUtils.ACTIVE_PROFILES_KEY))
+                .filter(Objects::nonNull).findFirst()
+                .map(profiles -> Arrays.stream(profiles.split(",")).map(String::trim).filter(profile -> !profile.isEmpty()).toArray(String[]::new))
+                .orElse(new String[0]);
+        for (String yamlPath : yamlPaths) {
+            sources.add(MapPropertySource.ofPlainMap(yamlPath, YamlUtils.loadYamlAsPlainMap(yamlPath, activeProfiles)));
+        }
+        if (defaults != null) {
+            sources.add(MapPropertySource.of("defaults", defaults));
+        }
+        return new PropertyResolver(sources);
     }
 
     public boolean containsProperty(String key){
-        return this.propertyMap.containsKey(key);
+        return findProperty(key) != null;
     }
 
     /**
-     * 获取属性
+     * 获取所有可枚举的键名(按字典序排列)，用于按前缀遍历子树；环境变量只能按键名查询，不在其中
+     * @return 不可修改的有序集合，属性更新后重新建立
+     */
+    public NavigableSet<String> getPropertyNames() {
+        NavigableSet<String> index = this.keyIndex;
+        if (index == null) {
+            long version = this.version;
+            TreeSet<String> names = new TreeSet<>(this.runtimeProperties.keySet());
+            for (PropertySource propertySource : this.propertySources) {
+                names.addAll(propertySource.getPropertyNames());
+            }
+            index = Collections.unmodifiableNavigableSet(names);
+            this.keyIndex = index;
+            if (this.version != version) {
+                this.keyIndex = null;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 获取前缀下的所有键名，如前缀summer.datasource对应summer.datasource.url、summer.datasource.pool.max-size等
+     * @param prefix 前缀，不含结尾的"."
+     * @return 有序集合的视图
+     */
+    public NavigableSet<String> getPropertyNames(String prefix) {
+        // '/'是'.'的下一个字符
+        return getPropertyNames().subSet(prefix + ".", true, prefix + "/", false);
+    }
+
+    /**
+     * 把前缀下的属性绑定到record或POJO，支持嵌套对象、List、Set、Map、Duration、DataSize
+     * @param prefix 前缀
+     * @param targetClass 目标类型
+     * @return 绑定后的对象
+     */
+    public <T> T bind(String prefix, Class<T> targetClass) {
+        return this.propertyBinder.bind(prefix, targetClass);
+    }
+
+    /**
+     * 是否支持把字符串转换为该类型
+     */
+    boolean canConvert(Class<?> targetClass) {
+        return this.converterMap.containsKey(targetClass);
+    }
+
+    /**
+     * 获取属性源，排在前面的优先
+     */
+    public List<PropertySource> getPropertySources() {
+        return this.propertySources;
+    }
+
+    /**
+     * 添加属性源(如可重新加载的配置文件)，插入到命令行参数、JVM系统属性、环境变量之后，其他属性源(yaml文件、默认值等)之前，
+     * 后添加的优先；重新计算已解析的值，有值变化时通知监听器
+     * @param propertySource 属性源
+     * @return 变更事件
+     */
+    public PropertyChangeEvent addPropertySource(PropertySource propertySource) {
+        return applyChanges(propertySource.getPropertyNames(), () -> {
+            List<PropertySource> sources = new ArrayList<>(this.propertySources);
+            int index = 0;
+            while (index < sources.size() && (sources.get(index) instanceof CommandLinePropertySource
+                    || sources.get(index) instanceof SystemPropertySource || sources.get(index) instanceof EnvironmentPropertySource)) {
+                index++;
+            }
+            sources.add(index, propertySource);
+            this.propertySources = List.copyOf(sources);
+        });
+    }
+
+    /**
+     * 按优先级查询属性的原始值，不存在的键名被记录下来，属性变化前只查询可变属性源
+     * @param key 键名
+     * @return 原始值/null
+     */
+    @Nullable
+    String findProperty(String key) {
+        return findProperty(key, null);
+    }
+
+    /**
+     * @param mutableHit 不为null时，值来自可变属性源则设置mutableHit[0]为true，这样的值不能缓存
+     */
+    @Nullable
+    String findProperty(String key, @Nullable boolean[] mutableHit) {
+        long version = this.version;
+        String value = this.runtimeProperties.get(key);
+        if (value != null) {
+            return value;
+        }
+        boolean missing = this.missingKeys.contains(key);
+        for (PropertySource propertySource : this.propertySources) {
+            if (missing && !propertySource.isMutable()) {
+                continue;
+            }
+            value = propertySource.getProperty(key);
+            if (value != null) {
+                if (mutableHit != null && propertySource.isMutable()) {
+                    mutableHit[0] = true;
+                }
+                return value;
+            }
+        }
+        if (!missing) {
+            this.missingKeys.add(key);
+            if (this.version != version) {
+                this.missingKeys.remove(key);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 设置属性，已解析的值可能引用了该属性，因此清空解析缓存；类型转换缓存在读取时按原始值校验
+     * @param key 键名
+     * @param value 属性值
+     */
+    public void setProperty(String key, String value) {
+        updateProperties(Map.of(key, Objects.requireNonNull(value, "属性值不能为空; Property value must not be null.")), Set.of());
+    }
+
+    /**
+     * 批量更新运行时属性，只重新计算已解析过的值，有值变化时通知监听器
+     * @param updated 新增/修改的属性
+     * @param removed 删除的键名，删除后使用属性源中的值
+     * @return 变更事件，没有值变化时changedKeys为空
+     */
+    public PropertyChangeEvent updateProperties(Map<String, String> updated, Collection<String> removed) {
+        Set<String> keys = new LinkedHashSet<>(updated.keySet());
+        keys.addAll(removed);
+        return applyChanges(keys, () -> {
+            this.runtimeProperties.putAll(updated);
+            removed.forEach(this.runtimeProperties::remove);
+        });
+    }
+
+    /**
+     * 修改运行时属性或属性源，比较可能变化的键修改前后的值，只重新计算已解析过的值，有值变化时通知监听器;
+     * 监听器(如刷新Bean时调用的destroy方法)在释放锁之后调用，不阻塞其他修改与读取属性的线程
+     * @param keys 可能变化的键名
+     * @param modification 修改属性的操作
+     * @return 变更事件，没有值变化时changedKeys为空
+     */
+    PropertyChangeEvent applyChanges(Collection<String> keys, Runnable modification) {
+        PropertyChangeEvent event = modify(keys, modification);
+        if (!event.changedKeys().isEmpty()) {
+            for (PropertyChangeListener listener : this.listeners) {
+                listener.onPropertyChange(event);
+            }
+        }
+        return event;
+    }
+
+    /**
+     * 加锁修改属性并生成变更事件，不通知监听器
+     */
+    synchronized PropertyChangeEvent modify(Collection<String> keys, Runnable modification) {
+        Map<String, String> previousValues = new HashMap<>();
+        for (String key : keys) {
+            previousValues.put(key, findProperty(key));
+        }
+        modification.run();
+        this.version++;
+        this.missingKeys.clear();
+        this.keyIndex = null;
+        Set<String> changedKeys = new LinkedHashSet<>();
+        previousValues.forEach((key, value) -> {
+            if (!Objects.equals(value, findProperty(key))) {
+                changedKeys.add(key);
+            }
+        });
+        if (changedKeys.isEmpty()) {
+            return new PropertyChangeEvent(Set.of());
+        }
+        // 已解析的值可能引用了变化的键，逐个重新计算并比较
+        Map<String, String> previous = Map.copyOf(this.resolvedCache);
+        this.resolvedCache.clear();
+        previous.forEach((key, oldValue) -> {
+            if (changedKeys.contains(key)) {
+                return;
+            }
+            String value;
+            try {
+                value = resolveKeyOrTemplate(key, false);
+            } catch (RuntimeException e) {
+                // 引用的属性被删除或出现循环引用，在下次读取时抛出异常
+                value = null;
+            }
+            if (value == null || !value.equals(oldValue)) {
+                changedKeys.add(key);
+            } else {
+                cacheTemplate(key, value, this.version);
+            }
+        });
+        return new PropertyChangeEvent(Set.copyOf(changedKeys));
+    }
+
+    /**
+     * 添加属性变更监听器
+     */
+    public void addChangeListener(PropertyChangeListener listener) {
+        this.listeners.add(Objects.requireNonNull(listener, "Listener is null."));
+    }
+
+    public void removeChangeListener(PropertyChangeListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * 获取属性，key可以是键名，也可以是包含${}表达式的模板，如${app.title}、http://${host}:${port}
+     * 已解析过的key直接返回缓存的结果
      * @param key 表达式/键值
      * @return 属性值
      */
     @Nullable
     public String getProperty(String key){
-        // 先解析表达式
-        PropertyExpr propertyExpr = parsePropertyExpr(key);
-        if(propertyExpr == null){
-            // 没有使用表达式${}
-            String value = this.propertyMap.get(key);
-            return parseValue(value);
+        String resolved = this.resolvedCache.get(key);
+        if (resolved != null) {
+            return resolved;
         }
-
-        // 使用了表达式
-        if(propertyExpr.defaultValue() != null){
-            // 存在默认值
-            return getProperty(propertyExpr.key(),propertyExpr.defaultValue());
-        }else{
-            return getRequiredProperty(propertyExpr.key());
+        long version = this.version;
+        resolved = resolveKeyOrTemplate(key, true);
+        if (resolved != null) {
+            cacheTemplate(key, resolved, version);
         }
+        return resolved;
     }
 
     /**
      * 获取属性
-     * @param key 键名
-     * @param defaultValue 默认值不支持组合嵌套表达式，如jdbc:mysql//${DB_HOST:localhost}:${DB_PORT:3306}/${DB_NAME}
+     * @param key 键名/表达式，不存在时使用默认值
+     * @param defaultValue 默认值，可以包含嵌套、组合表达式，如jdbc:mysql//${DB_HOST:localhost}:${DB_PORT:3306}/${DB_NAME}
      * @return
      */
     @Nullable
     public String getProperty(String key,@Nullable String defaultValue){
-        String value = this.propertyMap.get(key);
-        return value == null ? parseValue(defaultValue) : value;
+        String value = this.resolvedCache.get(key);
+        if (value == null) {
+            long version = this.version;
+            value = resolveKeyOrTemplate(key, false);
+            if (value != null) {
+                cacheTemplate(key, value, version);
+            }
+        }
+        if (value != null) {
+            return value;
+        }
+        return defaultValue == null ? null : resolve(getTemplate(defaultValue), new LinkedHashSet<>(), true);
     }
 
-
+    /**
+     * 获取转换后的属性，key只作为键名查找，不解析${}表达式；表达式使用getValue()
+     */
     @Nullable
     public <T> T getProperty(String key,Class<T> targetClass){
-        String value = this.propertyMap.get(key);
-        if(value == null){
-            return null;
-        }
-        return convert(targetClass,value);
+        ConvertedValue converted = getConvertedValue(key, targetClass);
+        return converted == null ? null : (T) converted.value;
     }
 
     public <T> T getProperty(String key,Class<T> targetClass,T defaultValue){
-        String value = this.propertyMap.get(key);
-        if(value == null){
-            return defaultValue;
-        }
-        return convert(targetClass,value);
+        ConvertedValue converted = getConvertedValue(key, targetClass);
+        return converted == null ? defaultValue : (T) converted.value;
+    }
+
+    /**
+     * 获取int属性，命中缓存时不解析、不装箱
+     */
+    public int getInt(String key, int defaultValue) {
+        ConvertedValue converted = getConvertedValue(key, int.class);
+        return converted == null ? defaultValue : (int) converted.bits;
+    }
+
+    public int getInt(String key) {
+        return (int) getRequiredConvertedValue(key, int.class).bits;
+    }
+
+    /**
+     * 获取long属性，命中缓存时不解析、不装箱
+     */
+    public long getLong(String key, long defaultValue) {
+        ConvertedValue converted = getConvertedValue(key, long.class);
+        return converted == null ? defaultValue : converted.bits;
+    }
+
+    public long getLong(String key) {
+        return getRequiredConvertedValue(key, long.class).bits;
+    }
+
+    /**
+     * 获取boolean属性，命中缓存时不解析、不装箱
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        ConvertedValue converted = getConvertedValue(key, boolean.class);
+        return converted == null ? defaultValue : converted.bits != 0;
+    }
+
+    public boolean getBoolean(String key) {
+        return getRequiredConvertedValue(key, boolean.class).bits != 0;
+    }
+
+    /**
+     * 获取Duration属性，如PT30S、P2DT8H
+     */
+    @Nullable
+    public Duration getDuration(String key, @Nullable Duration defaultValue) {
+        ConvertedValue converted = getConvertedValue(key, Duration.class);
+        return converted == null ? defaultValue : (Duration) converted.value;
+    }
+
+    public Duration getDuration(String key) {
+        return (Duration) getRequiredConvertedValue(key, Duration.class).value;
+    }
+
+    /**
+     * 解析${}表达式并转换类型，用于@Value("${app.port:8080}")等表达式；
+     * 与getProperty(String)相同，纯键名按键名查找属性，包含${}的按模板解析
+     * @param expression 键名/表达式/模板
+     * @param targetClass 目标类型
+     * @return 转换后的值；键名不存在时返回null，模板引用的属性不存在且没有默认值时抛出NullPointerException
+     */
+    @Nullable
+    public <T> T getValue(String expression, Class<T> targetClass) {
+        String value = getProperty(expression);
+        return value == null ? null : (T) getConvertedValue(expression, value, targetClass).value;
+    }
+
+    public <T> T getRequiredValue(String expression, Class<T> targetClass) {
+        T value = getValue(expression, targetClass);
+        return Objects.requireNonNull(value, "Property '" + expression + "' not found.");
     }
 
     public String getRequiredProperty(String key) {
@@ -123,7 +480,70 @@ public class PropertyResolver {
         return Objects.requireNonNull(value, "Property '" + key + "' not found.");
     }
 
-    private <T> T convert(Class<T> targetClass, String value) {
+    /**
+     * 获取转换后的属性值，每个(键名, 类型)只转换一次；原始值变化后缓存失效，重新转换
+     * @return 转换结果，属性不存在时返回null
+     */
+    @Nullable
+    ConvertedValue getConvertedValue(String key, Class<?> targetClass) {
+        String value = this.resolvedCache.get(key);
+        if (value == null) {
+            value = resolveKey(key, new LinkedHashSet<>(), false);
+            if (value == null) {
+                return null;
+            }
+        }
+        return getConvertedValue(key, value, targetClass);
+    }
+
+    /**
+     * @param cacheKey 键名/表达式
+     * @param value 解析后的字符串
+     */
+    ConvertedValue getConvertedValue(String cacheKey, String value, Class<?> targetClass) {
+        Map<String, ConvertedValue> cache = this.typedCache.get(targetClass);
+        if (cache == null) {
+            cache = this.typedCache.computeIfAbsent(targetClass, k -> new ConcurrentHashMap<>());
+        }
+        ConvertedValue converted = cache.get(cacheKey);
+        if (converted == null || !converted.source.equals(value)) {
+            converted = new ConvertedValue(value, convert(targetClass, value));
+            cache.put(cacheKey, converted);
+        }
+        return converted;
+    }
+
+    ConvertedValue getRequiredConvertedValue(String key, Class<?> targetClass) {
+        ConvertedValue converted = getConvertedValue(key, targetClass);
+        return Objects.requireNonNull(converted, "Property '" + key + "' not found.");
+    }
+
+    /**
+     * 解析Duration，支持ISO-8601格式(PT30S)及带单位的简写：ns、us、ms、s、m、h、d，如30s、500ms，不带单位时为毫秒
+     */
+    static Duration parseDuration(String text) {
+        String value = text.trim();
+        if (value.startsWith("P") || value.startsWith("-P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        int pos = value.length();
+        while (pos > 0 && Character.isLetter(value.charAt(pos - 1))) {
+            pos--;
+        }
+        long amount = Long.parseLong(value.substring(0, pos).trim());
+        return switch (value.substring(pos).toLowerCase()) {
+            case "ns" -> Duration.ofNanos(amount);
+            case "us" -> Duration.ofNanos(Math.multiplyExact(amount, 1000L));
+            case "", "ms" -> Duration.ofMillis(amount);
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            case "h" -> Duration.ofHours(amount);
+            case "d" -> Duration.ofDays(amount);
+            default -> throw new IllegalArgumentException("Unknown duration unit: " + text);
+        };
+    }
+
+    <T> T convert(Class<T> targetClass, String value) {
         Function<String, Object> stringObjectFunction = converterMap.get(targetClass);
         if(stringObjectFunction == null){
             throw new IllegalArgumentException(targetClass+" not support convert");
@@ -132,48 +552,165 @@ public class PropertyResolver {
     }
 
     /**
-     * 解析值，目的是实现 值中嵌套表达式
-     * @param value
-     * @return
+     * 解析键名或模板
+     * @param key 键名/模板
+     * @param required 模板中引用的属性不存在且没有默认值时，是否抛出异常；为false时返回null
+     * @return 解析后的值/null
      */
-    String parseValue(String value){
-        // 先解析表达式
-        PropertyExpr propertyExpr = parsePropertyExpr(value);
-        if(propertyExpr == null){
-            return value;
+    @Nullable
+    String resolveKeyOrTemplate(String key, boolean required) {
+        if (!key.contains("${")) {
+            // 键名
+            return resolveKey(key, new LinkedHashSet<>(), false);
         }
+        return resolve(getTemplate(key), new LinkedHashSet<>(), required);
+    }
 
-        if(propertyExpr.defaultValue() != null){
-            return getProperty(propertyExpr.key(),propertyExpr.defaultValue());
-        }else{
-            return getRequiredProperty(propertyExpr.key());
+    /**
+     * 获取编译后的模板，每个原始字符串只编译一次
+     */
+    PropertyTemplate getTemplate(String text) {
+        PropertyTemplate template = this.templateCache.get(text);
+        if (template == null) {
+            template = PropertyTemplate.compile(text);
+            this.templateCache.put(text, template);
         }
+        return template;
+    }
 
+    /**
+     * 解析模板
+     * @param template 模板
+     * @param resolvingKeys 正在解析的键名，用于检测循环引用
+     * @param required 引用的属性不存在且没有默认值时，是否抛出异常
+     * @return 解析后的值，required为false且引用的属性不存在时返回null
+     */
+    @Nullable
+    String resolve(PropertyTemplate template, Set<String> resolvingKeys, boolean required) {
+        if (template.isLiteral()) {
+            return template.getLiteral();
+        }
+        PropertyExpr singleExpr = template.getSingleExpr();
+        if (singleExpr != null) {
+            // 只有一个表达式，无需拼接
+            return resolveExpr(singleExpr, resolvingKeys, required);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Object part : template.getParts()) {
+            if (part instanceof PropertyExpr expr) {
+                String value = resolveExpr(expr, resolvingKeys, required);
+                if (value == null) {
+                    return null;
+                }
+                sb.append(value);
+            } else {
+                sb.append((String) part);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Nullable
+    String resolveExpr(PropertyExpr expr, Set<String> resolvingKeys, boolean required) {
+        String value = resolveKey(expr.key(), resolvingKeys, expr.defaultValue() == null && required);
+        if (value != null) {
+            return value;
+        }
+        if (expr.defaultValue() != null) {
+            return resolve(expr.defaultValue(), resolvingKeys, required);
+        }
+        return null;
     }
 
     /**
-     * 解析属性表达式
-     * @param key 键值
-     * @return PropertyExpr
+     * 按键名获取属性，并解析属性值中的表达式
+     * @param key 键名
+     * @param resolvingKeys 正在解析的键名，用于检测循环引用
+     * @param required 属性不存在时是否抛出异常
+     * @return 解析后的值/null
      */
     @Nullable
-    PropertyExpr parsePropertyExpr(String key){
-        if(key == null ||  key.isEmpty()){
-            return null;
+    String resolveKey(String key, Set<String> resolvingKeys, boolean required) {
+        String resolved = this.resolvedCache.get(key);
+        if (resolved != null) {
+            return resolved;
         }
-        if(!key.startsWith("${") || !key.endsWith("}")){
+        long version = this.version;
+        boolean[] mutableHit = new boolean[1];
+        String value = findProperty(key, mutableHit);
+        if (value == null) {
+            if (required) {
+                throw new NullPointerException("Property '" + key + "' not found.");
+            }
             return null;
         }
-        // ${}表达式
-        // 是否存在默认值
-        int colonIndex = key.indexOf(":");
-        if(colonIndex == (-1)){
-            // 没有默认值
-            return new PropertyExpr(key.substring(2,key.length()-1),null);
-        }
-        // 有默认值,先截取出key,然后将defaultValue再次解析，以实现嵌套表达式
-        String keyStr = key.substring(2,colonIndex);
-        String defaultValue = key.substring(colonIndex+1,key.length()-1);
-        return new PropertyExpr(keyStr,defaultValue);
+        if (!resolvingKeys.add(key)) {
+            throw new IllegalArgumentException("Circular placeholder reference '" + key + "' in property: " + String.join(" -> ", resolvingKeys) + " -> " + key);
+        }
+        PropertyTemplate template = getTemplate(value);
+        resolved = resolve(template, resolvingKeys, true);
+        resolvingKeys.remove(key);
+        if (!mutableHit[0] && isCacheable(template)) {
+            cacheResolved(key, resolved, version);
+        }
+        return resolved;
+    }
+
+    /**
+     * 写入模板的解析缓存，键名的缓存已由resolveKey()处理
+     */
+    void cacheTemplate(String key, String resolved, long version) {
+        if (key.contains("${") && isCacheable(getTemplate(key))) {
+            cacheResolved(key, resolved, version);
+        }
+    }
+
+    /**
+     * 解析结果能否缓存：存在可变属性源时，模板引用的键都已缓存才能缓存；
+     * 来自可变属性源或不存在(使用默认值)的键没有缓存，引用它们的值同样每次重新解析，可变属性源的修改立即可见
+     */
+    boolean isCacheable(PropertyTemplate template) {
+        if (template.isLiteral() || this.propertySources.stream().noneMatch(PropertySource::isMutable)) {
+            return true;
+        }
+        for (Object part : template.getParts()) {
+            if (part instanceof PropertyExpr expr && !this.resolvedCache.containsKey(expr.key())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 写入解析缓存；解析开始后属性被更新过时撤销写入，下次读取时重新解析
+     * @param version 开始解析前读取的版本号
+     */
+    void cacheResolved(String key, String resolved, long version) {
+        this.resolvedCache.put(key, resolved);
+        if (this.version != version) {
+            this.resolvedCache.remove(key, resolved);
+        }
+    }
+
+    /**
+     * 类型转换结果，source为转换前的字符串，用于校验缓存是否失效；
+     * 数值、布尔类型额外保存为long，基本类型访问器无需拆箱
+     */
+    static final class ConvertedValue {
+        final String source;
+        final Object value;
+        final long bits;
+
+        ConvertedValue(String source, Object value) {
+            this.source = source;
+            this.value = value;
+            if (value instanceof Number number) {
+                this.bits = number.longValue();
+            } else if (value instanceof Boolean bool) {
+                this.bits = bool ? 1L : 0L;
+            } else {
+                this.bits = 0L;
+            }
+        }
     }
 }
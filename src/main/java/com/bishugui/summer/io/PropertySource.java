@@ -0,0 +1,42 @@
+package com.bishugui.summer.io;
+
+import jakarta.annotation.Nullable;
+
+import java.util.Set;
+
+/**
+ * @author bi shugui
+ * @description 属性源，PropertyResolver按顺序查询多个属性源，先找到的生效
+ * 属性源只在查询时读取，不需要把所有属性复制到一个Map中
+ * @date 2023/12/27 20:10
+ */
+public interface PropertySource {
+
+    /**
+     * 属性源名称，如commandLineArgs、systemProperties、systemEnvironment、application.yaml
+     */
+    String getName();
+
+    /**
+     * 获取属性的原始值(未解析${}表达式)
+     * @param key 键名
+     * @return 属性值，不存在时返回null
+     */
+    @Nullable
+    String getProperty(String key);
+
+    /**
+     * 可枚举的键名，用于按前缀遍历属性；只能按键名查询的属性源(如环境变量)返回空集合
+     */
+    default Set<String> getPropertyNames() {
+        return Set.of();
+    }
+
+    /**
+     * 属性值是否可能在PropertyResolver之外被修改(如System.setProperty)；
+     * PropertyResolver不记录在可变属性源中不存在的键名，每次都重新查询
+     */
+    default boolean isMutable() {
+        return false;
+    }
+}
@@ -0,0 +1,134 @@
+package com.bishugui.summer.io;
+
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author bi shugui
+ * @description 编译后的属性模板，不可变，由文本与${}表达式组成，支持:
+ * 嵌套表达式 ${a:${b:default}}
+ * 嵌入表达式 http://${host}:${port}/
+ * 没有闭合的${按普通文本处理
+ * @date 2023/12/25 10:20
+ */
+public final class PropertyTemplate {
+    /**
+     * 模板的组成部分：String(文本)或PropertyExpr(表达式)
+     */
+    private final Object[] parts;
+
+    /**
+     * 不包含表达式时为原文本，否则为null
+     */
+    @Nullable
+    private final String literal;
+
+    private PropertyTemplate(Object[] parts, @Nullable String literal) {
+        this.parts = parts;
+        this.literal = literal;
+    }
+
+    /**
+     * 编译模板
+     * @param text 文本
+     * @return PropertyTemplate
+     */
+    public static PropertyTemplate compile(String text) {
+        if (!text.contains("${")) {
+            return new PropertyTemplate(new Object[]{text}, text);
+        }
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while (index < text.length()) {
+            int start = text.indexOf("${", index);
+            int end = start < 0 ? -1 : findPlaceholderEnd(text, start);
+            if (end < 0) {
+                // 没有更多表达式
+                literal.append(text, index, text.length());
+                break;
+            }
+            literal.append(text, index, start);
+            if (!literal.isEmpty()) {
+                parts.add(literal.toString());
+                literal.setLength(0);
+            }
+            parts.add(parseExpr(text.substring(start + 2, end)));
+            index = end + 1;
+        }
+        if (!literal.isEmpty()) {
+            parts.add(literal.toString());
+        }
+        if (parts.size() == 1 && parts.get(0) instanceof String str) {
+            return new PropertyTemplate(parts.toArray(), str);
+        }
+        return new PropertyTemplate(parts.toArray(), null);
+    }
+
+    /**
+     * 查找与start处的${匹配的}，不存在时返回-1
+     */
+    static int findPlaceholderEnd(String text, int start) {
+        int depth = 0;
+        int index = start;
+        while (index < text.length()) {
+            if (text.startsWith("${", index)) {
+                depth++;
+                index += 2;
+                continue;
+            }
+            if (text.charAt(index) == '}' && --depth == 0) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * 解析${}中的内容：第一个:之前为key，之后为默认值模板
+     */
+    static PropertyExpr parseExpr(String content) {
+        int colonIndex = content.indexOf(':');
+        int nestedIndex = content.indexOf("${");
+        if (colonIndex < 0 || (nestedIndex >= 0 && nestedIndex < colonIndex)) {
+            // 没有默认值
+            return new PropertyExpr(content, null);
+        }
+        return new PropertyExpr(content.substring(0, colonIndex), compile(content.substring(colonIndex + 1)));
+    }
+
+    /**
+     * 是否不包含表达式
+     */
+    public boolean isLiteral() {
+        return this.literal != null;
+    }
+
+    @Nullable
+    public String getLiteral() {
+        return this.literal;
+    }
+
+    /**
+     * 是否只由一个表达式组成，如${app.title}
+     */
+    @Nullable
+    public PropertyExpr getSingleExpr() {
+        return this.parts.length == 1 && this.parts[0] instanceof PropertyExpr expr ? expr : null;
+    }
+
+    /**
+     * @return 组成部分：String(文本)或PropertyExpr(表达式)，返回内部数组，调用方不得修改
+     */
+    Object[] getParts() {
+        return this.parts;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyTemplate" + List.of(this.parts);
+    }
+}
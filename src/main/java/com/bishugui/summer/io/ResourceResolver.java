@@ -1,5 +1,6 @@
 package com.bishugui.summer.io;
 
+import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +9,8 @@ import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -16,7 +19,14 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author bi shugui
@@ -29,59 +39,337 @@ public class ResourceResolver {
 
     String basePackage;
 
-    public ResourceResolver() {}
+    /**
+     * 文件名后缀，如.class，null表示不过滤
+     */
+    @Nullable
+    String suffix;
+
+    /**
+     * 相对于扫描包的路径需要匹配的glob，null表示不过滤
+     */
+    @Nullable
+    Pattern glob;
+
+    /**
+     * 最大包深度，0表示只扫描包本身，1表示包含直接子包
+     */
+    int maxDepth = Integer.MAX_VALUE;
+
+    /**
+     * 是否并行遍历类路径上的多个位置(目录、jar包)
+     */
+    boolean parallel;
+
+    /**
+     * 需要扫描的类路径根，null表示全部扫描
+     */
+    @Nullable
+    Predicate<String> rootFilter;
+
+    /**
+     * 已读取的jar包条目索引，Map<jar文件, 索引>，由withBasePackage()创建的解析器共享，不再被引用时一起释放
+     */
+    final Map<Path, JarIndex> jarIndexes;
+
+    public ResourceResolver() {
+        this.jarIndexes = new ConcurrentHashMap<>();
+    }
 
     public ResourceResolver(String basePackage) {
+        this();
+        this.basePackage = basePackage;
+    }
+
+    private ResourceResolver(ResourceResolver source, String basePackage) {
         this.basePackage = basePackage;
+        this.suffix = source.suffix;
+        this.glob = source.glob;
+        this.maxDepth = source.maxDepth;
+        this.parallel = source.parallel;
+        this.rootFilter = source.rootFilter;
+        this.jarIndexes = source.jarIndexes;
+    }
+
+    /**
+     * 复制过滤条件，扫描另一个包；新的解析器与当前解析器共享jar包条目索引，同一次扫描中的jar包只读取一次
+     * @param basePackage 扫描的包
+     */
+    public ResourceResolver withBasePackage(String basePackage) {
+        return new ResourceResolver(this, basePackage);
+    }
+
+    /**
+     * 只扫描指定后缀的文件，在创建Resource之前过滤
+     * @param suffix 后缀，如.class
+     */
+    public ResourceResolver suffix(String suffix) {
+        this.suffix = suffix;
+        return this;
+    }
+
+    /**
+     * 只扫描相对于扫描包的路径匹配glob的文件，在创建Resource之前过滤;
+     * '*'、'?'不匹配路径分隔符，'**'匹配任意层级，如"**&#47;*Service.class"
+     * @param glob glob表达式
+     */
+    public ResourceResolver glob(String glob) {
+        this.glob = Pattern.compile(globToRegex(glob));
+        return this;
+    }
+
+    /**
+     * 限制扫描的包深度，目录中更深的子目录不会被遍历
+     * @param maxDepth 0表示只扫描包本身，1表示包含直接子包
+     */
+    public ResourceResolver maxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * 是否并行遍历类路径上相互独立的位置(目录、jar包)，开启后mapper可能被多个线程同时调用
+     */
+    public ResourceResolver parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * 只扫描满足条件的类路径根(目录、jar包)，不满足的根不会被遍历
+     * @param rootFilter 参数为根的URI，如file:/app/classes/、jar:file:/app/lib/a.jar!/
+     */
+    public ResourceResolver rootFilter(Predicate<String> rootFilter) {
+        this.rootFilter = rootFilter;
+        return this;
     }
 
     public <R> List<R> scan(Function<Resource,R> mapper){
+        try (Stream<Resource> resources = stream()) {
+            return resources.map(mapper).filter(Objects::nonNull).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 扫描为惰性的Stream，目录、jar包在被消费时才遍历，使用后需要关闭
+     * @return 满足过滤条件的资源
+     */
+    public Stream<Resource> stream() {
         String basePackagePath = this.basePackage.replace(".", "/");
-        String path = basePackagePath;
+        List<URI> roots = getRoots(basePackagePath);
+        if (this.rootFilter != null) {
+            roots = roots.stream().filter(uri -> this.rootFilter.test(rootOf(uri, basePackagePath))).toList();
+        }
+        Stream<URI> rootStream = this.parallel ? roots.parallelStream() : roots.stream();
+        return rootStream.flatMap(uri -> {
+            try {
+                return scanRoot(basePackagePath, uri);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 通过ClassLoader获取包在类路径上的所有位置
+     */
+    List<URI> getRoots(String basePackagePath) {
+        log.atDebug().log("扫描路径： {}",basePackagePath);
+        List<URI> roots = new ArrayList<>();
         try {
-            List<R> collector = new ArrayList<>();
-            scan(basePackagePath,path,collector,mapper);
-            return collector;
-        }catch(IOException e){
+            Enumeration<URL> en = getContextClassLoader().getResources(basePackagePath);
+            while (en.hasMoreElements()) {
+                roots.add(en.nextElement().toURI());
+            }
+        } catch (IOException e) {
             throw new UncheckedIOException(e);
-        }catch (URISyntaxException e){
+        } catch (URISyntaxException e) {
             throw new RuntimeException(e);
         }
+        return roots;
+    }
+
+    /**
+     * 包的URI对应的类路径根，以'/'结尾
+     * @param uri 包的URI，如file:/app/classes/com/app
+     * @param basePackagePath 包路径，如com/app
+     * @return 如file:/app/classes/
+     */
+    static String rootOf(URI uri, String basePackagePath) {
+        String uriStr = uri.toString();
+        if (!uriStr.endsWith("/")) {
+            uriStr = uriStr + "/";
+        }
+        return basePackagePath.isEmpty() ? uriStr : uriStr.substring(0, uriStr.length() - basePackagePath.length() - 1);
+    }
+
+    Stream<Resource> scanRoot(String basePackagePath, URI uri) throws IOException {
+        String uriStr = removeTrailingSlash(uri.toString());
+        String uriBaseStr = uriStr.substring(0, uriStr.length() - basePackagePath.length());
+        if (uriStr.startsWith("file:")) {
+            // 如果是文件，则先去除“file:”
+            uriBaseStr = uriBaseStr.substring(5);
+            uriBaseStr = removeLeadingSlash(uriBaseStr);
+            // 在目录中搜索
+            return scanDirectory(uriBaseStr, Paths.get(uri));
+        }
+        if (uriStr.startsWith("jar:")) {
+            // 在Jar包中搜索
+            return scanJar(basePackagePath, uriBaseStr, uri);
+        }
+        return Stream.empty();
     }
 
-    <R> void scan(String basePackagePath,String path,List<R> collector,Function<Resource,R> mapper) throws IOException, URISyntaxException {
-        log.atDebug().log("扫描路径： {}",path);
-        // 通过ClassLoader获取URL列表:
-        Enumeration<URL> en = getContextClassLoader().getResources(path);
-        while (en.hasMoreElements()) {
-            URL url = en.nextElement();
-            URI uri = url.toURI();
-            String uriStr = removeTrailingSlash(uri.toString());
-            String uriBaseStr = uriStr.substring(0, uriStr.length() - basePackagePath.length());
-            if (uri.toString().startsWith("file:")) {
-                // 如果是文件，则先去除“file:”
-                uriBaseStr = uriBaseStr.substring(5);
-                uriBaseStr = removeLeadingSlash(uriBaseStr);
-                // 在目录中搜索
-                scanFile(false, uriBaseStr, Paths.get(uri), collector, mapper);
-                continue;
+    /**
+     * 扫描目录：按maxDepth限制遍历深度，使用遍历时读取的文件属性判断是否为文件，
+     * 过滤条件直接在路径字符串上判断，不满足时不创建Resource
+     * @param basePath 类路径根目录，如root/project/target/classes/
+     * @param root 包对应的目录
+     */
+    Stream<Resource> scanDirectory(String basePath, Path root) throws IOException {
+        int start = root.toString().length() + 1;
+        Matcher matcher = newGlobMatcher();
+        return Files.find(root, walkDepth(), (file, attributes) -> attributes.isRegularFile() && accept(file.toString(), start, matcher))
+                .map(file -> {
+                    String filePath = file.toString();
+                    // 提取出文件名
+                    String name = removeLeadingSlash(filePath.substring(basePath.length()));
+                    Resource resource = new Resource("file:" + filePath, name);
+                    log.atDebug().log("找到资源: {}", resource);
+                    return resource;
+                });
+    }
+
+    /**
+     * 扫描jar包：本地jar文件通过JarIndex直接按包前缀读取条目；其他jar(如嵌套jar)打开zip FileSystem遍历，Stream关闭时关闭
+     * @param basePackagePath 包路径，如jakarta/annotation
+     * @param uriBaseStr jar根路径，如jar:file:/xxx.jar!/
+     * @param jarUri 包的URI
+     */
+    Stream<Resource> scanJar(String basePackagePath, String uriBaseStr, URI jarUri) throws IOException {
+        int start = basePackagePath.length() + 1;
+        Matcher matcher = newGlobMatcher();
+        Path jarPath = getLocalJarPath(jarUri);
+        if (jarPath != null) {
+            return JarIndex.of(jarPath, this.jarIndexes).getEntryNames(basePackagePath + "/").stream()
+                    .filter(entryName -> accept(entryName, start, matcher))
+                    .map(entryName -> new Resource(uriBaseStr, entryName));
+        }
+        FileSystem fileSystem;
+        boolean opened;
+        try {
+            fileSystem = FileSystems.newFileSystem(jarUri, Map.of());
+            opened = true;
+        } catch (FileSystemAlreadyExistsException e) {
+            // 已被其他代码打开，使用后不关闭
+            fileSystem = FileSystems.getFileSystem(jarUri);
+            opened = false;
+        }
+        try {
+            Stream<Resource> resources = Files.find(fileSystem.getPath(basePackagePath), walkDepth(),
+                            (file, attributes) -> attributes.isRegularFile() && accept(file.toString(), start, matcher))
+                    .map(file -> new Resource(uriBaseStr, removeLeadingSlash(file.toString())));
+            return opened ? resources.onClose(closeQuietly(fileSystem)) : resources;
+        } catch (IOException | RuntimeException e) {
+            if (opened) {
+                fileSystem.close();
             }
-            if (uri.toString().startsWith("jar:")) {
-                // 在Jar包中搜索
-                scanFile(true,uriBaseStr,jarUriToPath(basePackagePath, uri),collector,mapper);
+            throw e;
+        }
+    }
+
+    Runnable closeQuietly(FileSystem fileSystem) {
+        return () -> {
+            try {
+                fileSystem.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        };
+    }
+
+    /**
+     * 判断文件是否满足过滤条件
+     * @param path 文件路径
+     * @param start 相对于扫描包的路径在path中的起始位置
+     * @param matcher glob匹配器，未设置glob时为null
+     */
+    boolean accept(String path, int start, @Nullable Matcher matcher) {
+        if (this.suffix != null && !path.endsWith(this.suffix)) {
+            return false;
         }
+        if (this.maxDepth != Integer.MAX_VALUE) {
+            int depth = 0;
+            for (int i = start; i < path.length(); i++) {
+                char ch = path.charAt(i);
+                if ((ch == '/' || ch == '\\') && ++depth > this.maxDepth) {
+                    return false;
+                }
+            }
+        }
+        return matcher == null || matcher.reset(path).region(start, path.length()).matches();
     }
 
     /**
-     * jar包的Uri转为Path
-     * @param basePackagePath
-     * @param jarUri
-     * @return
-     * @throws IOException
+     * Files.find的深度，包目录本身为0，包内的文件为1
      */
-    Path jarUriToPath(String basePackagePath, URI jarUri) throws IOException {
-        return FileSystems.newFileSystem(jarUri, Map.of()).getPath(basePackagePath);
+    int walkDepth() {
+        return this.maxDepth == Integer.MAX_VALUE ? Integer.MAX_VALUE : this.maxDepth + 1;
+    }
+
+    /**
+     * 每个位置单独使用一个Matcher，同一位置内顺序遍历，可以重复使用
+     */
+    @Nullable
+    Matcher newGlobMatcher() {
+        return this.glob == null ? null : this.glob.matcher("");
+    }
+
+    /**
+     * 把glob转换为正则表达式，路径分隔符兼容'/'与'\'
+     */
+    static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char ch = glob.charAt(i);
+            if (ch == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    i++;
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '/') {
+                        // "**/"匹配零个或多个目录
+                        i++;
+                        regex.append("(?:.*[/\\\\])?");
+                    } else {
+                        regex.append(".*");
+                    }
+                } else {
+                    regex.append("[^/\\\\]*");
+                }
+            } else if (ch == '?') {
+                regex.append("[^/\\\\]");
+            } else if (ch == '/') {
+                regex.append("[/\\\\]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(ch)));
+            }
+        }
+        return regex.toString();
+    }
+
+    /**
+     * 获取jar:file:/xxx.jar!/path对应的本地jar文件，嵌套jar等其他形式返回null
+     */
+    @Nullable
+    Path getLocalJarPath(URI jarUri) {
+        String uriStr = jarUri.toString();
+        int separator = uriStr.indexOf("!/");
+        if (separator < 0 || !uriStr.startsWith("jar:file:") || uriStr.indexOf("!/", separator + 2) >= 0) {
+            return null;
+        }
+        return Paths.get(URI.create(uriStr.substring(4, separator)));
     }
 
 
@@ -99,30 +387,6 @@ public class ResourceResolver {
         return contextClassLoader;
     }
 
-    <R> void scanFile(boolean jsJar, String basePackagePath, Path root, List<R> collector, Function<Resource,R> mapper) throws IOException {
-        //basePackagePath = removeTrailingSlash(basePackagePath);
-        // 遍历目录下所有标准文件
-        Files.walk(root).filter(Files::isRegularFile).forEach(file->{
-            Resource resource = null;
-            if (jsJar) {
-                // 如果是jar包，则直接创建资源，basePackagePath=jar:xxx
-                resource = new Resource(basePackagePath,removeLeadingSlash(file.toString()));
-            }else{
-                // 如果是文件，则
-                String filePath = file.toString();
-                // 提取出文件名
-                String name = removeLeadingSlash(filePath.substring(basePackagePath.length()));
-                resource = new Resource("file:" + filePath,name);
-                log.atDebug().log("找到资源: {}", resource);
-            }
-            R r = mapper.apply(resource);
-            if(r != null){
-                collector.add(r);
-            }
-        });
-    }
-
-
     /**
      * 删除尾部斜线
      * @param str
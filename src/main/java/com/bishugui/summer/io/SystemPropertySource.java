@@ -0,0 +1,38 @@
+package com.bishugui.summer.io;
+
+import jakarta.annotation.Nullable;
+
+import java.util.Set;
+
+/**
+ * @author bi shugui
+ * @description JVM系统属性源(-Dkey=value)，查询时读取，不复制系统属性
+ * @date 2023/12/27 20:22
+ */
+public class SystemPropertySource implements PropertySource {
+    public static final String NAME = "systemProperties";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Nullable
+    @Override
+    public String getProperty(String key) {
+        return System.getProperty(key);
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return System.getProperties().stringPropertyNames();
+    }
+
+    /**
+     * 系统属性可以随时通过System.setProperty修改
+     */
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+}
@@ -0,0 +1,264 @@
+package com.bishugui.summer.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author bi shugui
+ * @description class文件写入工具，供代理类、Instantiator实现类的生成共用：维护常量池(相同的常量只写入一次)，
+ * 依次写入字段与方法，最后拼接为class文件。生成的方法中没有分支，class版本为52，不需要StackMapTable
+ * @date 2024/01/07 10:15
+ */
+public final class ClassFileWriter {
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_PRIVATE = 0x0002;
+    public static final int ACC_PROTECTED = 0x0004;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+    public static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final int CLASS_VERSION = 52;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(this.poolBytes);
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolCount = 1;
+
+    private final ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream();
+    private final DataOutputStream fields = new DataOutputStream(this.fieldBytes);
+    private int fieldCount;
+
+    private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+    private final DataOutputStream methods = new DataOutputStream(this.methodBytes);
+    private int methodCount;
+
+    /**
+     * 写入一个没有属性的字段
+     */
+    public void field(int access, String name, String descriptor) {
+        try {
+            this.fields.writeShort(access);
+            this.fields.writeShort(utf8(name));
+            this.fields.writeShort(utf8(descriptor));
+            this.fields.writeShort(0);
+            this.fieldCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 写入一个只有Code属性的方法
+     */
+    public void method(int access, String name, String descriptor, Code code, int maxStack, int maxLocals) {
+        try {
+            this.methods.writeShort(access);
+            this.methods.writeShort(utf8(name));
+            this.methods.writeShort(utf8(descriptor));
+            this.methods.writeShort(1);
+            byte[] bytecode = code.toByteArray();
+            this.methods.writeShort(utf8("Code"));
+            this.methods.writeInt(12 + bytecode.length);
+            this.methods.writeShort(maxStack);
+            this.methods.writeShort(maxLocals);
+            this.methods.writeInt(bytecode.length);
+            this.methods.write(bytecode);
+            // exception table、attributes
+            this.methods.writeShort(0);
+            this.methods.writeShort(0);
+            this.methodCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 拼接class文件
+     * @param access 类的访问标志
+     * @param className 类的内部名称
+     * @param superClass 父类的内部名称
+     * @param interfaces 实现的接口的内部名称
+     * @return class文件
+     */
+    public byte[] toByteArray(int access, String className, String superClass, List<String> interfaces) {
+        int thisClass = classConstant(className);
+        int superClassIndex = classConstant(superClass);
+        int[] interfaceIndexes = interfaces.stream().mapToInt(this::classConstant).toArray();
+        try {
+            ByteArrayOutputStream classBytes = new ByteArrayOutputStream(this.poolBytes.size() + this.fieldBytes.size() + this.methodBytes.size() + 64);
+            DataOutputStream out = new DataOutputStream(classBytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_VERSION);
+            out.writeShort(this.poolCount);
+            this.poolBytes.writeTo(out);
+            out.writeShort(access);
+            out.writeShort(thisClass);
+            out.writeShort(superClassIndex);
+            out.writeShort(interfaceIndexes.length);
+            for (int index : interfaceIndexes) {
+                out.writeShort(index);
+            }
+            out.writeShort(this.fieldCount);
+            this.fieldBytes.writeTo(out);
+            out.writeShort(this.methodCount);
+            this.methodBytes.writeTo(out);
+            // class attributes
+            out.writeShort(0);
+            return classBytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String internalName(Class<?> type) {
+        return type.isArray() ? type.descriptorString() : internalName(type.getName());
+    }
+
+    public static String internalName(String className) {
+        return className.replace('.', '/');
+    }
+
+    /**
+     * 类型占用的局部变量槽位数，long/double占2，void为0
+     */
+    public static int slotSize(Class<?> type) {
+        return type == long.class || type == double.class ? 2 : type == void.class ? 0 : 1;
+    }
+
+    // 常量池，相同的常量只写入一次
+
+    public int utf8(String value) {
+        Integer index = this.poolIndex.get("U" + value);
+        if (index != null) {
+            return index;
+        }
+        try {
+            this.pool.writeByte(CONSTANT_UTF8);
+            this.pool.writeUTF(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return addConstant("U" + value);
+    }
+
+    public int classConstant(String internalName) {
+        Integer index = this.poolIndex.get("C" + internalName);
+        if (index != null) {
+            return index;
+        }
+        int name = utf8(internalName);
+        try {
+            this.pool.writeByte(CONSTANT_CLASS);
+            this.pool.writeShort(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return addConstant("C" + internalName);
+    }
+
+    public int fieldConstant(String owner, String name, String descriptor) {
+        return memberConstant(CONSTANT_FIELDREF, owner, name, descriptor);
+    }
+
+    public int methodConstant(String owner, String name, String descriptor) {
+        return memberConstant(CONSTANT_METHODREF, owner, name, descriptor);
+    }
+
+    public int interfaceMethodConstant(String owner, String name, String descriptor) {
+        return memberConstant(CONSTANT_INTERFACE_METHODREF, owner, name, descriptor);
+    }
+
+    private int memberConstant(int tag, String owner, String name, String descriptor) {
+        String key = tag + owner + "." + name + descriptor;
+        Integer index = this.poolIndex.get(key);
+        if (index != null) {
+            return index;
+        }
+        int ownerIndex = classConstant(owner);
+        int nameAndType = nameAndType(name, descriptor);
+        try {
+            this.pool.writeByte(tag);
+            this.pool.writeShort(ownerIndex);
+            this.pool.writeShort(nameAndType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return addConstant(key);
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        String key = "N" + name + descriptor;
+        Integer index = this.poolIndex.get(key);
+        if (index != null) {
+            return index;
+        }
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        try {
+            this.pool.writeByte(CONSTANT_NAME_AND_TYPE);
+            this.pool.writeShort(nameIndex);
+            this.pool.writeShort(descriptorIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return addConstant(key);
+    }
+
+    private int addConstant(String key) {
+        int index = this.poolCount++;
+        this.poolIndex.put(key, index);
+        return index;
+    }
+
+    /**
+     * 方法体字节码
+     */
+    public static final class Code {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+
+        public Code op(int opcode) {
+            this.bytes.write(opcode);
+            return this;
+        }
+
+        public Code u1(int value) {
+            this.bytes.write(value);
+            return this;
+        }
+
+        public Code u2(int value) {
+            this.bytes.write(value >>> 8);
+            this.bytes.write(value);
+            return this;
+        }
+
+        /**
+         * 把int常量压入操作数栈
+         */
+        public Code pushInt(int value) {
+            if (value <= 5) {
+                return op(0x03 + value); // iconst_<n>
+            } else if (value <= Byte.MAX_VALUE) {
+                return op(0x10).u1(value); // bipush
+            }
+            return op(0x11).u2(value); // sipush
+        }
+
+        byte[] toByteArray() {
+            return this.bytes.toByteArray();
+        }
+    }
+}
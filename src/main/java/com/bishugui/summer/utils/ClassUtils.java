@@ -2,6 +2,7 @@ package com.bishugui.summer.utils;
 
 import com.bishugui.summer.annotation.Bean;
 import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.ConfigurationProperties;
 import com.bishugui.summer.exception.BeanDefinitionException;
 import jakarta.annotation.Nullable;
 
@@ -9,6 +10,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author bi shugui
@@ -17,6 +20,16 @@ import java.util.List;
  */
 public class ClassUtils {
 
+    /**
+     * 类上注解的解析结果缓存，按Class保存，所有正在启动的容器都结束后释放
+     */
+    private static volatile ClassValue<AnnotationMetadata> annotationCache = newAnnotationCache();
+
+    /**
+     * 正在使用注解缓存的容器数量，同一个JVM中可能有多个容器同时启动
+     */
+    private static int annotationCacheUsers;
+
     /**
      * 递归查找Annotation
      *
@@ -37,26 +50,81 @@ public class ClassUtils {
      * public class Hello {}
      * </code>
      */
+    @Nullable
+    @SuppressWarnings("unchecked")
     public static <T extends Annotation> T findAnnotation(Class<?> target, Class<T> annotationClass) {
-        T annotation = target.getAnnotation(annotationClass);
+        // 同一个类、同一个注解只递归解析一次，重复标注的检测结果同样被缓存
+        ResolvedAnnotation resolved = annotationCache.get(target).annotations
+                .computeIfAbsent(annotationClass, type -> resolveAnnotation(target, type));
+        if (resolved.duplicateMessage() != null) {
+            throw new BeanDefinitionException(resolved.duplicateMessage());
+        }
+        return (T) resolved.annotation();
+    }
+
+    /**
+     * 递归解析Annotation，元注解的解析结果也会被缓存
+     */
+    static ResolvedAnnotation resolveAnnotation(Class<?> target, Class<? extends Annotation> annotationClass) {
+        Annotation annotation = target.getAnnotation(annotationClass);
         for (Annotation targetAnnotation : target.getAnnotations()) {
             Class<? extends Annotation> targetAnnotationType = targetAnnotation.annotationType();
             // 非java.lang.annotation包下的注解,java自带的注解不扫描
             if(!targetAnnotationType.getPackageName().equals("java.lang.annotation")){
-                T sonAnnotation = findAnnotation(targetAnnotationType, annotationClass);
+                Annotation sonAnnotation;
+                try {
+                    sonAnnotation = findAnnotation(targetAnnotationType, annotationClass);
+                } catch (BeanDefinitionException e) {
+                    return new ResolvedAnnotation(null, e.getMessage());
+                }
                 if(sonAnnotation != null){
                     if(annotation != null){
                         // 情况1：如果注解@A包含@Component,且注解@B也包含@Component；当@A与@B同时标注在类上时
                         // 此时先扫描到了@A中@Component，并将其赋值给了T annotation，又继续扫描@B的@Component，就会抛异常重复添加
                         // 情况2：如果注解@A包含@Component,当@A与@Component同时标注在类上时,会抛异常重复添加
                         // 重复添加注解
-                        throw new BeanDefinitionException("Duplicate @" + annotationClass.getSimpleName() + " found on class " + target.getSimpleName());
+                        return new ResolvedAnnotation(null, "Duplicate @" + annotationClass.getSimpleName() + " found on class " + target.getSimpleName());
                     }
                     annotation = sonAnnotation;
                 }
             }
         }
-        return annotation;
+        return new ResolvedAnnotation(annotation, null);
+    }
+
+    /**
+     * 容器开始扫描、创建BeanDefinition前调用，与releaseAnnotationCache()成对使用
+     */
+    public static synchronized void retainAnnotationCache() {
+        annotationCacheUsers++;
+    }
+
+    /**
+     * 容器启动结束(包括启动失败)时调用，最后一个正在启动的容器结束后才释放缓存，不影响其他容器的启动
+     */
+    public static synchronized void releaseAnnotationCache() {
+        if (annotationCacheUsers <= 0) {
+            throw new IllegalStateException("Annotation cache is not retained.");
+        }
+        if (--annotationCacheUsers == 0) {
+            clearAnnotationCache();
+        }
+    }
+
+    /**
+     * 立即释放注解解析结果缓存，避免缓存长期占用内存
+     */
+    public static void clearAnnotationCache() {
+        annotationCache = newAnnotationCache();
+    }
+
+    static ClassValue<AnnotationMetadata> newAnnotationCache() {
+        return new ClassValue<>() {
+            @Override
+            protected AnnotationMetadata computeValue(Class<?> type) {
+                return new AnnotationMetadata();
+            }
+        };
     }
 
     /**
@@ -100,6 +168,16 @@ public class ClassUtils {
      * </code>
      */
     public static String getBeanName(Class<?> clazz){
+        AnnotationMetadata metadata = annotationCache.get(clazz);
+        String name = metadata.beanName;
+        if (name == null) {
+            name = resolveBeanName(clazz);
+            metadata.beanName = name;
+        }
+        return name;
+    }
+
+    static String resolveBeanName(Class<?> clazz){
         String name = "";
         // 查找@Component
         Component component = clazz.getAnnotation(Component.class);
@@ -108,7 +186,8 @@ public class ClassUtils {
         }else {
             // 未找到@Component，继续在其他注解中查找@Component:
             for (Annotation anno : clazz.getAnnotations()) {
-                if(findAnnotation(anno.annotationType(), Component.class) != null){
+                // @ConfigurationProperties的value是属性前缀，不是Bean名称
+                if(!(anno instanceof ConfigurationProperties) && findAnnotation(anno.annotationType(), Component.class) != null){
                     try {
                         name = (String) anno.annotationType().getMethod("value").invoke(anno);
                     } catch (ReflectiveOperationException e) {
@@ -154,4 +233,27 @@ public class ClassUtils {
 
         return methodList.get(0);
     }
+
+    /**
+     * 一个类的注解解析结果
+     */
+    static final class AnnotationMetadata {
+        /**
+         * Map<注解类型, 解析结果>
+         */
+        final Map<Class<? extends Annotation>, ResolvedAnnotation> annotations = new ConcurrentHashMap<>();
+
+        /**
+         * 由@Component或组合注解的value解析出的Bean名称
+         */
+        volatile String beanName;
+    }
+
+    /**
+     * 注解解析结果
+     * @param annotation 找到的注解/null
+     * @param duplicateMessage 重复标注时的异常信息，未重复时为null
+     */
+    record ResolvedAnnotation(@Nullable Annotation annotation, @Nullable String duplicateMessage) {
+    }
 }
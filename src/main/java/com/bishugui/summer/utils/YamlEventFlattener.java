@@ -0,0 +1,186 @@
+package com.bishugui.summer.utils;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * @author bi shugui
+ * @description 基于SnakeYAML解析事件的yaml加载器，不构造中间的树形Map，边解析边写入plain map:
+ * 每一层mapping的前缀只拼接一次，相同的键只保留一个String实例，标量直接使用解析出的字符串。
+ * 支持多文档(---)，每个文档单独展开，由调用方按profile合并
+ * @date 2023/12/26 20:05
+ */
+class YamlEventFlattener {
+    private final Parser parser;
+
+    /**
+     * 键名池，多个文档中相同的键共用一个String
+     */
+    private final Map<String, String> keyPool = new HashMap<>();
+
+    /**
+     * 锚点(&name)对应的值：String、树形Map或List，别名(*name)引用时使用
+     */
+    private final Map<String, Object> anchors = new HashMap<>();
+
+    YamlEventFlattener(InputStream input) {
+        var loaderOptions = new LoaderOptions();
+        // 生成的配置文件可能有几十MB，不限制文档大小
+        loaderOptions.setCodePointLimit(Integer.MAX_VALUE);
+        this.parser = new ParserImpl(new StreamReader(new UnicodeReader(input)), loaderOptions);
+    }
+
+    /**
+     * 逐个展开文档
+     * @return 每个文档对应的plain map，空文档为空map
+     */
+    List<Map<String, Object>> flattenDocuments() {
+        List<Map<String, Object>> documents = new ArrayList<>();
+        expect(this.parser.getEvent(), Event.ID.StreamStart);
+        while (!this.parser.checkEvent(Event.ID.StreamEnd)) {
+            expect(this.parser.getEvent(), Event.ID.DocumentStart);
+            Map<String, Object> plainMap = new LinkedHashMap<>();
+            Event event = this.parser.getEvent();
+            if (event instanceof MappingStartEvent) {
+                flattenMapping("", plainMap);
+            } else if (!(event instanceof ScalarEvent)) {
+                // 顶层只能是mapping，空文档解析为空标量
+                throw new IllegalArgumentException("Yaml document must be a mapping: " + event.getStartMark());
+            }
+            expect(this.parser.getEvent(), Event.ID.DocumentEnd);
+            // 锚点只在文档内有效
+            this.anchors.clear();
+            documents.add(plainMap);
+        }
+        return documents;
+    }
+
+    /**
+     * 展开mapping，MappingStart事件已被读取
+     * @param prefix 键名前缀，如"summer.datasource."
+     * @param plainMap 输出
+     */
+    void flattenMapping(String prefix, Map<String, Object> plainMap) {
+        while (!this.parser.checkEvent(Event.ID.MappingEnd)) {
+            String key = intern(prefix, readKey());
+            Event event = this.parser.getEvent();
+            if (event instanceof ScalarEvent scalar) {
+                plainMap.put(key, scalar.getValue());
+                rememberAnchor(scalar, scalar.getValue());
+            } else if (event instanceof MappingStartEvent mappingStart) {
+                if (mappingStart.getAnchor() == null) {
+                    flattenMapping(key + ".", plainMap);
+                } else {
+                    // 被引用的mapping需要保留下来，构造为树形Map后再展开
+                    Map<String, Object> tree = readMapping();
+                    this.anchors.put(mappingStart.getAnchor(), tree);
+                    YamlUtils.convertTo(tree, key + ".", plainMap);
+                }
+            } else if (event instanceof SequenceStartEvent sequenceStart) {
+                List<Object> list = readSequence();
+                plainMap.put(key, list);
+                rememberAnchor(sequenceStart, list);
+            } else if (event instanceof AliasEvent alias) {
+                Object value = getAnchor(alias);
+                if (value instanceof Map<?, ?> tree) {
+                    YamlUtils.convertTo((Map<String, Object>) tree, key + ".", plainMap);
+                } else {
+                    plainMap.put(key, value);
+                }
+            } else {
+                throw new IllegalArgumentException("Unexpected yaml event " + event + " at " + event.getStartMark());
+            }
+        }
+        this.parser.getEvent();
+    }
+
+    /**
+     * 读取mapping为树形Map，与SnakeYAML的Constructor结果一致，用于列表元素及锚点
+     */
+    Map<String, Object> readMapping() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        while (!this.parser.checkEvent(Event.ID.MappingEnd)) {
+            map.put(readKey(), readValue());
+        }
+        this.parser.getEvent();
+        return map;
+    }
+
+    List<Object> readSequence() {
+        List<Object> list = new ArrayList<>();
+        while (!this.parser.checkEvent(Event.ID.SequenceEnd)) {
+            list.add(readValue());
+        }
+        this.parser.getEvent();
+        return list;
+    }
+
+    Object readValue() {
+        Event event = this.parser.getEvent();
+        Object value;
+        if (event instanceof ScalarEvent scalar) {
+            value = scalar.getValue();
+        } else if (event instanceof MappingStartEvent) {
+            value = readMapping();
+        } else if (event instanceof SequenceStartEvent) {
+            value = readSequence();
+        } else if (event instanceof AliasEvent alias) {
+            return getAnchor(alias);
+        } else {
+            throw new IllegalArgumentException("Unexpected yaml event " + event + " at " + event.getStartMark());
+        }
+        rememberAnchor((NodeEvent) event, value);
+        return value;
+    }
+
+    /**
+     * 读取mapping的键，键只能是标量或引用标量的别名
+     */
+    String readKey() {
+        Event event = this.parser.getEvent();
+        if (event instanceof ScalarEvent scalar) {
+            rememberAnchor(scalar, scalar.getValue());
+            return scalar.getValue();
+        }
+        if (event instanceof AliasEvent alias && getAnchor(alias) instanceof String key) {
+            return key;
+        }
+        throw new IllegalArgumentException("Yaml key must be a scalar: " + event.getStartMark());
+    }
+
+    /**
+     * 记录锚点(&name)对应的值
+     */
+    void rememberAnchor(NodeEvent event, Object value) {
+        if (event.getAnchor() != null) {
+            this.anchors.put(event.getAnchor(), value);
+        }
+    }
+
+    Object getAnchor(AliasEvent alias) {
+        Object value = this.anchors.get(alias.getAnchor());
+        if (value == null) {
+            throw new IllegalArgumentException("Undefined yaml alias *" + alias.getAnchor() + " at " + alias.getStartMark());
+        }
+        return value;
+    }
+
+    String intern(String prefix, String key) {
+        String fullKey = prefix.isEmpty() ? key : prefix + key;
+        String pooled = this.keyPool.putIfAbsent(fullKey, fullKey);
+        return pooled == null ? fullKey : pooled;
+    }
+
+    static void expect(Event event, Event.ID id) {
+        if (!event.is(id)) {
+            throw new IllegalArgumentException("Expected yaml event " + id + " but was " + event + " at " + event.getStartMark());
+        }
+    }
+}
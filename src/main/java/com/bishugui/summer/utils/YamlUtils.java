@@ -8,9 +8,13 @@ import org.yaml.snakeyaml.constructor.Constructor;
 import org.yaml.snakeyaml.representer.Representer;
 import org.yaml.snakeyaml.resolver.Resolver;
 
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * @author bi shugui
@@ -18,17 +22,23 @@ import java.util.Map;
  * @date 2023/9/27 21:46
  */
 public class YamlUtils {
+    /**
+     * 激活的profile，多个用逗号分隔
+     */
+    public static final String ACTIVE_PROFILES_KEY = "summer.profiles.active";
+
+    /**
+     * 文档所属的profile，只有profile被激活时才加载该文档
+     */
+    public static final String ON_PROFILE_KEY = "summer.config.on-profile";
+
     /**
      * 加载yaml文件为map
      * @param path 路径
      * @return Map<String,Object>，key为yaml中首字段，value为yaml中首字段的值(可能是嵌套)
      */
     public static Map<String,Object> loadYaml(String path){
-        var loaderOptions = new LoaderOptions();
-        var dumperOptions = new DumperOptions();
-        var rePresenter = new Representer(dumperOptions);
-        var resolver = new NoImplicitResolver();
-        Yaml yaml = new Yaml(new Constructor(loaderOptions), rePresenter, dumperOptions, loaderOptions, resolver);
+        Yaml yaml = createYaml();
         return ClassPathUtils.readInputStream(path,(input)->{
             return (Map<String,Object>)yaml.load(input);
         });
@@ -36,16 +46,77 @@ public class YamlUtils {
 
     /**
      * 将yaml转为plain map,与properties文件类似
-     * @param path
-     * @return
+     * 通过解析事件直接展开，不构造树形Map；多文档时按profile合并，后面的文档覆盖前面的
+     * @param path 类路径
+     * @param activeProfiles 激活的profile，未指定时使用文件中的summer.profiles.active
+     * @return plain map，列表为List，其他值为String
      */
-    public static Map<String,Object> loadYamlAsPlainMap(String path){
-        Map<String, Object> dataMap = loadYaml(path);
-        Map<String, Object> plainMap = new LinkedHashMap<>(dataMap.size());
-        convertTo(dataMap, "", plainMap);
+    public static Map<String,Object> loadYamlAsPlainMap(String path, String... activeProfiles){
+        return ClassPathUtils.readInputStream(path, input -> loadYamlAsPlainMap(input, activeProfiles));
+    }
+
+    /**
+     * 从文件系统加载yaml文件为plain map，用于监听外部配置文件
+     * @param path 文件路径
+     * @param activeProfiles 激活的profile，未指定时使用文件中的summer.profiles.active
+     * @return plain map，空文件返回空map
+     */
+    public static Map<String,Object> loadYamlAsPlainMap(Path path, String... activeProfiles){
+        try (InputStream input = Files.newInputStream(path)) {
+            return loadYamlAsPlainMap(input, activeProfiles);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Map<String,Object> loadYamlAsPlainMap(InputStream input, String... activeProfiles){
+        List<Map<String, Object>> documents = new YamlEventFlattener(input).flattenDocuments();
+        if (documents.size() == 1 && !documents.get(0).containsKey(ON_PROFILE_KEY)) {
+            return documents.get(0);
+        }
+        Set<String> profiles = activeProfiles.length > 0 ? Set.of(activeProfiles) : findActiveProfiles(documents);
+        Map<String, Object> plainMap = new LinkedHashMap<>();
+        for (Map<String, Object> document : documents) {
+            Object onProfile = document.remove(ON_PROFILE_KEY);
+            if (onProfile == null || matchProfile(onProfile, profiles)) {
+                plainMap.putAll(document);
+            }
+        }
         return plainMap;
     }
 
+    /**
+     * 从不属于任何profile的文档中读取summer.profiles.active，后面的文档覆盖前面的
+     */
+    static Set<String> findActiveProfiles(List<Map<String, Object>> documents) {
+        Object active = null;
+        for (Map<String, Object> document : documents) {
+            if (!document.containsKey(ON_PROFILE_KEY) && document.containsKey(ACTIVE_PROFILES_KEY)) {
+                active = document.get(ACTIVE_PROFILES_KEY);
+            }
+        }
+        return active == null ? Set.of() : splitProfiles(active);
+    }
+
+    static boolean matchProfile(Object onProfile, Set<String> profiles) {
+        return splitProfiles(onProfile).stream().anyMatch(profiles::contains);
+    }
+
+    static Set<String> splitProfiles(Object value) {
+        if (value instanceof List<?> list) {
+            return list.stream().map(item -> item.toString().trim()).collect(Collectors.toSet());
+        }
+        return Arrays.stream(value.toString().split(",")).map(String::trim).filter(item -> !item.isEmpty()).collect(Collectors.toSet());
+    }
+
+    static Yaml createYaml() {
+        var loaderOptions = new LoaderOptions();
+        var dumperOptions = new DumperOptions();
+        var rePresenter = new Representer(dumperOptions);
+        var resolver = new NoImplicitResolver();
+        return new Yaml(new Constructor(loaderOptions), rePresenter, dumperOptions, loaderOptions, resolver);
+    }
+
     /**
      * 将yaml的树形map,转为plain map,与properties文件类似
      * @param sourceMap
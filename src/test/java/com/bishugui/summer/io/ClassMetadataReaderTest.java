@@ -0,0 +1,77 @@
+package com.bishugui.summer.io;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Configuration;
+import com.bishugui.summer.io.scanBeanDefinition.annotation.CustomAnnotation;
+import com.bishugui.summer.io.scanBeanDefinition.annotation.CustomAnnotationBean;
+import com.bishugui.summer.io.scanBeanDefinition.nested.OuterBean;
+import com.bishugui.summer.io.scanBeanDefinition.sub1.Sub1;
+import com.bishugui.summer.io.scanBeanDefinition.sub1.sub2.Sub2;
+import com.bishugui.summer.io.scanPackage.model.FirstBean;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.RetentionPolicy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author bi shugui
+ * @description Class元数据读取器 测试
+ * @date 2023/12/10 16:05
+ */
+public class ClassMetadataReaderTest {
+
+    ClassMetadataReader reader = new ClassMetadataReader(getClass().getClassLoader());
+
+    @Test
+    public void readAnnotations() {
+        ClassMetadataReader.ClassMetadata sub1 = reader.read(Sub1.class.getName());
+        assertNotNull(sub1);
+        assertEquals(Sub1.class.getName(), sub1.className());
+        assertEquals(Object.class.getName(), sub1.superClassName());
+        assertTrue(sub1.annotationTypes().contains(Component.class.getName()));
+        assertTrue(reader.isAnnotated(sub1, Component.class));
+
+        // 没有注解的类
+        ClassMetadataReader.ClassMetadata firstBean = reader.read(FirstBean.class.getName());
+        assertNotNull(firstBean);
+        assertTrue(firstBean.annotationTypes().isEmpty());
+        assertFalse(reader.isAnnotated(firstBean, Component.class));
+
+        // 找不到的类
+        assertNull(reader.read("com.bishugui.summer.NotExists"));
+    }
+
+    @Test
+    public void metaAnnotation() {
+        // @Configuration上标注了@Component
+        ClassMetadataReader.ClassMetadata sub2 = reader.read(Sub2.class.getName());
+        assertTrue(reader.isAnnotated(sub2, Component.class));
+        assertTrue(reader.isAnnotated(sub2, Configuration.class));
+
+        // 自定义注解上标注了@Component
+        ClassMetadataReader.ClassMetadata custom = reader.read(CustomAnnotationBean.class.getName());
+        assertTrue(reader.isAnnotated(custom, Component.class));
+        assertFalse(reader.isAnnotated(custom, Configuration.class));
+
+        // 嵌套类
+        ClassMetadataReader.ClassMetadata nested = reader.read(OuterBean.NestedBean.class.getName());
+        assertTrue(reader.isAnnotated(nested, Component.class));
+    }
+
+    @Test
+    public void accessFlags() {
+        assertTrue(reader.read(CustomAnnotation.class.getName()).isAnnotation());
+        assertTrue(reader.read(CustomAnnotation.class.getName()).isInterface());
+        assertTrue(reader.read(Runnable.class.getName()).isInterface());
+        assertTrue(reader.read(RetentionPolicy.class.getName()).isEnum());
+        assertTrue(reader.read(Resource.class.getName()).isRecord());
+        assertFalse(reader.read(Sub1.class.getName()).isInterface());
+    }
+
+    @Test
+    public void invalidClassFile() {
+        assertThrows(IllegalArgumentException.class, () -> ClassMetadataReader.parse(new byte[]{1, 2, 3, 4}));
+        assertThrows(IllegalArgumentException.class, () -> ClassMetadataReader.parse(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0}));
+    }
+}
@@ -2,12 +2,19 @@ package com.bishugui.summer.io;
 
 import com.bishugui.summer.utils.YamlUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Map;
-import java.util.Properties;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.time.LocalTime.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -60,6 +67,359 @@ class PropertyResolverTest {
         assertEquals("title1", pr.getProperty("${app.a}","${app.title1:title1}"));
     }
 
+    @Test
+    public void propertyTemplate() {
+        var props = new Properties();
+        props.setProperty("app.title", "Summer Framework");
+        props.setProperty("host", "localhost");
+        props.setProperty("port", "8080");
+        props.setProperty("app.url", "http://${host}:${port}/");
+        props.setProperty("app.info", "info,${app.title}");
+        props.setProperty("cycle.a", "${cycle.b}");
+        props.setProperty("cycle.b", "prefix-${cycle.a}");
+        var pr = new PropertyResolver(props);
+
+        // 嵌入表达式
+        assertEquals("http://localhost:8080/", pr.getProperty("app.url"));
+        assertEquals("info,Summer Framework", pr.getProperty("app.info"));
+        assertEquals("jdbc:mysql://localhost:3306/summer", pr.getProperty("jdbc:mysql://${host}:${db.port:3306}/${db.name:summer}"));
+        // 类型化的getProperty只按键名查找，表达式使用getValue
+        assertNull(pr.getProperty("${port}", int.class));
+        assertEquals(8080, pr.getValue("${port}", int.class));
+
+        // 嵌套表达式
+        assertEquals("Summer Framework", pr.getProperty("${app.missing:${app.title}}"));
+        assertEquals("default", pr.getProperty("${a:${b:${c:default}}}"));
+        assertEquals("title:Summer Framework", pr.getProperty("${app.missing:title:${app.title}}"));
+
+        // 未闭合的表达式按文本处理
+        assertEquals("${app.title", pr.getProperty("${app.title"));
+        assertEquals("${", PropertyTemplate.compile("${").getLiteral());
+
+        // 已解析的结果被缓存
+        assertSame(pr.getProperty("app.url"), pr.getProperty("app.url"));
+
+        // 必须的属性不存在、循环引用
+        assertThrows(NullPointerException.class, () -> pr.getProperty("${app.missing}"));
+        assertNull(pr.getProperty("${app.missing}", (String) null));
+        assertThrows(IllegalArgumentException.class, () -> pr.getProperty("cycle.a"));
+    }
+
+    @Test
+    public void typedProperty() {
+        var props = new Properties();
+        props.setProperty("server.port", "8080");
+        props.setProperty("cache.size", "10000000000");
+        props.setProperty("feature.enabled", "true");
+        props.setProperty("session.timeout", "PT30M");
+        props.setProperty("admin.port", "${server.port}");
+        var pr = new PropertyResolver(props);
+
+        assertEquals(8080, pr.getInt("server.port"));
+        assertEquals(8080, pr.getInt("admin.port"));
+        assertEquals(9090, pr.getInt("server.missing", 9090));
+        assertEquals(10000000000L, pr.getLong("cache.size"));
+        assertTrue(pr.getBoolean("feature.enabled"));
+        assertFalse(pr.getBoolean("feature.missing", false));
+        assertEquals(Duration.ofMinutes(30), pr.getDuration("session.timeout"));
+        assertThrows(NullPointerException.class, () -> pr.getInt("server.missing"));
+
+        // 转换结果被缓存
+        assertSame(pr.getDuration("session.timeout"), pr.getDuration("session.timeout"));
+        assertSame(pr.getProperty("server.port", Integer.class), pr.getProperty("server.port", Integer.class));
+
+        // 原始值变化后缓存失效
+        pr.setProperty("server.port", "9000");
+        assertEquals(9000, pr.getInt("server.port"));
+        assertEquals(9000, pr.getInt("admin.port"));
+        assertEquals(9000, pr.getProperty("server.port", int.class));
+    }
+
+    @Test
+    public void propertyChange() {
+        var props = new Properties();
+        props.setProperty("host", "localhost");
+        props.setProperty("port", "8080");
+        props.setProperty("app.url", "http://${host}:${port}/");
+        var pr = new PropertyResolver(props);
+        List<PropertyChangeEvent> events = new ArrayList<>();
+        // 监听器在释放锁之后才被调用
+        pr.addChangeListener(event -> assertFalse(Thread.holdsLock(pr)));
+        pr.addChangeListener(events::add);
+
+        assertEquals("http://localhost:8080/", pr.getProperty("app.url"));
+        assertEquals("localhost", pr.getProperty("${host}"));
+
+        // 只有已解析且引用了变化属性的键被重新计算
+        PropertyChangeEvent event = pr.updateProperties(Map.of("port", "9090", "host", "localhost"), List.of());
+        assertEquals(Set.of("port", "app.url"), event.changedKeys());
+        assertEquals("http://localhost:9090/", pr.getProperty("app.url"));
+        assertEquals(List.of(event), events);
+
+        // 值没有变化时不发布事件
+        assertTrue(pr.updateProperties(Map.of("port", "9090"), List.of("missing")).changedKeys().isEmpty());
+        assertEquals(1, events.size());
+
+        // 删除运行时设置的属性
+        pr.setProperty("summer.test.path", "/api");
+        assertEquals("localhost/api", pr.getProperty("${host}${summer.test.path}"));
+        event = pr.updateProperties(Map.of(), List.of("summer.test.path", "host"));
+        assertEquals(Set.of("summer.test.path", "${host}${summer.test.path}"), event.changedKeys());
+        assertThrows(NullPointerException.class, () -> pr.getProperty("${host}${summer.test.path}"));
+        assertEquals("localhost", pr.getProperty("host"));
+    }
+
+    @Test
+    public void concurrentPropertyChange() throws Exception {
+        var props = new Properties();
+        props.setProperty("host", "h0");
+        props.setProperty("app.url", "http://${host}/");
+        var pr = new PropertyResolver(props);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                while (running.get()) {
+                    pr.getProperty("app.url");
+                    pr.getProperty("${host}");
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        // 读取方与updateProperties()并发时，不能把更新前解析的值留在缓存中
+        for (int i = 1; i <= 2000; i++) {
+            pr.updateProperties(Map.of("host", "h" + i), List.of());
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals("http://h2000/", pr.getProperty("app.url"));
+        assertEquals("h2000", pr.getProperty("${host}"));
+    }
+
+    @Test
+    public void propertyFileWatcher(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("application.properties");
+        Files.writeString(file, "app.title=Summer Framework\napp.limit=10\n");
+        var pr = new PropertyResolver(new Properties());
+        try (var watcher = new PropertyFileWatcher(pr, file)) {
+            assertEquals(10, pr.getInt("app.limit"));
+
+            BlockingQueue<PropertyChangeEvent> events = new LinkedBlockingQueue<>();
+            pr.addChangeListener(events::add);
+            watcher.start();
+            // 先写临时文件再原子替换，避免读到写了一半的文件
+            Path temp = Files.writeString(dir.resolve("application.properties.tmp"), "app.title=Summer Framework\napp.limit=20\n");
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            PropertyChangeEvent event = events.poll(30, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertEquals(Set.of("app.limit"), event.changedKeys());
+            assertEquals(20, pr.getInt("app.limit"));
+            assertEquals("Summer Framework", pr.getProperty("app.title"));
+        }
+
+        // yaml文件，删除的键同时从PropertyResolver中删除
+        Path yaml = dir.resolve("application.yaml");
+        Files.writeString(yaml, "app:\n  limit: 30\n  name: summer\n");
+        try (var watcher = new PropertyFileWatcher(pr, yaml)) {
+            assertEquals(30, pr.getInt("app.limit"));
+            Files.writeString(yaml, "app:\n  limit: 40\n");
+            assertEquals(Set.of("app.limit", "app.name"), watcher.reload(yaml.toAbsolutePath()).changedKeys());
+            assertEquals(40, pr.getInt("app.limit"));
+            assertNull(pr.getProperty("app.name"));
+        }
+    }
+
+    @Test
+    public void watchedFilePrecedence(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("application.properties");
+        Files.writeString(file, "app.title=Watched\napp.owner=watched\nsummer.test.watched=file\n");
+        var defaults = new Properties();
+        defaults.setProperty("app.owner", "summer");
+        var pr = PropertyResolver.create(new String[]{"--app.title=Command Line"}, defaults, "application.yaml");
+        System.setProperty("summer.test.watched", "system");
+        try (var watcher = new PropertyFileWatcher(pr, file)) {
+            // 配置文件排在环境变量之后、yaml文件及默认值之前
+            assertEquals(List.of("commandLineArgs", "systemProperties", "systemEnvironment", file.toAbsolutePath().toString(), "application.yaml", "defaults"),
+                    pr.getPropertySources().stream().map(PropertySource::getName).toList());
+            assertEquals("Command Line", pr.getProperty("app.title"));
+            assertEquals("system", pr.getProperty("summer.test.watched"));
+            assertEquals("watched", pr.getProperty("app.owner"));
+
+            // 被更高优先级覆盖的键变化时不发布变更
+            Files.writeString(file, "app.title=Watched 2\n");
+            assertEquals(Set.of("app.owner"), watcher.reload(file.toAbsolutePath()).changedKeys());
+            assertEquals("summer", pr.getProperty("app.owner"));
+            assertEquals("system", pr.getProperty("summer.test.watched"));
+        } finally {
+            System.clearProperty("summer.test.watched");
+        }
+
+        // 系统属性可以随时修改，不记录其中不存在的键
+        assertNull(pr.getProperty("summer.test.missing"));
+        System.setProperty("summer.test.missing", "found");
+        try {
+            assertEquals("found", pr.getProperty("summer.test.missing"));
+        } finally {
+            System.clearProperty("summer.test.missing");
+        }
+    }
+
+    /**
+     * 已读取过的系统属性被修改后立即可见，引用它的模板与类型转换结果同样更新；其他属性仍然缓存
+     */
+    @Test
+    public void systemPropertyChange() {
+        var defaults = new Properties();
+        defaults.setProperty("summer.test.changed", "default");
+        defaults.setProperty("app.owner", "summer");
+        var pr = PropertyResolver.create(new String[0], defaults, "application.yaml");
+        System.setProperty("summer.test.changed", "one");
+        System.setProperty("summer.test.changed.port", "8080");
+        try {
+            assertEquals("one", pr.getProperty("summer.test.changed"));
+            assertEquals("one-summer", pr.getProperty("${summer.test.changed}-${app.owner}"));
+            assertEquals(8080, pr.getInt("summer.test.changed.port"));
+            assertEquals("summer", pr.getProperty("app.owner"));
+
+            System.setProperty("summer.test.changed", "two");
+            System.setProperty("summer.test.changed.port", "9090");
+            assertEquals("two", pr.getProperty("summer.test.changed"));
+            assertEquals("two-summer", pr.getProperty("${summer.test.changed}-${app.owner}"));
+            assertEquals(9090, pr.getInt("summer.test.changed.port"));
+            assertTrue(pr.resolvedCache.containsKey("app.owner"));
+            assertFalse(pr.resolvedCache.containsKey("summer.test.changed"));
+        } finally {
+            System.clearProperty("summer.test.changed");
+            System.clearProperty("summer.test.changed.port");
+        }
+        // 删除系统属性后使用优先级更低的属性源
+        assertEquals("default", pr.getProperty("summer.test.changed"));
+    }
+
+    @Test
+    public void propertySources() {
+        var defaults = new Properties();
+        defaults.setProperty("app.title", "Default Title");
+        defaults.setProperty("app.version", "v1.0");
+        defaults.setProperty("app.desc", "${app.title} ${app.version}");
+        var environment = new EnvironmentPropertySource(Map.of("APP_VERSION", "v2.0", "SUMMER_DATASOURCE_POOL_SIZE", "20", "app.name", "env"));
+        var pr = new PropertyResolver(List.of(
+                new CommandLinePropertySource("--app.title=Command Line", "--debug", "run"),
+                environment,
+                MapPropertySource.of("defaults", defaults)));
+
+        // 按顺序查询，排在前面的优先
+        assertEquals("Command Line", pr.getProperty("app.title"));
+        assertEquals("v2.0", pr.getProperty("app.version"));
+        assertEquals("Command Line v2.0", pr.getProperty("app.desc"));
+        assertTrue(pr.getBoolean("debug"));
+        assertFalse(pr.containsProperty("run"));
+
+        // 环境变量宽松绑定
+        assertEquals(20, pr.getInt("summer.datasource.pool-size"));
+        assertEquals("env", pr.getProperty("app.name"));
+        assertNull(pr.getProperty("app.missing"));
+
+        // 运行时属性优先级最高，删除后恢复属性源中的值
+        pr.setProperty("app.version", "v3.0");
+        assertEquals("Command Line v3.0", pr.getProperty("app.desc"));
+        PropertyChangeEvent event = pr.updateProperties(Map.of(), List.of("app.version"));
+        assertTrue(event.isChanged("app.desc"));
+        assertEquals("v2.0", pr.getProperty("app.version"));
+        pr.setProperty("app.missing", "found");
+        assertEquals("found", pr.getProperty("app.missing"));
+    }
+
+    @Test
+    public void createPropertyResolver() {
+        var defaults = new Properties();
+        defaults.setProperty("app.owner", "summer");
+        var pr = PropertyResolver.create(new String[]{"--summer.profiles.active=prod"}, defaults, "profiles.yaml", "application.yaml");
+
+        assertEquals("Summer Framework Prod", pr.getProperty("app.title"));
+        assertEquals("1.0.0", pr.getProperty("app.version"));
+        assertEquals("summer", pr.getProperty("app.owner"));
+        assertEquals(List.of("commandLineArgs", "systemProperties", "systemEnvironment", "profiles.yaml", "application.yaml", "defaults"),
+                pr.getPropertySources().stream().map(PropertySource::getName).toList());
+
+        // 未指定时使用yaml文件中的summer.profiles.active
+        var devPr = PropertyResolver.create(new String[0], null, "profiles.yaml");
+        assertEquals("Summer Framework Dev", devPr.getProperty("app.title"));
+    }
+
+    enum Mode { FAST, SAFE_MODE }
+
+    record Server(String host, int port) {
+    }
+
+    record AppProperties(String title, Duration timeout, Duration retryDelay, DataSize maxUploadSize, Mode mode,
+                         List<Server> servers, List<String> tags, Set<Integer> ports, Map<String, Server> routes, Pool pool) {
+    }
+
+    static class Pool {
+        int maxSize = 8;
+        boolean enabled;
+        List<Duration> backoff;
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    @Test
+    public void bindProperties() {
+        Map<String, Object> yaml = new LinkedHashMap<>();
+        yaml.put("app.title", "${app.name:Summer}");
+        yaml.put("app.timeout", "30s");
+        yaml.put("app.retryDelay", "PT0.5S");
+        yaml.put("app.max-upload-size", "10MB");
+        yaml.put("app.mode", "safe-mode");
+        yaml.put("app.servers", List.of(Map.of("host", "a.example.com", "port", "8080"), Map.of("host", "b.example.com", "port", "8081")));
+        yaml.put("app.tags", "red, green ,blue");
+        yaml.put("app.ports[0]", "80");
+        yaml.put("app.ports[1]", "443");
+        yaml.put("app.ports[2]", "80");
+        yaml.put("app.routes.api.host", "api.example.com");
+        yaml.put("app.routes.api.port", "9000");
+        yaml.put("app.routes.web.host", "web.example.com");
+        yaml.put("app.pool.enabled", "true");
+        yaml.put("app.pool.backoff", List.of("100ms", "1s"));
+        yaml.put("other.title", "other");
+        var environment = new EnvironmentPropertySource(Map.of("APP_POOL_MAX_SIZE", "32"));
+        var pr = new PropertyResolver(List.of(environment, MapPropertySource.ofPlainMap("application.yaml", yaml)));
+        // 列表在创建属性源时原地展开，不复制整个Map
+        assertEquals("100ms", yaml.get("app.pool.backoff[0]"));
+        assertFalse(yaml.containsKey("app.pool.backoff"));
+
+        assertEquals(Set.of("app.pool.enabled", "app.pool.backoff[0]", "app.pool.backoff[1]"), pr.getPropertyNames("app.pool"));
+
+        AppProperties app = pr.bind("app", AppProperties.class);
+        assertEquals("Summer", app.title());
+        assertEquals(Duration.ofSeconds(30), app.timeout());
+        assertEquals(Duration.ofMillis(500), app.retryDelay());
+        assertEquals(DataSize.ofMegabytes(10), app.maxUploadSize());
+        assertEquals(Mode.SAFE_MODE, app.mode());
+        assertEquals(List.of(new Server("a.example.com", 8080), new Server("b.example.com", 8081)), app.servers());
+        assertEquals(List.of("red", "green", "blue"), app.tags());
+        assertEquals(Set.of(80, 443), app.ports());
+        assertEquals(Map.of("api", new Server("api.example.com", 9000), "web", new Server("web.example.com", 0)), app.routes());
+        // 环境变量覆盖，未设置的属性保留默认值
+        assertEquals(32, app.pool().maxSize);
+        assertTrue(app.pool().enabled);
+        assertEquals(List.of(Duration.ofMillis(100), Duration.ofSeconds(1)), app.pool().backoff);
+
+        // 前缀下没有属性
+        Pool pool = pr.bind("missing", Pool.class);
+        assertEquals(8, pool.maxSize);
+        assertNull(pool.backoff);
+        assertEquals(new Server(null, 0), pr.bind("other", Server.class));
+        pr.setProperty("other.port", "not-a-number");
+        assertThrows(IllegalArgumentException.class, () -> pr.bind("other", Server.class));
+    }
+
     @Test
     void testPropertyFile(){
         Map<String, Object> yamlToPlainMap = YamlUtils.loadYamlAsPlainMap("application.yaml");
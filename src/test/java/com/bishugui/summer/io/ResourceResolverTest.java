@@ -3,11 +3,25 @@ package com.bishugui.summer.io;
 import com.bishugui.summer.io.ResourceResolver;
 import jakarta.annotation.PostConstruct;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 /**
  * @author bi shugui
@@ -54,6 +68,95 @@ public class ResourceResolverTest {
         assertTrue(classesNameList.contains("jakarta/annotation/Nullable1.class"));
     }
 
+    /**
+     * 重复扫描同一个jar包，只返回包前缀下的条目，jar包变化后重新读取
+     */
+    @Test
+    public void scanJarRepeatedly(@TempDir Path dir) throws IOException {
+        Path jar = dir.resolve("scan.jar");
+        writeJar(jar, "bench/scan/A.class", "bench/scan/sub/B.class", "bench/scanner/C.class", "bench/D.class");
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            ResourceResolver resourceResolver = new ResourceResolver("bench.scan");
+            List<String> expected = List.of("bench/scan/A.class", "bench/scan/sub/B.class");
+            assertEquals(expected, resourceResolver.scan(Resource::name));
+            assertEquals(expected, resourceResolver.scan(Resource::name));
+
+            // 按包复制的解析器共享jar包条目索引，新创建的解析器没有缓存
+            ResourceResolver scannerResolver = resourceResolver.withBasePackage("bench.scanner");
+            assertEquals(List.of("bench/scanner/C.class"), scannerResolver.scan(Resource::name));
+            assertSame(resourceResolver.jarIndexes, scannerResolver.jarIndexes);
+            assertEquals(1, resourceResolver.jarIndexes.size());
+            assertTrue(new ResourceResolver("bench.scan").jarIndexes.isEmpty());
+
+            writeJar(jar, "bench/scan/A.class", "bench/scan/E.class");
+            Files.setLastModifiedTime(jar, FileTime.fromMillis(System.currentTimeMillis() + 2000));
+            assertEquals(List.of("bench/scan/A.class", "bench/scan/E.class"), resourceResolver.scan(Resource::name));
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    /**
+     * 按后缀、包深度、glob过滤，目录与jar包结果一致
+     */
+    @Test
+    public void scanWithFilters(@TempDir Path dir) throws IOException {
+        String[] entryNames = {"bench/scan/A.class", "bench/scan/a.xml", "bench/scan/sub/BService.class", "bench/scan/sub/deep/CService.class"};
+        Path jar = dir.resolve("filter.jar");
+        writeJar(jar, entryNames);
+        Path classes = dir.resolve("classes");
+        for (String entryName : entryNames) {
+            Files.createDirectories(classes.resolve(entryName).getParent());
+            Files.createFile(classes.resolve(entryName));
+        }
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        for (URL root : new URL[]{jar.toUri().toURL(), classes.toUri().toURL()}) {
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root}, null)) {
+                Thread.currentThread().setContextClassLoader(classLoader);
+                assertEquals(List.of("bench/scan/A.class", "bench/scan/sub/BService.class", "bench/scan/sub/deep/CService.class"),
+                        sorted(new ResourceResolver("bench.scan").suffix(".class").scan(Resource::name)));
+                assertEquals(List.of("bench/scan/A.class", "bench/scan/a.xml"),
+                        sorted(new ResourceResolver("bench.scan").maxDepth(0).scan(Resource::name)));
+                assertEquals(List.of("bench/scan/sub/BService.class", "bench/scan/sub/deep/CService.class"),
+                        sorted(new ResourceResolver("bench.scan").glob("**/*Service.class").scan(Resource::name)));
+                assertEquals(List.of("bench/scan/sub/BService.class"),
+                        sorted(new ResourceResolver("bench.scan").glob("*/*.class").scan(Resource::name)));
+                try (var resources = new ResourceResolver("bench.scan").suffix(".xml").parallel(true).stream()) {
+                    assertEquals(List.of("bench/scan/a.xml"), resources.map(Resource::name).toList());
+                }
+            } finally {
+                Thread.currentThread().setContextClassLoader(original);
+            }
+        }
+    }
+
+    static List<String> sorted(List<String> names) {
+        return names.stream().sorted().toList();
+    }
+
+    static void writeJar(Path jar, String... entryNames) throws IOException {
+        try (OutputStream output = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(output)) {
+            // 与打包工具一致写入目录条目，ClassLoader.getResources依赖目录条目定位包
+            Set<String> directories = new TreeSet<>();
+            for (String entryName : entryNames) {
+                for (int i = entryName.indexOf('/'); i > 0; i = entryName.indexOf('/', i + 1)) {
+                    directories.add(entryName.substring(0, i + 1));
+                }
+            }
+            for (String directory : directories) {
+                zip.putNextEntry(new ZipEntry(directory));
+                zip.closeEntry();
+            }
+            for (String entryName : entryNames) {
+                zip.putNextEntry(new ZipEntry(entryName));
+                zip.write(new byte[]{(byte) 0xCA, (byte) 0xFE});
+                zip.closeEntry();
+            }
+        }
+    }
+
     /**
      * 扫描resources路径下的文件
      * 运行时resources下的文件未打包进target?????
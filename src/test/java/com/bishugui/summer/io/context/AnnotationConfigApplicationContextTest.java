@@ -1,25 +1,101 @@
 package com.bishugui.summer.io.context;
 
+import com.bishugui.summer.aop.AroundProxyBeanPostProcessor;
+import com.bishugui.summer.aop.ProxyFactory;
 import com.bishugui.summer.context.AnnotationConfigApplicationContext;
 import com.bishugui.summer.context.BeanDefinition;
+import com.bishugui.summer.context.RefreshScope;
+import com.bishugui.summer.context.RequestScope;
+import com.bishugui.summer.exception.BeanCreationException;
+import com.bishugui.summer.exception.BeanDefinitionException;
+import com.bishugui.summer.exception.NoSuchBeanDefinitionException;
+import com.bishugui.summer.exception.NoUniqueBeanDefinitionException;
+import com.bishugui.summer.exception.UnsatisfiedDependencyException;
 import com.bishugui.summer.io.PropertyResolver;
+import com.bishugui.summer.io.scanAop.AdvisedCycleA;
+import com.bishugui.summer.io.scanAop.AdvisedCycleB;
+import com.bishugui.summer.io.scanAop.AopApplication;
+import com.bishugui.summer.io.scanAop.ArgsConstructorService;
+import com.bishugui.summer.io.scanAop.CountingInterceptor;
+import com.bishugui.summer.io.scanAop.DisposableService;
+import com.bishugui.summer.io.scanAop.Greeting;
+import com.bishugui.summer.io.scanAop.GreetingService;
+import com.bishugui.summer.io.scanAop.RefreshDisposableService;
+import com.bishugui.summer.io.scanAop.UpperCaseInterceptor;
+import com.bishugui.summer.io.scanDuplicate.DuplicateApplication;
+import com.bishugui.summer.io.scanDuplicate.DuplicateBeanA;
+import com.bishugui.summer.io.scanDuplicate.DuplicateBeanB;
 import com.bishugui.summer.io.scanBeanDefinition.ScanBeanDefinitionApplication;
 import com.bishugui.summer.io.scanBeanDefinition.annotation.CustomAnnotationBean;
+import com.bishugui.summer.io.scanBeanDefinition.depends.DependedLazyBean;
+import com.bishugui.summer.io.scanBeanDefinition.depends.DependsOnBean;
 import com.bishugui.summer.io.scanBeanDefinition.destroy.AnnotationDestroyBean;
 import com.bishugui.summer.io.scanBeanDefinition.imported.LocalDateConfiguration;
 import com.bishugui.summer.io.scanBeanDefinition.imported.ZonedDateConfiguration;
+import com.bishugui.summer.io.scanBeanDefinition.inject.CycleConstructorBean;
+import com.bishugui.summer.io.scanBeanDefinition.inject.CycleFieldBean;
+import com.bishugui.summer.io.scanBeanDefinition.inject.CycleSetterBean;
+import com.bishugui.summer.io.scanBeanDefinition.inject.FieldInjectBean;
+import com.bishugui.summer.io.scanBeanDefinition.inject.InjectBean;
+import com.bishugui.summer.io.scanBeanDefinition.inject.PrivateConstructorBean;
+import com.bishugui.summer.io.scanBeanDefinition.lazy.LazyBean;
+import com.bishugui.summer.io.scanBeanDefinition.lifecycle.LifecycleRecorder;
+import com.bishugui.summer.io.scanBeanDefinition.lazy.ProviderBean;
 import com.bishugui.summer.io.scanBeanDefinition.nested.OuterBean;
+import com.bishugui.summer.io.scanBeanDefinition.primary.DogBean;
 import com.bishugui.summer.io.scanBeanDefinition.primary.PersonBean;
 import com.bishugui.summer.io.scanBeanDefinition.primary.StudentBean;
 import com.bishugui.summer.io.scanBeanDefinition.primary.TeacherBean;
+import com.bishugui.summer.io.scanBeanDefinition.properties.DataSourceHolderBean;
+import com.bishugui.summer.io.scanBeanDefinition.properties.DataSourcePoolProperties;
+import com.bishugui.summer.io.scanBeanDefinition.properties.DataSourceProperties;
+import com.bishugui.summer.io.scanBeanDefinition.refresh.RefreshBean;
+import com.bishugui.summer.io.scanBeanDefinition.refresh.RefreshFieldBean;
+import com.bishugui.summer.io.scanBeanDefinition.scope.PrototypeBean;
+import com.bishugui.summer.io.scanBeanDefinition.scope.PrototypeHolderBean;
+import com.bishugui.summer.io.scanBeanDefinition.scope.RequestBean;
+import com.bishugui.summer.io.scanBeanDefinition.scope.ThreadBean;
 import com.bishugui.summer.io.scanBeanDefinition.sub1.Sub1;
 import com.bishugui.summer.io.scanBeanDefinition.sub1.sub2.Sub2;
+import com.bishugui.summer.io.scanCycle.CycleApplication;
+import com.bishugui.summer.io.scanProcessor.FactoryProcessedBean;
+import com.bishugui.summer.io.scanProcessor.PlainBean;
+import com.bishugui.summer.io.scanProcessor.ProcessorApplication;
+import com.bishugui.summer.io.scanProcessor.TracedBean;
+import com.bishugui.summer.io.scanProcessor.TracingBeanPostProcessor;
+import com.bishugui.summer.io.scanIndex.IndexApplication;
+import com.bishugui.summer.io.scanIndex.plain.PlainRootBean;
+import com.bishugui.summer.io.scanParallel.BarrierBean;
+import com.bishugui.summer.io.scanParallel.LazyBarrierBeanA;
+import com.bishugui.summer.io.scanParallel.LazyBarrierBeanB;
+import com.bishugui.summer.io.scanParallel.LazyBarrierBeanC;
+import com.bishugui.summer.io.scanParallel.LazyBarrierBeanD;
+import com.bishugui.summer.io.scanParallel.ParallelApplication;
+import com.bishugui.summer.io.scanParallel.SharedLazyBean;
 import com.bishugui.summer.utils.YamlUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.chrono.ChronoZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.tools.ToolProvider;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -80,11 +156,669 @@ public class AnnotationConfigApplicationContextTest {
 
     }
 
+    /**
+     * 测试 类型索引查找(父类、接口)
+     */
+    @Test
+    public void testFindBeanDefinitionByType(){
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,getPropertyResolver(),true);
+
+        // 通过接口查找
+        BeanDefinition zonedDef = context.findBeanDefinition(ChronoZonedDateTime.class);
+        assertNotNull(zonedDef);
+        assertSame(zonedDef, context.findBeanDefinition("startZoneLocalDate"));
+        // 缓存的结果
+        assertSame(zonedDef, context.findBeanDefinition(ChronoZonedDateTime.class));
+
+        // 多个实现且无@Primary
+        assertEquals(3, context.findBeanDefinitionList(Temporal.class).size());
+        assertThrows(NoUniqueBeanDefinitionException.class, () -> context.findBeanDefinition(Temporal.class));
+
+        // 所有Bean都可以赋值给Object
+        assertTrue(context.findBeanDefinitionList(Object.class).contains(zonedDef));
+        assertTrue(context.findBeanDefinitionList(Runnable.class).isEmpty());
+        assertNull(context.findBeanDefinition(Runnable.class));
+    }
+
+    /**
+     * 测试 并行扫描创建BeanDefinition，结果与串行扫描一致
+     */
+    @Test
+    public void testParallelScan(){
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,getPropertyResolver(),true);
+
+        Properties properties = new Properties();
+        properties.putAll(YamlUtils.loadYamlAsPlainMap("application.yaml"));
+        properties.setProperty(AnnotationConfigApplicationContext.PARALLEL_SCAN_PROPERTY, "true");
+        properties.setProperty(AnnotationConfigApplicationContext.PARALLEL_SCAN_THREADS_PROPERTY, "4");
+        AnnotationConfigApplicationContext parallelContext = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,new PropertyResolver(properties),true);
+
+        List<String> names = context.findBeanDefinitionList(Object.class).stream().map(BeanDefinition::getName).toList();
+        List<String> parallelNames = parallelContext.findBeanDefinitionList(Object.class).stream().map(BeanDefinition::getName).toList();
+        assertEquals(names, parallelNames);
+        assertNotNull(parallelContext.findBeanDefinition(CustomAnnotationBean.class));
+        assertSame(parallelContext.findBeanDefinition(TeacherBean.class), parallelContext.findBeanDefinition(PersonBean.class));
+
+        // beanName重复时并行扫描按Class名字顺序合并，每次报告相同的错误
+        BeanDefinitionException duplicate = assertThrows(BeanDefinitionException.class,
+                () -> new AnnotationConfigApplicationContext(DuplicateApplication.class, new PropertyResolver(properties), true));
+        assertEquals("beanName重复; Duplicate bean name: duplicateBean (" + DuplicateBeanA.class.getName() + ", " + DuplicateBeanB.class.getName() + ")",
+                duplicate.getMessage());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(duplicate.getMessage(), assertThrows(BeanDefinitionException.class,
+                    () -> new AnnotationConfigApplicationContext(DuplicateApplication.class, new PropertyResolver(properties), true)).getMessage());
+        }
+        assertThrows(BeanDefinitionException.class, () -> new AnnotationConfigApplicationContext(DuplicateApplication.class, getPropertyResolver(), true));
+    }
+
+    /**
+     * 测试 使用编译期组件索引创建BeanDefinition：
+     * indexedRoot带有ComponentIndexProcessor对IndexedBean、IndexedConfiguration生成的索引(test resources中的scanIndex/META-INF/summer.components)，
+     * plainRoot没有索引，两者都包含scanIndex包
+     */
+    @Test
+    public void testComponentIndex(@TempDir Path indexedRoot, @TempDir Path plainRoot) throws IOException {
+        copyPackageClasses(IndexApplication.class, indexedRoot);
+        Files.createDirectories(indexedRoot.resolve("META-INF"));
+        try (var index = getClass().getClassLoader().getResourceAsStream("scanIndex/META-INF/summer.components")) {
+            Files.copy(index, indexedRoot.resolve("META-INF/summer.components"));
+        }
+        copyPackageClasses(PlainRootBean.class, plainRoot);
+        PropertyResolver propertyResolver = getPropertyResolver();
+        Properties properties = new Properties();
+        properties.putAll(YamlUtils.loadYamlAsPlainMap("application.yaml"));
+        properties.setProperty(AnnotationConfigApplicationContext.COMPONENT_INDEX_PROPERTY, "false");
+        PropertyResolver noIndexPropertyResolver = new PropertyResolver(properties);
+
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{indexedRoot.toUri().toURL(), plainRoot.toUri().toURL()}, frameworkClassLoader())) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(IndexApplication.class, propertyResolver, true);
+
+            BeanDefinition indexedDef = context.findBeanDefinition("indexedBean");
+            assertNotNull(indexedDef);
+            // 索引中的类与读取索引使用同一个ClassLoader
+            assertSame(classLoader, indexedDef.getBeanClass().getClassLoader());
+            assertSame(classLoader, context.findBeanDefinition("indexedConfiguration").getBeanClass().getClassLoader());
+            assertArrayEquals(new Class<?>[]{String.class}, indexedDef.getConstructor().getParameterTypes());
+            assertEquals("init", indexedDef.getInitMethod().getName());
+            assertNotNull(context.findBeanDefinition("indexedConfiguration"));
+
+            BeanDefinition dateDef = context.findBeanDefinition("indexedDate");
+            assertEquals(LocalDate.class, dateDef.getBeanClass());
+            assertEquals("date", dateDef.getFactoryMethod().getName());
+            assertEquals("toString", dateDef.getInitMethodName());
+            assertTrue(dateDef.isPrimary());
+
+            // 有索引的类路径根不再扫描，索引中没有的类不会被找到
+            assertNull(context.findBeanDefinition("notIndexedBean"));
+            // 没有索引的类路径根照常扫描
+            assertNotNull(context.findBeanDefinition("plainRootBean"));
+
+            // 关闭索引后扫描所有类路径根
+            AnnotationConfigApplicationContext scanContext = new AnnotationConfigApplicationContext(IndexApplication.class, noIndexPropertyResolver, true);
+            assertNotNull(scanContext.findBeanDefinition("notIndexedBean"));
+            assertNotNull(scanContext.findBeanDefinition("plainRootBean"));
+            assertEquals(indexedDef.getConstructor(), scanContext.findBeanDefinition("indexedBean").getConstructor());
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    /**
+     * 测试 组件索引中的@Configuration与扫描时一样必须是singleton：
+     * 类编译到只有索引的类路径根中，只能通过索引创建BeanDefinition
+     */
+    @Test
+    public void testComponentIndexConfigurationScope(@TempDir Path indexedRoot) throws Exception {
+        Path source = Files.createDirectories(indexedRoot.resolve("src/indexed"));
+        Files.writeString(source.resolve("PrototypeApplication.java"),
+                "package indexed; @com.bishugui.summer.annotation.ComponentScan public class PrototypeApplication {}");
+        Files.writeString(source.resolve("PrototypeConfiguration.java"),
+                "package indexed; @com.bishugui.summer.annotation.Configuration @com.bishugui.summer.annotation.Scope(\"prototype\") public class PrototypeConfiguration {}");
+        Path classes = Files.createDirectories(indexedRoot.resolve("classes"));
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", classes.toString(),
+                "-classpath", System.getProperty("java.class.path"),
+                source.resolve("PrototypeApplication.java").toString(), source.resolve("PrototypeConfiguration.java").toString()));
+        Files.createDirectories(classes.resolve("META-INF"));
+        Files.writeString(classes.resolve("META-INF/summer.components"), "C\tindexed.PrototypeConfiguration\tprototypeConfiguration\t2147483647\tfalse\t\t\t\n");
+
+        PropertyResolver propertyResolver = getPropertyResolver();
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, frameworkClassLoader())) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            Class<?> application = classLoader.loadClass("indexed.PrototypeApplication");
+            BeanDefinitionException e = assertThrows(BeanDefinitionException.class,
+                    () -> new AnnotationConfigApplicationContext(application, propertyResolver, true));
+            assertTrue(e.getMessage().contains("must be singleton"));
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    /**
+     * 只能加载框架自身的类(注解等)的ClassLoader，测试包中的类与资源只来自子ClassLoader的类路径根
+     */
+    private static ClassLoader frameworkClassLoader() {
+        ClassLoader applicationClassLoader = AnnotationConfigApplicationContext.class.getClassLoader();
+        return new ClassLoader(ClassLoader.getPlatformClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                if (name.startsWith("com.bishugui.summer.") && !name.startsWith("com.bishugui.summer.io.")) {
+                    return applicationClassLoader.loadClass(name);
+                }
+                throw new ClassNotFoundException(name);
+            }
+        };
+    }
+
+    /**
+     * 把Class所在包(不含子包)中编译好的class文件复制到新的类路径根
+     */
+    private static void copyPackageClasses(Class<?> clazz, Path root) throws IOException {
+        Path source;
+        try {
+            source = Path.of(clazz.getResource(clazz.getSimpleName() + ".class").toURI()).getParent();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+        Path target = Files.createDirectories(root.resolve(clazz.getPackageName().replace('.', '/')));
+        try (var files = Files.list(source)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".class")).toList()) {
+                Files.copy(file, target.resolve(file.getFileName().toString()));
+            }
+        }
+    }
+
+    /**
+     * 测试 扫描结果缓存：第一次启动写入缓存，类路径未变化时直接使用缓存，缓存损坏时重新扫描
+     */
+    @Test
+    public void testScanCache(@TempDir Path dir) throws IOException {
+        Path cacheFile = dir.resolve("scan.cache");
+        Properties properties = new Properties();
+        properties.putAll(YamlUtils.loadYamlAsPlainMap("application.yaml"));
+        properties.setProperty(AnnotationConfigApplicationContext.SCAN_CACHE_PROPERTY, cacheFile.toString());
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,getPropertyResolver(),true);
+        List<String> names = context.findBeanDefinitionList(Object.class).stream().map(BeanDefinition::getName).toList();
+
+        AnnotationConfigApplicationContext storeContext = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,new PropertyResolver(properties),true);
+        assertEquals(names, storeContext.findBeanDefinitionList(Object.class).stream().map(BeanDefinition::getName).toList());
+        assertTrue(Files.size(cacheFile) > 0);
+
+        // 缓存有效时不会重新写入
+        FileTime lastModified = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(cacheFile, lastModified);
+        AnnotationConfigApplicationContext cachedContext = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,new PropertyResolver(properties));
+        assertEquals(lastModified, Files.getLastModifiedTime(cacheFile));
+        assertEquals(names, cachedContext.findBeanDefinitionList(Object.class).stream().map(BeanDefinition::getName).toList());
+        BeanDefinition dateDef = cachedContext.findBeanDefinition("startLocalDate");
+        assertEquals(storeContext.findBeanDefinition("startLocalDate").getFactoryMethod(), dateDef.getFactoryMethod());
+        assertEquals(storeContext.findBeanDefinition(AnnotationDestroyBean.class).getDestroyMethod(), cachedContext.findBeanDefinition(AnnotationDestroyBean.class).getDestroyMethod());
+        assertNotNull(cachedContext.getBean(InjectBean.class));
+
+        // 缓存损坏时重新扫描并覆盖
+        Files.write(cacheFile, new byte[]{1, 2, 3});
+        AnnotationConfigApplicationContext rescanContext = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,new PropertyResolver(properties),true);
+        assertEquals(names, rescanContext.findBeanDefinitionList(Object.class).stream().map(BeanDefinition::getName).toList());
+        assertTrue(Files.size(cacheFile) > 3);
+
+        // 指纹一致但元数据已过期(如扫描的包之外的目录中的类发生变化)时删除缓存并重新扫描
+        byte[] cached = Files.readAllBytes(cacheFile);
+        byte[] destroy = {0, 0, 0, 7, 'd', 'e', 's', 't', 'r', 'o', 'y'};
+        for (int i = 0; i + destroy.length <= cached.length; i++) {
+            if (Arrays.equals(cached, i, i + destroy.length, destroy, 0, destroy.length)) {
+                cached[i + destroy.length - 1] = 'Y';
+            }
+        }
+        assertFalse(Arrays.equals(Files.readAllBytes(cacheFile), cached));
+        Files.write(cacheFile, cached);
+        AnnotationConfigApplicationContext staleContext = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,new PropertyResolver(properties),true);
+        assertEquals(names, staleContext.findBeanDefinitionList(Object.class).stream().map(BeanDefinition::getName).toList());
+        assertEquals("destroy", staleContext.findBeanDefinition(AnnotationDestroyBean.class).getDestroyMethod().getName());
+        assertFalse(Arrays.equals(cached, Files.readAllBytes(cacheFile)));
+        AnnotationConfigApplicationContext refreshedContext = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,new PropertyResolver(properties),true);
+        assertEquals(names, refreshedContext.findBeanDefinitionList(Object.class).stream().map(BeanDefinition::getName).toList());
+    }
+
     /**
      * 测试创建Bean实例
      */
     @Test
     public void testCreateBeanInstance(){
         AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,getPropertyResolver());
+
+        // @Bean工厂方法创建
+        assertEquals("Husky", context.getBean("husky", DogBean.class).type);
+        assertEquals("Husky", context.getBean(DogBean.class).type);
+
+        // 构造方法注入@Value、@Autowired
+        InjectBean injectBean = context.getBean(InjectBean.class);
+        assertEquals("Summer Framework", injectBean.title);
+        assertEquals(12345, injectBean.intData);
+        assertSame(context.getBean("husky"), injectBean.dog);
+        assertSame(context.getBean("teddy"), injectBean.teddy);
+        assertNull(injectBean.optional);
+
+        // private构造方法
+        assertSame(injectBean, context.getBean(PrivateConstructorBean.class).injectBean);
+
+        // 参数解析计划已缓存
+        BeanDefinition injectDef = context.findBeanDefinition(InjectBean.class);
+        assertEquals(5, injectDef.getParameters().length);
+        assertEquals("${app.title}", injectDef.getParameters()[0].valueExpression());
+        assertEquals("teddy", injectDef.getParameters()[3].autowiredName());
+        assertFalse(injectDef.getParameters()[4].required());
+    }
+
+    /**
+     * 测试字段/setter注入，包括父类的注入点与字段打破的循环依赖
+     */
+    @Test
+    public void testFieldInjection() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,getPropertyResolver());
+
+        FieldInjectBean bean = context.getBean(FieldInjectBean.class);
+        assertEquals(12345, bean.getIntData());
+        assertEquals("Summer Framework", bean.getTitle());
+        assertNull(bean.getOptional());
+        assertSame(context.getBean(TeacherBean.class), bean.getPersons().getObject());
+        // 父类的字段与setter
+        assertEquals("1.0.0", bean.getVersion());
+        assertSame(context.getBean("husky"), bean.getDog());
+        assertSame(context.getBean("teddy"), bean.getTeddy());
+
+        // 注入点只解析一次，父类的注入点在前
+        BeanDefinition def = context.findBeanDefinition(FieldInjectBean.class);
+        assertEquals(List.of("dog", "version", "setTeddy", "intData", "optional", "persons", "setTitle"),
+                Arrays.stream(def.getInjectionPoints()).map(point -> point.member().getName()).toList());
+
+        // 构造方法与字段组成的循环依赖
+        CycleConstructorBean constructorBean = context.getBean(CycleConstructorBean.class);
+        assertSame(context.getBean(CycleFieldBean.class), constructorBean.fieldBean);
+        assertSame(constructorBean, constructorBean.fieldBean.getConstructorBean());
+        // setter注入自身的早期引用
+        CycleSetterBean setterBean = context.getBean(CycleSetterBean.class);
+        assertSame(setterBean, setterBean.getSelf());
+    }
+
+    /**
+     * 测试构造方法组成的循环依赖：启动时立即报错，并给出完整的依赖路径
+     */
+    @Test
+    public void testConstructorCycle() {
+        UnsatisfiedDependencyException e = assertThrows(UnsatisfiedDependencyException.class,
+                () -> new AnnotationConfigApplicationContext(CycleApplication.class, getPropertyResolver()));
+        assertTrue(e.getMessage().endsWith("constructorCycleA -> constructorCycleB -> constructorCycleC -> constructorCycleA"), e.getMessage());
+
+        Properties properties = new Properties();
+        properties.putAll(YamlUtils.loadYamlAsPlainMap("application.yaml"));
+        properties.setProperty(AnnotationConfigApplicationContext.LAZY_INIT_PROPERTY, "true");
+        AnnotationConfigApplicationContext lazyContext = new AnnotationConfigApplicationContext(CycleApplication.class, new PropertyResolver(properties));
+        e = assertThrows(UnsatisfiedDependencyException.class, () -> lazyContext.getBean("constructorCycleB"));
+        assertTrue(e.getMessage().endsWith("constructorCycleB -> constructorCycleC -> constructorCycleA -> constructorCycleB"), e.getMessage());
+        // 失败后没有留下未完成的实例
+        assertNull(lazyContext.findBeanDefinition("constructorCycleA").getInstance());
+
+        // prototype之间的循环依赖每次获取都报错，失败的创建不会跳过循环依赖检测
+        for (int i = 0; i < 2; i++) {
+            e = assertThrows(UnsatisfiedDependencyException.class, () -> lazyContext.getBean("prototypeCycleA"));
+            assertTrue(e.getMessage().endsWith("prototypeCycleA -> prototypeCycleB -> prototypeCycleA"), e.getMessage());
+        }
+    }
+
+    /**
+     * 测试init/destroy方法：注入后调用init方法，关闭时按依赖的逆序并行调用destroy方法
+     */
+    @Test
+    public void testLifecycle() {
+        for (String parallel : List.of("false", "true")) {
+            Properties properties = new Properties();
+            properties.putAll(YamlUtils.loadYamlAsPlainMap("application.yaml"));
+            properties.setProperty(AnnotationConfigApplicationContext.PARALLEL_INIT_PROPERTY, parallel);
+            properties.setProperty(AnnotationConfigApplicationContext.SHUTDOWN_TIMEOUT_PROPERTY, "PT10S");
+            AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class, new PropertyResolver(properties));
+            List<String> events = context.getBean(LifecycleRecorder.class).events;
+            // 依赖的Bean先初始化
+            assertTrue(events.containsAll(List.of("pool.init", "client.init", "resource.init")), events.toString());
+            assertTrue(events.indexOf("pool.init") < events.indexOf("client.init"), events.toString());
+
+            try (context) {
+                assertTrue(events.stream().noneMatch(event -> event.contains("destroy")));
+            }
+            // 互不依赖的Bean并行销毁，依赖方先销毁
+            assertTrue(events.containsAll(List.of("client.destroy", "resource.destroy", "pool.destroy")), events.toString());
+            assertTrue(events.indexOf("client.destroy") < events.indexOf("pool.destroy"), events.toString());
+
+            // 重复关闭无效，关闭后不再创建Bean
+            context.close();
+            assertEquals(1L, events.stream().filter("pool.destroy"::equals).count());
+            assertThrows(BeanCreationException.class, () -> context.getBean(LazyBean.class));
+        }
+    }
+
+    /**
+     * 测试BeanPostProcessor与BeanFactoryPostProcessor
+     */
+    @Test
+    public void testPostProcessors() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ProcessorApplication.class, getPropertyResolver());
+
+        // 注入之后、init方法前后调用，处理器自身已完成注入
+        TracedBean tracedBean = context.getBean(TracedBean.class);
+        assertEquals(List.of("before:Summer Framework", "init", "after:tracedBean"), tracedBean.events);
+
+        // 适用的处理器只过滤一次，没有适用处理器的Bean为空数组
+        BeanDefinition tracedDef = context.findBeanDefinition(TracedBean.class);
+        assertArrayEquals(new Object[]{context.getBean(TracingBeanPostProcessor.class)}, tracedDef.getPostProcessors());
+        context.getBean(PlainBean.class);
+        assertEquals(0, context.findBeanDefinition(PlainBean.class).getPostProcessors().length);
+
+        // BeanFactoryPostProcessor在Bean创建前修改了作用域
+        assertNotSame(context.getBean(FactoryProcessedBean.class), context.getBean(FactoryProcessedBean.class));
+    }
+
+    /**
+     * 测试@Around代理：被拦截的方法经过拦截器链，其他方法直接调用原Bean
+     */
+    @Test
+    public void testAroundProxy() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AopApplication.class, getPropertyResolver());
+        CountingInterceptor counter = context.getBean(CountingInterceptor.class);
+
+        // 子类代理，原Bean已完成注入
+        GreetingService service = context.getBean(GreetingService.class);
+        assertTrue(ProxyFactory.isProxyClass(service.getClass()));
+        assertSame(service, context.getBean(GreetingService.class));
+        assertEquals("HELLO SUMMER", service.greet("summer"));
+        assertEquals(5L, service.add(2, 3L));
+        assertEquals("hi summer", GreetingService.callPackageGreet(service, "summer"));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.fail("boom"));
+        assertEquals("boom", e.getMessage());
+        assertEquals(List.of("greet", "add", "packageGreet", "fail"), counter.invokedMethods);
+
+        // 没有@Around的方法不经过拦截器
+        assertEquals("Summer Framework", service.title());
+        assertEquals(4, counter.invokedMethods.size());
+
+        // final类按接口代理
+        Greeting greeting = context.getBean("finalGreeting", Greeting.class);
+        assertTrue(ProxyFactory.isProxyClass(greeting.getClass()));
+        assertEquals("WELCOME SUMMER", greeting.greet("summer"));
+        assertEquals("final", greeting.name());
+
+        // 没有无参构造方法的类(构造方法注入)按接口代理
+        Greeting injected = context.getBean("injectedGreeting", Greeting.class);
+        assertTrue(ProxyFactory.isProxyClass(injected.getClass()));
+        assertEquals(Object.class, injected.getClass().getSuperclass());
+        assertEquals("HELLO SUMMER FROM SUMMER FRAMEWORK", injected.greet("summer"));
+        assertEquals("injected", injected.name());
+
+        // 循环依赖中提前暴露的引用就是最终发布的代理，代理只创建一次
+        AdvisedCycleA cycleA = context.getBean(AdvisedCycleA.class);
+        AdvisedCycleB cycleB = context.getBean(AdvisedCycleB.class);
+        assertTrue(ProxyFactory.isProxyClass(cycleB.getClass()));
+        assertSame(cycleB, cycleA.cycleB);
+        assertSame(cycleA, cycleB.getCycleA());
+        assertEquals("getCycleA", counter.invokedMethods.get(counter.invokedMethods.size() - 1));
+
+        // private的@PreDestroy在原Bean上调用，而不是代理上
+        DisposableService disposable = context.getBean(DisposableService.class);
+        RefreshDisposableService refreshDisposable = context.getBean(RefreshDisposableService.class);
+        assertTrue(ProxyFactory.isProxyClass(disposable.getClass()));
+        assertTrue(ProxyFactory.isProxyClass(refreshDisposable.getClass()));
+        assertEquals("pong", disposable.ping());
+        assertSame(ProxyFactory.getTarget(disposable), context.findBeanDefinition(DisposableService.class).getTargetInstance());
+        context.close();
+        assertTrue(((DisposableService) ProxyFactory.getTarget(disposable)).destroyed);
+        assertFalse(disposable.destroyed);
+        assertTrue(((RefreshDisposableService) ProxyFactory.getTarget(refreshDisposable)).destroyed);
+        assertFalse(refreshDisposable.destroyed);
+
+        // 没有@Around的类只检查注解即被排除，不生成代理类
+        assertFalse(ProxyFactory.hasAround(UpperCaseInterceptor.class));
+        assertNull(ProxyFactory.getProxyClass(UpperCaseInterceptor.class));
+        assertTrue(ProxyFactory.hasAround(GreetingService.class));
+        assertFalse(new AroundProxyBeanPostProcessor(context).supports(UpperCaseInterceptor.class));
+
+        // 没有无参构造方法又没有实现接口的类不能被代理
+        assertThrows(BeanCreationException.class, () -> ProxyFactory.getProxyClass(ArgsConstructorService.class));
+    }
+
+    /**
+     * 测试refresh作用域：属性变化后移除并销毁旧实例，下次获取时按新属性重新创建，关闭容器时销毁
+     */
+    @Test
+    public void testRefreshScope() {
+        PropertyResolver propertyResolver = getPropertyResolver();
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class, propertyResolver);
+
+        RefreshBean refreshBean = context.getBean(RefreshBean.class);
+        assertEquals("Summer Framework", refreshBean.title);
+        assertSame(refreshBean, context.getBean(RefreshBean.class));
+        RefreshFieldBean refreshFieldBean = context.getBean(RefreshFieldBean.class);
+        assertEquals("1.0.0", refreshFieldBean.getVersion());
+
+        // 无关属性变化，Bean不刷新
+        propertyResolver.setProperty("app.version", "2.0.0");
+        assertSame(refreshBean, context.getBean(RefreshBean.class));
+
+        // 字段@Value引用的属性变化，Bean重新创建
+        assertNotSame(refreshFieldBean, context.getBean(RefreshFieldBean.class));
+        assertEquals("2.0.0", context.getBean(RefreshFieldBean.class).getVersion());
+
+        // @Value引用的属性变化，Bean重新创建
+        propertyResolver.setProperty("app.title", "Summer Framework 2");
+        assertTrue(refreshBean.destroyed);
+        RefreshBean refreshed = context.getBean(RefreshBean.class);
+        assertNotSame(refreshBean, refreshed);
+        assertEquals("Summer Framework 2", refreshed.title);
+        assertSame(refreshed, context.getBean(RefreshBean.class));
+
+        // 并发创建时落选的实例被销毁
+        RefreshScope refreshScope = new RefreshScope((name, bean) -> ((RefreshBean) bean).destroyed = true);
+        RefreshBean loser = new RefreshBean("loser");
+        RefreshBean winner = new RefreshBean("winner");
+        assertSame(winner, refreshScope.get("refreshBean", () -> {
+            refreshScope.get("refreshBean", () -> winner);
+            return loser;
+        }));
+        assertTrue(loser.destroyed);
+        assertFalse(winner.destroyed);
+
+        // 关闭容器时销毁仍存活的实例
+        context.close();
+        assertTrue(refreshed.destroyed);
+    }
+
+    @Test
+    public void testConfigurationProperties() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class, getPropertyResolver());
+
+        DataSourceProperties properties = context.getBean(DataSourceProperties.class);
+        assertEquals("jdbc:hsqldb:file:testdb.tmp", properties.url());
+        assertEquals("sa", properties.username());
+        assertEquals("", properties.password());
+        assertFalse(properties.autoCommit());
+        assertEquals(0, properties.maxPoolSize());
+        assertSame(properties, context.getBean(DataSourceHolderBean.class).properties);
+
+        // 前缀不作为Bean名称，相同前缀的类不冲突
+        assertEquals("dataSourceProperties", context.findBeanDefinition(DataSourceProperties.class).getName());
+        assertNull(context.findBeanDefinition("summer.datasource"));
+        DataSourcePoolProperties poolProperties = context.getBean("dataSourcePoolProperties", DataSourcePoolProperties.class);
+        assertEquals("jdbc:hsqldb:file:testdb.tmp", poolProperties.url());
+    }
+
+    @Test
+    public void testScope() throws InterruptedException {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,getPropertyResolver());
+
+        // prototype每次获取都是新实例，依赖的singleton是同一个
+        PrototypeBean prototypeBean = context.getBean(PrototypeBean.class);
+        assertNotSame(prototypeBean, context.getBean(PrototypeBean.class));
+        assertSame(context.getBean("husky"), prototypeBean.dog);
+        assertNotSame(prototypeBean, context.getBean(PrototypeHolderBean.class).prototypeBean);
+        assertTrue(context.findBeanDefinition(PrototypeBean.class).isPrototype());
+        assertNull(context.findBeanDefinition(PrototypeBean.class).getInstance());
+
+        // thread作用域同一线程内是同一实例
+        ThreadBean threadBean = context.getBean(ThreadBean.class);
+        assertSame(threadBean, context.getBean(ThreadBean.class));
+        AtomicReference<ThreadBean> otherThreadBean = new AtomicReference<>();
+        Thread thread = new Thread(() -> otherThreadBean.set(context.getBean(ThreadBean.class)));
+        thread.start();
+        thread.join();
+        assertNotNull(otherThreadBean.get());
+        assertNotSame(threadBean, otherThreadBean.get());
+
+        // request作用域必须在请求内获取
+        assertThrows(IllegalStateException.class, () -> context.getBean(RequestBean.class));
+        RequestBean requestBean;
+        try (var request = RequestScope.begin()) {
+            requestBean = context.getBean(RequestBean.class);
+            assertSame(requestBean, context.getBean(RequestBean.class));
+        }
+        try (var request = RequestScope.begin()) {
+            assertNotSame(requestBean, context.getBean(RequestBean.class));
+        }
+    }
+
+    /**
+     * 测试@Lazy、全局延迟初始化与ObjectProvider
+     */
+    @Test
+    public void testLazyInit(){
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,getPropertyResolver());
+
+        // @Lazy的Bean在第一次获取时创建
+        BeanDefinition lazyDef = context.findBeanDefinition(LazyBean.class);
+        assertTrue(lazyDef.isLazy());
+        assertNull(lazyDef.getInstance());
+        ProviderBean providerBean = context.getBean(ProviderBean.class);
+        assertNull(lazyDef.getInstance());
+        LazyBean lazyBean = providerBean.lazyBeanProvider.getObject();
+        assertSame(lazyBean, lazyDef.getInstance());
+        assertSame(lazyBean, context.getBean(LazyBean.class));
+
+        // ObjectProvider依赖的Bean不存在
+        assertNull(providerBean.missingProvider.getIfAvailable());
+        assertThrows(NoSuchBeanDefinitionException.class, providerBean.missingProvider::getObject);
+
+        // 全局延迟初始化
+        Properties properties = new Properties();
+        properties.putAll(YamlUtils.loadYamlAsPlainMap("application.yaml"));
+        properties.setProperty(AnnotationConfigApplicationContext.LAZY_INIT_PROPERTY, "true");
+        AnnotationConfigApplicationContext lazyContext = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,new PropertyResolver(properties));
+        assertTrue(lazyContext.findBeanDefinitionList(Object.class).stream().allMatch(def -> def.getInstance() == null));
+        InjectBean injectBean = lazyContext.getBean(InjectBean.class);
+        assertSame(injectBean.dog, lazyContext.findBeanDefinition("husky").getInstance());
+        assertNotNull(lazyContext.findBeanDefinition("primaryConfiguration").getInstance());
+        assertNull(lazyContext.findBeanDefinition(Sub1.class).getInstance());
+    }
+
+    /**
+     * 测试@DependsOn与按依赖图并行创建Bean
+     */
+    @Test
+    public void testParallelInit(){
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,getPropertyResolver());
+        // @DependsOn依赖的@Lazy Bean被提前创建
+        assertNotNull(context.findBeanDefinition(DependsOnBean.class).getInstance());
+        assertNotNull(context.findBeanDefinition(DependedLazyBean.class).getInstance());
+
+        Properties properties = new Properties();
+        properties.putAll(YamlUtils.loadYamlAsPlainMap("application.yaml"));
+        properties.setProperty(AnnotationConfigApplicationContext.PARALLEL_INIT_PROPERTY, "true");
+        AnnotationConfigApplicationContext parallelContext = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,new PropertyResolver(properties));
+
+        // 与串行创建的结果一致
+        List<String> names = context.findBeanDefinitionList(Object.class).stream()
+                .filter(def -> def.getInstance() != null).map(BeanDefinition::getName).toList();
+        List<String> parallelNames = parallelContext.findBeanDefinitionList(Object.class).stream()
+                .filter(def -> def.getInstance() != null).map(BeanDefinition::getName).toList();
+        assertEquals(names, parallelNames);
+        InjectBean injectBean = parallelContext.getBean(InjectBean.class);
+        assertSame(parallelContext.getBean("husky"), injectBean.dog);
+        assertSame(parallelContext.getBean("teddy"), injectBean.teddy);
+        assertSame(injectBean, parallelContext.getBean(PrivateConstructorBean.class).injectBean);
+        assertNotNull(parallelContext.findBeanDefinition(DependedLazyBean.class).getInstance());
+    }
+
+    /**
+     * 测试多线程同时获取延迟初始化的Bean：每个singleton只创建一次，所有线程获取到同一个实例
+     */
+    @Test
+    public void testConcurrentGetBean() throws Exception {
+        Properties properties = new Properties();
+        properties.putAll(YamlUtils.loadYamlAsPlainMap("application.yaml"));
+        properties.setProperty(AnnotationConfigApplicationContext.LAZY_INIT_PROPERTY, "true");
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ScanBeanDefinitionApplication.class,new PropertyResolver(properties));
+                List<String> names = context.findBeanDefinitionList(Object.class).stream()
+                        .filter(BeanDefinition::isSingleton).map(BeanDefinition::getName).toList();
+                CyclicBarrier barrier = new CyclicBarrier(threads);
+                List<Future<Map<String, Object>>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    // 每个线程以不同的顺序获取所有singleton
+                    int offset = i;
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        Map<String, Object> instances = new HashMap<>();
+                        for (int j = 0; j < names.size(); j++) {
+                            String name = names.get((j + offset) % names.size());
+                            instances.put(name, context.getBean(name));
+                        }
+                        return instances;
+                    }));
+                }
+                for (Future<Map<String, Object>> future : futures) {
+                    Map<String, Object> instances = future.get(30, TimeUnit.SECONDS);
+                    for (String name : names) {
+                        assertSame(context.findBeanDefinition(name).getInstance(), instances.get(name));
+                    }
+                }
+                // 依赖注入的也是同一个实例
+                assertSame(context.getBean("husky"), context.getBean(InjectBean.class).dog);
+                // 其他线程获取到的都是注入完成的实例
+                for (Future<Map<String, Object>> future : futures) {
+                    Map<String, Object> instances = future.get();
+                    assertNotNull(((CycleFieldBean) instances.get("cycleFieldBean")).getConstructorBean());
+                    assertNotNull(((FieldInjectBean) instances.get("fieldInjectBean")).getDog());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 测试启动后多个线程同时获取互不依赖的@Lazy Bean：各自在自己的批次中并行创建(构造方法中互相等待)，共同的依赖只创建一次
+     */
+    @Test
+    public void testParallelLazyCreation() throws Exception {
+        List<Class<? extends BarrierBean>> types = List.of(LazyBarrierBeanA.class, LazyBarrierBeanB.class, LazyBarrierBeanC.class, LazyBarrierBeanD.class);
+        ExecutorService executor = Executors.newFixedThreadPool(types.size());
+        try {
+            for (int round = 0; round < 5; round++) {
+                AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ParallelApplication.class, getPropertyResolver());
+                ParallelApplication.barrier = new CyclicBarrier(types.size());
+                List<Future<BarrierBean>> futures = new ArrayList<>();
+                for (Class<? extends BarrierBean> type : types) {
+                    futures.add(executor.submit(() -> context.getBean(type)));
+                }
+                for (int i = 0; i < types.size(); i++) {
+                    BarrierBean bean = futures.get(i).get(30, TimeUnit.SECONDS);
+                    assertSame(context.getBean(types.get(i)), bean);
+                    assertSame(context.getBean(SharedLazyBean.class), bean.sharedLazyBean);
+                }
+                context.close();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
     }
 }
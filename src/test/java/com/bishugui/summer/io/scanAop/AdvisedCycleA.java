@@ -0,0 +1,16 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 与AdvisedCycleB字段循环依赖，先创建，注入的是B的代理
+ * @date 2024/01/03 15:30
+ */
+@Component
+public class AdvisedCycleA {
+
+    @Autowired
+    public AdvisedCycleB cycleB;
+}
@@ -0,0 +1,22 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Around;
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 类上标注@Around，所有方法被拦截，提前暴露的引用也是代理
+ * @date 2024/01/03 15:30
+ */
+@Component
+@Around("countingInterceptor")
+public class AdvisedCycleB {
+
+    @Autowired
+    AdvisedCycleA cycleA;
+
+    public AdvisedCycleA getCycleA() {
+        return this.cycleA;
+    }
+}
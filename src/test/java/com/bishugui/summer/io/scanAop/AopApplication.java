@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description 模拟主类，包下的Bean使用@Around拦截
+ * @date 2024/01/03 15:30
+ */
+@ComponentScan
+public class AopApplication {
+}
@@ -0,0 +1,24 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Bean;
+import com.bishugui.summer.annotation.Configuration;
+import com.bishugui.summer.annotation.Value;
+
+/**
+ * @author bi shugui
+ * @description 按接口声明final类及没有无参构造方法的类的Bean
+ * @date 2024/01/03 15:30
+ */
+@Configuration
+public class AopConfiguration {
+
+    @Bean
+    public Greeting finalGreeting() {
+        return new FinalGreeting();
+    }
+
+    @Bean
+    public Greeting injectedGreeting(@Value("${app.title}") String title) {
+        return new InjectedGreeting(title);
+    }
+}
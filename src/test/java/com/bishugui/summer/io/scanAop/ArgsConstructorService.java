@@ -0,0 +1,22 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Around;
+
+/**
+ * @author bi shugui
+ * @description 没有无参构造方法也没有实现接口，不能生成代理(不是Bean，只用于直接生成代理类)
+ * @date 2024/01/06 14:10
+ */
+public class ArgsConstructorService {
+
+    private final String prefix;
+
+    public ArgsConstructorService(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Around("countingInterceptor")
+    public String greet(String name) {
+        return this.prefix + name;
+    }
+}
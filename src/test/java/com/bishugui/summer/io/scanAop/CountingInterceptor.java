@@ -0,0 +1,25 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.aop.MethodInterceptor;
+import com.bishugui.summer.aop.MethodInvocation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author bi shugui
+ * @description 记录被拦截的方法名
+ * @date 2024/01/03 15:30
+ */
+@Component
+public class CountingInterceptor implements MethodInterceptor {
+
+    public final List<String> invokedMethods = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        this.invokedMethods.add(invocation.getMethod().getName());
+        return invocation.proceed();
+    }
+}
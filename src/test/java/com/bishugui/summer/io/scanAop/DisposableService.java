@@ -0,0 +1,26 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Around;
+import com.bishugui.summer.annotation.Component;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * @author bi shugui
+ * @description 被代理的Bean，private的@PreDestroy不能被代理重写，必须在原Bean上调用
+ * @date 2024/01/06 15:20
+ */
+@Component
+public class DisposableService {
+
+    public volatile boolean destroyed;
+
+    @Around("countingInterceptor")
+    public String ping() {
+        return "pong";
+    }
+
+    @PreDestroy
+    private void destroy() {
+        this.destroyed = true;
+    }
+}
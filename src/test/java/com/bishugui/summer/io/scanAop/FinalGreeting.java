@@ -0,0 +1,22 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Around;
+
+/**
+ * @author bi shugui
+ * @description final类，只能生成接口代理
+ * @date 2024/01/03 15:30
+ */
+public final class FinalGreeting implements Greeting {
+
+    @Around("upperCaseInterceptor")
+    @Override
+    public String greet(String name) {
+        return "welcome " + name;
+    }
+
+    @Override
+    public String name() {
+        return "final";
+    }
+}
@@ -0,0 +1,13 @@
+package com.bishugui.summer.io.scanAop;
+
+/**
+ * @author bi shugui
+ * @description final类按接口代理
+ * @date 2024/01/03 15:30
+ */
+public interface Greeting {
+
+    String greet(String name);
+
+    String name();
+}
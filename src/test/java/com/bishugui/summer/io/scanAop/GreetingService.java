@@ -0,0 +1,48 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Around;
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Value;
+
+/**
+ * @author bi shugui
+ * @description 部分方法被拦截，生成子类代理
+ * @date 2024/01/03 15:30
+ */
+@Component
+public class GreetingService {
+
+    @Value("${app.title}")
+    String title;
+
+    @Around({"countingInterceptor", "upperCaseInterceptor"})
+    public String greet(String name) {
+        return "hello " + name;
+    }
+
+    @Around("countingInterceptor")
+    public long add(int a, long b) {
+        return a + b;
+    }
+
+    @Around("countingInterceptor")
+    public void fail(String message) {
+        throw new IllegalStateException(message);
+    }
+
+    @Around("countingInterceptor")
+    String packageGreet(String name) {
+        return "hi " + name;
+    }
+
+    /**
+     * 从包外调用包级方法
+     */
+    public static String callPackageGreet(GreetingService service, String name) {
+        return service.packageGreet(name);
+    }
+
+    public String title() {
+        return this.title;
+    }
+}
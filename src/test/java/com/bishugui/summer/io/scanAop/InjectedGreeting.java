@@ -0,0 +1,28 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Around;
+
+/**
+ * @author bi shugui
+ * @description 只有带参构造方法，按接口代理
+ * @date 2024/01/07 10:40
+ */
+public class InjectedGreeting implements Greeting {
+
+    private final String title;
+
+    public InjectedGreeting(String title) {
+        this.title = title;
+    }
+
+    @Around("upperCaseInterceptor")
+    @Override
+    public String greet(String name) {
+        return "hello " + name + " from " + this.title;
+    }
+
+    @Override
+    public String name() {
+        return "injected";
+    }
+}
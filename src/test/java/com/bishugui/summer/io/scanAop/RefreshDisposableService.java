@@ -0,0 +1,28 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Around;
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Scope;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * @author bi shugui
+ * @description refresh作用域中被代理的Bean，作用域销毁时在原Bean上调用private的@PreDestroy
+ * @date 2024/01/06 15:20
+ */
+@Component
+@Scope("refresh")
+public class RefreshDisposableService {
+
+    public volatile boolean destroyed;
+
+    @Around("countingInterceptor")
+    public String ping() {
+        return "pong";
+    }
+
+    @PreDestroy
+    private void destroy() {
+        this.destroyed = true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bishugui.summer.io.scanAop;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.aop.MethodInterceptor;
+import com.bishugui.summer.aop.MethodInvocation;
+
+/**
+ * @author bi shugui
+ * @description 把String返回值转为大写
+ * @date 2024/01/03 15:30
+ */
+@Component
+public class UpperCaseInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        return result instanceof String s ? s.toUpperCase() : result;
+    }
+}
@@ -0,0 +1,14 @@
+package com.bishugui.summer.io.scanBeanDefinition.depends;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Lazy;
+
+/**
+ * @author bi shugui
+ * @description 被@DependsOn依赖的延迟初始化Bean，会在DependsOnBean之前创建
+ * @date 2023/12/24 11:03
+ */
+@Lazy
+@Component
+public class DependedLazyBean {
+}
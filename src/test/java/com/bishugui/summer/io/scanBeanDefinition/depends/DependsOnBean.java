@@ -0,0 +1,14 @@
+package com.bishugui.summer.io.scanBeanDefinition.depends;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.DependsOn;
+
+/**
+ * @author bi shugui
+ * @description 测试@DependsOn
+ * @date 2023/12/24 11:02
+ */
+@Component
+@DependsOn("dependedLazyBean")
+public class DependsOnBean {
+}
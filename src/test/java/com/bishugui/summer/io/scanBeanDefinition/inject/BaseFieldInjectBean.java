@@ -0,0 +1,37 @@
+package com.bishugui.summer.io.scanBeanDefinition.inject;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Value;
+import com.bishugui.summer.io.scanBeanDefinition.primary.DogBean;
+
+/**
+ * @author bi shugui
+ * @description 测试父类中的字段/setter注入
+ * @date 2023/12/30 16:20
+ */
+public abstract class BaseFieldInjectBean {
+    @Autowired
+    protected DogBean dog;
+
+    @Value("${app.version}")
+    private String version;
+
+    private DogBean teddy;
+
+    @Autowired(name = "teddy")
+    public void setTeddy(DogBean teddy) {
+        this.teddy = teddy;
+    }
+
+    public DogBean getDog() {
+        return this.dog;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public DogBean getTeddy() {
+        return this.teddy;
+    }
+}
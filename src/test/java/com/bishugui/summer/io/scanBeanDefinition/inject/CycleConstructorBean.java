@@ -0,0 +1,18 @@
+package com.bishugui.summer.io.scanBeanDefinition.inject;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 测试循环依赖：通过构造方法依赖CycleFieldBean，CycleFieldBean通过字段反过来依赖本类
+ * @date 2023/12/30 16:25
+ */
+@Component
+public class CycleConstructorBean {
+    public final CycleFieldBean fieldBean;
+
+    public CycleConstructorBean(@Autowired CycleFieldBean fieldBean) {
+        this.fieldBean = fieldBean;
+    }
+}
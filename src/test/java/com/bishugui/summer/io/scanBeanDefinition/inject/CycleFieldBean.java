@@ -0,0 +1,19 @@
+package com.bishugui.summer.io.scanBeanDefinition.inject;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 测试循环依赖：通过字段依赖CycleConstructorBean
+ * @date 2023/12/30 16:25
+ */
+@Component
+public class CycleFieldBean {
+    @Autowired
+    CycleConstructorBean constructorBean;
+
+    public CycleConstructorBean getConstructorBean() {
+        return this.constructorBean;
+    }
+}
@@ -0,0 +1,23 @@
+package com.bishugui.summer.io.scanBeanDefinition.inject;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 测试循环依赖：通过setter方法注入自身的早期引用
+ * @date 2023/12/31 10:20
+ */
+@Component
+public class CycleSetterBean {
+    private CycleSetterBean self;
+
+    @Autowired
+    public void setSelf(CycleSetterBean self) {
+        this.self = self;
+    }
+
+    public CycleSetterBean getSelf() {
+        return this.self;
+    }
+}
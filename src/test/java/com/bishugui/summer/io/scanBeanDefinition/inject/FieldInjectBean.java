@@ -0,0 +1,48 @@
+package com.bishugui.summer.io.scanBeanDefinition.inject;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Value;
+import com.bishugui.summer.context.ObjectProvider;
+import com.bishugui.summer.io.scanBeanDefinition.primary.PersonBean;
+
+/**
+ * @author bi shugui
+ * @description 测试字段/setter注入
+ * @date 2023/12/30 16:22
+ */
+@Component
+public class FieldInjectBean extends BaseFieldInjectBean {
+    @Value("${other.int-data}")
+    private int intData;
+
+    @Autowired(false)
+    private Runnable optional;
+
+    @Autowired
+    private ObjectProvider<PersonBean> persons;
+
+    private String title;
+
+    @Value("${app.title}")
+    public FieldInjectBean setTitle(String title) {
+        this.title = title;
+        return this;
+    }
+
+    public int getIntData() {
+        return this.intData;
+    }
+
+    public Runnable getOptional() {
+        return this.optional;
+    }
+
+    public ObjectProvider<PersonBean> getPersons() {
+        return this.persons;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bishugui.summer.io.scanBeanDefinition.inject;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Value;
+import com.bishugui.summer.io.scanBeanDefinition.primary.DogBean;
+
+/**
+ * @author bi shugui
+ * @description 测试构造方法注入
+ * @date 2023/12/16 15:30
+ */
+@Component
+public class InjectBean {
+    public final String title;
+    public final int intData;
+    public final DogBean dog;
+    public final DogBean teddy;
+    public final Runnable optional;
+
+    public InjectBean(@Value("${app.title}") String title, @Value("${other.int-data}") int intData,
+                      @Autowired DogBean dog, @Autowired(name = "teddy") DogBean teddy, @Autowired(false) Runnable optional) {
+        this.title = title;
+        this.intData = intData;
+        this.dog = dog;
+        this.teddy = teddy;
+        this.optional = optional;
+    }
+}
@@ -0,0 +1,18 @@
+package com.bishugui.summer.io.scanBeanDefinition.inject;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 测试private构造方法
+ * @date 2023/12/16 15:32
+ */
+@Component
+public class PrivateConstructorBean {
+    public final InjectBean injectBean;
+
+    private PrivateConstructorBean(@Autowired InjectBean injectBean) {
+        this.injectBean = injectBean;
+    }
+}
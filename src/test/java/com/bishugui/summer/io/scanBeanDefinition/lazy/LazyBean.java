@@ -0,0 +1,14 @@
+package com.bishugui.summer.io.scanBeanDefinition.lazy;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Lazy;
+
+/**
+ * @author bi shugui
+ * @description 测试延迟初始化
+ * @date 2023/12/23 15:02
+ */
+@Lazy
+@Component
+public class LazyBean {
+}
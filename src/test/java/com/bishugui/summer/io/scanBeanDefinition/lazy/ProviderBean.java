@@ -0,0 +1,22 @@
+package com.bishugui.summer.io.scanBeanDefinition.lazy;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.context.ObjectProvider;
+
+/**
+ * @author bi shugui
+ * @description 测试注入ObjectProvider
+ * @date 2023/12/23 15:04
+ */
+@Component
+public class ProviderBean {
+    public final ObjectProvider<LazyBean> lazyBeanProvider;
+
+    public final ObjectProvider<Runnable> missingProvider;
+
+    public ProviderBean(@Autowired ObjectProvider<LazyBean> lazyBeanProvider, @Autowired ObjectProvider<Runnable> missingProvider) {
+        this.lazyBeanProvider = lazyBeanProvider;
+        this.missingProvider = missingProvider;
+    }
+}
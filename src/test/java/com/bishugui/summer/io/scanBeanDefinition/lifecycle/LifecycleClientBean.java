@@ -0,0 +1,32 @@
+package com.bishugui.summer.io.scanBeanDefinition.lifecycle;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * @author bi shugui
+ * @description 测试销毁顺序：依赖LifecyclePoolBean，先于它销毁
+ * @date 2023/12/31 15:25
+ */
+@Component
+public class LifecycleClientBean {
+    final LifecyclePoolBean pool;
+    final LifecycleRecorder recorder;
+
+    public LifecycleClientBean(@Autowired LifecyclePoolBean pool, @Autowired LifecycleRecorder recorder) {
+        this.pool = pool;
+        this.recorder = recorder;
+    }
+
+    @PostConstruct
+    public void init() {
+        this.recorder.record("client.init");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        this.recorder.record(this.recorder.awaitConcurrentDestroy() ? "client.destroy" : "client.destroy.serial");
+    }
+}
@@ -0,0 +1,19 @@
+package com.bishugui.summer.io.scanBeanDefinition.lifecycle;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Bean;
+import com.bishugui.summer.annotation.Configuration;
+
+/**
+ * @author bi shugui
+ * @description 测试@Bean的initMethod、destroyMethod
+ * @date 2023/12/31 15:30
+ */
+@Configuration
+public class LifecycleConfiguration {
+
+    @Bean(initMethod = "open", destroyMethod = "shutdown")
+    LifecycleResource lifecycleResource(@Autowired LifecycleRecorder recorder) {
+        return new LifecycleResource(recorder);
+    }
+}
@@ -0,0 +1,27 @@
+package com.bishugui.summer.io.scanBeanDefinition.lifecycle;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * @author bi shugui
+ * @description 测试@PostConstruct、@PreDestroy：init方法在字段注入之后调用
+ * @date 2023/12/31 15:22
+ */
+@Component
+public class LifecyclePoolBean {
+    @Autowired
+    LifecycleRecorder recorder;
+
+    @PostConstruct
+    void start() {
+        this.recorder.record("pool.init");
+    }
+
+    @PreDestroy
+    void stop() {
+        this.recorder.record("pool.destroy");
+    }
+}
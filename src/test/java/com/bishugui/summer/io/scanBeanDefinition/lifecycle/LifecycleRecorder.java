@@ -0,0 +1,38 @@
+package com.bishugui.summer.io.scanBeanDefinition.lifecycle;
+
+import com.bishugui.summer.annotation.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description 记录init/destroy方法的调用顺序
+ * @date 2023/12/31 15:20
+ */
+@Component
+public class LifecycleRecorder {
+    public final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * 互不依赖的两个Bean在destroy方法中互相等待，只有并行销毁时才能都等到
+     */
+    private final CountDownLatch destroyLatch = new CountDownLatch(2);
+
+    public void record(String event) {
+        this.events.add(event);
+    }
+
+    public boolean awaitConcurrentDestroy() {
+        this.destroyLatch.countDown();
+        try {
+            return this.destroyLatch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.bishugui.summer.io.scanBeanDefinition.lifecycle;
+
+/**
+ * @author bi shugui
+ * @description 由@Bean创建，通过initMethod、destroyMethod指定生命周期方法
+ * @date 2023/12/31 15:28
+ */
+public class LifecycleResource {
+    final LifecycleRecorder recorder;
+
+    public LifecycleResource(LifecycleRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public void open() {
+        this.recorder.record("resource.init");
+    }
+
+    void shutdown() {
+        this.recorder.record(this.recorder.awaitConcurrentDestroy() ? "resource.destroy" : "resource.destroy.serial");
+    }
+}
@@ -0,0 +1,18 @@
+package com.bishugui.summer.io.scanBeanDefinition.properties;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 测试注入@ConfigurationProperties Bean
+ * @date 2023/12/28 22:12
+ */
+@Component
+public class DataSourceHolderBean {
+    public final DataSourceProperties properties;
+
+    public DataSourceHolderBean(@Autowired DataSourceProperties properties) {
+        this.properties = properties;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanBeanDefinition.properties;
+
+import com.bishugui.summer.annotation.ConfigurationProperties;
+
+/**
+ * @author bi shugui
+ * @description 测试@ConfigurationProperties的prefix属性，与DataSourceProperties使用相同前缀，Bean名称按类名生成不冲突
+ * @date 2023/12/28 22:15
+ */
+@ConfigurationProperties(prefix = "summer.datasource")
+public record DataSourcePoolProperties(String url, int maxPoolSize) {
+}
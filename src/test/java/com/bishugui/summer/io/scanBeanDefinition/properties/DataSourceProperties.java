@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanBeanDefinition.properties;
+
+import com.bishugui.summer.annotation.ConfigurationProperties;
+
+/**
+ * @author bi shugui
+ * @description 测试@ConfigurationProperties绑定record
+ * @date 2023/12/28 22:10
+ */
+@ConfigurationProperties("summer.datasource")
+public record DataSourceProperties(String url, String username, String password, boolean autoCommit, int maxPoolSize) {
+}
@@ -0,0 +1,28 @@
+package com.bishugui.summer.io.scanBeanDefinition.refresh;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Scope;
+import com.bishugui.summer.annotation.Value;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * @author bi shugui
+ * @description 测试refresh作用域，属性变化后重新创建，被移除的实例调用@PreDestroy
+ * @date 2023/12/25 11:20
+ */
+@Component
+@Scope("refresh")
+public class RefreshBean {
+    public final String title;
+
+    public volatile boolean destroyed;
+
+    public RefreshBean(@Value("${app.title}") String title) {
+        this.title = title;
+    }
+
+    @PreDestroy
+    void destroy() {
+        this.destroyed = true;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bishugui.summer.io.scanBeanDefinition.refresh;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Scope;
+import com.bishugui.summer.annotation.Value;
+
+/**
+ * @author bi shugui
+ * @description 测试refresh作用域，字段注入的属性变化后重新创建
+ * @date 2023/12/30 16:40
+ */
+@Component
+@Scope("refresh")
+public class RefreshFieldBean {
+    @Value("${app.version}")
+    String version;
+
+    public String getVersion() {
+        return this.version;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bishugui.summer.io.scanBeanDefinition.scope;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Scope;
+import com.bishugui.summer.io.scanBeanDefinition.primary.DogBean;
+
+/**
+ * @author bi shugui
+ * @description 测试prototype作用域，每次获取都创建新实例
+ * @date 2023/12/17 15:40
+ */
+@Component
+@Scope("prototype")
+public class PrototypeBean {
+    public final DogBean dog;
+
+    public PrototypeBean(@Autowired DogBean dog) {
+        this.dog = dog;
+    }
+}
@@ -0,0 +1,18 @@
+package com.bishugui.summer.io.scanBeanDefinition.scope;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 测试singleton注入prototype
+ * @date 2023/12/17 15:42
+ */
+@Component
+public class PrototypeHolderBean {
+    public final PrototypeBean prototypeBean;
+
+    public PrototypeHolderBean(@Autowired PrototypeBean prototypeBean) {
+        this.prototypeBean = prototypeBean;
+    }
+}
@@ -0,0 +1,14 @@
+package com.bishugui.summer.io.scanBeanDefinition.scope;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Scope;
+
+/**
+ * @author bi shugui
+ * @description 测试request作用域
+ * @date 2023/12/17 15:45
+ */
+@Component
+@Scope("request")
+public class RequestBean {
+}
@@ -0,0 +1,15 @@
+package com.bishugui.summer.io.scanCycle;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 测试构造方法组成的循环依赖：ConstructorCycleA -> ConstructorCycleB -> ConstructorCycleC -> ConstructorCycleA
+ * @date 2023/12/31 10:30
+ */
+@Component
+public class ConstructorCycleA {
+    public ConstructorCycleA(@Autowired ConstructorCycleB next) {
+    }
+}
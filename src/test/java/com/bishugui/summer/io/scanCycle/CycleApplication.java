@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanCycle;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description 模拟主类，包下的Bean通过构造方法互相依赖
+ * @date 2023/12/31 10:30
+ */
+@ComponentScan
+public class CycleApplication {
+}
@@ -0,0 +1,17 @@
+package com.bishugui.summer.io.scanCycle;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Scope;
+
+/**
+ * @author bi shugui
+ * @description 测试prototype之间的循环依赖：PrototypeCycleA -> PrototypeCycleB -> PrototypeCycleA，每次获取都报错
+ * @date 2024/01/04 14:10
+ */
+@Component
+@Scope("prototype")
+public class PrototypeCycleA {
+    public PrototypeCycleA(@Autowired PrototypeCycleB next) {
+    }
+}
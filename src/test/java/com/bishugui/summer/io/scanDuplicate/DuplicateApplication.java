@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanDuplicate;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description 模拟主类，包下的两个组件使用相同的beanName
+ * @date 2024/01/07 11:20
+ */
+@ComponentScan
+public class DuplicateApplication {
+}
@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanDuplicate;
+
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 与其他组件的beanName重复
+ * @date 2024/01/07 11:20
+ */
+@Component("duplicateBean")
+public class DuplicateBeanA {
+}
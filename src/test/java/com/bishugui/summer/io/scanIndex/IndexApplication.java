@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanIndex;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description 模拟主类，包下的组件来自组件索引
+ * @date 2023/12/13 20:10
+ */
+@ComponentScan
+public class IndexApplication {
+}
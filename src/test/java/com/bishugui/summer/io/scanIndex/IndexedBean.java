@@ -0,0 +1,23 @@
+package com.bishugui.summer.io.scanIndex;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Value;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * @author bi shugui
+ * @description 组件索引中的Bean
+ * @date 2023/12/13 20:11
+ */
+@Component
+public class IndexedBean {
+    public final String title;
+
+    public IndexedBean(@Value("${app.title}") String title) {
+        this.title = title;
+    }
+
+    @PostConstruct
+    void init() {
+    }
+}
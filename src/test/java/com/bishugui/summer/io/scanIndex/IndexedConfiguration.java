@@ -0,0 +1,23 @@
+package com.bishugui.summer.io.scanIndex;
+
+import com.bishugui.summer.annotation.Bean;
+import com.bishugui.summer.annotation.Configuration;
+import com.bishugui.summer.annotation.Primary;
+import com.bishugui.summer.annotation.Value;
+
+import java.time.LocalDate;
+
+/**
+ * @author bi shugui
+ * @description 组件索引中的配置
+ * @date 2023/12/13 20:12
+ */
+@Configuration
+public class IndexedConfiguration {
+
+    @Primary
+    @Bean(value = "indexedDate", initMethod = "toString")
+    LocalDate date(@Value("${convert.localdate}") String date) {
+        return LocalDate.parse(date);
+    }
+}
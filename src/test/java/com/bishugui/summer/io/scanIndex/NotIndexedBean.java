@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanIndex;
+
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 不在组件索引中的Bean，与索引位于同一个类路径根时不会被扫描到
+ * @date 2023/12/13 20:13
+ */
+@Component
+public class NotIndexedBean {
+}
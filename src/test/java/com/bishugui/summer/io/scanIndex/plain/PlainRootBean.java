@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanIndex.plain;
+
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 位于没有组件索引的类路径根中的Bean，使用索引时同样会被扫描到
+ * @date 2024/01/04 11:05
+ */
+@Component
+public class PlainRootBean {
+}
@@ -0,0 +1,23 @@
+package com.bishugui.summer.io.scanParallel;
+
+import com.bishugui.summer.annotation.Autowired;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description 构造方法中等待其他Bean同时被创建，串行创建时等待超时
+ * @date 2024/01/06 10:20
+ */
+public abstract class BarrierBean {
+    @Autowired
+    public SharedLazyBean sharedLazyBean;
+
+    protected BarrierBean() {
+        try {
+            ParallelApplication.barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("其他Bean没有同时创建; Beans were not created in parallel", e);
+        }
+    }
+}
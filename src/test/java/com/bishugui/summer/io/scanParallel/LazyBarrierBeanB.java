@@ -0,0 +1,14 @@
+package com.bishugui.summer.io.scanParallel;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Lazy;
+
+/**
+ * @author bi shugui
+ * @description 测试多个线程同时创建互不依赖的延迟初始化Bean
+ * @date 2024/01/06 10:20
+ */
+@Lazy
+@Component
+public class LazyBarrierBeanB extends BarrierBean {
+}
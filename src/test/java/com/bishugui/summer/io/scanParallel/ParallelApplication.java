@@ -0,0 +1,18 @@
+package com.bishugui.summer.io.scanParallel;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * @author bi shugui
+ * @description 模拟主类，包下互不依赖的@Lazy Bean在构造方法中等待彼此，只有并行创建时才能完成
+ * @date 2024/01/06 10:20
+ */
+@ComponentScan
+public class ParallelApplication {
+    /**
+     * 由测试设置，参与方数量与同时创建的Bean数量一致
+     */
+    public static volatile CyclicBarrier barrier;
+}
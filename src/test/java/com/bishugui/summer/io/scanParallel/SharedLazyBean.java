@@ -0,0 +1,14 @@
+package com.bishugui.summer.io.scanParallel;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Lazy;
+
+/**
+ * @author bi shugui
+ * @description 被多个同时创建的Bean字段注入，只创建一次
+ * @date 2024/01/06 10:20
+ */
+@Lazy
+@Component
+public class SharedLazyBean {
+}
@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanProcessor;
+
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 由ScopeBeanFactoryPostProcessor修改为prototype作用域
+ * @date 2024/01/02 14:14
+ */
+@Component
+public class FactoryProcessedBean {
+}
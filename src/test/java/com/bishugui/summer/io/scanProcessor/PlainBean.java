@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanProcessor;
+
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 没有适用的BeanPostProcessor的Bean
+ * @date 2024/01/02 14:13
+ */
+@Component
+public class PlainBean {
+}
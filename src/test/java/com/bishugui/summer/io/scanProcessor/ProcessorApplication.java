@@ -0,0 +1,12 @@
+package com.bishugui.summer.io.scanProcessor;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description 模拟主类，包下注册了BeanPostProcessor与BeanFactoryPostProcessor
+ * @date 2024/01/02 14:10
+ */
+@ComponentScan
+public class ProcessorApplication {
+}
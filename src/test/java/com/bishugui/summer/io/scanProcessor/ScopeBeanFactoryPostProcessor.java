@@ -0,0 +1,20 @@
+package com.bishugui.summer.io.scanProcessor;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.context.AnnotationConfigApplicationContext;
+import com.bishugui.summer.context.BeanDefinition;
+import com.bishugui.summer.context.BeanFactoryPostProcessor;
+
+/**
+ * @author bi shugui
+ * @description 在其他Bean创建之前把FactoryProcessedBean修改为prototype
+ * @date 2024/01/02 14:18
+ */
+@Component
+public class ScopeBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+    @Override
+    public void postProcessBeanFactory(AnnotationConfigApplicationContext context) {
+        context.findBeanDefinition(FactoryProcessedBean.class).setScope(BeanDefinition.SCOPE_PROTOTYPE);
+    }
+}
@@ -0,0 +1,22 @@
+package com.bishugui.summer.io.scanProcessor;
+
+import com.bishugui.summer.annotation.Component;
+import jakarta.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author bi shugui
+ * @description 被TracingBeanPostProcessor处理的Bean，记录处理与初始化的顺序
+ * @date 2024/01/02 14:12
+ */
+@Component
+public class TracedBean {
+    public final List<String> events = new ArrayList<>();
+
+    @PostConstruct
+    void init() {
+        this.events.add("init");
+    }
+}
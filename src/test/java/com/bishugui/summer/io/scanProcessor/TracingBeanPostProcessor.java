@@ -0,0 +1,34 @@
+package com.bishugui.summer.io.scanProcessor;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Value;
+import com.bishugui.summer.context.BeanPostProcessor;
+
+/**
+ * @author bi shugui
+ * @description 只处理TracedBean的BeanPostProcessor，自身通过字段注入属性
+ * @date 2024/01/02 14:15
+ */
+@Component
+public class TracingBeanPostProcessor implements BeanPostProcessor {
+
+    @Value("${app.title}")
+    String title;
+
+    @Override
+    public boolean supports(Class<?> beanClass) {
+        return TracedBean.class.isAssignableFrom(beanClass);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        ((TracedBean) bean).events.add("before:" + this.title);
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        ((TracedBean) bean).events.add("after:" + beanName);
+        return bean;
+    }
+}
@@ -54,6 +54,41 @@ public class ClassUtilsTest {
         assertThrows(BeanDefinitionException.class,()->ClassUtils.findAnnotation(DuplicateComponent2.class, Component.class));
     }
 
+    @Test
+    public void cachedAnnotation(){
+        // 缓存的解析结果
+        Component component = ClassUtils.findAnnotation(CustomWithName.class, Component.class);
+        assertNotNull(component);
+        assertSame(component, ClassUtils.findAnnotation(CustomWithName.class, Component.class));
+        assertSame(ClassUtils.getBeanName(CustomWithName.class), ClassUtils.getBeanName(CustomWithName.class));
+        // 重复标注的检测结果也被缓存，每次都抛出异常
+        assertThrows(BeanDefinitionException.class,()->ClassUtils.findAnnotation(DuplicateComponent2.class, Component.class));
+        assertThrows(BeanDefinitionException.class,()->ClassUtils.findAnnotation(DuplicateComponent2.class, Component.class));
+
+        // 释放缓存后重新解析
+        ClassUtils.clearAnnotationCache();
+        assertNotNull(ClassUtils.findAnnotation(CustomWithName.class, Component.class));
+        assertEquals("testCustomComponent",ClassUtils.getBeanName(CustomWithName.class));
+        assertThrows(BeanDefinitionException.class,()->ClassUtils.findAnnotation(DuplicateComponent2.class, Component.class));
+    }
+
+    @Test
+    public void retainedAnnotationCache(){
+        // 两个容器同时启动
+        ClassUtils.retainAnnotationCache();
+        ClassUtils.retainAnnotationCache();
+        String beanName = ClassUtils.getBeanName(Sub1.class);
+        // 一个容器启动结束，另一个仍在使用缓存
+        ClassUtils.releaseAnnotationCache();
+        assertSame(beanName, ClassUtils.getBeanName(Sub1.class));
+        // 最后一个容器启动结束后释放缓存，重新解析
+        ClassUtils.releaseAnnotationCache();
+        String resolved = ClassUtils.getBeanName(Sub1.class);
+        assertEquals(beanName, resolved);
+        assertNotSame(beanName, resolved);
+        assertThrows(IllegalStateException.class, ClassUtils::releaseAnnotationCache);
+    }
+
 }
 
 @Configuration
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,4 +34,36 @@ class YamlUtilsTest {
         });
     }
 
-}
\ No newline at end of file
+    @Test
+    void streamingLoaderMatchesTree() {
+        // 基于解析事件展开的结果与树形Map展开的结果一致
+        Map<String, Object> expected = new LinkedHashMap<>();
+        YamlUtils.convertTo(YamlUtils.loadYaml("application.yaml"), "", expected);
+        Map<String, Object> plainMap = YamlUtils.loadYamlAsPlainMap("application.yaml");
+        assertEquals(expected, plainMap);
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(plainMap.keySet()));
+        assertEquals(List.of("Apple", "Orange", "Pear"), plainMap.get("other.list"));
+        assertEquals("", plainMap.get("summer.datasource.password"));
+    }
+
+    @Test
+    void loadYamlWithProfiles() {
+        // 使用文件中的summer.profiles.active
+        Map<String, Object> dev = YamlUtils.loadYamlAsPlainMap("profiles.yaml");
+        assertEquals("Summer Framework Dev", dev.get("app.title"));
+        assertEquals("true", dev.get("app.debug"));
+        assertFalse(dev.containsKey(YamlUtils.ON_PROFILE_KEY));
+
+        // 指定profile
+        Map<String, Object> prod = YamlUtils.loadYamlAsPlainMap("profiles.yaml", "staging");
+        assertEquals("Summer Framework Prod", prod.get("app.title"));
+        assertNull(prod.get("app.debug"));
+
+        // 锚点与别名
+        assertEquals("10", prod.get("app.db.pool-size"));
+        assertEquals("PT30S", prod.get("app.db.timeout"));
+        assertEquals("10", prod.get("defaults.pool-size"));
+        assertEquals(List.of("alpha", "beta"), prod.get("app.tags"));
+        assertEquals("alpha", prod.get("app.first-tag"));
+    }
+}
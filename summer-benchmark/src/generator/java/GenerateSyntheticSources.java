@@ -0,0 +1,101 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author bi shugui
+ * @description 构建时生成基准测试用的合成组件与大yaml文件，由exec-maven-plugin在generate-sources阶段以单文件源码方式运行:
+ * java GenerateSyntheticSources.java <源码目录> <资源目录> <包数量> <每个包的组件数量>
+ * 组件按包划分：com.bishugui.summer.benchmark.synthetic.p0 ~ pN，每10个组件组成一条构造方法注入链;
+ * 生成参数写入SyntheticLayout，基准测试据此选取组件，不硬编码类名
+ * @date 2023/12/24 15:20
+ */
+public class GenerateSyntheticSources {
+    static final String BASE_PACKAGE = "com.bishugui.summer.benchmark.synthetic";
+
+    static final int CHAIN_LENGTH = 10;
+
+    public static void main(String[] args) throws IOException {
+        Path sourceDir = Path.of(args[0]);
+        Path resourceDir = Path.of(args[1]);
+        int packages = Integer.parseInt(args[2]);
+        int componentsPerPackage = Integer.parseInt(args[3]);
+        for (int p = 0; p < packages; p++) {
+            String pkg = BASE_PACKAGE + ".p" + p;
+            Path dir = sourceDir.resolve(pkg.replace('.', '/'));
+            Files.createDirectories(dir);
+            for (int i = 0; i < componentsPerPackage; i++) {
+                int id = p * componentsPerPackage + i;
+                writeIfChanged(dir.resolve("Component" + id + ".java"), component(pkg, id, i % CHAIN_LENGTH == 0 ? -1 : id - 1));
+            }
+        }
+        Path baseDir = sourceDir.resolve(BASE_PACKAGE.replace('.', '/'));
+        Files.createDirectories(baseDir);
+        writeIfChanged(baseDir.resolve("SyntheticLayout.java"), layout(packages, componentsPerPackage));
+        Files.createDirectories(resourceDir);
+        writeIfChanged(resourceDir.resolve("synthetic-1k.yaml"), yaml(100, 10));
+        writeIfChanged(resourceDir.resolve("synthetic-10k.yaml"), yaml(1000, 10));
+    }
+
+    static String component(String pkg, int id, int dependencyId) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(pkg).append(";\n\n");
+        sb.append("import com.bishugui.summer.annotation.Autowired;\n");
+        sb.append("import com.bishugui.summer.annotation.Component;\n");
+        sb.append("import ").append(BASE_PACKAGE).append(".SyntheticComponent;\n\n");
+        sb.append("@Component\n");
+        sb.append("public class Component").append(id).append(" implements SyntheticComponent {\n");
+        if (dependencyId >= 0) {
+            sb.append("    public Component").append(id).append("(@Autowired Component").append(dependencyId).append(" dependency) {\n    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    static String layout(int packages, int componentsPerPackage) {
+        return "package " + BASE_PACKAGE + ";\n\n"
+                + "/**\n * 合成组件的生成参数，由GenerateSyntheticSources生成\n */\n"
+                + "public final class SyntheticLayout {\n"
+                + "    public static final int PACKAGES = " + packages + ";\n\n"
+                + "    public static final int COMPONENTS_PER_PACKAGE = " + componentsPerPackage + ";\n\n"
+                + "    private SyntheticLayout() {\n    }\n"
+                + "}\n";
+    }
+
+    /**
+     * 生成groups * keysPerGroup个叶子属性的yaml，每个分组中包含字符串、数字、列表与${}表达式
+     */
+    static String yaml(int groups, int keysPerGroup) {
+        StringBuilder sb = new StringBuilder();
+        for (int g = 0; g < groups; g++) {
+            sb.append("group").append(g).append(":\n");
+            sb.append("  nested:\n");
+            for (int k = 0; k < keysPerGroup; k++) {
+                sb.append("    key").append(k).append(": ");
+                switch (k % 4) {
+                    case 0 -> sb.append("value-").append(g).append('-').append(k);
+                    case 1 -> sb.append(g * keysPerGroup + k);
+                    case 2 -> sb.append("${group").append(g).append(".nested.key0}");
+                    default -> sb.append("[a, b, c]");
+                }
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 内容不变时不重写文件，避免每次构建都重新编译生成的源码
+     */
+    static void writeIfChanged(Path file, String content) {
+        try {
+            if (Files.exists(file) && Files.readString(file).equals(content)) {
+                return;
+            }
+            Files.writeString(file, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.benchmark.aop.AopApplication;
+import com.bishugui.summer.benchmark.aop.Calculator;
+import com.bishugui.summer.benchmark.aop.CalculatorService;
+import com.bishugui.summer.benchmark.aop.JdkProxyHandler;
+import com.bishugui.summer.context.AnnotationConfigApplicationContext;
+import com.bishugui.summer.io.PropertyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description @Around代理调用开销基准测试：直接调用、生成的子类代理与java.lang.reflect.Proxy分别调用被拦截的add与不被拦截的multiply
+ * @date 2024/01/03 16:50
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class AopProxyBenchmark {
+
+    AnnotationConfigApplicationContext context;
+    Calculator direct;
+    Calculator summerProxy;
+    Calculator jdkProxy;
+
+    int a = 3;
+    int b = 4;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        this.context = new AnnotationConfigApplicationContext(AopApplication.class, new PropertyResolver(new Properties()));
+        this.summerProxy = this.context.getBean(Calculator.class);
+        this.direct = new CalculatorService();
+        this.jdkProxy = (Calculator) Proxy.newProxyInstance(Calculator.class.getClassLoader(), new Class<?>[]{Calculator.class},
+                new JdkProxyHandler(new CalculatorService(), Set.of(Calculator.class.getMethod("add", int.class, int.class))));
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public int directAdvised() {
+        return this.direct.add(this.a, this.b);
+    }
+
+    @Benchmark
+    public int directNotAdvised() {
+        return this.direct.multiply(this.a, this.b);
+    }
+
+    @Benchmark
+    public int summerProxyAdvised() {
+        return this.summerProxy.add(this.a, this.b);
+    }
+
+    @Benchmark
+    public int summerProxyNotAdvised() {
+        return this.summerProxy.multiply(this.a, this.b);
+    }
+
+    @Benchmark
+    public int jdkProxyAdvised() {
+        return this.jdkProxy.add(this.a, this.b);
+    }
+
+    @Benchmark
+    public int jdkProxyNotAdvised() {
+        return this.jdkProxy.multiply(this.a, this.b);
+    }
+}
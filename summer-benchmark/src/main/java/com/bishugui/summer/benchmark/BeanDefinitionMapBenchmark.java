@@ -0,0 +1,66 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.benchmark.synthetic.SyntheticApplications;
+import com.bishugui.summer.context.AnnotationConfigApplicationContext;
+import com.bishugui.summer.context.BeanDefinition;
+import com.bishugui.summer.io.PropertyResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.Scope;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * @author bi shugui
+ * @description createBeanDefinitionMap基准测试：对已扫描到的1k/10k个合成组件创建BeanDefinition
+ * 通过子类调用protected的createBeanDefinitionMap()；组件Class在第一次调用后已加载，测得的是稳定状态的开销
+ * @date 2023/12/24 15:55
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class BeanDefinitionMapBenchmark {
+
+    @Param({"1k", "10k"})
+    public String components;
+
+    BeanDefinitionContext context;
+
+    Set<String> classNames;
+
+    @Setup
+    public void setup() {
+        this.context = new BeanDefinitionContext(SyntheticApplications.of(this.components), SyntheticApplications.emptyPropertyResolver());
+        // 使用已创建的BeanDefinition的类名，避免再次扫描同一个jar
+        this.classNames = this.context.getBeanClassNames();
+    }
+
+    @Benchmark
+    public Map<String, BeanDefinition> createBeanDefinitionMap() {
+        return this.context.createBeanDefinitionMap(this.classNames);
+    }
+
+    /**
+     * 只创建BeanDefinition、不创建Bean的容器
+     */
+    static class BeanDefinitionContext extends AnnotationConfigApplicationContext {
+
+        BeanDefinitionContext(Class<?> configClass, PropertyResolver propertyResolver) {
+            super(configClass, propertyResolver, true);
+        }
+
+        Set<String> getBeanClassNames() {
+            return this.beans.values().stream().map(def -> def.getBeanClass().getName()).collect(Collectors.toSet());
+        }
+
+        @Override
+        protected Map<String, BeanDefinition> createBeanDefinitionMap(Set<String> classNameSet) {
+            return super.createBeanDefinitionMap(classNameSet);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.benchmark.synthetic.SyntheticApplications;
+import com.bishugui.summer.benchmark.synthetic.SyntheticComponent;
+import com.bishugui.summer.context.AnnotationConfigApplicationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description Bean查找基准测试：容器中有1k/10k个合成组件时的getBean(String)、getBean(Class)、getBeans(Class)
+ * @date 2023/12/24 16:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class BeanLookupBenchmark {
+
+    @Param({"1k", "10k"})
+    public String components;
+
+    AnnotationConfigApplicationContext context;
+
+    String componentName;
+
+    Class<?> componentClass;
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        this.context = new AnnotationConfigApplicationContext(SyntheticApplications.of(this.components), SyntheticApplications.emptyPropertyResolver());
+        this.componentName = SyntheticApplications.sampleComponentBeanName();
+        this.componentClass = Class.forName(SyntheticApplications.sampleComponentClassName());
+    }
+
+    @Benchmark
+    public Object getBeanByName() {
+        return this.context.getBean(this.componentName);
+    }
+
+    @Benchmark
+    public Object getBeanByType() {
+        return this.context.getBean(this.componentClass);
+    }
+
+    @Benchmark
+    public List<SyntheticComponent> getBeansByInterface() {
+        return this.context.getBeans(SyntheticComponent.class);
+    }
+}
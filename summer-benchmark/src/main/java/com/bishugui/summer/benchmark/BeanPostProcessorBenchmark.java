@@ -0,0 +1,47 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.benchmark.processor.MeteredHandler;
+import com.bishugui.summer.benchmark.processor.PlainHandler;
+import com.bishugui.summer.benchmark.processor.ProcessorApplication;
+import com.bishugui.summer.context.AnnotationConfigApplicationContext;
+import com.bishugui.summer.io.PropertyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description BeanPostProcessor开销基准测试：注册了8个处理器时，没有适用处理器的prototype与被全部处理器处理的prototype的创建耗时
+ * @date 2024/01/02 16:20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class BeanPostProcessorBenchmark {
+
+    AnnotationConfigApplicationContext context;
+
+    @Setup
+    public void setup() {
+        this.context = new AnnotationConfigApplicationContext(ProcessorApplication.class, new PropertyResolver(new Properties()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public PlainHandler getUnprocessedBean() {
+        return this.context.getBean(PlainHandler.class);
+    }
+
+    @Benchmark
+    public MeteredHandler getProcessedBean() {
+        return this.context.getBean(MeteredHandler.class);
+    }
+}
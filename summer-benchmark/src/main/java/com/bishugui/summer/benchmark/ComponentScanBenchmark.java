@@ -0,0 +1,99 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.io.ClassMetadataReader;
+import com.bishugui.summer.io.ResourceResolver;
+import com.bishugui.summer.utils.ClassUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description 组件扫描基准测试：Class.forName加载所有类 vs 读取字节码只加载候选类
+ * 每个fork只执行一次扫描(冷启动)，同时统计加载的Class数量与Metaspace增量
+ * @date 2023/12/10 17:12
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ComponentScanBenchmark {
+
+    /**
+     * 被扫描的包，选择包含大量非Bean类的第三方包
+     */
+    @Param({"ch.qos.logback", "org.yaml.snakeyaml"})
+    public String scanPackage;
+
+    /**
+     * 附加统计：每次扫描加载的Class数量、Metaspace增量(KB)
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class LoadCounters {
+        public long classesLoaded;
+        public long metaspaceKb;
+    }
+
+    @Benchmark
+    public void classForName(LoadCounters counters, Blackhole blackhole) {
+        long classes = loadedClassCount();
+        long metaspace = metaspaceUsed();
+        List<String> classNames = scanClassNames();
+        for (String className : classNames) {
+            try {
+                Class<?> clazz = Class.forName(className);
+                blackhole.consume(ClassUtils.findAnnotation(clazz, Component.class));
+            } catch (Throwable e) {
+                // 第三方包中的可选依赖缺失等，与扫描开销无关
+                blackhole.consume(e);
+            }
+        }
+        counters.classesLoaded = loadedClassCount() - classes;
+        counters.metaspaceKb = (metaspaceUsed() - metaspace) / 1024;
+    }
+
+    @Benchmark
+    public void bytecodeScan(LoadCounters counters, Blackhole blackhole) {
+        long classes = loadedClassCount();
+        long metaspace = metaspaceUsed();
+        ClassMetadataReader reader = new ClassMetadataReader(Thread.currentThread().getContextClassLoader());
+        List<String> classNames = scanClassNames();
+        for (String className : classNames) {
+            ClassMetadataReader.ClassMetadata metadata = reader.read(className);
+            if (metadata != null && reader.isAnnotated(metadata, Component.class)) {
+                try {
+                    blackhole.consume(Class.forName(className));
+                } catch (Throwable e) {
+                    blackhole.consume(e);
+                }
+            }
+        }
+        counters.classesLoaded = loadedClassCount() - classes;
+        counters.metaspaceKb = (metaspaceUsed() - metaspace) / 1024;
+    }
+
+    List<String> scanClassNames() {
+        return new ResourceResolver(this.scanPackage).suffix(".class").scan(res -> {
+            String name = res.name();
+            return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
+        });
+    }
+
+    static long loadedClassCount() {
+        return ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+    }
+
+    static long metaspaceUsed() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> "Metaspace".equals(pool.getName()))
+                .mapToLong(pool -> pool.getUsage().getUsed())
+                .findFirst().orElse(0L);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.benchmark.synthetic.SyntheticApplications;
+import com.bishugui.summer.context.AnnotationConfigApplicationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description 容器冷启动基准测试：扫描1k/10k个合成组件，创建BeanDefinition及所有Bean
+ * 每个fork只启动一次，测量包含类加载在内的冷启动时间
+ * @date 2023/12/24 15:50
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ContextStartupBenchmark {
+
+    @Param({"1k", "10k"})
+    public String components;
+
+    @Benchmark
+    public AnnotationConfigApplicationContext definitionsOnly() {
+        return new AnnotationConfigApplicationContext(SyntheticApplications.of(this.components), SyntheticApplications.emptyPropertyResolver(), true);
+    }
+
+    @Benchmark
+    public AnnotationConfigApplicationContext fullStartup() {
+        return new AnnotationConfigApplicationContext(SyntheticApplications.of(this.components), SyntheticApplications.emptyPropertyResolver());
+    }
+}
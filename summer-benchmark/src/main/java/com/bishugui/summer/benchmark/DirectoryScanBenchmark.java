@@ -0,0 +1,77 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.io.Resource;
+import com.bishugui.summer.io.ResourceResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * @author bi shugui
+ * @description ResourceResolver.scan基准测试：扫描目录，在临时目录中生成class及非class文件，并通过线程上下文ClassLoader加入类路径;
+ * scanSuffix、scanTopLevel在创建Resource之前按后缀、包深度及glob过滤
+ * @date 2023/12/24 16:05
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class DirectoryScanBenchmark {
+    static final String SCAN_PACKAGE = "bench.scan";
+
+    @Param({"1000", "10000"})
+    public int files;
+
+    Path root;
+
+    ClassLoader originalClassLoader;
+
+    @Setup
+    public void setup() throws IOException {
+        this.root = Files.createTempDirectory("summer-scan");
+        Path packageDir = this.root.resolve(SCAN_PACKAGE.replace('.', '/'));
+        // 每个子目录100个文件
+        for (int i = 0; i < this.files; i++) {
+            Path dir = packageDir.resolve("d" + (i / 100));
+            Files.createDirectories(dir);
+            Files.createFile(dir.resolve("File" + i + ".class"));
+            // 与class同目录的非class资源，如配置、模板
+            Files.createFile(dir.resolve("File" + i + ".xml"));
+        }
+        this.originalClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{this.root.toUri().toURL()}, null));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Thread.currentThread().setContextClassLoader(this.originalClassLoader);
+        try (Stream<Path> paths = Files.walk(this.root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<String> scan() {
+        return new ResourceResolver(SCAN_PACKAGE).scan(res -> res.name().endsWith(".class") ? res.name() : null);
+    }
+
+    @Benchmark
+    public List<String> scanSuffix() {
+        return new ResourceResolver(SCAN_PACKAGE).suffix(".class").scan(Resource::name);
+    }
+
+    @Benchmark
+    public List<String> scanTopLevel() {
+        return new ResourceResolver(SCAN_PACKAGE).suffix(".class").maxDepth(1).glob("d1*/*.class").scan(Resource::name);
+    }
+}
@@ -0,0 +1,60 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.benchmark.prototype.PrototypeApplication;
+import com.bishugui.summer.benchmark.prototype.RequestHandler;
+import com.bishugui.summer.benchmark.prototype.SharedService;
+import com.bishugui.summer.context.AnnotationConfigApplicationContext;
+import com.bishugui.summer.context.BeanDefinition;
+import com.bishugui.summer.io.PropertyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Constructor;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description 实例化基准测试：直接new vs Constructor.newInstance vs BeanDefinition.instantiate，
+ * 只测量调用构造方法本身，不包含参数解析、作用域等getBean的其他开销
+ * @date 2024/01/04 10:20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class InstantiationBenchmark {
+
+    BeanDefinition beanDefinition;
+
+    Constructor<?> constructor;
+
+    Object[] args;
+
+    SharedService sharedService;
+
+    @Setup
+    public void setup() throws Exception {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(PrototypeApplication.class, new PropertyResolver(new Properties()));
+        this.sharedService = context.getBean(SharedService.class);
+        this.beanDefinition = context.findBeanDefinition("requestHandler");
+        this.constructor = RequestHandler.class.getConstructor(SharedService.class);
+        this.args = new Object[] { this.sharedService };
+    }
+
+    @Benchmark
+    public Object plainNew() {
+        return new RequestHandler(this.sharedService);
+    }
+
+    @Benchmark
+    public Object reflection() throws Exception {
+        return this.constructor.newInstance(this.args);
+    }
+
+    @Benchmark
+    public Object instantiate() throws Throwable {
+        return this.beanDefinition.instantiate(null, this.args);
+    }
+}
@@ -0,0 +1,47 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.io.ResourceResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description ResourceResolver.scan基准测试：扫描jar，scan使用缓存的jar条目索引，scanCold每次扫描前清空索引，重新读取jar的中央目录
+ * @date 2023/12/24 16:06
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class JarScanBenchmark {
+
+    /**
+     * 合成组件(10000个类)与第三方包
+     */
+    @Param({"com.bishugui.summer.benchmark.synthetic", "org.yaml.snakeyaml"})
+    public String scanPackage;
+
+    /**
+     * 重复使用同一个解析器，jar包条目索引只读取一次
+     */
+    ResourceResolver resolver;
+
+    @Setup
+    public void setup() {
+        this.resolver = new ResourceResolver(this.scanPackage);
+    }
+
+    @Benchmark
+    public List<String> scan() {
+        return this.resolver.scan(res -> res.name().endsWith(".class") ? res.name() : null);
+    }
+
+    @Benchmark
+    public List<String> scanCold() {
+        return new ResourceResolver(this.scanPackage).scan(res -> res.name().endsWith(".class") ? res.name() : null);
+    }
+}
@@ -0,0 +1,72 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.io.PropertyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description PropertyResolver.getProperty基准测试：直接读取键值、${}表达式、带默认值的表达式、类型转换、基本类型访问器
+ * @date 2023/12/24 16:10
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class PropertyResolverBenchmark {
+
+    PropertyResolver propertyResolver;
+
+    @Setup
+    public void setup() {
+        Properties properties = new Properties();
+        for (int i = 0; i < 1000; i++) {
+            properties.setProperty("app.group" + i + ".name", "name-" + i);
+        }
+        properties.setProperty("app.title", "Summer Framework");
+        properties.setProperty("app.port", "8080");
+        properties.setProperty("app.timeout", "PT30S");
+        properties.setProperty("app.desc", "${app.title}");
+        this.propertyResolver = new PropertyResolver(properties);
+    }
+
+    @Benchmark
+    public String plainKey() {
+        return this.propertyResolver.getProperty("app.title");
+    }
+
+    @Benchmark
+    public String expression() {
+        return this.propertyResolver.getProperty("${app.title}");
+    }
+
+    @Benchmark
+    public String expressionWithDefault() {
+        return this.propertyResolver.getProperty("${app.missing:${app.title}}");
+    }
+
+    @Benchmark
+    public String referencedExpression() {
+        return this.propertyResolver.getProperty("app.desc");
+    }
+
+    @Benchmark
+    public int typedExpression() {
+        return this.propertyResolver.getValue("${app.port}", int.class);
+    }
+
+    @Benchmark
+    public int primitiveInt() {
+        return this.propertyResolver.getInt("app.port", 80);
+    }
+
+    @Benchmark
+    public Duration duration() {
+        return this.propertyResolver.getDuration("app.timeout", null);
+    }
+}
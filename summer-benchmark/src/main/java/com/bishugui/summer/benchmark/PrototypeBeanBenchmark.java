@@ -0,0 +1,57 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.benchmark.prototype.FieldRequestHandler;
+import com.bishugui.summer.benchmark.prototype.PrototypeApplication;
+import com.bishugui.summer.benchmark.prototype.RequestHandler;
+import com.bishugui.summer.benchmark.prototype.SharedService;
+import com.bishugui.summer.context.AnnotationConfigApplicationContext;
+import com.bishugui.summer.io.PropertyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description prototype Bean创建基准测试：直接new vs getBean按类型/名称获取prototype，以及字段注入的prototype
+ * 可加 -prof gc 查看每次操作的分配字节数
+ * @date 2023/12/17 16:05
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class PrototypeBeanBenchmark {
+
+    AnnotationConfigApplicationContext context;
+
+    SharedService sharedService;
+
+    @Setup
+    public void setup() {
+        this.context = new AnnotationConfigApplicationContext(PrototypeApplication.class, new PropertyResolver(new Properties()));
+        this.sharedService = this.context.getBean(SharedService.class);
+    }
+
+    @Benchmark
+    public RequestHandler plainNew() {
+        return new RequestHandler(this.sharedService);
+    }
+
+    @Benchmark
+    public RequestHandler getBeanByType() {
+        return this.context.getBean(RequestHandler.class);
+    }
+
+    @Benchmark
+    public RequestHandler getBeanByName() {
+        return this.context.getBean("requestHandler", RequestHandler.class);
+    }
+
+    @Benchmark
+    public FieldRequestHandler getFieldInjectedBean() {
+        return this.context.getBean(FieldRequestHandler.class);
+    }
+}
@@ -0,0 +1,29 @@
+package com.bishugui.summer.benchmark;
+
+import com.bishugui.summer.utils.YamlUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author bi shugui
+ * @description YamlUtils.loadYamlAsPlainMap基准测试，yaml文件在构建时生成(1k/10k个叶子属性)
+ * @date 2023/12/24 16:15
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class YamlLoadBenchmark {
+
+    @Param({"synthetic-1k.yaml", "synthetic-10k.yaml"})
+    public String path;
+
+    @Benchmark
+    public Map<String, Object> loadYamlAsPlainMap() {
+        return YamlUtils.loadYamlAsPlainMap(this.path);
+    }
+}
@@ -0,0 +1,12 @@
+package com.bishugui.summer.benchmark.aop;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description @Around代理基准测试启动类
+ * @date 2024/01/03 16:40
+ */
+@ComponentScan
+public class AopApplication {
+}
@@ -0,0 +1,13 @@
+package com.bishugui.summer.benchmark.aop;
+
+/**
+ * @author bi shugui
+ * @description JDK动态代理只能按接口代理
+ * @date 2024/01/03 16:40
+ */
+public interface Calculator {
+
+    int add(int a, int b);
+
+    int multiply(int a, int b);
+}
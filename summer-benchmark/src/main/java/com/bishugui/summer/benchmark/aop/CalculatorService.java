@@ -0,0 +1,24 @@
+package com.bishugui.summer.benchmark.aop;
+
+import com.bishugui.summer.annotation.Around;
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 只拦截add方法，multiply方法不被拦截
+ * @date 2024/01/03 16:40
+ */
+@Component
+public class CalculatorService implements Calculator {
+
+    @Around("noopInterceptor")
+    @Override
+    public int add(int a, int b) {
+        return a + b;
+    }
+
+    @Override
+    public int multiply(int a, int b) {
+        return a * b;
+    }
+}
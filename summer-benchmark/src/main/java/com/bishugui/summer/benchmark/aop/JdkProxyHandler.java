@@ -0,0 +1,44 @@
+package com.bishugui.summer.benchmark.aop;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * @author bi shugui
+ * @description java.lang.reflect.Proxy的对照实现：每次调用都经过InvocationHandler，按Method判断是否拦截后反射调用原方法
+ * @date 2024/01/03 16:40
+ */
+public class JdkProxyHandler implements InvocationHandler {
+
+    private final Object target;
+    private final Set<Method> advisedMethods;
+
+    public JdkProxyHandler(Object target, Set<Method> advisedMethods) {
+        this.target = target;
+        this.advisedMethods = advisedMethods;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (this.advisedMethods.contains(method)) {
+            // 与NoopInterceptor一致，创建调用对象后只调用原方法
+            Invocation invocation = () -> invokeTarget(method, args);
+            return invocation.proceed();
+        }
+        return invokeTarget(method, args);
+    }
+
+    interface Invocation {
+        Object proceed() throws Throwable;
+    }
+
+    Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(this.target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bishugui.summer.benchmark.aop;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.aop.MethodInterceptor;
+import com.bishugui.summer.aop.MethodInvocation;
+
+/**
+ * @author bi shugui
+ * @description 只调用原方法的拦截器，测量代理本身的开销
+ * @date 2024/01/03 16:40
+ */
+@Component
+public class NoopInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return invocation.proceed();
+    }
+}
@@ -0,0 +1,25 @@
+package com.bishugui.summer.benchmark.processor;
+
+import com.bishugui.summer.context.BeanPostProcessor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author bi shugui
+ * @description 模拟统计Bean创建次数的处理器，只处理MeteredHandler
+ * @date 2024/01/02 16:13
+ */
+public class MeteredBeanPostProcessor implements BeanPostProcessor {
+    public final LongAdder created = new LongAdder();
+
+    @Override
+    public boolean supports(Class<?> beanClass) {
+        return beanClass == MeteredHandler.class;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        this.created.increment();
+        return bean;
+    }
+}
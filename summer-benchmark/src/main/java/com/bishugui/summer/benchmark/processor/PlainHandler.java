@@ -0,0 +1,14 @@
+package com.bishugui.summer.benchmark.processor;
+
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Scope;
+
+/**
+ * @author bi shugui
+ * @description 没有适用的BeanPostProcessor的prototype
+ * @date 2024/01/02 16:12
+ */
+@Component
+@Scope("prototype")
+public class PlainHandler {
+}
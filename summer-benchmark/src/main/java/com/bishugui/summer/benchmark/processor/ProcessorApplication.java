@@ -0,0 +1,12 @@
+package com.bishugui.summer.benchmark.processor;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description BeanPostProcessor基准测试启动类
+ * @date 2024/01/02 16:10
+ */
+@ComponentScan
+public class ProcessorApplication {
+}
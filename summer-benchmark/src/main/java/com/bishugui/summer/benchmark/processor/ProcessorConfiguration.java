@@ -0,0 +1,53 @@
+package com.bishugui.summer.benchmark.processor;
+
+import com.bishugui.summer.annotation.Bean;
+import com.bishugui.summer.annotation.Configuration;
+
+/**
+ * @author bi shugui
+ * @description 注册8个BeanPostProcessor，它们都只处理MeteredHandler
+ * @date 2024/01/02 16:15
+ */
+@Configuration
+public class ProcessorConfiguration {
+
+    @Bean
+    MeteredBeanPostProcessor meteredBeanPostProcessor1() {
+        return new MeteredBeanPostProcessor();
+    }
+
+    @Bean
+    MeteredBeanPostProcessor meteredBeanPostProcessor2() {
+        return new MeteredBeanPostProcessor();
+    }
+
+    @Bean
+    MeteredBeanPostProcessor meteredBeanPostProcessor3() {
+        return new MeteredBeanPostProcessor();
+    }
+
+    @Bean
+    MeteredBeanPostProcessor meteredBeanPostProcessor4() {
+        return new MeteredBeanPostProcessor();
+    }
+
+    @Bean
+    MeteredBeanPostProcessor meteredBeanPostProcessor5() {
+        return new MeteredBeanPostProcessor();
+    }
+
+    @Bean
+    MeteredBeanPostProcessor meteredBeanPostProcessor6() {
+        return new MeteredBeanPostProcessor();
+    }
+
+    @Bean
+    MeteredBeanPostProcessor meteredBeanPostProcessor7() {
+        return new MeteredBeanPostProcessor();
+    }
+
+    @Bean
+    MeteredBeanPostProcessor meteredBeanPostProcessor8() {
+        return new MeteredBeanPostProcessor();
+    }
+}
@@ -0,0 +1,17 @@
+package com.bishugui.summer.benchmark.prototype;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Scope;
+
+/**
+ * @author bi shugui
+ * @description 模拟每个请求创建的对象，通过字段注入依赖的singleton
+ * @date 2023/12/30 17:05
+ */
+@Component
+@Scope("prototype")
+public class FieldRequestHandler {
+    @Autowired
+    SharedService sharedService;
+}
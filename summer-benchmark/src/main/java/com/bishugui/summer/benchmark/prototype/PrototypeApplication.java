@@ -0,0 +1,12 @@
+package com.bishugui.summer.benchmark.prototype;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description prototype基准测试启动类
+ * @date 2023/12/17 16:02
+ */
+@ComponentScan
+public class PrototypeApplication {
+}
@@ -0,0 +1,20 @@
+package com.bishugui.summer.benchmark.prototype;
+
+import com.bishugui.summer.annotation.Autowired;
+import com.bishugui.summer.annotation.Component;
+import com.bishugui.summer.annotation.Scope;
+
+/**
+ * @author bi shugui
+ * @description 模拟每个请求创建的对象，依赖一个singleton
+ * @date 2023/12/17 16:03
+ */
+@Component
+@Scope("prototype")
+public class RequestHandler {
+    final SharedService sharedService;
+
+    public RequestHandler(@Autowired SharedService sharedService) {
+        this.sharedService = sharedService;
+    }
+}
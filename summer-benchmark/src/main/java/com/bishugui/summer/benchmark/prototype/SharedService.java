@@ -0,0 +1,12 @@
+package com.bishugui.summer.benchmark.prototype;
+
+import com.bishugui.summer.annotation.Component;
+
+/**
+ * @author bi shugui
+ * @description 被prototype依赖的singleton
+ * @date 2023/12/17 16:03
+ */
+@Component
+public class SharedService {
+}
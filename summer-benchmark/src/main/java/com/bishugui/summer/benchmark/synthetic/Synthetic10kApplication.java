@@ -0,0 +1,12 @@
+package com.bishugui.summer.benchmark.synthetic;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description 扫描所有合成组件(10个包，10000个组件)的启动类
+ * @date 2023/12/24 15:43
+ */
+@ComponentScan("com.bishugui.summer.benchmark.synthetic")
+public class Synthetic10kApplication {
+}
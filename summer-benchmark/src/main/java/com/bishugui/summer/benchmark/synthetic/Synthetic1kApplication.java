@@ -0,0 +1,12 @@
+package com.bishugui.summer.benchmark.synthetic;
+
+import com.bishugui.summer.annotation.ComponentScan;
+
+/**
+ * @author bi shugui
+ * @description 扫描1个包(1000个合成组件)的启动类
+ * @date 2023/12/24 15:42
+ */
+@ComponentScan("com.bishugui.summer.benchmark.synthetic.p0")
+public class Synthetic1kApplication {
+}
@@ -0,0 +1,44 @@
+package com.bishugui.summer.benchmark.synthetic;
+
+import com.bishugui.summer.io.PropertyResolver;
+
+import java.util.Properties;
+
+/**
+ * @author bi shugui
+ * @description 按基准测试参数获取合成组件的启动类
+ * @date 2023/12/24 15:45
+ */
+public class SyntheticApplications {
+
+    /**
+     * @param components 组件数量：1k、10k
+     * @return 启动类
+     */
+    public static Class<?> of(String components) {
+        return switch (components) {
+            case "1k" -> Synthetic1kApplication.class;
+            case "10k" -> Synthetic10kApplication.class;
+            default -> throw new IllegalArgumentException("Unsupported component count: " + components);
+        };
+    }
+
+    /**
+     * 1k、10k启动类都会扫描的p0包中，位于中间位置的组件，按生成参数计算
+     * @return 组件的全限定类名
+     */
+    public static String sampleComponentClassName() {
+        return SyntheticApplications.class.getPackageName() + ".p0.Component" + SyntheticLayout.COMPONENTS_PER_PACKAGE / 2;
+    }
+
+    /**
+     * @return sampleComponentClassName()对应的Bean名称
+     */
+    public static String sampleComponentBeanName() {
+        return "component" + SyntheticLayout.COMPONENTS_PER_PACKAGE / 2;
+    }
+
+    public static PropertyResolver emptyPropertyResolver() {
+        return new PropertyResolver(new Properties());
+    }
+}
@@ -0,0 +1,9 @@
+package com.bishugui.summer.benchmark.synthetic;
+
+/**
+ * @author bi shugui
+ * @description 所有构建时生成的合成组件都实现该接口，用于getBeans(Class)基准测试
+ * @date 2023/12/24 15:40
+ */
+public interface SyntheticComponent {
+}
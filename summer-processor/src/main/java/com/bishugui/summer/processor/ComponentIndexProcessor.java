@@ -0,0 +1,398 @@
+package com.bishugui.summer.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @author bi shugui
+ * @description 组件索引注解处理器，编译期生成META-INF/summer.components
+ * 规则与AnnotationConfigApplicationContext运行时扫描保持一致：@Component(含元注解)、Bean名称、@Order、@Primary、
+ * 构造方法的选择、@PostConstruct/@PreDestroy方法、@Configuration中的@Bean方法
+ * 增量编译时只处理本次编译的类，输出目录中已有索引的其他类(class文件仍存在)会保留，不会被覆盖丢失
+ * @date 2023/12/12 21:30
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+    static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/summer.components";
+
+    static final String COMPONENT = "com.bishugui.summer.annotation.Component";
+    static final String CONFIGURATION_PROPERTIES = "com.bishugui.summer.annotation.ConfigurationProperties";
+    static final String CONFIGURATION = "com.bishugui.summer.annotation.Configuration";
+    static final String BEAN = "com.bishugui.summer.annotation.Bean";
+    static final String ORDER = "com.bishugui.summer.annotation.Order";
+    static final String PRIMARY = "com.bishugui.summer.annotation.Primary";
+    static final String POST_CONSTRUCT = "jakarta.annotation.PostConstruct";
+    static final String PRE_DESTROY = "jakarta.annotation.PreDestroy";
+
+    /**
+     * Map<className, 索引行>，按Class名字排序保证输出稳定
+     */
+    final Map<String, String> entries = new TreeMap<>();
+
+    /**
+     * 本次编译处理过的所有类(含不是组件的类)，上次索引中这些类的条目以本次结果为准
+     */
+    final Set<String> processedTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            processType(element);
+        }
+        if (roundEnv.processingOver() && !this.processedTypes.isEmpty()) {
+            writeIndex();
+        }
+        // 不声明消费任何注解
+        return false;
+    }
+
+    void processType(Element element) {
+        if (!(element instanceof TypeElement type)) {
+            return;
+        }
+        this.processedTypes.add(binaryName(type));
+        // 与运行时一致：注解、枚举、接口、record都不是Bean，@ConfigurationProperties标注的record除外
+        if (type.getKind() == ElementKind.CLASS
+                || (type.getKind() == ElementKind.RECORD && getDirectAnnotation(type, CONFIGURATION_PROPERTIES) != null)) {
+            try {
+                AnnotationMirror component = findAnnotation(type, COMPONENT, new HashSet<>());
+                if (component != null) {
+                    this.entries.put(binaryName(type), createEntry(type));
+                }
+            } catch (IndexException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            }
+        }
+        // 嵌套类
+        for (Element enclosed : type.getEnclosedElements()) {
+            processType(enclosed);
+        }
+    }
+
+    String createEntry(TypeElement type) {
+        String beanName = getBeanName(type);
+        StringBuilder sb = new StringBuilder();
+        appendLine(sb, "C",
+                binaryName(type),
+                beanName,
+                String.valueOf(getOrder(type)),
+                String.valueOf(getDirectAnnotation(type, PRIMARY) != null),
+                String.join(",", getSuitableConstructorParameterTypes(type)),
+                nullToEmpty(findAnnotationMethod(type, POST_CONSTRUCT)),
+                nullToEmpty(findAnnotationMethod(type, PRE_DESTROY)));
+        if (findAnnotation(type, CONFIGURATION, new HashSet<>()) != null) {
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                AnnotationMirror bean = getDirectAnnotation(method, BEAN);
+                if (bean != null) {
+                    appendFactoryMethod(sb, type, method, bean);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    void appendFactoryMethod(StringBuilder sb, TypeElement type, ExecutableElement method, AnnotationMirror bean) {
+        String location = type.getQualifiedName() + "." + method.getSimpleName();
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT)) {
+            throw new IndexException("@Bean不能作用在abstract方法; @Bean method " + location + " must not be abstract.", method);
+        }
+        if (modifiers.contains(Modifier.FINAL)) {
+            throw new IndexException("@Bean不能作用在final方法; @Bean method " + location + " must not be final.", method);
+        }
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            throw new IndexException("@Bean不能作用在private方法; @Bean method " + location + " must not be private.", method);
+        }
+        TypeMirror returnType = method.getReturnType();
+        if (returnType.getKind().isPrimitive()) {
+            throw new IndexException("@Bean的方法返回值不能是基本类型; @Bean method " + location + " must not return primitive type.", method);
+        }
+        if (returnType.getKind() == TypeKind.VOID || "java.lang.Void".equals(returnType.toString())) {
+            throw new IndexException("@Bean的方法返回值不能是空; @Bean method " + location + " must not return void.", method);
+        }
+        String beanName = getStringValue(bean, "value");
+        List<String> parameterTypes = method.getParameters().stream().map(parameter -> typeName(parameter.asType())).toList();
+        appendLine(sb, "B",
+                beanName.isBlank() ? method.getSimpleName().toString() : beanName,
+                method.getSimpleName().toString(),
+                String.join(",", parameterTypes),
+                String.valueOf(getOrder(method)),
+                String.valueOf(getDirectAnnotation(method, PRIMARY) != null),
+                getStringValue(bean, "initMethod"),
+                getStringValue(bean, "destroyMethod"));
+    }
+
+    static void appendLine(StringBuilder sb, String... fields) {
+        sb.append(String.join("\t", fields)).append('\n');
+    }
+
+    void writeIndex() {
+        Map<String, String> previousEntries = readPreviousIndex();
+        Map<String, String> mergedEntries = new TreeMap<>(this.entries);
+        previousEntries.forEach((className, entry) -> {
+            // 本次未编译且class文件仍存在的类保留上次的条目，已删除的类丢弃
+            if (!this.processedTypes.contains(className) && classFileExists(className)) {
+                mergedEntries.putIfAbsent(className, entry);
+            }
+        });
+        if (mergedEntries.isEmpty() && previousEntries.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", COMPONENTS_RESOURCE_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + ", do not edit.\n");
+                for (String entry : mergedEntries.values()) {
+                    writer.write(entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 读取输出目录中上次生成的索引
+     * @return Map<className, 索引行(C行及其后的B行)>，不存在时为空
+     */
+    Map<String, String> readPreviousIndex() {
+        Map<String, String> previousEntries = new LinkedHashMap<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", COMPONENTS_RESOURCE_LOCATION);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String className = null;
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (line.isBlank() || line.startsWith("#")) {
+                        continue;
+                    }
+                    if (line.startsWith("C\t")) {
+                        className = line.split("\t", 3)[1];
+                    }
+                    if (className != null) {
+                        previousEntries.merge(className, line + "\n", String::concat);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译，没有上次的索引
+        }
+        return previousEntries;
+    }
+
+    boolean classFileExists(String className) {
+        int index = className.lastIndexOf('.');
+        String packageName = index < 0 ? "" : className.substring(0, index);
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, packageName, className.substring(index + 1) + ".class");
+            try (InputStream ignored = file.openInputStream()) {
+                return true;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 递归查找注解，与ClassUtils.findAnnotation规则一致
+     */
+    AnnotationMirror findAnnotation(Element target, String annotationName, Set<String> visiting) {
+        AnnotationMirror annotation = getDirectAnnotation(target, annotationName);
+        for (AnnotationMirror mirror : target.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            String qualifiedName = annotationType.getQualifiedName().toString();
+            // 非java.lang.annotation包下的注解,java自带的注解不扫描
+            if (qualifiedName.startsWith("java.lang.annotation.") || !visiting.add(qualifiedName)) {
+                continue;
+            }
+            AnnotationMirror sonAnnotation = findAnnotation(annotationType, annotationName, visiting);
+            visiting.remove(qualifiedName);
+            if (sonAnnotation != null) {
+                if (annotation != null) {
+                    throw new IndexException("Duplicate @" + simpleName(annotationName) + " found on class " + target.getSimpleName(), target);
+                }
+                annotation = sonAnnotation;
+            }
+        }
+        return annotation;
+    }
+
+    static AnnotationMirror getDirectAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bean名称，与ClassUtils.getBeanName规则一致
+     */
+    String getBeanName(TypeElement type) {
+        String name = "";
+        AnnotationMirror component = getDirectAnnotation(type, COMPONENT);
+        if (component != null) {
+            name = getStringValue(component, "value");
+        } else {
+            // 未找到@Component，继续在其他注解中查找@Component:
+            for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+                // @ConfigurationProperties的value是属性前缀，不是Bean名称
+                if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(CONFIGURATION_PROPERTIES)
+                        && findAnnotation(mirror.getAnnotationType().asElement(), COMPONENT, new HashSet<>()) != null) {
+                    name = getStringValue(mirror, "value");
+                }
+            }
+        }
+        if (name.isBlank()) {
+            // 默认名称: "HelloWorld" => "helloWorld"
+            name = type.getSimpleName().toString();
+            name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+        return name;
+    }
+
+    static int getOrder(Element element) {
+        AnnotationMirror order = getDirectAnnotation(element, ORDER);
+        if (order == null) {
+            return Integer.MAX_VALUE;
+        }
+        return (Integer) getValue(order, "value");
+    }
+
+    /**
+     * 构造方法选择，与AnnotationConfigApplicationContext.getSuitableConstructor规则一致
+     */
+    List<String> getSuitableConstructorParameterTypes(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        List<ExecutableElement> publicConstructors = constructors.stream().filter(c -> c.getModifiers().contains(Modifier.PUBLIC)).toList();
+        if (publicConstructors.isEmpty()) {
+            if (constructors.size() != 1) {
+                throw new IndexException("构造函数不唯一; More than one constructor found in class " + type.getQualifiedName() + ".", type);
+            }
+            publicConstructors = constructors;
+        }
+        if (publicConstructors.size() != 1) {
+            throw new IndexException("构造函数不唯一; More than one public constructor found in class " + type.getQualifiedName() + ".", type);
+        }
+        List<String> parameterTypes = new ArrayList<>();
+        // 非静态内部类的构造方法隐含外部类实例参数
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            parameterTypes.add(binaryName((TypeElement) type.getEnclosingElement()));
+        }
+        for (VariableElement parameter : publicConstructors.get(0).getParameters()) {
+            parameterTypes.add(typeName(parameter.asType()));
+        }
+        return parameterTypes;
+    }
+
+    /**
+     * 查找@PostConstruct/@PreDestroy方法，与ClassUtils.findAnnotationMethod规则一致
+     */
+    String findAnnotationMethod(TypeElement type, String annotationName) {
+        List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                .filter(method -> getDirectAnnotation(method, annotationName) != null).toList();
+        for (ExecutableElement method : methods) {
+            if (!method.getParameters().isEmpty()) {
+                throw new IndexException(String.format("Method '%s' with @%s must not have argument: %s",
+                        method.getSimpleName(), simpleName(annotationName), type.getQualifiedName()), method);
+            }
+        }
+        if (methods.size() > 1) {
+            throw new IndexException(String.format("Multiple methods with @%s found in class: %s", simpleName(annotationName), type.getQualifiedName()), type);
+        }
+        return methods.isEmpty() ? null : methods.get(0).getSimpleName().toString();
+    }
+
+    /**
+     * 类型名称，与Class.getName()格式一致，以便运行时Class.forName加载
+     */
+    String typeName(TypeMirror type) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        if (erasure.getKind().isPrimitive()) {
+            return erasure.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        if (erasure.getKind() == TypeKind.ARRAY) {
+            return "[" + descriptor(((ArrayType) erasure).getComponentType());
+        }
+        return binaryName((TypeElement) ((DeclaredType) erasure).asElement());
+    }
+
+    String descriptor(TypeMirror type) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        return switch (erasure.getKind()) {
+            case BOOLEAN -> "Z";
+            case BYTE -> "B";
+            case CHAR -> "C";
+            case SHORT -> "S";
+            case INT -> "I";
+            case LONG -> "J";
+            case FLOAT -> "F";
+            case DOUBLE -> "D";
+            case ARRAY -> "[" + descriptor(((ArrayType) erasure).getComponentType());
+            default -> "L" + binaryName((TypeElement) ((DeclaredType) erasure).asElement()) + ";";
+        };
+    }
+
+    String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    String getStringValue(AnnotationMirror mirror, String name) {
+        Object value = getValue(mirror, name);
+        return value == null ? "" : value.toString();
+    }
+
+    static Object getValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        // 未显式设置，使用默认值
+        for (ExecutableElement method : ElementFilter.methodsIn(mirror.getAnnotationType().asElement().getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(name) && method.getDefaultValue() != null) {
+                return method.getDefaultValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    static String simpleName(String qualifiedName) {
+        return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+    }
+
+    static String nullToEmpty(String str) {
+        return str == null ? "" : str;
+    }
+
+    /**
+     * 索引生成错误，报告到具体的Element
+     */
+    static class IndexException extends RuntimeException {
+        final transient Element element;
+
+        IndexException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
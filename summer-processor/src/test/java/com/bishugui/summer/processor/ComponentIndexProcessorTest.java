@@ -0,0 +1,219 @@
+package com.bishugui.summer.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.*;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author bi shugui
+ * @description 测试 ComponentIndexProcessor：用javax.tools编译内存中的源码并运行注解处理器，检查生成的索引
+ * @date 2024/01/04 10:20
+ */
+public class ComponentIndexProcessorTest {
+
+    /**
+     * 与summerFramework同名的注解，注解处理器只按名字识别
+     */
+    static final String[][] ANNOTATIONS = {
+            {"com.bishugui.summer.annotation.Component", """
+                    package com.bishugui.summer.annotation;
+                    import java.lang.annotation.*;
+                    @Target(ElementType.TYPE) @Retention(RetentionPolicy.RUNTIME)
+                    public @interface Component { String value() default ""; }
+                    """},
+            {"com.bishugui.summer.annotation.Configuration", """
+                    package com.bishugui.summer.annotation;
+                    import java.lang.annotation.*;
+                    @Target(ElementType.TYPE) @Retention(RetentionPolicy.RUNTIME) @Component
+                    public @interface Configuration { String value() default ""; }
+                    """},
+            {"com.bishugui.summer.annotation.Bean", """
+                    package com.bishugui.summer.annotation;
+                    import java.lang.annotation.*;
+                    @Target(ElementType.METHOD) @Retention(RetentionPolicy.RUNTIME)
+                    public @interface Bean { String value() default ""; String initMethod() default ""; String destroyMethod() default ""; }
+                    """},
+            {"com.bishugui.summer.annotation.Order", """
+                    package com.bishugui.summer.annotation;
+                    import java.lang.annotation.*;
+                    @Retention(RetentionPolicy.RUNTIME)
+                    public @interface Order { int value(); }
+                    """},
+            {"com.bishugui.summer.annotation.Primary", """
+                    package com.bishugui.summer.annotation;
+                    import java.lang.annotation.*;
+                    @Retention(RetentionPolicy.RUNTIME)
+                    public @interface Primary { }
+                    """},
+            {"com.bishugui.summer.annotation.ConfigurationProperties", """
+                    package com.bishugui.summer.annotation;
+                    import java.lang.annotation.*;
+                    @Target(ElementType.TYPE) @Retention(RetentionPolicy.RUNTIME) @Component
+                    public @interface ConfigurationProperties { String value() default ""; String prefix() default ""; }
+                    """},
+            {"jakarta.annotation.PostConstruct", """
+                    package jakarta.annotation;
+                    import java.lang.annotation.*;
+                    @Target(ElementType.METHOD) @Retention(RetentionPolicy.RUNTIME)
+                    public @interface PostConstruct { }
+                    """},
+    };
+
+    static final String[] SERVICE = {"com.app.Service", """
+            package com.app;
+            import com.bishugui.summer.annotation.*;
+            @Component("myService") @Order(1) @Primary
+            public class Service {
+                public Service(String name, int[] sizes) { }
+                @jakarta.annotation.PostConstruct void init() { }
+            }
+            """};
+
+    static final String[] CONFIG = {"com.app.config.AppConfig", """
+            package com.app.config;
+            import com.bishugui.summer.annotation.*;
+            @Configuration
+            public class AppConfig {
+                @Primary @Bean(initMethod = "start") Object clock(com.app.Service service) { return new Object(); }
+                public static class Nested { }
+                @Component public static class NestedBean { }
+            }
+            """};
+
+    static final String[] HELPER = {"com.app.Helper", """
+            package com.app;
+            public class Helper { }
+            """};
+
+    @TempDir
+    Path output;
+
+    @Test
+    public void generateIndex() throws IOException {
+        assertTrue(compile(withAnnotations(SERVICE, CONFIG, HELPER)).isEmpty());
+
+        assertEquals(List.of(
+                "# Generated by com.bishugui.summer.processor.ComponentIndexProcessor, do not edit.",
+                "C\tcom.app.Service\tmyService\t1\ttrue\tjava.lang.String,[I\tinit\t",
+                "C\tcom.app.config.AppConfig\tappConfig\t2147483647\tfalse\t\t\t",
+                "B\tclock\tclock\tcom.app.Service\t2147483647\ttrue\tstart\t",
+                "C\tcom.app.config.AppConfig$NestedBean\tnestedBean\t2147483647\tfalse\t\t\t"
+        ), readIndex());
+    }
+
+    @Test
+    public void reportInvalidBeanMethod() {
+        String[] invalid = {"com.app.Invalid", """
+                package com.app;
+                import com.bishugui.summer.annotation.*;
+                @Configuration
+                public class Invalid {
+                    @Bean private Object hidden() { return null; }
+                }
+                """};
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(withAnnotations(invalid));
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage(Locale.ROOT).contains("must not be private"));
+    }
+
+    /**
+     * @ConfigurationProperties的前缀不作为Bean名称
+     */
+    @Test
+    public void configurationPropertiesBeanName() throws IOException {
+        String[] dataSource = {"com.app.DataSourceProperties", """
+                package com.app;
+                @com.bishugui.summer.annotation.ConfigurationProperties("summer.datasource")
+                public record DataSourceProperties(String url) { }
+                """};
+        String[] pool = {"com.app.PoolProperties", """
+                package com.app;
+                @com.bishugui.summer.annotation.ConfigurationProperties(prefix = "summer.datasource")
+                public record PoolProperties(int maxSize) { }
+                """};
+        assertTrue(compile(withAnnotations(dataSource, pool)).isEmpty());
+        List<String> index = readIndex();
+        assertEquals(3, index.size());
+        assertTrue(index.get(1).startsWith("C\tcom.app.DataSourceProperties\tdataSourceProperties\t"));
+        assertTrue(index.get(2).startsWith("C\tcom.app.PoolProperties\tpoolProperties\t"));
+    }
+
+    /**
+     * 增量编译只编译部分类时，输出目录中其他类的条目保留，已删除的类与不再是组件的类被移除
+     */
+    @Test
+    public void mergeIncrementalCompilation() throws IOException {
+        assertTrue(compile(withAnnotations(SERVICE, CONFIG, HELPER)).isEmpty());
+
+        // 只重新编译Helper，并使其成为组件
+        String[] componentHelper = {"com.app.Helper", """
+                package com.app;
+                @com.bishugui.summer.annotation.Component
+                public class Helper { }
+                """};
+        assertTrue(compile(componentHelper).isEmpty());
+        List<String> index = readIndex();
+        assertTrue(index.contains("C\tcom.app.Helper\thelper\t2147483647\tfalse\t\t\t"));
+        assertTrue(index.contains("C\tcom.app.Service\tmyService\t1\ttrue\tjava.lang.String,[I\tinit\t"));
+        assertTrue(index.contains("B\tclock\tclock\tcom.app.Service\t2147483647\ttrue\tstart\t"));
+
+        // Service不再是组件; AppConfig的class文件被删除
+        String[] plainService = {"com.app.Service", """
+                package com.app;
+                public class Service { }
+                """};
+        Files.delete(this.output.resolve("com/app/config/AppConfig.class"));
+        assertTrue(compile(plainService).isEmpty());
+        assertEquals(List.of(
+                "# Generated by com.bishugui.summer.processor.ComponentIndexProcessor, do not edit.",
+                "C\tcom.app.Helper\thelper\t2147483647\tfalse\t\t\t",
+                "C\tcom.app.config.AppConfig$NestedBean\tnestedBean\t2147483647\tfalse\t\t\t"
+        ), readIndex());
+    }
+
+    static String[][] withAnnotations(String[]... sources) {
+        return Stream.concat(Arrays.stream(ANNOTATIONS), Arrays.stream(sources)).toArray(String[][]::new);
+    }
+
+    /**
+     * 编译源码并运行ComponentIndexProcessor，之前编译的类在classpath上
+     * @param sources 每个元素为{类名, 源码}
+     * @return 编译错误
+     */
+    List<Diagnostic<? extends JavaFileObject>> compile(String[]... sources) {
+        List<JavaFileObject> files = Arrays.stream(sources).map(source -> sourceFile(source[0], source[1])).toList();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> options = List.of("-d", this.output.toString(), "-classpath", this.output.toString());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, files);
+        task.setProcessors(List.of(new ComponentIndexProcessor()));
+        task.call();
+        return diagnostics.getDiagnostics().stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR).toList();
+    }
+
+    List<String> readIndex() throws IOException {
+        return Files.readAllLines(this.output.resolve(ComponentIndexProcessor.COMPONENTS_RESOURCE_LOCATION), StandardCharsets.UTF_8);
+    }
+
+    static JavaFileObject sourceFile(String className, String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}